@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+
+# Runs the JMH benchmarks and records the results as the benchmark baseline, together with the
+# environment they were recorded on.
+#
+# Usage: hack/benchmark_baseline.sh [benchmark include pattern]
+
+set -o errexit
+set -o nounset
+set -o pipefail
+
+REPO_ROOT="$(git rev-parse --show-toplevel)"
+declare -r REPO_ROOT
+cd "${REPO_ROOT}"
+
+declare -r BASELINE_DIR="${REPO_ROOT}/docs/benchmark"
+
+git submodule update --init
+
+if [[ $# -gt 0 ]]; then
+  ./gradlew jmh -PjmhIncludes="$1"
+else
+  ./gradlew jmh
+fi
+
+cp build/results/jmh/results.json "${BASELINE_DIR}/baseline.json"
+
+cpu="$(grep -m 1 'model name' /proc/cpuinfo 2>/dev/null | cut -d ':' -f 2 | xargs || true)"
+if [[ -z "${cpu}" ]]; then
+  cpu="$(sysctl -n machdep.cpu.brand_string 2>/dev/null || uname -m)"
+fi
+memory="$(free -h 2>/dev/null | awk '/^Mem:/ {print $2}' || true)"
+if [[ -z "${memory}" ]]; then
+  memory="$(($(sysctl -n hw.memsize) / 1024 / 1024 / 1024))G"
+fi
+
+cat > "${BASELINE_DIR}/baseline-environment.md" <<EOF
+| Item | Value |
+| --- | --- |
+| Commit | $(git rev-parse --short HEAD) |
+| Date | $(date -u +%Y-%m-%d) |
+| CPU | ${cpu} ($(getconf _NPROCESSORS_ONLN) threads) |
+| Memory | ${memory} |
+| OS | $(uname -sr) |
+| JDK | $(java -version 2>&1 | head -n 1) |
+EOF
+
+echo "Baseline written to ${BASELINE_DIR}/baseline.json and ${BASELINE_DIR}/baseline-environment.md"
@@ -0,0 +1,182 @@
+package run.halo.app;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import run.halo.app.controller.admin.api.InstallController;
+import run.halo.app.model.entity.Category;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.params.InstallParam;
+import run.halo.app.model.params.PostParam;
+import run.halo.app.model.vo.PostListVO;
+import run.halo.app.service.CategoryService;
+import run.halo.app.service.PostService;
+import run.halo.app.service.TagService;
+import run.halo.app.service.assembler.PostAssembler;
+import run.halo.app.utils.FileUtils;
+
+/**
+ * Cost of assembling post list views and rendering pages of the bundled default theme, against
+ * an in-memory H2 database seeded with a fixed blog.
+ *
+ * <p>The default theme is a git submodule, run {@code git submodule update --init} before
+ * running this benchmark. Rendered pages are not cached, so every invocation queries the
+ * database and renders the template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogBenchmark {
+
+    private static final int POSTS = 50;
+
+    private static final int TAGS = 20;
+
+    private static final int CATEGORIES = 5;
+
+    private ConfigurableApplicationContext context;
+
+    private Path workDir;
+
+    private MockMvc mockMvc;
+
+    private PostAssembler postAssembler;
+
+    private Page<Post> latestPosts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("halo-benchmark-");
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:halo-benchmark");
+        properties.put("spring.datasource.username", "admin");
+        properties.put("spring.datasource.password", "123456");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.file.path", workDir.resolve("logs").toString());
+        properties.put("halo.work-dir", workDir.toString() + "/");
+        properties.put("halo.cache", "memory");
+        properties.put("halo.page-cache-enabled", false);
+
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setDefaultProperties(properties);
+        context = application.run();
+
+        seed();
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        postAssembler = context.getBean("postAssembler", PostAssembler.class);
+        latestPosts = context.getBean(PostService.class).pageLatest(10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        FileUtils.deleteFolderQuietly(workDir);
+    }
+
+    @Benchmark
+    public Page<PostListVO> convertToListVo() {
+        return postAssembler.convertToListVo(latestPosts);
+    }
+
+    @Benchmark
+    public int renderIndex() throws Exception {
+        return render("/");
+    }
+
+    @Benchmark
+    public int renderPost() throws Exception {
+        return render("/archives/benchmark-post-1");
+    }
+
+    private int render(String uri) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri)).andReturn();
+        if (result.getResponse().getStatus() != 200) {
+            throw new IllegalStateException(
+                "Rendering " + uri + " failed with status " + result.getResponse().getStatus());
+        }
+        return result.getResponse().getContentAsByteArray().length;
+    }
+
+    private void seed() {
+        InstallParam installParam = new InstallParam();
+        installParam.setTitle("Halo Benchmark");
+        installParam.setUrl("http://127.0.0.1:8090");
+        installParam.setUsername("benchmark");
+        installParam.setNickname("Benchmark");
+        installParam.setEmail("benchmark@halo.run");
+        installParam.setPassword("benchmark-password");
+        context.getBean(InstallController.class).installBlog(installParam);
+
+        TagService tagService = context.getBean(TagService.class);
+        Integer[] tagIds = new Integer[TAGS];
+        for (int i = 0; i < TAGS; i++) {
+            Tag tag = new Tag();
+            tag.setName("Tag " + i);
+            tag.setSlug("benchmark-tag-" + i);
+            tagIds[i] = tagService.create(tag).getId();
+        }
+
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        Integer[] categoryIds = new Integer[CATEGORIES];
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            category.setSlug("benchmark-category-" + i);
+            categoryIds[i] = categoryService.create(category).getId();
+        }
+
+        PostService postService = context.getBean(PostService.class);
+        for (int i = 1; i <= POSTS; i++) {
+            PostParam postParam = new PostParam();
+            postParam.setTitle("Benchmark post " + i);
+            postParam.setSlug("benchmark-post-" + i);
+            postParam.setStatus(PostStatus.PUBLISHED);
+            postParam.setOriginalContent(SampleContents.markdown(10, i));
+            Set<Integer> postTagIds = new HashSet<>();
+            postTagIds.add(tagIds[i % TAGS]);
+            postTagIds.add(tagIds[(i * 7) % TAGS]);
+            postTagIds.add(tagIds[(i * 13) % TAGS]);
+            postService.createBy(postParam.convertTo(), postTagIds,
+                Set.of(categoryIds[i % CATEGORIES]), false);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package run.halo.app;
+
+import java.util.Random;
+
+/**
+ * Deterministic sample contents shared by benchmarks, so that results of different runs are
+ * comparable.
+ */
+public final class SampleContents {
+
+    private static final String[] WORDS = {"halo", "blog", "theme", "markdown", "post", "cache",
+        "render", "comment", "category", "tag", "attachment", "journal", "sheet", "option"};
+
+    private static final String CJK = "如果你看到了这一篇文章那么证明你已经安装成功了感谢使用进行创作希望能够使用愉快";
+
+    private SampleContents() {
+    }
+
+    /**
+     * Generates a markdown article mixing headings, paragraphs of latin and cjk text, lists,
+     * tables, code blocks and links.
+     *
+     * @param sections number of sections of the article
+     * @param seed random seed
+     * @return markdown article
+     */
+    public static String markdown(int sections, long seed) {
+        Random random = new Random(seed);
+        StringBuilder markdown = new StringBuilder();
+        for (int section = 1; section <= sections; section++) {
+            markdown.append("## Section ").append(section).append("\n\n");
+            markdown.append(sentence(random, 40)).append(" [link](https://halo.run/")
+                .append(section).append(") **").append(sentence(random, 3)).append("**\n\n");
+            markdown.append(CJK, 0, 10 + random.nextInt(CJK.length() - 10)).append("。\n\n");
+            for (int item = 0; item < 3; item++) {
+                markdown.append("- ").append(sentence(random, 6)).append('\n');
+            }
+            markdown.append("\n| name | value |\n| --- | --- |\n");
+            for (int row = 0; row < 3; row++) {
+                markdown.append("| ").append(WORDS[random.nextInt(WORDS.length)]).append(" | ")
+                    .append(random.nextInt(1000)).append(" |\n");
+            }
+            markdown.append("\n```java\nString value = \"").append(sentence(random, 4))
+                .append("\";\n```\n\n");
+        }
+        return markdown.toString();
+    }
+
+    /**
+     * Revises a markdown article as an editor would: some lines are changed, some removed and
+     * some added.
+     *
+     * @param markdown markdown article
+     * @param seed random seed
+     * @return revised markdown article
+     */
+    public static String revise(String markdown, long seed) {
+        Random random = new Random(seed);
+        StringBuilder revised = new StringBuilder();
+        for (String line : markdown.split("\n", -1)) {
+            int dice = random.nextInt(20);
+            if (dice == 0) {
+                continue;
+            }
+            if (dice == 1) {
+                revised.append(sentence(random, 10)).append('\n');
+            }
+            revised.append(dice == 2 ? sentence(random, 8) : line).append('\n');
+        }
+        return revised.toString();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package run.halo.app.cache;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.utils.FileUtils;
+
+/**
+ * Cost of reading and writing the string cache store, for every implementation selectable by
+ * {@code halo.cache}. Redis stores run against an embedded redis server on a free local port.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class CacheStoreBenchmark {
+
+    private static final int KEYS = 1024;
+
+    @Param({"memory", "level", "redis", "redis-near"})
+    public String store;
+
+    private final String[] keys = new String[KEYS];
+
+    private String value;
+
+    private AbstractStringCacheStore cacheStore;
+
+    private Path workDir;
+
+    private RedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "cache_store_benchmark:" + i;
+        }
+        // About the size of a cached options map
+        value = "v".repeat(2048);
+
+        switch (store) {
+            case "memory":
+                cacheStore = new InMemoryCacheStore();
+                break;
+            case "level":
+                workDir = Files.createTempDirectory("halo-benchmark-");
+                HaloProperties haloProperties = new HaloProperties();
+                haloProperties.setWorkDir(workDir.toString() + "/");
+                LevelCacheStore levelCacheStore = new LevelCacheStore(haloProperties);
+                levelCacheStore.init();
+                cacheStore = levelCacheStore;
+                break;
+            case "redis":
+                cacheStore = new RedisCacheStore(startRedis());
+                break;
+            case "redis-near":
+                cacheStore = new RedisNearCacheStore(startRedis(), 10_000,
+                    64 * 1024 * 1024, Duration.ofMinutes(1));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cache store: " + store);
+        }
+
+        for (String key : keys) {
+            cacheStore.put(key, value);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (cacheStore instanceof InMemoryCacheStore) {
+            ((InMemoryCacheStore) cacheStore).preDestroy();
+        } else if (cacheStore instanceof LevelCacheStore) {
+            ((LevelCacheStore) cacheStore).preDestroy();
+        } else if (cacheStore instanceof RedisNearCacheStore) {
+            ((RedisNearCacheStore) cacheStore).preDestroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+        FileUtils.deleteFolderQuietly(workDir);
+    }
+
+    @Benchmark
+    public Object get() {
+        return cacheStore.get(randomKey());
+    }
+
+    @Benchmark
+    public void put() {
+        cacheStore.put(randomKey(), value, 1, TimeUnit.HOURS);
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    }
+
+    private StringRedisTemplate startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.builder().port(port).build();
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory("127.0.0.1", port);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+}
@@ -0,0 +1,102 @@
+package run.halo.app.security.support;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Per-request cost of deciding which authentication filters apply to a request uri, by
+ * matching every ant pattern of the filters or by walking their compiled tries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlPatternMatchBenchmark {
+
+    private static final List<FilterPatterns> FILTERS = List.of(
+        new FilterPatterns(
+            List.of("/**"),
+            List.of("/admin/**", "/api/**", "/install", "/version", "/js/**", "/css/**")),
+        new FilterPatterns(
+            List.of("/api/content/**"),
+            List.of("/api/content/**/comments", "/api/content/**/comments/**",
+                "/api/content/options/comment", "/api/content/journals/*/likes",
+                "/api/content/posts/*/likes")),
+        new FilterPatterns(
+            List.of("/api/admin/**", "/api/content/comments"),
+            List.of("/api/admin/login", "/api/admin/refresh/*", "/api/admin/installations",
+                "/api/admin/migrations/halo", "/api/admin/is_installed",
+                "/api/admin/password/code", "/api/admin/password/reset",
+                "/api/admin/login/precheck")));
+
+    @Param({"/archives/hello-halo", "/api/content/posts/12/comments/3/children",
+        "/api/admin/posts/12/status/PUBLISHED", "/js/app.js"})
+    public String requestUri;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private UrlPatternTrie[] tries;
+
+    @Setup
+    public void setUp() {
+        tries = FILTERS.stream()
+            .map(filter -> {
+                UrlPatternTrie trie = new UrlPatternTrie();
+                filter.urlPatterns.forEach(pattern -> trie.add(pattern, 1));
+                filter.excludeUrlPatterns.forEach(pattern -> trie.add(pattern, 2));
+                return trie;
+            })
+            .toArray(UrlPatternTrie[]::new);
+    }
+
+    @Benchmark
+    public int antPathMatcher() {
+        int filtered = 0;
+        for (FilterPatterns filter : FILTERS) {
+            boolean excluded = filter.excludeUrlPatterns.stream()
+                .anyMatch(pattern -> antPathMatcher.match(pattern, requestUri));
+            if (!excluded && filter.urlPatterns.stream()
+                .anyMatch(pattern -> antPathMatcher.match(pattern, requestUri))) {
+                filtered++;
+            }
+        }
+        return filtered;
+    }
+
+    @Benchmark
+    public int urlPatternTrie() {
+        int filtered = 0;
+        for (UrlPatternTrie trie : tries) {
+            if (trie.match(requestUri) == 1) {
+                filtered++;
+            }
+        }
+        return filtered;
+    }
+
+    private static class FilterPatterns {
+
+        private final List<String> urlPatterns;
+
+        private final List<String> excludeUrlPatterns;
+
+        private FilterPatterns(List<String> urlPatterns, List<String> excludeUrlPatterns) {
+            this.urlPatterns = urlPatterns;
+            this.excludeUrlPatterns = excludeUrlPatterns;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package run.halo.app.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import run.halo.app.SampleContents;
+import run.halo.app.utils.MarkdownUtils;
+
+/**
+ * Cost of counting words and characters of rendered post contents, done on every post save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentCountBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int sections;
+
+    private String html;
+
+    @Setup
+    public void setUp() {
+        html = MarkdownUtils.renderHtml(SampleContents.markdown(sections, sections));
+    }
+
+    @Benchmark
+    public long htmlFormatWordCount() {
+        return BasePostServiceImpl.htmlFormatWordCount(html);
+    }
+
+    @Benchmark
+    public long htmlFormatCharacterCount() {
+        return BasePostServiceImpl.htmlFormatCharacterCount(html);
+    }
+}
@@ -0,0 +1,42 @@
+package run.halo.app.utils;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import run.halo.app.SampleContents;
+
+/**
+ * Cost of rendering markdown of posts, sheets and journals into html.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkdownBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int sections;
+
+    private String markdown;
+
+    @Setup
+    public void setUp() {
+        markdown = SampleContents.markdown(sections, sections);
+    }
+
+    @Benchmark
+    public String renderHtml() {
+        return MarkdownUtils.renderHtml(markdown);
+    }
+}
@@ -0,0 +1,54 @@
+package run.halo.app.utils;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import run.halo.app.SampleContents;
+
+/**
+ * Cost of storing a post revision as a patch against the original content, and of restoring
+ * the revision from the patch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatchUtilsBenchmark {
+
+    @Param({"10", "100"})
+    public int sections;
+
+    private String original;
+
+    private String revised;
+
+    private String patch;
+
+    @Setup
+    public void setUp() {
+        original = SampleContents.markdown(sections, sections);
+        revised = SampleContents.revise(original, sections);
+        patch = PatchUtils.diffToJsonPatch(original, revised);
+    }
+
+    @Benchmark
+    public String diffToJsonPatch() {
+        return PatchUtils.diffToJsonPatch(original, revised);
+    }
+
+    @Benchmark
+    public String restoreContent() {
+        return PatchUtils.restoreContent(patch, original);
+    }
+}
@@ -3,10 +3,14 @@ package run.halo.app.cache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import run.halo.app.exception.ServiceException;
@@ -50,6 +54,47 @@ public abstract class AbstractStringCacheStore extends AbstractCacheStore<String
         }
     }
 
+    /**
+     * Gets values of the given keys, absent keys are left out of the result.
+     *
+     * @param keys cache keys must not be null
+     * @return a map of present keys and values
+     */
+    @NonNull
+    public Map<String, String> getAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        Map<String, String> values = new LinkedHashMap<>(keys.size());
+        keys.forEach(key -> get(key).ifPresent(value -> values.put(key, value)));
+        return values;
+    }
+
+    /**
+     * Puts the given values with the same expiry time.
+     *
+     * @param values values must not be null
+     * @param timeout the key expiry time, if the expiry time is less than 1, the cache won't be
+     *     expired
+     * @param timeUnit timeout unit
+     */
+    public void putAll(@NonNull Map<String, String> values, long timeout,
+        @Nullable TimeUnit timeUnit) {
+        Assert.notNull(values, "Cache values must not be null");
+
+        values.forEach((key, value) -> put(key, value, timeout, timeUnit));
+    }
+
+    /**
+     * Deletes the given keys.
+     *
+     * @param keys cache keys must not be null
+     */
+    public void deleteAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        keys.forEach(this::delete);
+    }
+
     public <T> Optional<T> getAny(String key, Class<T> type) {
         Assert.notNull(type, "Type must not be null");
 
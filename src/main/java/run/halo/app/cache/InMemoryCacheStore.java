@@ -1,47 +1,131 @@
 package run.halo.app.cache;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
 
 /**
- * In-memory cache store.
+ * In-memory cache store bounded by entry count and approximate size.
+ *
+ * <p>Entries are evicted by segmented LRU: new entries join a probation segment and are promoted
+ * into a protected segment once read again, so a burst of entries that are never read again
+ * can only evict each other. Expired entries are removed by a hierarchical timer wheel.
+ *
+ * <p>Reads do not take the lock: hits are recorded into a lossy read buffer, which is replayed
+ * against the segments under the lock by the next write, the cleaner, or a reader finding the
+ * buffer half full. The eviction order is therefore approximate under concurrent reads.
  *
  * @author johnniang
  */
 @Slf4j
 public class InMemoryCacheStore extends AbstractStringCacheStore {
 
+    private static final long DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofMegabytes(32);
+
     /**
      * Cleaner schedule period. (ms)
      */
-    private static final long PERIOD = 60 * 1000;
+    private static final long PERIOD = 1000;
+
+    /**
+     * Share of the maximum entries and size kept for the protected segment.
+     */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    /**
+     * Approximate bytes of a cache entry apart from its key and value.
+     */
+    private static final long ENTRY_OVERHEAD = 96;
 
     /**
-     * Cache container.
+     * Entries, read without the lock but only modified under it.
      */
-    private static final ConcurrentHashMap<String, CacheWrapper<String>> CACHE_CONTAINER =
-        new ConcurrentHashMap<>();
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
 
-    private final Timer timer;
+    private final ReadBuffer readBuffer = new ReadBuffer();
+
+    private final Node probation = new Node();
+
+    private final Node protectedSegment = new Node();
+
+    private final TimerWheel<Node> timerWheel;
+
+    private final long maxEntries;
+
+    private final long maxWeight;
+
+    private final long maxProtectedEntries;
+
+    private final long maxProtectedWeight;
+
+    private final ScheduledExecutorService cleaner;
 
     /**
      * Lock.
      */
     private final Lock lock = new ReentrantLock();
 
+    private volatile long weight;
+
+    private long protectedCount;
+
+    private long protectedWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder expirationCount = new LongAdder();
+
     public InMemoryCacheStore() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_SIZE.toBytes());
+    }
+
+    public InMemoryCacheStore(long maxEntries, long maxWeight) {
+        Assert.isTrue(maxEntries > 0, "Max entries must be positive");
+        Assert.isTrue(maxWeight > 0, "Max weight must be positive");
+
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.maxProtectedEntries = (long) (maxEntries * PROTECTED_RATIO);
+        this.maxProtectedWeight = (long) (maxWeight * PROTECTED_RATIO);
+        this.timerWheel = new TimerWheel<>(System.currentTimeMillis(), this::expire);
+        probation.before = probation;
+        probation.after = probation;
+        protectedSegment.before = protectedSegment;
+        protectedSegment.after = protectedSegment;
+
         // Run a cache store cleaner
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new CacheExpiryCleaner(), 0, PERIOD);
+        cleaner = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("memory-cache-cleaner-%d")
+            .setDaemon(true)
+            .build());
+        cleaner.scheduleWithFixedDelay(this::cleanUp, PERIOD, PERIOD, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -49,7 +133,17 @@ public class InMemoryCacheStore extends AbstractStringCacheStore {
     Optional<CacheWrapper<String>> getInternal(@NonNull String key) {
         Assert.hasText(key, "Cache key must not be blank");
 
-        return Optional.ofNullable(CACHE_CONTAINER.get(key));
+        Node node = nodes.get(key);
+        if (node == null || node.isExpired(System.currentTimeMillis())) {
+            // Expired entries are left to the timer wheel
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        if (readBuffer.offer(node)) {
+            tryDrainReadBuffer();
+        }
+        return Optional.of(node.cacheWrapper);
     }
 
     @Override
@@ -57,10 +151,32 @@ public class InMemoryCacheStore extends AbstractStringCacheStore {
         Assert.hasText(key, "Cache key must not be blank");
         Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
 
-        // Put the cache wrapper
-        CacheWrapper<String> putCacheWrapper = CACHE_CONTAINER.put(key, cacheWrapper);
-        log.debug("Put [{}] cache result: [{}], original cache wrapper: [{}]", key, putCacheWrapper,
-            cacheWrapper);
+        Node node = new Node(key, cacheWrapper);
+
+        lock.lock();
+        try {
+            drainReadBuffer();
+            Node previous = nodes.remove(key);
+            if (previous != null) {
+                remove(previous);
+            }
+            if (node.weight > maxWeight) {
+                log.warn("Skip caching key: [{}] of about [{}] bytes, which is larger than the cache",
+                    key, node.weight);
+                return;
+            }
+
+            nodes.put(key, node);
+            linkLast(probation, node);
+            weight += node.weight;
+            if (cacheWrapper.getExpireAt() != null) {
+                timerWheel.schedule(node);
+            }
+            evict(node);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Put [{}] cache, original cache wrapper: [{}]", key, cacheWrapper);
     }
 
     @Override
@@ -72,10 +188,8 @@ public class InMemoryCacheStore extends AbstractStringCacheStore {
 
         lock.lock();
         try {
-            // Get the value before
-            Optional<String> valueOptional = get(key);
-
-            if (valueOptional.isPresent()) {
+            Node node = nodes.get(key);
+            if (node != null && !node.isExpired(System.currentTimeMillis())) {
                 log.warn("Failed to put the cache, because the key: [{}] has been present already",
                     key);
                 return false;
@@ -94,43 +208,346 @@ public class InMemoryCacheStore extends AbstractStringCacheStore {
     public void delete(@NonNull String key) {
         Assert.hasText(key, "Cache key must not be blank");
 
-        CACHE_CONTAINER.remove(key);
+        lock.lock();
+        try {
+            drainReadBuffer();
+            Node node = nodes.remove(key);
+            if (node != null) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
         log.debug("Removed key: [{}]", key);
     }
 
+    /**
+     * Lists entries from the most recently used, protected entries first.
+     *
+     * @return a map of cached keys and values
+     */
     @Override
     public LinkedHashMap<String, String> toMap() {
         LinkedHashMap<String, String> map = new LinkedHashMap<>();
-        CACHE_CONTAINER.forEach((key, value) -> map.put(key, value.getData()));
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            drainReadBuffer();
+            for (Node segment : new Node[] {protectedSegment, probation}) {
+                for (Node node = segment.before; node != segment; node = node.before) {
+                    if (!node.isExpired(now)) {
+                        map.put(node.key, node.cacheWrapper.getData());
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
         return map;
     }
 
+    /**
+     * Gets statistics of this store.
+     *
+     * @return cache statistics
+     */
+    @NonNull
+    public CacheStats getStats() {
+        lock.lock();
+        try {
+            return new CacheStats(nodes.size(), weight, hitCount.sum(), missCount.sum(),
+                evictionCount.sum(), expirationCount.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Binds the statistics of this store to the meter registry, so that they are published
+     * as <code>halo.cache.*</code> meters tagged with the cache name.
+     *
+     * @param meterRegistry meter registry must not be null
+     * @param cacheName cache name must not be blank
+     */
+    public void bindTo(@NonNull MeterRegistry meterRegistry, @NonNull String cacheName) {
+        Assert.notNull(meterRegistry, "Meter registry must not be null");
+        Assert.hasText(cacheName, "Cache name must not be blank");
+
+        FunctionCounter.builder("halo.cache.gets", hitCount, LongAdder::sum)
+            .tag("cache", cacheName)
+            .tag("result", "hit")
+            .description("Number of cache reads which found an entry")
+            .register(meterRegistry);
+        FunctionCounter.builder("halo.cache.gets", missCount, LongAdder::sum)
+            .tag("cache", cacheName)
+            .tag("result", "miss")
+            .description("Number of cache reads which found no entry")
+            .register(meterRegistry);
+        FunctionCounter.builder("halo.cache.evictions", evictionCount, LongAdder::sum)
+            .tag("cache", cacheName)
+            .description("Number of entries evicted because of the cache bounds")
+            .register(meterRegistry);
+        FunctionCounter.builder("halo.cache.expirations", expirationCount, LongAdder::sum)
+            .tag("cache", cacheName)
+            .description("Number of entries removed for expiration")
+            .register(meterRegistry);
+        Gauge.builder("halo.cache.size", nodes, Map::size)
+            .tag("cache", cacheName)
+            .description("Number of cached entries")
+            .register(meterRegistry);
+        Gauge.builder("halo.cache.bytes", this, store -> store.weight)
+            .tag("cache", cacheName)
+            .description("Approximate size of cached entries")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
     @PreDestroy
     public void preDestroy() {
-        log.debug("Cancelling all timer tasks");
-        timer.cancel();
+        log.debug("Shutting down cache cleaner, statistics: [{}]", getStats());
+        cleaner.shutdownNow();
         clear();
     }
 
     public void clear() {
-        CACHE_CONTAINER.clear();
+        lock.lock();
+        try {
+            readBuffer.clear();
+            nodes.clear();
+            timerWheel.clear();
+            probation.before = probation;
+            probation.after = probation;
+            protectedSegment.before = protectedSegment;
+            protectedSegment.after = protectedSegment;
+            weight = 0;
+            protectedCount = 0;
+            protectedWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cleanUp() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            timerWheel.advance(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Failed to clean up expired caches", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tryDrainReadBuffer() {
+        if (lock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        readBuffer.drain(node -> {
+            // Skip entries removed or replaced since they were read
+            if (nodes.get(node.key) == node) {
+                onAccess(node);
+            }
+        });
+    }
+
+    private void onAccess(Node node) {
+        unlink(node);
+        if (!node.inProtected) {
+            // Promote on the second access
+            node.inProtected = true;
+            protectedCount++;
+            protectedWeight += node.weight;
+        }
+        linkLast(protectedSegment, node);
+
+        // Demote least recently used protected entries to probation, so that probation always
+        // has room for new entries
+        while ((protectedCount > maxProtectedEntries || protectedWeight > maxProtectedWeight)
+            && protectedSegment.after != node) {
+            Node demoted = protectedSegment.after;
+            unlink(demoted);
+            demoted.inProtected = false;
+            protectedCount--;
+            protectedWeight -= demoted.weight;
+            linkLast(probation, demoted);
+        }
+    }
+
+    private void evict(Node inserted) {
+        while (nodes.size() > maxEntries || weight > maxWeight) {
+            // Never evict the entry just inserted unless it is the only one
+            Node victim = probation.after == inserted ? inserted.after : probation.after;
+            if (victim == probation) {
+                victim = protectedSegment.after != protectedSegment
+                    ? protectedSegment.after : inserted;
+            }
+            nodes.remove(victim.key);
+            remove(victim);
+            evictionCount.increment();
+            log.debug("Evicted the cache: [{}]", victim.key);
+        }
+    }
+
+    private void expire(Node node) {
+        if (nodes.remove(node.key, node)) {
+            remove(node);
+            expirationCount.increment();
+            log.debug("Deleted the cache: [{}] for expiration", node.key);
+        }
     }
 
     /**
-     * Cache cleaner.
-     *
-     * @author johnniang
-     * @date 03/28/19
+     * Unlinks a node which has been removed from the map already.
      */
-    private class CacheExpiryCleaner extends TimerTask {
+    private void remove(Node node) {
+        unlink(node);
+        timerWheel.deschedule(node);
+        weight -= node.weight;
+        if (node.inProtected) {
+            protectedCount--;
+            protectedWeight -= node.weight;
+        }
+    }
+
+    private static void linkLast(Node segment, Node node) {
+        node.before = segment.before;
+        node.after = segment;
+        segment.before.after = node;
+        segment.before = node;
+    }
+
+    private static void unlink(Node node) {
+        node.before.after = node.after;
+        node.after.before = node.before;
+        node.before = null;
+        node.after = null;
+    }
+
+    /**
+     * Cache entry linked into a segment, from the least recently used to the most recently used.
+     */
+    private static final class Node extends TimerWheel.Timer {
+
+        private final String key;
 
-        @Override
-        public void run() {
-            CACHE_CONTAINER.keySet().forEach(key -> {
-                if (!InMemoryCacheStore.this.get(key).isPresent()) {
-                    log.debug("Deleted the cache: [{}] for expiration", key);
+        private final CacheWrapper<String> cacheWrapper;
+
+        private final long weight;
+
+        private boolean inProtected;
+
+        private Node before;
+
+        private Node after;
+
+        /**
+         * Creates a segment sentinel.
+         */
+        private Node() {
+            this.key = null;
+            this.cacheWrapper = null;
+            this.weight = 0;
+        }
+
+        private Node(String key, CacheWrapper<String> cacheWrapper) {
+            this.key = key;
+            this.cacheWrapper = cacheWrapper;
+            // Chars of java strings take up to 2 bytes
+            this.weight = ENTRY_OVERHEAD + 2L * (key.length() + cacheWrapper.getData().length());
+            if (cacheWrapper.getExpireAt() != null) {
+                this.expireAt = cacheWrapper.getExpireAt().getTime();
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return cacheWrapper.getExpireAt() != null && expireAt <= now;
+        }
+    }
+
+    /**
+     * Bounded buffer of read entries, written by readers without the lock and drained under it.
+     * Reads are dropped when the buffer is full or another reader wins the slot.
+     */
+    private static final class ReadBuffer {
+
+        private static final int CAPACITY = 128;
+
+        private static final int MASK = CAPACITY - 1;
+
+        private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(CAPACITY);
+
+        private final AtomicLong writeCounter = new AtomicLong();
+
+        /**
+         * Only written under the lock.
+         */
+        private volatile long readCounter;
+
+        /**
+         * Records a read entry.
+         *
+         * @return true if the buffer should be drained
+         */
+        private boolean offer(Node node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long size = tail - head;
+            if (size >= CAPACITY) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & MASK), node);
+            }
+            return size + 1 >= CAPACITY / 2;
+        }
+
+        private void drain(Consumer<Node> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & MASK);
+                Node node = buffer.get(index);
+                if (node == null) {
+                    // Claimed but not published yet
+                    break;
                 }
+                buffer.lazySet(index, null);
+                consumer.accept(node);
+            }
+            readCounter = head;
+        }
+
+        private void clear() {
+            drain(node -> {
             });
         }
     }
+
+    /**
+     * Cache statistics.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class CacheStats {
+
+        private long size;
+
+        private long weight;
+
+        private long hitCount;
+
+        private long missCount;
+
+        private long evictionCount;
+
+        private long expirationCount;
+    }
 }
@@ -1,15 +1,19 @@
 package run.halo.app.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -20,13 +24,17 @@ import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
 import run.halo.app.config.properties.HaloProperties;
-import run.halo.app.utils.JsonUtils;
 
 /**
  * level-db cache store.
+ *
+ * <p>Values are encoded as a magic byte, the expiry time, the create time and the utf-8 data.
+ * Every value with an expiry time also has an entry in an expiry index, whose keys are ordered
+ * by the expiry time, so the cleaner only scans the entries which are due. Internal keys start
+ * with a zero byte and never clash with cache keys.
  * Create by Pencilso on 2020/1/9 7:20 下午
  */
 @Slf4j
@@ -36,8 +44,28 @@ public class LevelCacheStore extends AbstractStringCacheStore {
      */
     private static final long PERIOD = 60 * 1000;
 
+    /**
+     * Maximum number of expired entries deleted by a single write batch.
+     */
+    private static final int CLEAN_BATCH_SIZE = 1000;
+
+    private static final byte VALUE_MAGIC = 1;
+
+    private static final int VALUE_HEADER_LENGTH = 1 + Long.BYTES + Long.BYTES;
+
+    private static final byte[] EXPIRY_INDEX_PREFIX = {0, 'e'};
+
+    private static final byte[] FORMAT_KEY = {0, 'f'};
+
+    private static final byte[] EMPTY = new byte[0];
+
     private static DB LEVEL_DB;
 
+    /**
+     * Serializes writes, so the expiry index always matches the values.
+     */
+    private final Object writeLock = new Object();
+
     private Timer timer;
 
     public LevelCacheStore(HaloProperties haloProperties) {
@@ -57,6 +85,7 @@ public class LevelCacheStore extends AbstractStringCacheStore {
             options.createIfMissing(true);
             //open leveldb store folder
             LEVEL_DB = factory.open(folder, options);
+            migrateJsonValues();
             timer = new Timer();
             timer.scheduleAtFixedRate(new CacheExpiryCleaner(), 0, PERIOD);
         } catch (Exception ex) {
@@ -81,59 +110,296 @@ public class LevelCacheStore extends AbstractStringCacheStore {
     @NonNull
     Optional<CacheWrapper<String>> getInternal(@NonNull String key) {
         Assert.hasText(key, "Cache key must not be blank");
-        byte[] bytes = LEVEL_DB.get(stringToBytes(key));
-        if (bytes != null) {
-            String valueJson = bytesToString(bytes);
-            return StringUtils.isEmpty(valueJson) ? Optional.empty() :
-                jsonToCacheWrapper(valueJson);
-        }
-        return Optional.empty();
+        return decode(LEVEL_DB.get(stringToBytes(key)));
     }
 
     @Override
     void putInternal(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
-        putInternalIfAbsent(key, cacheWrapper);
+        Assert.hasText(key, "Cache key must not be blank");
+        Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
+        synchronized (writeLock) {
+            write(batch -> put(batch, stringToBytes(key), cacheWrapper));
+        }
+        log.debug("Cache key: [{}], original cache wrapper: [{}]", key, cacheWrapper);
     }
 
     @Override
     Boolean putInternalIfAbsent(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
         Assert.hasText(key, "Cache key must not be blank");
         Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
-        try {
-            LEVEL_DB.put(
-                stringToBytes(key),
-                stringToBytes(JsonUtils.objectToJson(cacheWrapper))
-            );
-            return true;
-        } catch (JsonProcessingException e) {
-            log.warn("Put cache fail json2object key: [{}] value:[{}]", key, cacheWrapper);
+        byte[] keyBytes = stringToBytes(key);
+        synchronized (writeLock) {
+            long now = System.currentTimeMillis();
+            boolean present = decode(LEVEL_DB.get(keyBytes))
+                .filter(wrapper -> !isExpired(wrapper, now))
+                .isPresent();
+            if (present) {
+                log.warn("Failed to put the cache, the key: [{}] has been present already", key);
+                return false;
+            }
+            write(batch -> put(batch, keyBytes, cacheWrapper));
         }
-        log.debug("Cache key: [{}], original cache wrapper: [{}]", key, cacheWrapper);
-        return false;
+        return true;
     }
 
     @Override
     public void delete(@NonNull String key) {
-        LEVEL_DB.delete(stringToBytes(key));
+        synchronized (writeLock) {
+            write(batch -> delete(batch, stringToBytes(key)));
+        }
         log.debug("cache remove key: [{}]", key);
     }
 
+    /**
+     * Gets values of the given keys, expired values are left out and deleted by the cleaner.
+     *
+     * @param keys cache keys must not be null
+     * @return a map of present keys and values
+     */
+    @Override
+    @NonNull
+    public Map<String, String> getAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        long now = System.currentTimeMillis();
+        Map<String, String> values = new LinkedHashMap<>(keys.size());
+        keys.forEach(key -> decode(LEVEL_DB.get(stringToBytes(key)))
+            .filter(wrapper -> !isExpired(wrapper, now))
+            .ifPresent(wrapper -> values.put(key, wrapper.getData())));
+        return values;
+    }
+
+    /**
+     * Puts the given values by a single write batch.
+     *
+     * @param values values must not be null
+     * @param timeout the key expiry time, if the expiry time is less than 1, the cache won't be
+     *     expired
+     * @param timeUnit timeout unit
+     */
+    @Override
+    public void putAll(@NonNull Map<String, String> values, long timeout,
+        @Nullable TimeUnit timeUnit) {
+        Assert.notNull(values, "Cache values must not be null");
+
+        Date now = new Date();
+        Date expireAt = timeout > 0 && timeUnit != null
+            ? new Date(now.getTime() + timeUnit.toMillis(timeout)) : null;
+        synchronized (writeLock) {
+            write(batch -> values.forEach((key, value) -> {
+                Assert.hasText(key, "Cache key must not be blank");
+                Assert.notNull(value, "Cache value must not be null");
+                put(batch, stringToBytes(key), new CacheWrapper<>(value, expireAt, now));
+            }));
+        }
+    }
+
+    /**
+     * Deletes the given keys by a single write batch.
+     *
+     * @param keys cache keys must not be null
+     */
+    @Override
+    public void deleteAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        synchronized (writeLock) {
+            write(batch -> keys.forEach(key -> delete(batch, stringToBytes(key))));
+        }
+        log.debug("cache remove keys: [{}]", keys);
+    }
+
     @Override
     public LinkedHashMap<String, String> toMap() {
         LinkedHashMap<String, String> map = new LinkedHashMap<>();
         LEVEL_DB.forEach(entry -> {
-            String key = bytesToString(entry.getKey());
-            String valueJson = bytesToString(entry.getValue());
-            Optional<CacheWrapper<String>> cacheWrapperOptional = jsonToCacheWrapper(valueJson);
-            if (cacheWrapperOptional.isPresent()) {
-                map.put(key, cacheWrapperOptional.get().getData());
-            } else {
-                map.put(key, null);
+            if (isInternalKey(entry.getKey())) {
+                return;
             }
+            String key = bytesToString(entry.getKey());
+            map.put(key, decode(entry.getValue()).map(CacheWrapper::getData).orElse(null));
         });
         return map;
     }
 
+    /**
+     * Deletes expired values by scanning the due part of the expiry index.
+     */
+    void cleanExpired() {
+        long now = System.currentTimeMillis();
+        int deleted;
+        do {
+            deleted = cleanExpired(now);
+        } while (deleted == CLEAN_BATCH_SIZE);
+    }
+
+    private int cleanExpired(long now) {
+        synchronized (writeLock) {
+            int count = 0;
+            try (WriteBatch batch = LEVEL_DB.createWriteBatch();
+                 DBIterator iterator = LEVEL_DB.iterator()) {
+                iterator.seek(EXPIRY_INDEX_PREFIX);
+                while (count < CLEAN_BATCH_SIZE && iterator.hasNext()) {
+                    byte[] indexKey = iterator.next().getKey();
+                    if (!startsWith(indexKey, EXPIRY_INDEX_PREFIX)) {
+                        break;
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(indexKey, EXPIRY_INDEX_PREFIX.length,
+                        indexKey.length - EXPIRY_INDEX_PREFIX.length);
+                    long expireAt = buffer.getLong();
+                    if (expireAt > now) {
+                        break;
+                    }
+                    byte[] key = Arrays.copyOfRange(indexKey, buffer.position(), indexKey.length);
+                    // The value may have been replaced by one expiring later
+                    if (expireAt == expireAtOf(LEVEL_DB.get(key))) {
+                        batch.delete(key);
+                        log.debug("deleted the cache: [{}] for expiration", bytesToString(key));
+                    }
+                    batch.delete(indexKey);
+                    count++;
+                }
+                LEVEL_DB.write(batch);
+            } catch (IOException e) {
+                log.error("Failed to clean expired cache", e);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Encodes the values written by older versions as json and indexes their expiry time.
+     */
+    private void migrateJsonValues() {
+        if (LEVEL_DB.get(FORMAT_KEY) != null) {
+            return;
+        }
+        int migrated = 0;
+        synchronized (writeLock) {
+            try (WriteBatch batch = LEVEL_DB.createWriteBatch();
+                 DBIterator iterator = LEVEL_DB.iterator()) {
+                while (iterator.hasNext()) {
+                    Map.Entry<byte[], byte[]> entry = iterator.next();
+                    byte[] value = entry.getValue();
+                    if (isInternalKey(entry.getKey()) || value == null || value.length == 0
+                        || value[0] == VALUE_MAGIC) {
+                        continue;
+                    }
+                    Optional<CacheWrapper<String>> cacheWrapper = decode(value);
+                    if (cacheWrapper.isPresent()) {
+                        put(batch, entry.getKey(), cacheWrapper.get());
+                        migrated++;
+                    }
+                }
+                batch.put(FORMAT_KEY, new byte[] {VALUE_MAGIC});
+                LEVEL_DB.write(batch);
+            } catch (IOException e) {
+                log.error("Failed to migrate leveldb cache values", e);
+            }
+        }
+        log.info("Migrated [{}] leveldb cache value(s) from json", migrated);
+    }
+
+    private void write(BatchWriter writer) {
+        try (WriteBatch batch = LEVEL_DB.createWriteBatch()) {
+            writer.write(batch);
+            LEVEL_DB.write(batch);
+        } catch (IOException e) {
+            log.error("Failed to close leveldb write batch", e);
+        }
+    }
+
+    private void put(WriteBatch batch, byte[] key, CacheWrapper<String> cacheWrapper) {
+        deleteExpiryIndex(batch, key);
+        batch.put(key, encode(cacheWrapper));
+        if (cacheWrapper.getExpireAt() != null) {
+            batch.put(expiryIndexKey(cacheWrapper.getExpireAt().getTime(), key), EMPTY);
+        }
+    }
+
+    private void delete(WriteBatch batch, byte[] key) {
+        deleteExpiryIndex(batch, key);
+        batch.delete(key);
+    }
+
+    private void deleteExpiryIndex(WriteBatch batch, byte[] key) {
+        long expireAt = expireAtOf(LEVEL_DB.get(key));
+        if (expireAt != 0) {
+            batch.delete(expiryIndexKey(expireAt, key));
+        }
+    }
+
+    private static byte[] expiryIndexKey(long expireAt, byte[] key) {
+        return ByteBuffer.allocate(EXPIRY_INDEX_PREFIX.length + Long.BYTES + key.length)
+            .put(EXPIRY_INDEX_PREFIX)
+            .putLong(expireAt)
+            .put(key)
+            .array();
+    }
+
+    private static byte[] encode(CacheWrapper<String> cacheWrapper) {
+        byte[] data = cacheWrapper.getData().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(VALUE_HEADER_LENGTH + data.length)
+            .put(VALUE_MAGIC)
+            .putLong(toMillis(cacheWrapper.getExpireAt()))
+            .putLong(toMillis(cacheWrapper.getCreateAt()))
+            .put(data)
+            .array();
+    }
+
+    private Optional<CacheWrapper<String>> decode(@Nullable byte[] value) {
+        if (value == null || value.length == 0) {
+            return Optional.empty();
+        }
+        if (value[0] != VALUE_MAGIC) {
+            // Written as json by older versions
+            return jsonToCacheWrapper(bytesToString(value));
+        }
+        if (value.length < VALUE_HEADER_LENGTH) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value, 1, value.length - 1);
+        CacheWrapper<String> cacheWrapper = new CacheWrapper<>();
+        cacheWrapper.setExpireAt(toDate(buffer.getLong()));
+        cacheWrapper.setCreateAt(toDate(buffer.getLong()));
+        cacheWrapper.setData(new String(value, VALUE_HEADER_LENGTH,
+            value.length - VALUE_HEADER_LENGTH, StandardCharsets.UTF_8));
+        return Optional.of(cacheWrapper);
+    }
+
+    /**
+     * Reads the expiry time from the fixed header without decoding the value.
+     *
+     * @return expiry time, or 0 if the value never expires or is absent
+     */
+    private long expireAtOf(@Nullable byte[] value) {
+        if (value != null && value.length >= VALUE_HEADER_LENGTH && value[0] == VALUE_MAGIC) {
+            return ByteBuffer.wrap(value, 1, Long.BYTES).getLong();
+        }
+        return decode(value).map(CacheWrapper::getExpireAt).map(Date::getTime).orElse(0L);
+    }
+
+    private static boolean isExpired(CacheWrapper<String> cacheWrapper, long now) {
+        return cacheWrapper.getExpireAt() != null && cacheWrapper.getExpireAt().getTime() < now;
+    }
+
+    private static long toMillis(@Nullable Date date) {
+        return date == null ? 0 : date.getTime();
+    }
+
+    @Nullable
+    private static Date toDate(long millis) {
+        return millis == 0 ? null : new Date(millis);
+    }
+
+    private static boolean isInternalKey(byte[] key) {
+        return key.length > 0 && key[0] == 0;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length
+            && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
 
     private byte[] stringToBytes(String str) {
         return str.getBytes(Charset.defaultCharset());
@@ -143,40 +409,16 @@ public class LevelCacheStore extends AbstractStringCacheStore {
         return new String(bytes, Charset.defaultCharset());
     }
 
+    private interface BatchWriter {
+
+        void write(WriteBatch batch);
+    }
+
     private class CacheExpiryCleaner extends TimerTask {
 
         @Override
         public void run() {
-            //batch
-            WriteBatch writeBatch = LEVEL_DB.createWriteBatch();
-
-            DBIterator iterator = LEVEL_DB.iterator();
-            long currentTimeMillis = System.currentTimeMillis();
-            while (iterator.hasNext()) {
-                Map.Entry<byte[], byte[]> next = iterator.next();
-                if (next.getKey() == null || next.getValue() == null) {
-                    continue;
-                }
-
-                String valueJson = bytesToString(next.getValue());
-                Optional<CacheWrapper<String>> stringCacheWrapper =
-                    StringUtils.isEmpty(valueJson) ? Optional.empty() :
-                        jsonToCacheWrapper(valueJson);
-                if (stringCacheWrapper.isPresent()) {
-                    //get expireat time
-                    long expireAtTime = stringCacheWrapper.map(CacheWrapper::getExpireAt)
-                        .map(Date::getTime)
-                        .orElse(0L);
-                    //if expire
-                    if (expireAtTime != 0 && currentTimeMillis > expireAtTime) {
-                        writeBatch.delete(next.getKey());
-                        log.debug("deleted the cache: [{}] for expiration",
-                            bytesToString(next.getKey()));
-                    }
-                }
-            }
-            LEVEL_DB.write(writeBatch);
+            cleanExpired();
         }
     }
 }
-
@@ -0,0 +1,297 @@
+package run.halo.app.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.category.CategoryUpdatedEvent;
+import run.halo.app.event.comment.CommentNewEvent;
+import run.halo.app.event.comment.CommentReplyEvent;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.AbstractVisitEvent;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.event.theme.ThemeActivatedEvent;
+import run.halo.app.event.theme.ThemeUpdatedEvent;
+import run.halo.app.event.user.UserUpdatedEvent;
+
+/**
+ * Least recently used cache of rendered theme pages, bounded by total body size.
+ *
+ * <p>The whole cache is cleared whenever posts, categories, comments, options, users or themes
+ * change. Every clear starts a new generation, and a page rendered in an older generation is
+ * dropped instead of being cached, so a render racing with an update never outlives it.
+ *
+ * <p>Visit events published while rendering are recorded with the page and published again on
+ * every hit, so that serving from cache keeps visits counted.
+ */
+@Slf4j
+@Component
+public class PageCache {
+
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ThreadLocal<List<AbstractVisitEvent>> renderingVisits = new ThreadLocal<>();
+
+    private final long maxBytes;
+
+    private final long ttlMillis;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter evictionCounter;
+
+    private long bytes;
+
+    public PageCache(HaloProperties haloProperties, MeterRegistry meterRegistry) {
+        this(haloProperties.getPageCacheMaxSize().toBytes(), haloProperties.getPageCacheTtl(),
+            meterRegistry);
+    }
+
+    PageCache(long maxBytes, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttl.toMillis();
+        this.hitCounter = Counter.builder("halo.page.cache.gets")
+            .tag("result", "hit")
+            .description("Number of requests served from page cache")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("halo.page.cache.gets")
+            .tag("result", "miss")
+            .description("Number of requests rendered because of page cache misses")
+            .register(meterRegistry);
+        this.evictionCounter = Counter.builder("halo.page.cache.evictions")
+            .description("Number of pages evicted from page cache because of its size limit")
+            .register(meterRegistry);
+        Gauge.builder("halo.page.cache.size", this, PageCache::size)
+            .description("Number of cached pages")
+            .register(meterRegistry);
+        Gauge.builder("halo.page.cache.bytes", this, PageCache::bytes)
+            .description("Total body size of cached pages")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Gets a cached page and records a hit or miss.
+     *
+     * @param key page key must not be blank
+     * @return an optional cached page
+     */
+    @NonNull
+    public Optional<Page> get(@NonNull String key) {
+        Assert.hasText(key, "Page key must not be blank");
+
+        Page page;
+        synchronized (pages) {
+            page = pages.get(key);
+            if (page != null && page.isExpired(ttlMillis)) {
+                removeInternal(key);
+                page = null;
+            }
+        }
+        (page == null ? missCounter : hitCounter).increment();
+        return Optional.ofNullable(page);
+    }
+
+    /**
+     * Caches a rendered page unless the cache was cleared after the rendering started.
+     *
+     * @param key page key must not be blank
+     * @param page rendered page must not be null
+     * @param renderGeneration generation when the rendering started
+     * @see #getGeneration()
+     */
+    public void put(@NonNull String key, @NonNull Page page, long renderGeneration) {
+        Assert.hasText(key, "Page key must not be blank");
+        Assert.notNull(page, "Page must not be null");
+
+        if (page.body.length > maxBytes) {
+            log.debug("Skip caching page [{}] of [{}] bytes", key, page.body.length);
+            return;
+        }
+
+        synchronized (pages) {
+            if (renderGeneration != generation.get()) {
+                return;
+            }
+            removeInternal(key);
+            pages.put(key, page);
+            bytes += page.body.length;
+
+            Iterator<Page> iterator = pages.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().body.length;
+                iterator.remove();
+                evictionCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Gets current generation, which must be taken before rendering a page to cache.
+     *
+     * @return current generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Starts recording visit events published by current thread.
+     */
+    public void startRendering() {
+        renderingVisits.set(new ArrayList<>());
+    }
+
+    /**
+     * Stops recording visit events published by current thread.
+     *
+     * @return visit events published since {@link #startRendering()}
+     */
+    @NonNull
+    public List<AbstractVisitEvent> stopRendering() {
+        List<AbstractVisitEvent> visits = renderingVisits.get();
+        renderingVisits.remove();
+        return visits == null ? Collections.emptyList() : visits;
+    }
+
+    @EventListener
+    public void onVisit(AbstractVisitEvent event) {
+        List<AbstractVisitEvent> visits = renderingVisits.get();
+        if (visits != null) {
+            visits.add(event);
+        }
+    }
+
+    /**
+     * Clears all cached pages.
+     */
+    public void clear() {
+        synchronized (pages) {
+            generation.incrementAndGet();
+            pages.clear();
+            bytes = 0;
+        }
+        log.debug("Cleared page cache");
+    }
+
+    public int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    public long bytes() {
+        synchronized (pages) {
+            return bytes;
+        }
+    }
+
+    @TransactionalEventListener(value = {
+        PostUpdatedEvent.class,
+        PostDeletedEvent.class,
+        CategoryUpdatedEvent.class,
+        CommentNewEvent.class,
+        CommentReplyEvent.class,
+        OptionUpdatedEvent.class,
+        UserUpdatedEvent.class,
+        ThemeActivatedEvent.class,
+        ThemeUpdatedEvent.class
+    }, fallbackExecution = true)
+    public void onContentChanged() {
+        clear();
+    }
+
+    private void removeInternal(String key) {
+        Page removed = pages.remove(key);
+        if (removed != null) {
+            bytes -= removed.body.length;
+        }
+    }
+
+    /**
+     * Rendered page.
+     */
+    public static final class Page {
+
+        private final byte[] body;
+
+        @Nullable
+        private final String contentType;
+
+        /**
+         * Response headers replayed on hits, e.g. Content-Language.
+         */
+        private final HttpHeaders headers;
+
+        private final List<AbstractVisitEvent> visits;
+
+        private final String etag;
+
+        private final long createTime;
+
+        public Page(@NonNull byte[] body, @Nullable String contentType,
+            @NonNull HttpHeaders headers, @NonNull List<AbstractVisitEvent> visits) {
+            Assert.notNull(body, "Page body must not be null");
+            Assert.notNull(headers, "Headers must not be null");
+            Assert.notNull(visits, "Visits must not be null");
+
+            this.body = body;
+            this.contentType = contentType;
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            this.visits = List.copyOf(visits);
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            this.createTime = System.currentTimeMillis();
+        }
+
+        @NonNull
+        public byte[] getBody() {
+            return body;
+        }
+
+        @Nullable
+        public String getContentType() {
+            return contentType;
+        }
+
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @NonNull
+        public List<AbstractVisitEvent> getVisits() {
+            return visits;
+        }
+
+        @NonNull
+        public String getEtag() {
+            return etag;
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - createTime > ttlMillis;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package run.halo.app.cache;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -19,9 +24,9 @@ import org.springframework.util.CollectionUtils;
 @Slf4j
 public class RedisCacheStore extends AbstractStringCacheStore {
 
-    private static final String REDIS_PREFIX = "halo.redis.";
+    static final String REDIS_PREFIX = "halo.redis.";
 
-    private final StringRedisTemplate redisTemplate;
+    final StringRedisTemplate redisTemplate;
 
     public RedisCacheStore(StringRedisTemplate redisTemplate) {
         this.redisTemplate = redisTemplate;
@@ -32,6 +37,9 @@ public class RedisCacheStore extends AbstractStringCacheStore {
     Optional<CacheWrapper<String>> getInternal(@NonNull String key) {
         Assert.hasText(key, "Cache key must not be blank");
         String value = redisTemplate.opsForValue().get(REDIS_PREFIX + key);
+        if (value == null) {
+            return Optional.empty();
+        }
         CacheWrapper<String> cacheStore = new CacheWrapper<>();
         cacheStore.setData(value);
         return Optional.of(cacheStore);
@@ -43,6 +51,12 @@ public class RedisCacheStore extends AbstractStringCacheStore {
         Assert.notNull(cacheWrapper, "Cache wrapper must not be null");
         if (cacheWrapper.getExpireAt() != null) {
             long expire = cacheWrapper.getExpireAt().getTime() - System.currentTimeMillis();
+            if (expire <= 0) {
+                // Redis rejects non-positive expiration, and the value is expired already
+                redisTemplate.delete(REDIS_PREFIX + key);
+                log.debug("Removed key: [{}] as the cache has expired already", key);
+                return;
+            }
             redisTemplate.opsForValue().set(
                 REDIS_PREFIX + key, cacheWrapper.getData(), expire, TimeUnit.MILLISECONDS);
         } else {
@@ -59,15 +73,26 @@ public class RedisCacheStore extends AbstractStringCacheStore {
 
         log.debug("Preparing to put key: [{}], value: [{}]", key, cacheWrapper);
 
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
-            log.warn("Failed to put the cache, the key: [{}] has been present already", key);
-            return false;
+        Boolean absent;
+        if (cacheWrapper.getExpireAt() != null) {
+            long expire = cacheWrapper.getExpireAt().getTime() - System.currentTimeMillis();
+            if (expire <= 0) {
+                log.warn("Failed to put the cache, the key: [{}] has expired already", key);
+                return false;
+            }
+            absent = redisTemplate.opsForValue().setIfAbsent(
+                REDIS_PREFIX + key, cacheWrapper.getData(), expire, TimeUnit.MILLISECONDS);
+        } else {
+            absent = redisTemplate.opsForValue()
+                .setIfAbsent(REDIS_PREFIX + key, cacheWrapper.getData());
         }
 
-        putInternal(key, cacheWrapper);
+        if (!Boolean.TRUE.equals(absent)) {
+            log.warn("Failed to put the cache, the key: [{}] has been present already", key);
+            return absent;
+        }
         log.debug("Put successfully");
         return true;
-
     }
 
     @Override
@@ -81,10 +106,52 @@ public class RedisCacheStore extends AbstractStringCacheStore {
     public void delete(@NonNull String key) {
         Assert.hasText(key, "Cache key must not be blank");
 
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(REDIS_PREFIX + key))) {
-            redisTemplate.delete(REDIS_PREFIX + key);
-            log.debug("Removed key: [{}]", key);
+        redisTemplate.delete(REDIS_PREFIX + key);
+        log.debug("Removed key: [{}]", key);
+    }
+
+    /**
+     * Gets values of the given keys by a single MGET.
+     *
+     * @param keys cache keys must not be null
+     * @return a map of present keys and values
+     */
+    @Override
+    @NonNull
+    public Map<String, String> getAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        Map<String, String> values = new LinkedHashMap<>(keys.size());
+        if (keys.isEmpty()) {
+            return values;
+        }
+        List<String> keyList = new ArrayList<>(keys);
+        List<String> valueList = redisTemplate.opsForValue().multiGet(prefix(keyList));
+        if (valueList == null) {
+            return values;
         }
+        for (int i = 0; i < keyList.size(); i++) {
+            if (valueList.get(i) != null) {
+                values.put(keyList.get(i), valueList.get(i));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Deletes the given keys by a single DEL.
+     *
+     * @param keys cache keys must not be null
+     */
+    @Override
+    public void deleteAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        if (keys.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(prefix(keys));
+        log.debug("Removed keys: [{}]", keys);
     }
 
     @Override
@@ -103,4 +170,10 @@ public class RedisCacheStore extends AbstractStringCacheStore {
         //do nothing
     }
 
+    private static List<String> prefix(Collection<String> keys) {
+        return keys.stream()
+            .map(key -> REDIS_PREFIX + key)
+            .collect(Collectors.toList());
+    }
+
 }
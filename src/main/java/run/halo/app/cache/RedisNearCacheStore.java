@@ -0,0 +1,228 @@
+package run.halo.app.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Redis cache store with a local near cache in front of it.
+ *
+ * <p>Values read from redis are kept in a small in-memory cache, no longer than their redis
+ * expiration and the near cache ttl. Writes go to redis first, then evict the local entry and
+ * publish the written keys, so that other nodes evict them as well. The near cache ttl bounds
+ * staleness when an invalidation message is lost, for example during a reconnection.
+ */
+@Slf4j
+public class RedisNearCacheStore extends RedisCacheStore {
+
+    /**
+     * Channel of invalidation messages, which consist of the publisher node id and the
+     * invalidated keys separated by line feeds.
+     */
+    static final String INVALIDATION_CHANNEL = REDIS_PREFIX + "invalidation";
+
+    private static final String SEPARATOR = "\n";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final InMemoryCacheStore nearCache;
+
+    private final long ttl;
+
+    /**
+     * Generation of invalidations, values read from redis before an invalidation are not put
+     * into the near cache.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisNearCacheStore(@NonNull StringRedisTemplate redisTemplate, long maxEntries,
+        long maxWeight, @NonNull Duration ttl) {
+        super(redisTemplate);
+        Assert.notNull(ttl, "Near cache ttl must not be null");
+        Assert.isTrue(!ttl.isNegative() && !ttl.isZero(), "Near cache ttl must be positive");
+
+        RedisConnectionFactory connectionFactory = redisTemplate.getConnectionFactory();
+        Assert.notNull(connectionFactory, "Redis connection factory must not be null");
+
+        this.nearCache = new InMemoryCacheStore(maxEntries, maxWeight);
+        this.ttl = ttl.toMillis();
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this::onInvalidation,
+            new ChannelTopic(INVALIDATION_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        Assert.hasText(key, "Cache key must not be blank");
+
+        Optional<String> nearValue = nearCache.get(key);
+        if (nearValue.isPresent()) {
+            return nearValue;
+        }
+
+        long currentGeneration = generation.get();
+
+        // Read the value and its expiration in one round trip
+        byte[] rawKey = (REDIS_PREFIX + key).getBytes(StandardCharsets.UTF_8);
+        List<Object> results =
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+                return null;
+            });
+        String value = (String) results.get(0);
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        long expire = ttl;
+        Long redisTtl = (Long) results.get(1);
+        if (redisTtl != null && redisTtl > 0) {
+            expire = Math.min(expire, redisTtl);
+        }
+        nearCache.put(key, value, expire, TimeUnit.MILLISECONDS);
+        if (generation.get() != currentGeneration) {
+            // The key may have been invalidated while reading
+            nearCache.delete(key);
+        }
+        return Optional.of(value);
+    }
+
+    /**
+     * Gets values of the given keys from the near cache, and the rest by a single MGET.
+     *
+     * @param keys cache keys must not be null
+     * @return a map of present keys and values
+     */
+    @Override
+    @NonNull
+    public Map<String, String> getAll(@NonNull Collection<String> keys) {
+        Assert.notNull(keys, "Cache keys must not be null");
+
+        Map<String, String> values = new LinkedHashMap<>(keys.size());
+        List<String> missingKeys = new ArrayList<>();
+        keys.forEach(key -> {
+            Optional<String> nearValue = nearCache.get(key);
+            if (nearValue.isPresent()) {
+                values.put(key, nearValue.get());
+            } else {
+                missingKeys.add(key);
+            }
+        });
+        // Values read without their expiration are not put into the near cache
+        values.putAll(super.getAll(missingKeys));
+        return values;
+    }
+
+    @Override
+    void putInternal(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
+        super.putInternal(key, cacheWrapper);
+        invalidate(Collections.singletonList(key));
+    }
+
+    @Override
+    Boolean putInternalIfAbsent(@NonNull String key, @NonNull CacheWrapper<String> cacheWrapper) {
+        Boolean absent = super.putInternalIfAbsent(key, cacheWrapper);
+        if (Boolean.TRUE.equals(absent)) {
+            invalidate(Collections.singletonList(key));
+        }
+        return absent;
+    }
+
+    @Override
+    public void delete(@NonNull String key) {
+        super.delete(key);
+        invalidate(Collections.singletonList(key));
+    }
+
+    @Override
+    public void deleteAll(@NonNull Collection<String> keys) {
+        super.deleteAll(keys);
+        if (!keys.isEmpty()) {
+            invalidate(keys);
+        }
+    }
+
+    /**
+     * Gets statistics of the near cache.
+     *
+     * @return near cache statistics
+     */
+    @NonNull
+    public InMemoryCacheStore.CacheStats getNearCacheStats() {
+        return nearCache.getStats();
+    }
+
+    /**
+     * Binds the statistics of the near cache to the meter registry.
+     *
+     * @param meterRegistry meter registry must not be null
+     */
+    public void bindNearCacheTo(@NonNull MeterRegistry meterRegistry) {
+        nearCache.bindTo(meterRegistry, "redis-near");
+    }
+
+    @Override
+    @PreDestroy
+    public void preDestroy() {
+        try {
+            listenerContainer.destroy();
+        } catch (Exception e) {
+            log.warn("Failed to stop the redis invalidation listener", e);
+        }
+        nearCache.preDestroy();
+    }
+
+    private void invalidate(Collection<String> keys) {
+        evict(keys);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                nodeId + SEPARATOR + String.join(SEPARATOR, keys));
+        } catch (RuntimeException e) {
+            // Other nodes still drop the keys once the near cache ttl elapses
+            log.warn("Failed to publish invalidation of keys: [{}]", keys, e);
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            // Local writes have been evicted already
+            return;
+        }
+        evict(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    private void evict(Collection<String> keys) {
+        generation.incrementAndGet();
+        keys.forEach(nearCache::delete);
+        log.debug("Evicted near cache keys: [{}]", keys);
+    }
+}
@@ -0,0 +1,169 @@
+package run.halo.app.cache;
+
+import java.util.function.Consumer;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Hierarchical timer wheel of expiring timers.
+ *
+ * <p>Every level is a ring of buckets, each bucket covers a power of two milliseconds. A timer is
+ * put into the lowest level whose ring covers its delay and cascades into lower levels as time
+ * advances, so advancing only visits buckets whose time has passed instead of every timer.
+ *
+ * <p>This class is not thread-safe, callers must guard it with their own lock.
+ */
+final class TimerWheel<T extends TimerWheel.Timer> {
+
+    /**
+     * Number of buckets of every level.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * Bucket width of every level as a power of two milliseconds, about 1 second, 1 minute,
+     * 1 hour and 3 days. Levels are 64 times wider than the level below, so every ring covers
+     * exactly one bucket of the level above.
+     */
+    private static final int[] SHIFTS = {10, 16, 22, 28};
+
+    private final Timer[][] wheel = new Timer[SHIFTS.length][BUCKETS];
+
+    private final Consumer<T> expirer;
+
+    private long time;
+
+    /**
+     * Creates a timer wheel.
+     *
+     * @param time current time in milliseconds
+     * @param expirer consumer of expired timers must not be null
+     */
+    TimerWheel(long time, @NonNull Consumer<T> expirer) {
+        Assert.notNull(expirer, "Expirer must not be null");
+
+        this.time = time;
+        this.expirer = expirer;
+        for (Timer[] buckets : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Timer sentinel = new Timer();
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                buckets[i] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules a timer, which must not be scheduled already.
+     *
+     * @param timer timer must not be null
+     */
+    void schedule(@NonNull T timer) {
+        Timer sentinel = findBucket(timer.expireAt);
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    /**
+     * Removes a timer if it is scheduled.
+     *
+     * @param timer timer must not be null
+     */
+    void deschedule(@NonNull T timer) {
+        if (timer.next != null) {
+            timer.prev.next = timer.next;
+            timer.next.prev = timer.prev;
+            timer.prev = null;
+            timer.next = null;
+        }
+    }
+
+    /**
+     * Advances the wheel, timers expired at the given time are passed to the expirer.
+     *
+     * @param now current time in milliseconds
+     */
+    void advance(long now) {
+        long previousTime = time;
+        time = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previousTime >>> SHIFTS[level];
+            long delta = (now >>> SHIFTS[level]) - previousTicks;
+            if (delta <= 0) {
+                // Higher levels have not ticked either
+                break;
+            }
+            expire(level, previousTicks, delta);
+        }
+    }
+
+    /**
+     * Removes all timers.
+     */
+    void clear() {
+        for (Timer[] buckets : wheel) {
+            for (Timer sentinel : buckets) {
+                Timer timer = sentinel.next;
+                while (timer != sentinel) {
+                    Timer next = timer.next;
+                    timer.prev = null;
+                    timer.next = null;
+                    timer = next;
+                }
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expire(int level, long previousTicks, long delta) {
+        Timer[] buckets = wheel[level];
+        int start = (int) (previousTicks & (BUCKETS - 1));
+        int steps = (int) Math.min(delta + 1, BUCKETS);
+        for (int i = start; i < start + steps; i++) {
+            Timer sentinel = buckets[i & (BUCKETS - 1)];
+            Timer timer = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+
+            while (timer != sentinel) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.expireAt <= time) {
+                    expirer.accept((T) timer);
+                } else {
+                    // Cascade into a lower level
+                    schedule((T) timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    private Timer findBucket(long expireAt) {
+        long delay = expireAt - time;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delay >= 1L << SHIFTS[level + 1]) {
+            level++;
+        }
+        // Timers beyond the top ring wrap around, they are scheduled again once visited
+        return wheel[level][(int) ((expireAt >>> SHIFTS[level]) & (BUCKETS - 1))];
+    }
+
+    /**
+     * Timer linked into a bucket of the wheel.
+     */
+    static class Timer {
+
+        long expireAt;
+
+        Timer prev;
+
+        Timer next;
+    }
+}
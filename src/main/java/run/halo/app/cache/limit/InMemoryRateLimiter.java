@@ -0,0 +1,102 @@
+package run.halo.app.cache.limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.Assert;
+
+/**
+ * In-memory rate limiter using sliding window counters.
+ *
+ * <p>Every key keeps the counts of the current and the previous fixed window. The count of the
+ * sliding window is approximated by weighting the previous count with its part still covered by
+ * the sliding window, which needs constant memory per key however many requests are made.
+ */
+@Slf4j
+public class InMemoryRateLimiter implements RateLimiter {
+
+    /**
+     * Period of evicting idle counters.(ms)
+     */
+    private static final long EVICTION_PERIOD = 60_000;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    public InMemoryRateLimiter() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryRateLimiter(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(@NonNull String key, int permits, @NonNull Duration window) {
+        Assert.notNull(key, "Rate limit key must not be null");
+        Assert.isTrue(window.toMillis() > 0, "Rate limit window must be positive");
+
+        long windowMillis = window.toMillis();
+        long now = clock.millis();
+        long windowIndex = now / windowMillis;
+        double previousWeight = 1 - (double) (now % windowMillis) / windowMillis;
+
+        boolean[] acquired = new boolean[1];
+        counters.compute(key, (k, counter) -> {
+            if (counter == null) {
+                counter = new Counter(windowIndex);
+            }
+            counter.slide(windowIndex);
+            if (counter.previous * previousWeight + counter.current < permits) {
+                counter.current++;
+                acquired[0] = true;
+            }
+            counter.idleAt = (windowIndex + 2) * windowMillis;
+            return counter;
+        });
+        return acquired[0];
+    }
+
+    /**
+     * Evicts counters whose windows have all slid out.
+     */
+    @Scheduled(fixedDelay = EVICTION_PERIOD)
+    public void evictIdleCounters() {
+        long now = clock.millis();
+        counters.values().removeIf(counter -> counter.idleAt <= now);
+        log.debug("Rate limiter is tracking [{}] key(s)", counters.size());
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private static class Counter {
+
+        private long windowIndex;
+
+        private int previous;
+
+        private int current;
+
+        private long idleAt;
+
+        private Counter(long windowIndex) {
+            this.windowIndex = windowIndex;
+        }
+
+        private void slide(long windowIndex) {
+            if (windowIndex == this.windowIndex) {
+                return;
+            }
+            previous = windowIndex == this.windowIndex + 1 ? current : 0;
+            current = 0;
+            this.windowIndex = windowIndex;
+        }
+    }
+}
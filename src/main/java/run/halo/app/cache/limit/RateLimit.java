@@ -0,0 +1,45 @@
+package run.halo.app.cache.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit annotation. Requests of the annotated method are limited per client ip.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * Limit prefix, default is the method signature. Methods with the same prefix share the limit.
+     *
+     * @return limit prefix
+     */
+    String prefix() default "";
+
+    /**
+     * Maximum number of requests in a period.
+     *
+     * @return permits
+     */
+    int permits();
+
+    /**
+     * Period, default is 1.
+     *
+     * @return period
+     */
+    long period() default 1;
+
+    /**
+     * Time unit, default is TimeUnit.MINUTES.
+     *
+     * @return time unit
+     */
+    TimeUnit timeUnit() default TimeUnit.MINUTES;
+}
@@ -0,0 +1,47 @@
+package run.halo.app.cache.limit;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.annotation.Configuration;
+import run.halo.app.exception.FrequentAccessException;
+import run.halo.app.utils.ServletUtils;
+
+/**
+ * Interceptor for rate limit annotation.
+ */
+@Slf4j
+@Aspect
+@Configuration
+public class RateLimitInterceptor {
+
+    private static final String RATE_LIMIT_PREFIX = "rate_limit:";
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Around("@annotation(run.halo.app.cache.limit.RateLimit)")
+    public Object interceptRateLimit(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
+        RateLimit rateLimit = methodSignature.getMethod().getAnnotation(RateLimit.class);
+
+        String key = RATE_LIMIT_PREFIX
+            + (StringUtils.isNotBlank(rateLimit.prefix()) ? rateLimit.prefix()
+            : methodSignature.getMethod().toString())
+            + ":" + ServletUtils.getRequestIp();
+        Duration window = Duration.ofMillis(rateLimit.timeUnit().toMillis(rateLimit.period()));
+
+        if (!rateLimiter.tryAcquire(key, rateLimit.permits(), window)) {
+            log.debug("Rejected request exceeding rate limit: [{}]", key);
+            throw new FrequentAccessException("访问过于频繁，请稍后再试！").setErrorData(key);
+        }
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,21 @@
+package run.halo.app.cache.limit;
+
+import java.time.Duration;
+import org.springframework.lang.NonNull;
+
+/**
+ * Rate limiter counting acquisitions of every key in a sliding window.
+ */
+public interface RateLimiter {
+
+    /**
+     * Tries to acquire a permit of the key. Rejected acquisitions are not counted, so a client
+     * keeping retrying is allowed again as soon as its earlier acquisitions slide out.
+     *
+     * @param key limited key, e.g. route and client ip
+     * @param permits maximum number of acquisitions in the window
+     * @param window window size
+     * @return true if the permit is acquired; false if the key exceeds the limit
+     */
+    boolean tryAcquire(@NonNull String key, int permits, @NonNull Duration window);
+}
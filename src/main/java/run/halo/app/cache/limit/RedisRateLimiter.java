@@ -0,0 +1,52 @@
+package run.halo.app.cache.limit;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Redis rate limiter sharing limits between halo instances. It uses the same sliding window
+ * counters as {@link InMemoryRateLimiter}, checked and incremented atomically by a lua script.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+        "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n"
+            + "local previous = tonumber(redis.call('GET', KEYS[2]) or '0')\n"
+            + "local window = tonumber(ARGV[2])\n"
+            + "local weight = (window - tonumber(ARGV[3])) / window\n"
+            + "if previous * weight + current >= tonumber(ARGV[1]) then\n"
+            + "    return 0\n"
+            + "end\n"
+            + "redis.call('INCR', KEYS[1])\n"
+            + "redis.call('PEXPIRE', KEYS[1], window * 2)\n"
+            + "return 1\n",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean tryAcquire(@NonNull String key, int permits, @NonNull Duration window) {
+        Assert.notNull(key, "Rate limit key must not be null");
+        Assert.isTrue(window.toMillis() > 0, "Rate limit window must be positive");
+
+        long windowMillis = window.toMillis();
+        long now = System.currentTimeMillis();
+        long windowIndex = now / windowMillis;
+        // Hash tag keeps both windows in the same slot of a redis cluster
+        String taggedKey = "{" + key + "}:";
+        Long acquired = redisTemplate.execute(ACQUIRE_SCRIPT,
+            List.of(taggedKey + windowIndex, taggedKey + (windowIndex - 1)),
+            String.valueOf(permits), String.valueOf(windowMillis),
+            String.valueOf(now % windowMillis));
+        return acquired != null && acquired == 1L;
+    }
+}
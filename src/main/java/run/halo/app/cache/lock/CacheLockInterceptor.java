@@ -1,6 +1,10 @@
 package run.halo.app.cache.lock;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -10,9 +14,7 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
 import org.springframework.util.Assert;
-import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.exception.FrequentAccessException;
-import run.halo.app.exception.ServiceException;
 import run.halo.app.utils.ServletUtils;
 
 /**
@@ -28,12 +30,27 @@ public class CacheLockInterceptor {
 
     private static final String CACHE_LOCK_PREFIX = "cache_lock_";
 
-    private static final String CACHE_LOCK_VALUE = "locked";
+    private final LockService lockService;
 
-    private final AbstractStringCacheStore cacheStore;
+    private final Timer acquiredTimer;
 
-    public CacheLockInterceptor(AbstractStringCacheStore cacheStore) {
-        this.cacheStore = cacheStore;
+    private final Timer rejectedTimer;
+
+    private final Timer holdTimer;
+
+    public CacheLockInterceptor(LockService lockService, MeterRegistry meterRegistry) {
+        this.lockService = lockService;
+        this.acquiredTimer = Timer.builder("halo.cache.lock.acquire")
+            .tag("result", "acquired")
+            .description("Time of acquiring cache locks")
+            .register(meterRegistry);
+        this.rejectedTimer = Timer.builder("halo.cache.lock.acquire")
+            .tag("result", "rejected")
+            .description("Time of failing to acquire cache locks held by others")
+            .register(meterRegistry);
+        this.holdTimer = Timer.builder("halo.cache.lock.hold")
+            .description("Time of holding cache locks released after method invocation")
+            .register(meterRegistry);
     }
 
     @Around("@annotation(run.halo.app.cache.lock.CacheLock)")
@@ -51,29 +68,26 @@ public class CacheLockInterceptor {
 
         log.debug("Built lock key: [{}]", cacheLockKey);
 
+        String owner = UUID.randomUUID().toString();
+        Duration lease = Duration.ofMillis(cacheLock.timeUnit().toMillis(cacheLock.expired()));
+        long startTime = System.nanoTime();
+        boolean locked = lockService.tryLock(cacheLockKey, owner, lease);
+        long lockedTime = System.nanoTime();
+        (locked ? acquiredTimer : rejectedTimer).record(Duration.ofNanos(lockedTime - startTime));
 
-        try {
-            // Get from cache
-            Boolean cacheResult = cacheStore
-                .putIfAbsent(cacheLockKey, CACHE_LOCK_VALUE, cacheLock.expired(),
-                    cacheLock.timeUnit());
-
-            if (cacheResult == null) {
-                throw new ServiceException("Unknown reason of cache " + cacheLockKey)
-                    .setErrorData(cacheLockKey);
-            }
-
-            if (!cacheResult) {
-                throw new FrequentAccessException("访问过于频繁，请稍后再试！").setErrorData(cacheLockKey);
-            }
+        if (!locked) {
+            throw new FrequentAccessException("访问过于频繁，请稍后再试！").setErrorData(cacheLockKey);
+        }
 
+        try {
             // Proceed the method
             return joinPoint.proceed();
         } finally {
-            // Delete the cache
+            // Release the lock
             if (cacheLock.autoDelete()) {
-                cacheStore.delete(cacheLockKey);
-                log.debug("Deleted the cache lock: [{}]", cacheLock);
+                lockService.unlock(cacheLockKey, owner);
+                holdTimer.record(Duration.ofNanos(System.nanoTime() - lockedTime));
+                log.debug("Released the cache lock: [{}]", cacheLockKey);
             }
         }
     }
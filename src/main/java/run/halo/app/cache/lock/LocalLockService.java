@@ -0,0 +1,76 @@
+package run.halo.app.cache.lock;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.Assert;
+
+/**
+ * Lock service for a single halo instance.
+ *
+ * <p>Leases are kept in a concurrent hash map and changed by atomic compute operations, which
+ * only lock the bin of the key. Locks of different keys are acquired concurrently instead of
+ * going through a global mutex.
+ */
+@Slf4j
+public class LocalLockService implements LockService {
+
+    /**
+     * Period of evicting expired leases.(ms)
+     */
+    private static final long EVICTION_PERIOD = 60_000;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryLock(@NonNull String key, @NonNull String owner, @NonNull Duration lease) {
+        Assert.hasText(key, "Lock key must not be blank");
+        Assert.hasText(owner, "Lock owner must not be blank");
+
+        long now = System.currentTimeMillis();
+        Lease newLease = new Lease(owner, now + lease.toMillis());
+        return leases.compute(key, (k, current) ->
+            current == null || current.expireAt <= now ? newLease : current) == newLease;
+    }
+
+    @Override
+    public boolean unlock(@NonNull String key, @NonNull String owner) {
+        Assert.hasText(key, "Lock key must not be blank");
+        Assert.hasText(owner, "Lock owner must not be blank");
+
+        boolean[] released = new boolean[1];
+        leases.computeIfPresent(key, (k, current) -> {
+            if (current.owner.equals(owner)) {
+                released[0] = current.expireAt > System.currentTimeMillis();
+                return null;
+            }
+            return current;
+        });
+        return released[0];
+    }
+
+    /**
+     * Evicts leases which have expired without being released.
+     */
+    @Scheduled(fixedDelay = EVICTION_PERIOD)
+    public void evictExpiredLeases() {
+        long now = System.currentTimeMillis();
+        leases.values().removeIf(lease -> lease.expireAt <= now);
+        log.debug("Local lock service is holding [{}] lock(s)", leases.size());
+    }
+
+    private static class Lease {
+
+        private final String owner;
+
+        private final long expireAt;
+
+        private Lease(String owner, long expireAt) {
+            this.owner = owner;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package run.halo.app.cache.lock;
+
+import java.time.Duration;
+import org.springframework.lang.NonNull;
+
+/**
+ * Lock service. Locks are leases held by an owner token, they are released by the owner or
+ * expire after the lease time, so a crashed owner never keeps a lock forever.
+ */
+public interface LockService {
+
+    /**
+     * Tries to acquire the lock without waiting.
+     *
+     * @param key lock key must not be blank
+     * @param owner owner token must not be blank
+     * @param lease lease time of the lock
+     * @return true if the lock is acquired; false if the lock is held by others
+     */
+    boolean tryLock(@NonNull String key, @NonNull String owner, @NonNull Duration lease);
+
+    /**
+     * Releases the lock if it is still held by the owner.
+     *
+     * @param key lock key must not be blank
+     * @param owner owner token must not be blank
+     * @return true if the lock is released; false if it has expired or is held by others
+     */
+    boolean unlock(@NonNull String key, @NonNull String owner);
+}
@@ -0,0 +1,51 @@
+package run.halo.app.cache.lock;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Redis lock service sharing locks between halo instances. A lock is acquired by a single
+ * SET NX PX with the owner token as value, and released by a lua script deleting the key only
+ * if it still holds the token, so an owner whose lease has expired never releases the lock of
+ * the next owner.
+ */
+public class RedisLockService implements LockService {
+
+    private static final String LOCK_PREFIX = "halo.lock.";
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+            + "    return redis.call('DEL', KEYS[1])\n"
+            + "end\n"
+            + "return 0\n",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLockService(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean tryLock(@NonNull String key, @NonNull String owner, @NonNull Duration lease) {
+        Assert.hasText(key, "Lock key must not be blank");
+        Assert.hasText(owner, "Lock owner must not be blank");
+
+        return Boolean.TRUE.equals(
+            redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + key, owner, lease));
+    }
+
+    @Override
+    public boolean unlock(@NonNull String key, @NonNull String owner) {
+        Assert.hasText(key, "Lock key must not be blank");
+        Assert.hasText(owner, "Lock owner must not be blank");
+
+        Long deleted = redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_PREFIX + key), owner);
+        return deleted != null && deleted > 0;
+    }
+}
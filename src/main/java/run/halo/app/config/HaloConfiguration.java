@@ -1,11 +1,14 @@
 package run.halo.app.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.EnableCaching;
@@ -23,8 +26,16 @@ import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.cache.InMemoryCacheStore;
 import run.halo.app.cache.LevelCacheStore;
 import run.halo.app.cache.RedisCacheStore;
+import run.halo.app.cache.RedisNearCacheStore;
+import run.halo.app.cache.limit.InMemoryRateLimiter;
+import run.halo.app.cache.limit.RateLimiter;
+import run.halo.app.cache.limit.RedisRateLimiter;
+import run.halo.app.cache.lock.LocalLockService;
+import run.halo.app.cache.lock.LockService;
+import run.halo.app.cache.lock.RedisLockService;
 import run.halo.app.config.attributeconverter.AttributeConverterAutoGenerateConfiguration;
 import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.core.metrics.StatementCountingInspector;
 import run.halo.app.repository.base.BaseRepositoryImpl;
 import run.halo.app.utils.HttpClientUtils;
 
@@ -79,14 +90,63 @@ public class HaloConfiguration {
                 stringCacheStore = new LevelCacheStore(this.haloProperties);
                 break;
             case "redis":
-                stringCacheStore = new RedisCacheStore(stringRedisTemplate);
+                if (haloProperties.isRedisNearCacheEnabled()) {
+                    stringCacheStore = new RedisNearCacheStore(stringRedisTemplate,
+                        haloProperties.getRedisNearCacheMaxEntries(),
+                        haloProperties.getRedisNearCacheMaxSize().toBytes(),
+                        haloProperties.getRedisNearCacheTtl());
+                } else {
+                    stringCacheStore = new RedisCacheStore(stringRedisTemplate);
+                }
                 break;
             case "memory":
             default:
-                stringCacheStore = new InMemoryCacheStore();
+                stringCacheStore =
+                    new InMemoryCacheStore(haloProperties.getMemoryCacheMaxEntries(),
+                        haloProperties.getMemoryCacheMaxSize().toBytes());
                 break;
         }
         log.info("Halo cache store load impl : [{}]", stringCacheStore.getClass());
         return stringCacheStore;
     }
+
+    @Bean
+    MeterBinder stringCacheStoreMeterBinder(AbstractStringCacheStore stringCacheStore) {
+        // Publishes the statistics of in-memory caches under /actuator/metrics
+        return meterRegistry -> {
+            if (stringCacheStore instanceof InMemoryCacheStore) {
+                ((InMemoryCacheStore) stringCacheStore).bindTo(meterRegistry, "memory");
+            } else if (stringCacheStore instanceof RedisNearCacheStore) {
+                ((RedisNearCacheStore) stringCacheStore).bindNearCacheTo(meterRegistry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    RateLimiter rateLimiter() {
+        // Limits are shared between instances only if they share the redis cache store
+        RateLimiter rateLimiter = "redis".equals(haloProperties.getCache())
+            ? new RedisRateLimiter(stringRedisTemplate)
+            : new InMemoryRateLimiter();
+        log.info("Halo rate limiter load impl : [{}]", rateLimiter.getClass());
+        return rateLimiter;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    LockService lockService() {
+        LockService lockService = "redis".equals(haloProperties.getCache())
+            ? new RedisLockService(stringRedisTemplate)
+            : new LocalLockService();
+        log.info("Halo lock service load impl : [{}]", lockService.getClass());
+        return lockService;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCountingCustomizer() {
+        // Counts sql statements executed by each request for the request metrics
+        return hibernateProperties -> hibernateProperties
+            .put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
 }
@@ -43,12 +43,14 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.core.PageJacksonSerializer;
+import run.halo.app.core.metrics.TemplateRenderInterceptor;
 import run.halo.app.core.freemarker.inheritance.ThemeExtendsDirective;
 import run.halo.app.factory.StringToEnumConverterFactory;
 import run.halo.app.security.resolver.AuthenticationArgumentResolver;
@@ -69,15 +71,18 @@ public class HaloMvcConfiguration implements WebMvcConfigurer {
     private final PageableHandlerMethodArgumentResolver pageableResolver;
     private final SortHandlerMethodArgumentResolver sortResolver;
     private final HaloProperties haloProperties;
+    private final TemplateRenderInterceptor templateRenderInterceptor;
     @Value("${springfox.documentation.swagger-ui.base-url:}")
     private String swaggerBaseUrl;
 
     public HaloMvcConfiguration(PageableHandlerMethodArgumentResolver pageableResolver,
         SortHandlerMethodArgumentResolver sortResolver,
-        HaloProperties haloProperties) {
+        HaloProperties haloProperties,
+        TemplateRenderInterceptor templateRenderInterceptor) {
         this.pageableResolver = pageableResolver;
         this.sortResolver = sortResolver;
         this.haloProperties = haloProperties;
+        this.templateRenderInterceptor = templateRenderInterceptor;
     }
 
     // @Bean
@@ -167,6 +172,11 @@ public class HaloMvcConfiguration implements WebMvcConfigurer {
             .setViewName("redirect:" + swaggerBaseUrl + "/swagger-ui/");
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(templateRenderInterceptor);
+    }
+
     /**
      * Configuring static resource path
      *
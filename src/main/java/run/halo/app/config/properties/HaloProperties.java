@@ -6,8 +6,10 @@ import static run.halo.app.model.support.HaloConst.USER_HOME;
 import static run.halo.app.utils.HaloUtils.ensureSuffix;
 
 import java.time.Duration;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import run.halo.app.model.enums.Mode;
 
 
@@ -70,10 +72,128 @@ public class HaloProperties {
      */
     private Duration downloadTimeout = Duration.ofSeconds(30);
 
+    /**
+     * Period of flushing accumulated post and sheet visits into database.
+     */
+    private Duration visitFlushPeriod = Duration.ofSeconds(10);
+
+    /**
+     * Requests slower than the threshold are logged with their sql statements and rendered
+     * template.
+     */
+    private Duration slowRequestThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Whether to cache rendered theme pages.
+     */
+    private boolean pageCacheEnabled = true;
+
+    /**
+     * Maximum total size of cached theme pages.
+     */
+    private DataSize pageCacheMaxSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Time to live of a cached theme page. Pages are also evicted on content, option and theme
+     * changes, this only bounds staleness of data without change events, e.g. menus and links.
+     */
+    private Duration pageCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Time to live of a user resolved from an admin access token. It bounds how long another
+     * instance sharing the redis cache store accepts a token after logging out.
+     */
+    private Duration principalCacheTtl = Duration.ofSeconds(30);
+
     /**
      * cache store impl
      * memory
      * level
      */
     private String cache = "memory";
+
+    /**
+     * Maximum number of entries of the memory cache store.
+     */
+    private long memoryCacheMaxEntries = 10_000;
+
+    /**
+     * Maximum approximate size of the memory cache store.
+     */
+    private DataSize memoryCacheMaxSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Whether to keep a local near cache in front of the redis cache store.
+     */
+    private boolean redisNearCacheEnabled = false;
+
+    /**
+     * Maximum number of entries of the redis near cache.
+     */
+    private long redisNearCacheMaxEntries = 1_000;
+
+    /**
+     * Maximum approximate size of the redis near cache.
+     */
+    private DataSize redisNearCacheMaxSize = DataSize.ofMegabytes(4);
+
+    /**
+     * Time to live of a redis near cache entry, which bounds how long a node may read a stale
+     * value when an invalidation message is lost.
+     */
+    private Duration redisNearCacheTtl = Duration.ofMinutes(1);
+
+    /**
+     * Widths of responsive variants generated for uploaded images. Only widths smaller than the
+     * original image are generated.
+     */
+    private List<Integer> imageVariantWidths = List.of(320, 640, 1280);
+
+    /**
+     * Number of threads generating thumbnails and variants of uploaded images.
+     */
+    private int imageWorkerThreads = 2;
+
+    /**
+     * Maximum number of images waiting for generating thumbnails and variants.
+     */
+    private int imageQueueCapacity = 100;
+
+    /**
+     * Maximum number of pixels decoded from an image. Larger images are subsampled while being
+     * decoded, which bounds memory used by every worker.
+     */
+    private long imageDecodeMaxPixels = 16_000_000;
+
+    /**
+     * Size of every part of a chunked upload except the last one. It may be enlarged for huge
+     * files, which are limited to 10000 parts.
+     */
+    private DataSize chunkedUploadPartSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Time to keep an unfinished chunked upload resumable.
+     */
+    private Duration chunkedUploadTtl = Duration.ofHours(24);
+
+    /**
+     * Maximum number of audit logs waiting to be written. Logs are dropped if the queue stays
+     * full, which is counted by the halo.logs.dropped meter.
+     */
+    private int logQueueCapacity = 10_000;
+
+    /**
+     * Maximum number of audit logs written by one batch insert.
+     */
+    private int logBatchSize = 500;
+
+    /**
+     * Period of writing queued audit logs into database.
+     */
+    private Duration logFlushPeriod = Duration.ofSeconds(1);
+
+    /**
+     * Time to keep audit logs, older logs are pruned in background. Zero keeps logs forever.
+     */
+    private Duration logRetention = Duration.ofDays(180);
 }
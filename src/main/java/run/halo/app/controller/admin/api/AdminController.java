@@ -1,5 +1,6 @@
 package run.halo.app.controller.admin.api;
 
+import java.util.concurrent.TimeUnit;
 import javax.validation.Valid;
 
 import org.springframework.http.HttpStatus;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.annotations.ApiOperation;
 import run.halo.app.annotation.DisableOnCondition;
+import run.halo.app.cache.limit.RateLimit;
 import run.halo.app.cache.lock.CacheLock;
 import run.halo.app.model.dto.EnvironmentDTO;
 import run.halo.app.model.dto.LoginPreCheckDTO;
@@ -57,7 +59,7 @@ public class AdminController {
 
     @PostMapping("login/precheck")
     @ApiOperation("Login")
-    @CacheLock(autoDelete = false, prefix = "login_precheck")
+    @RateLimit(prefix = "login_precheck", permits = 10)
     public LoginPreCheckDTO authPreCheck(@RequestBody @Valid LoginParam loginParam) {
         final User user = adminService.authenticate(loginParam);
         return new LoginPreCheckDTO(MFAType.useMFA(user.getMfaType()));
@@ -65,7 +67,7 @@ public class AdminController {
 
     @PostMapping("login")
     @ApiOperation("Login")
-    @CacheLock(autoDelete = false, prefix = "login_auth")
+    @RateLimit(prefix = "login_auth", permits = 10)
     public AuthToken auth(@RequestBody @Valid LoginParam loginParam) {
         return adminService.authCodeCheck(loginParam);
     }
@@ -79,7 +81,7 @@ public class AdminController {
 
     @PostMapping("password/code")
     @ApiOperation("Sends reset password verify code")
-    @CacheLock(autoDelete = false)
+    @RateLimit(permits = 3, period = 10, timeUnit = TimeUnit.MINUTES)
     @DisableOnCondition
     public void sendResetCode(@RequestBody @Valid ResetPasswordSendCodeParam param) {
         adminService.sendResetPasswordCode(param);
@@ -87,7 +89,7 @@ public class AdminController {
 
     @PutMapping("password/reset")
     @ApiOperation("Resets password by verify code")
-    @CacheLock(autoDelete = false)
+    @RateLimit(permits = 5, period = 10, timeUnit = TimeUnit.MINUTES)
     @DisableOnCondition
     public void resetPassword(@RequestBody @Valid ResetPasswordParam param) {
         adminService.resetPasswordByCode(param);
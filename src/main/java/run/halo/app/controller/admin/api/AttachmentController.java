@@ -3,8 +3,11 @@ package run.halo.app.controller.admin.api;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 import io.swagger.annotations.ApiOperation;
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,15 +20,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import run.halo.app.cache.lock.CacheLock;
+import run.halo.app.cache.lock.CacheParam;
 import run.halo.app.model.dto.AttachmentDTO;
+import run.halo.app.model.dto.ChunkedUploadDTO;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
 import run.halo.app.model.params.AttachmentParam;
 import run.halo.app.model.params.AttachmentQuery;
+import run.halo.app.model.params.ChunkedUploadParam;
 import run.halo.app.service.AttachmentService;
+import run.halo.app.service.ChunkedUploadService;
 
 /**
  * Attachment controller.
@@ -39,8 +48,12 @@ public class AttachmentController {
 
     private final AttachmentService attachmentService;
 
-    public AttachmentController(AttachmentService attachmentService) {
+    private final ChunkedUploadService chunkedUploadService;
+
+    public AttachmentController(AttachmentService attachmentService,
+        ChunkedUploadService chunkedUploadService) {
         this.attachmentService = attachmentService;
+        this.chunkedUploadService = chunkedUploadService;
     }
 
     @GetMapping
@@ -99,6 +112,43 @@ public class AttachmentController {
         return result;
     }
 
+    @PostMapping("chunked_uploads")
+    @ApiOperation("Initiates a chunked upload")
+    public ChunkedUploadDTO initiateChunkedUpload(
+        @RequestBody @Valid ChunkedUploadParam uploadParam) {
+        return chunkedUploadService.initiate(uploadParam);
+    }
+
+    @GetMapping("chunked_uploads/{uploadId}")
+    @ApiOperation("Gets a chunked upload with its uploaded parts")
+    public ChunkedUploadDTO getChunkedUpload(@PathVariable("uploadId") String uploadId) {
+        return chunkedUploadService.getBy(uploadId);
+    }
+
+    @PutMapping(value = "chunked_uploads/{uploadId}/parts/{partNumber:\\d+}",
+        consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @ApiOperation("Uploads a part of a chunked upload (Invalid in Swagger UI)")
+    public void uploadPart(@PathVariable("uploadId") String uploadId,
+        @PathVariable("partNumber") Integer partNumber,
+        @RequestParam("checksum") String checksum,
+        HttpServletRequest request) throws IOException {
+        chunkedUploadService.uploadPart(uploadId, partNumber, checksum, request.getInputStream());
+    }
+
+    @PostMapping("chunked_uploads/{uploadId}/complete")
+    @ApiOperation("Completes a chunked upload")
+    @CacheLock(prefix = "complete_chunked_upload", expired = 1, timeUnit = TimeUnit.HOURS)
+    public AttachmentDTO completeChunkedUpload(
+        @PathVariable("uploadId") @CacheParam String uploadId) {
+        return attachmentService.convertToDto(chunkedUploadService.complete(uploadId));
+    }
+
+    @DeleteMapping("chunked_uploads/{uploadId}")
+    @ApiOperation("Aborts a chunked upload")
+    public void abortChunkedUpload(@PathVariable("uploadId") String uploadId) {
+        chunkedUploadService.abort(uploadId);
+    }
+
     @GetMapping("media_types")
     @ApiOperation("Lists all of media types")
     public List<String> listMediaTypes() {
@@ -85,8 +85,17 @@ public class BackupController {
     @PostMapping("work-dir")
     @ApiOperation("Backups work directory")
     @DisableOnCondition
-    public BackupDTO backupHalo(@RequestBody List<String> options) {
-        return backupService.backupWorkDirectory(options);
+    public BackupDTO backupHalo(@RequestBody List<String> options,
+        @RequestParam(value = "incremental", defaultValue = "false") Boolean incremental) {
+        return incremental ? backupService.snapshotWorkDirectory(options)
+            : backupService.backupWorkDirectory(options);
+    }
+
+    @PostMapping("work-dir/restore")
+    @ApiOperation("Restores a work directory snapshot to a new directory")
+    @DisableOnCondition
+    public String restoreSnapshot(@RequestParam("filename") String filename) {
+        return backupService.restoreWorkDirSnapshot(filename).toString();
     }
 
     @GetMapping("work-dir/options")
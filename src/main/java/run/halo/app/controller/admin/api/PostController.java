@@ -32,6 +32,7 @@ import run.halo.app.model.params.PostParam;
 import run.halo.app.model.params.PostQuery;
 import run.halo.app.model.vo.PostDetailVO;
 import run.halo.app.service.OptionService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.assembler.PostAssembler;
 import run.halo.app.service.cern.PostUserService;
@@ -72,6 +73,8 @@ public class PostController {
 
     private final PostUserService postUserService;
 
+    private final PostSearchService postSearchService;
+
     /**
      * post controller.
      *
@@ -80,14 +83,16 @@ public class PostController {
      * @param optionService option service.
      * @param postAssembler post assembler.
      * @param postUserService post user service.
+     * @param postSearchService post search service.
      */
     public PostController(PostService postService, AbstractStringCacheStore cacheStore, OptionService optionService, PostAssembler postAssembler,
-                          PostUserService postUserService) {
+                          PostUserService postUserService, PostSearchService postSearchService) {
         this.postService = postService;
         this.cacheStore = cacheStore;
         this.optionService = optionService;
         this.postAssembler = postAssembler;
         this.postUserService = postUserService;
+        this.postSearchService = postSearchService;
     }
 
     /**
@@ -360,6 +365,21 @@ public class PostController {
         return postService.removeByIds(ids);
     }
 
+    /**
+     * rebuild post search index from database.
+     *
+     * @param user user info passed from auth filter.
+     */
+    @PostMapping("search-index")
+    @ApiOperation("Rebuilds post search index")
+    public void rebuildSearchIndex(User user) {
+        Assert.notNull(user, "User must not be null");
+        if (user.getUserType() != UserType.ADMIN) {
+            throw new AuthenticationException("无权重建搜索索引");
+        }
+        postSearchService.rebuild();
+    }
+
     /**
      * gets a post preview link.
      *
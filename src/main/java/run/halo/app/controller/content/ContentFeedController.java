@@ -17,7 +17,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Controller;
@@ -28,6 +27,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
+import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.dto.CategoryDTO;
 import run.halo.app.model.entity.Category;
 import run.halo.app.model.entity.Post;
@@ -37,6 +37,7 @@ import run.halo.app.service.CategoryService;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.PostService;
+import run.halo.app.service.SitemapService;
 import run.halo.app.service.assembler.PostRenderAssembler;
 
 /**
@@ -68,17 +69,21 @@ public class ContentFeedController {
 
     private final FreeMarkerConfigurer freeMarker;
 
+    private final SitemapService sitemapService;
+
     public ContentFeedController(PostService postService,
         PostRenderAssembler postRenderAssembler, CategoryService categoryService,
         PostCategoryService postCategoryService,
         OptionService optionService,
-        FreeMarkerConfigurer freeMarker) {
+        FreeMarkerConfigurer freeMarker,
+        SitemapService sitemapService) {
         this.postService = postService;
         this.postRenderAssembler = postRenderAssembler;
         this.categoryService = categoryService;
         this.postCategoryService = postCategoryService;
         this.optionService = optionService;
         this.freeMarker = freeMarker;
+        this.sitemapService = sitemapService;
     }
 
     /**
@@ -182,19 +187,25 @@ public class ContentFeedController {
     /**
      * Get sitemap.xml.
      *
-     * @param model model
-     * @return sitemap xml content.
-     * @throws IOException       IOException
-     * @throws TemplateException TemplateException
+     * @return sitemap xml content, or a sitemap index if there are too many urls
      */
     @GetMapping(value = {"sitemap", "sitemap.xml"}, produces = XML_MEDIA_TYPE)
     @ResponseBody
-    public String sitemapXml(Model model,
-        @PageableDefault(size = Integer.MAX_VALUE, sort = "createTime", direction = DESC)
-            Pageable pageable) throws IOException, TemplateException {
-        model.addAttribute("posts", buildPosts(pageable));
-        Template template = freeMarker.getConfiguration().getTemplate("common/web/sitemap_xml.ftl");
-        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    public String sitemapXml() {
+        return sitemapService.getSitemapXml();
+    }
+
+    /**
+     * Get a numbered sitemap file listed in sitemap index.
+     *
+     * @param index sitemap file index
+     * @return sitemap xml content
+     */
+    @GetMapping(value = "sitemap-{index:\\d+}.xml", produces = XML_MEDIA_TYPE)
+    @ResponseBody
+    public String sitemapXml(@PathVariable("index") Integer index) {
+        return sitemapService.getSitemapXml(index)
+            .orElseThrow(() -> new NotFoundException("站点地图不存在").setErrorData(index));
     }
 
     /**
@@ -204,10 +215,8 @@ public class ContentFeedController {
      * @return template path: common/web/sitemap_html
      */
     @GetMapping(value = "sitemap.html")
-    public String sitemapHtml(Model model,
-        @PageableDefault(size = Integer.MAX_VALUE, sort = "createTime", direction = DESC)
-            Pageable pageable) {
-        model.addAttribute("posts", buildPosts(pageable));
+    public String sitemapHtml(Model model) {
+        model.addAttribute("posts", sitemapService.listPosts());
         return "common/web/sitemap_html";
     }
 
@@ -1,12 +1,10 @@
 package run.halo.app.controller.content;
 
-import static org.springframework.data.domain.Sort.Direction.DESC;
-
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.SortDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,7 +15,7 @@ import org.springframework.web.util.HtmlUtils;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.OptionService;
-import run.halo.app.service.PostService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.ThemeService;
 import run.halo.app.service.assembler.PostRenderAssembler;
 
@@ -31,7 +29,7 @@ import run.halo.app.service.assembler.PostRenderAssembler;
 @RequestMapping(value = "/search")
 public class ContentSearchController {
 
-    private final PostService postService;
+    private final PostSearchService postSearchService;
 
     private final PostRenderAssembler postRenderAssembler;
 
@@ -39,10 +37,10 @@ public class ContentSearchController {
 
     private final ThemeService themeService;
 
-    public ContentSearchController(PostService postService,
+    public ContentSearchController(PostSearchService postSearchService,
         PostRenderAssembler postRenderAssembler, OptionService optionService,
         ThemeService themeService) {
-        this.postService = postService;
+        this.postSearchService = postSearchService;
         this.postRenderAssembler = postRenderAssembler;
         this.optionService = optionService;
         this.themeService = themeService;
@@ -58,11 +56,12 @@ public class ContentSearchController {
     @GetMapping
     public String search(Model model,
         @RequestParam(value = "keyword") String keyword) {
-        return this.search(model, HtmlUtils.htmlEscape(keyword), 1, Sort.by(DESC, "createTime"));
+        return this.search(model, keyword, 1);
     }
 
     /**
-     * Render post search page.
+     * Render post search page. Posts are ordered by relevance, and highlighted content snippets
+     * are available as {@code highlights[post.id?c]}.
      *
      * @param model model
      * @param keyword keyword
@@ -71,16 +70,22 @@ public class ContentSearchController {
     @GetMapping(value = "page/{page}")
     public String search(Model model,
         @RequestParam(value = "keyword") String keyword,
-        @PathVariable(value = "page") Integer page,
-        @SortDefault(sort = "createTime", direction = DESC) Sort sort) {
-        final Pageable pageable = PageRequest.of(page - 1, optionService.getPostPageSize(), sort);
-        final Page<Post> postPage = postService.pageBy(keyword, pageable);
+        @PathVariable(value = "page") Integer page) {
+        final Pageable pageable = PageRequest.of(page - 1, optionService.getPostPageSize());
+        final Page<Post> postPage = postSearchService.search(keyword, pageable);
 
         final Page<PostListVO> posts = postRenderAssembler.convertToListVo(postPage);
 
+        final Map<String, String> highlights = postSearchService
+            .highlight(keyword, postPage.map(Post::getId).getContent())
+            .entrySet()
+            .stream()
+            .collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue));
+
         model.addAttribute("is_search", true);
         model.addAttribute("keyword", HtmlUtils.htmlEscape(keyword));
         model.addAttribute("posts", posts);
+        model.addAttribute("highlights", highlights);
         model.addAttribute("meta_keywords", optionService.getSeoKeywords());
         model.addAttribute("meta_description", optionService.getSeoDescription());
         return themeService.render("search");
@@ -1,11 +1,18 @@
 package run.halo.app.controller.content.api;
 
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import run.halo.app.model.vo.ArchiveCountVO;
 import run.halo.app.model.vo.ArchiveMonthVO;
+import run.halo.app.model.vo.ArchivePostVO;
 import run.halo.app.model.vo.ArchiveYearVO;
+import run.halo.app.service.ArchiveService;
 import run.halo.app.service.PostService;
 
 /**
@@ -20,8 +27,11 @@ public class ArchiveController {
 
     private final PostService postService;
 
-    public ArchiveController(PostService postService) {
+    private final ArchiveService archiveService;
+
+    public ArchiveController(PostService postService, ArchiveService archiveService) {
         this.postService = postService;
+        this.archiveService = archiveService;
     }
 
     @GetMapping("years")
@@ -33,4 +43,22 @@ public class ArchiveController {
     public List<ArchiveMonthVO> listMonthArchives() {
         return postService.listMonthArchives();
     }
+
+    @GetMapping("years/counts")
+    public List<ArchiveCountVO> listYearCounts() {
+        return archiveService.listYearCounts();
+    }
+
+    @GetMapping("months/counts")
+    public List<ArchiveCountVO> listMonthCounts() {
+        return archiveService.listMonthCounts();
+    }
+
+    @GetMapping("posts")
+    public Page<ArchivePostVO> pagePosts(
+        @RequestParam(name = "year", required = false) Integer year,
+        @RequestParam(name = "month", required = false) Integer month,
+        @PageableDefault Pageable pageable) {
+        return archiveService.pagePostsBy(year, month, pageable);
+    }
 }
@@ -5,6 +5,7 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 import io.swagger.annotations.ApiOperation;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.HtmlUtils;
+import run.halo.app.cache.limit.RateLimit;
 import run.halo.app.cache.lock.CacheLock;
 import run.halo.app.cache.lock.CacheParam;
 import run.halo.app.model.dto.BaseCommentDTO;
@@ -28,6 +30,7 @@ import run.halo.app.model.entity.JournalComment;
 import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.enums.JournalType;
 import run.halo.app.model.params.JournalCommentParam;
+import run.halo.app.model.support.CommentCursorPage;
 import run.halo.app.model.vo.BaseCommentVO;
 import run.halo.app.model.vo.BaseCommentWithParentVO;
 import run.halo.app.model.vo.CommentWithHasChildrenVO;
@@ -114,6 +117,17 @@ public class JournalController {
         return comments;
     }
 
+    @GetMapping("{journalId:\\d+}/comments/tree_view/cursor")
+    @ApiOperation("Lists comments with tree view by cursor")
+    public CommentCursorPage<BaseCommentVO> listCommentsTreeByCursor(
+        @PathVariable("journalId") Integer journalId,
+        @RequestParam(name = "cursor", required = false) Long cursor) {
+        CommentCursorPage<BaseCommentVO> comments = journalCommentService
+            .listVosBy(journalId, cursor, optionService.getCommentPageSize());
+        comments.getContent().forEach(journalCommentRenderAssembler::clearSensitiveField);
+        return comments;
+    }
+
     @GetMapping("{journalId:\\d+}/comments/list_view")
     @ApiOperation("Lists comment with list view")
     public Page<BaseCommentWithParentVO> listComments(@PathVariable("journalId") Integer journalId,
@@ -128,7 +142,7 @@ public class JournalController {
 
     @PostMapping("comments")
     @ApiOperation("Comments a post")
-    @CacheLock(autoDelete = false, traceRequest = true)
+    @RateLimit(permits = 2, period = 10, timeUnit = TimeUnit.SECONDS)
     public BaseCommentDTO comment(@RequestBody JournalCommentParam journalCommentParam) {
 
         // Escape content
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.HtmlUtils;
+import run.halo.app.cache.limit.RateLimit;
 import run.halo.app.cache.lock.CacheLock;
 import run.halo.app.cache.lock.CacheParam;
 import run.halo.app.controller.content.auth.PostAuthentication;
@@ -28,6 +29,7 @@ import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.enums.PostStatus;
 import run.halo.app.model.params.PostCommentParam;
 import run.halo.app.model.params.PostQuery;
+import run.halo.app.model.support.CommentCursorPage;
 import run.halo.app.model.vo.BaseCommentVO;
 import run.halo.app.model.vo.BaseCommentWithParentVO;
 import run.halo.app.model.vo.CommentWithHasChildrenVO;
@@ -35,6 +37,7 @@ import run.halo.app.model.vo.PostDetailVO;
 import run.halo.app.model.vo.PostListVO;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCommentService;
+import run.halo.app.service.PostSearchService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.assembler.PostRenderAssembler;
 import run.halo.app.service.assembler.comment.PostCommentRenderAssembler;
@@ -42,6 +45,7 @@ import run.halo.app.service.assembler.comment.PostCommentRenderAssembler;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
@@ -70,6 +74,8 @@ public class PostController {
 
     private final PostAuthentication postAuthentication;
 
+    private final PostSearchService postSearchService;
+
     /**
      * post controller constructor.
      *
@@ -79,15 +85,18 @@ public class PostController {
      * @param optionService option service.
      * @param postRenderAssembler post render assembler.
      * @param postAuthentication post authentication.
+     * @param postSearchService post search service.
      */
     public PostController(PostService postService, PostCommentRenderAssembler postCommentRenderAssembler, PostCommentService postCommentService,
-                          OptionService optionService, PostRenderAssembler postRenderAssembler, PostAuthentication postAuthentication) {
+                          OptionService optionService, PostRenderAssembler postRenderAssembler, PostAuthentication postAuthentication,
+                          PostSearchService postSearchService) {
         this.postService = postService;
         this.postCommentRenderAssembler = postCommentRenderAssembler;
         this.postCommentService = postCommentService;
         this.optionService = optionService;
         this.postRenderAssembler = postRenderAssembler;
         this.postAuthentication = postAuthentication;
+        this.postSearchService = postSearchService;
     }
 
     //CS304 issue for https://github.com/halo-dev/halo/issues/1351
@@ -114,7 +123,7 @@ public class PostController {
     }
 
     /**
-     * Lists posts by keyword.
+     * Lists posts by keyword, ordered by relevance.
      *
      * @param keyword keyword.
      * @param pageable pageable.
@@ -123,8 +132,8 @@ public class PostController {
     @PostMapping(value = "search")
     @ApiOperation("Lists posts by keyword")
     public Page<BasePostSimpleDTO> pageBy(@RequestParam(value = "keyword") String keyword,
-                                          @PageableDefault(sort = "createTime", direction = DESC) Pageable pageable) {
-        Page<Post> postPage = postService.pageBy(keyword, pageable);
+                                          @PageableDefault Pageable pageable) {
+        Page<Post> postPage = postSearchService.search(keyword, pageable);
         return postRenderAssembler.convertToSimple(postPage);
     }
 
@@ -283,6 +292,24 @@ public class PostController {
         return comments;
     }
 
+    /**
+     * Lists comments with tree view by cursor, for infinite scrolling.
+     *
+     * @param postId post id.
+     * @param cursor cursor of the previous page
+     * @return comments with tree view and the cursor of next page.
+     */
+    @GetMapping("{postId:\\d+}/comments/tree_view/cursor")
+    @ApiOperation("Lists comments with tree view by cursor")
+    public CommentCursorPage<BaseCommentVO> listCommentsTreeByCursor(@PathVariable("postId") Integer postId,
+                                                                     @RequestParam(name = "cursor", required = false) Long cursor) {
+        checkAuthenticate(postId);
+        CommentCursorPage<BaseCommentVO> comments = postCommentService
+            .listVosBy(postId, cursor, optionService.getCommentPageSize());
+        comments.getContent().forEach(postCommentRenderAssembler::clearSensitiveField);
+        return comments;
+    }
+
     /**
      * Lists comment with list view.
      *
@@ -311,7 +338,7 @@ public class PostController {
      */
     @PostMapping("comments")
     @ApiOperation("Comments a post")
-    @CacheLock(autoDelete = false, traceRequest = true)
+    @RateLimit(permits = 2, period = 10, timeUnit = TimeUnit.SECONDS)
     public BaseCommentDTO comment(@RequestBody PostCommentParam postCommentParam) {
         checkAuthenticate(postCommentParam.getPostId());
         postCommentService.validateCommentBlackListStatus();
@@ -6,6 +6,7 @@ import io.swagger.annotations.ApiOperation;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -21,13 +22,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.HtmlUtils;
-import run.halo.app.cache.lock.CacheLock;
+import run.halo.app.cache.limit.RateLimit;
 import run.halo.app.model.dto.BaseCommentDTO;
 import run.halo.app.model.entity.Sheet;
 import run.halo.app.model.entity.SheetComment;
 import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.enums.PostStatus;
 import run.halo.app.model.params.SheetCommentParam;
+import run.halo.app.model.support.CommentCursorPage;
 import run.halo.app.model.vo.BaseCommentVO;
 import run.halo.app.model.vo.BaseCommentWithParentVO;
 import run.halo.app.model.vo.CommentWithHasChildrenVO;
@@ -175,6 +177,17 @@ public class SheetController {
         return comments;
     }
 
+    @GetMapping("{sheetId:\\d+}/comments/tree_view/cursor")
+    @ApiOperation("Lists comments with tree view by cursor")
+    public CommentCursorPage<BaseCommentVO> listCommentsTreeByCursor(
+        @PathVariable("sheetId") Integer sheetId,
+        @RequestParam(name = "cursor", required = false) Long cursor) {
+        CommentCursorPage<BaseCommentVO> comments = sheetCommentService
+            .listVosBy(sheetId, cursor, optionService.getCommentPageSize());
+        comments.getContent().forEach(sheetCommentRenderAssembler::clearSensitiveField);
+        return comments;
+    }
+
     @GetMapping("{sheetId:\\d+}/comments/list_view")
     @ApiOperation("Lists comment with list view")
     public Page<BaseCommentWithParentVO> listComments(@PathVariable("sheetId") Integer sheetId,
@@ -189,7 +202,7 @@ public class SheetController {
 
     @PostMapping("comments")
     @ApiOperation("Comments a post")
-    @CacheLock(autoDelete = false, traceRequest = true)
+    @RateLimit(permits = 2, period = 10, timeUnit = TimeUnit.SECONDS)
     public BaseCommentDTO comment(@RequestBody SheetCommentParam sheetCommentParam) {
 
         // Escape content
@@ -2,6 +2,7 @@ package run.halo.app.controller.content.auth;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.event.EventListener;
@@ -17,6 +18,7 @@ import run.halo.app.model.enums.EncryptTypeEnum;
 import run.halo.app.service.CategoryService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.PostService;
+import run.halo.app.utils.ServletUtils;
 
 /**
  * Content authentication manager.
@@ -26,6 +28,13 @@ import run.halo.app.service.PostService;
  */
 @Component
 public class ContentAuthenticationManager {
+
+    /**
+     * Session attribute changed on every content authentication of the session, so that pages
+     * rendered for its authenticated content are cached separately.
+     */
+    public static final String AUTHENTICATION_VERSION_ATTRIBUTE = "CONTENT_AUTHENTICATION_VERSION";
+
     private final CategoryService categoryService;
     private final CategoryAuthentication categoryAuthentication;
     private final PostService postService;
@@ -46,10 +55,10 @@ public class ContentAuthenticationManager {
     public ContentAuthentication authenticate(ContentAuthenticationRequest authRequest) throws
         AuthenticationException {
         if (EncryptTypeEnum.POST.getName().equals(authRequest.getPrincipal())) {
-            return authenticatePost(authRequest);
+            return markAuthenticated(authenticatePost(authRequest));
         }
         if (EncryptTypeEnum.CATEGORY.getName().equals(authRequest.getPrincipal())) {
-            return authenticateCategory(authRequest);
+            return markAuthenticated(authenticateCategory(authRequest));
         }
         throw new NotFoundException(
             "Could not be found suitable authentication processor for ["
@@ -76,6 +85,12 @@ public class ContentAuthenticationManager {
         }
     }
 
+    private ContentAuthentication markAuthenticated(ContentAuthentication authentication) {
+        ServletUtils.getCurrentRequest().ifPresent(request -> request.getSession()
+            .setAttribute(AUTHENTICATION_VERSION_ATTRIBUTE, UUID.randomUUID().toString()));
+        return authentication;
+    }
+
     private PostAuthentication authenticatePost(ContentAuthenticationRequest authRequest) {
         Post post = postService.getById(authRequest.getId());
         if (StringUtils.isNotBlank(post.getPassword())) {
@@ -10,10 +10,12 @@ import freemarker.template.TemplateModel;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.enums.PostStatus;
 import run.halo.app.model.support.HaloConst;
+import run.halo.app.service.ArchiveService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.PostService;
 import run.halo.app.service.PostTagService;
@@ -36,6 +38,8 @@ public class PostTagDirective implements TemplateDirectiveModel {
 
     private final PostCategoryService postCategoryService;
 
+    private final ArchiveService archiveService;
+
     /**
      * post tag directive.
      *
@@ -44,16 +48,19 @@ public class PostTagDirective implements TemplateDirectiveModel {
      * @param postRenderAssembler post render assembler
      * @param postTagService      psot tag service
      * @param postCategoryService post category service
+     * @param archiveService      archive service
      */
     public PostTagDirective(Configuration configuration,
             PostService postService,
             PostRenderAssembler postRenderAssembler,
             PostTagService postTagService,
-            PostCategoryService postCategoryService) {
+            PostCategoryService postCategoryService,
+            ArchiveService archiveService) {
         this.postService = postService;
         this.postRenderAssembler = postRenderAssembler;
         this.postTagService = postTagService;
         this.postCategoryService = postCategoryService;
+        this.archiveService = archiveService;
         configuration.setSharedVariable("postTag", this);
     }
 
@@ -75,16 +82,34 @@ public class PostTagDirective implements TemplateDirectiveModel {
                     break;
                 case "archiveYear":
                     env.setVariable("archives",
-                            builder.build().wrap(postService.listYearArchives()));
+                            builder.build().wrap(archiveService.listYearArchives()));
                     break;
                 case "archiveMonth":
                     env.setVariable("archives",
-                            builder.build().wrap(postService.listMonthArchives()));
+                            builder.build().wrap(archiveService.listMonthArchives()));
                     break;
                 case "archive":
                     String type = params.get("type").toString();
                     env.setVariable("archives", builder.build().wrap(
-                            "year".equals(type) ? postService.listYearArchives() : postService.listMonthArchives()));
+                            "year".equals(type) ? archiveService.listYearArchives() : archiveService.listMonthArchives()));
+                    break;
+                case "archiveCount":
+                    env.setVariable("counts", builder.build().wrap(
+                            "year".equals(String.valueOf(params.get("type")))
+                                    ? archiveService.listYearCounts()
+                                    : archiveService.listMonthCounts()));
+                    break;
+                case "archivePosts":
+                    Integer year = params.containsKey("year")
+                            ? Integer.valueOf(params.get("year").toString()) : null;
+                    Integer month = params.containsKey("month")
+                            ? Integer.valueOf(params.get("month").toString()) : null;
+                    int page = params.containsKey("page")
+                            ? Integer.parseInt(params.get("page").toString()) : 0;
+                    int size = params.containsKey("size")
+                            ? Integer.parseInt(params.get("size").toString()) : 10;
+                    env.setVariable("posts", builder.build().wrap(
+                            archiveService.pagePostsBy(year, month, PageRequest.of(page, size))));
                     break;
                 case "listByCategoryId":
                     Integer categoryId = Integer.parseInt(params.get("categoryId").toString());
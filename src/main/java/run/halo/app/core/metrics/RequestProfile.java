@@ -0,0 +1,99 @@
+package run.halo.app.core.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Profile of the request handled by the current thread: sql statements executed and the theme
+ * template rendered.
+ */
+public class RequestProfile {
+
+    /**
+     * Maximum number of distinct sql statements kept for sampling slow requests.
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startTime = System.nanoTime();
+
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+
+    private int statementCount;
+
+    private String template;
+
+    private long templateRenderNanos;
+
+    /**
+     * Starts profiling the request of the current thread.
+     *
+     * @return a new request profile
+     */
+    @NonNull
+    public static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * Gets the profile of the current thread.
+     *
+     * @return an optional request profile, empty if the thread is not handling a request
+     */
+    @NonNull
+    public static Optional<RequestProfile> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Ends profiling the request of the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void addStatement(String sql) {
+        statementCount++;
+        if (statements.size() < MAX_DISTINCT_STATEMENTS || statements.containsKey(sql)) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void setTemplate(String template, long renderNanos) {
+        this.template = template;
+        this.templateRenderNanos = renderNanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startTime;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Gets distinct sql statements and their execution count.
+     *
+     * @return sql statements in order of first execution
+     */
+    @NonNull
+    public Map<String, Integer> getStatements() {
+        return statements;
+    }
+
+    @Nullable
+    public String getTemplate() {
+        return template;
+    }
+
+    public long getTemplateRenderNanos() {
+        return templateRenderNanos;
+    }
+}
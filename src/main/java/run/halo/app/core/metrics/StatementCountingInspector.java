@@ -0,0 +1,15 @@
+package run.halo.app.core.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector counting sql statements of the current request.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestProfile.current().ifPresent(profile -> profile.addStatement(sql));
+        return sql;
+    }
+}
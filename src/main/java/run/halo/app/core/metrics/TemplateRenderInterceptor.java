@@ -0,0 +1,69 @@
+package run.halo.app.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+/**
+ * Interceptor timing the rendering of view templates, which happens between post handle and
+ * after completion.
+ */
+@Component
+public class TemplateRenderInterceptor implements HandlerInterceptor {
+
+    private static final String TEMPLATE_ATTRIBUTE =
+        TemplateRenderInterceptor.class.getName() + ".TEMPLATE";
+
+    private static final String START_TIME_ATTRIBUTE =
+        TemplateRenderInterceptor.class.getName() + ".START_TIME";
+
+    private final MeterRegistry meterRegistry;
+
+    public TemplateRenderInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(@NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response, @NonNull Object handler,
+        @Nullable ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null) {
+            return;
+        }
+        String viewName = modelAndView.getViewName();
+        if (viewName.startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)
+            || viewName.startsWith(UrlBasedViewResolver.FORWARD_URL_PREFIX)) {
+            return;
+        }
+        request.setAttribute(TEMPLATE_ATTRIBUTE, viewName);
+        request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response, @NonNull Object handler, @Nullable Exception ex) {
+        Object template = request.getAttribute(TEMPLATE_ATTRIBUTE);
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        if (!(template instanceof String) || !(startTime instanceof Long)) {
+            return;
+        }
+        long renderNanos = System.nanoTime() - (Long) startTime;
+        Timer.builder("halo.template.render")
+            .tag("template", (String) template)
+            .tag("status", String.valueOf(response.getStatus()))
+            .tag("exception", ex == null ? "None" : ex.getClass().getSimpleName())
+            .description("Time of rendering view templates")
+            .register(meterRegistry)
+            .record(renderNanos, TimeUnit.NANOSECONDS);
+        RequestProfile.current()
+            .ifPresent(profile -> profile.setTemplate((String) template, renderNanos));
+    }
+}
@@ -0,0 +1,278 @@
+package run.halo.app.filter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import run.halo.app.cache.PageCache;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.controller.content.auth.ContentAuthenticationManager;
+import run.halo.app.event.post.AbstractVisitEvent;
+import run.halo.app.utils.HaloUtils;
+
+/**
+ * Filter serving rendered theme pages from {@link PageCache}.
+ *
+ * <p>Only anonymous GET requests handled by a controller method rendering a theme template are
+ * cached, which is decided from the request before the response is buffered, so feeds, sitemaps
+ * and attachments are streamed as usual. Of those, only successful html responses are cached,
+ * together with their headers except the ones bound to a single response such as cookies.
+ *
+ * <p>Pages are keyed by normalized url, plus session and authentication version if the session
+ * has been authenticated for any encrypted content. Cached pages are served with an ETag and
+ * answered with 304 if the client has the same version already.
+ *
+ * <p>Besides the change events handled by {@link PageCache}, every successful modification
+ * through admin api clears the cache, which covers contents without change events such as
+ * sheets, journals, menus and links.
+ */
+@Component
+@Order(0)
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Response headers which are not cached.
+     */
+    private static final Set<String> EXCLUDED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        EXCLUDED_HEADERS.addAll(Arrays.asList(
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.DATE,
+            HttpHeaders.ETAG,
+            HttpHeaders.SET_COOKIE,
+            HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    private final PageCache pageCache;
+
+    private final HaloProperties haloProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final List<String> excludeUrlPatterns;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private HandlerMapping handlerMapping;
+
+    public PageCacheFilter(PageCache pageCache, HaloProperties haloProperties,
+        ApplicationEventPublisher eventPublisher) {
+        this.pageCache = pageCache;
+        this.haloProperties = haloProperties;
+        this.eventPublisher = eventPublisher;
+        this.excludeUrlPatterns = Arrays.asList(
+            HaloUtils.ensureBoth(haloProperties.getAdminPath(), "/") + "**",
+            HaloUtils.ensureBoth(haloProperties.getUploadUrlPrefix(), "/") + "**",
+            "/api/**",
+            "/install",
+            "/version",
+            "/js/**",
+            "/css/**",
+            "/themes/**");
+    }
+
+    @Lazy
+    @Autowired
+    public void setHandlerMapping(
+        @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!haloProperties.isPageCacheEnabled()) {
+            return true;
+        }
+        if (isAdminModification(request)) {
+            return false;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod())
+            // Preview of draft content
+            || request.getParameter("token") != null) {
+            return true;
+        }
+        String requestUri = urlPathHelper.getRequestUri(request);
+        return excludeUrlPatterns.stream()
+            .anyMatch(pattern -> antPathMatcher.match(pattern, requestUri))
+            || !isTemplateHandler(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        if (isAdminModification(request)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+                    pageCache.clear();
+                }
+            }
+            return;
+        }
+
+        String key = buildKey(request);
+
+        Optional<PageCache.Page> cachedPage = pageCache.get(key);
+        if (cachedPage.isPresent()) {
+            PageCache.Page page = cachedPage.get();
+            page.getVisits().forEach(eventPublisher::publishEvent);
+            if (new ServletWebRequest(request, response).checkNotModified(page.getEtag())) {
+                return;
+            }
+            page.getHeaders().forEach((name, values) -> {
+                if (!HttpHeaders.CONTENT_LANGUAGE.equalsIgnoreCase(name)) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            Locale contentLanguage = page.getHeaders().getContentLanguage();
+            if (contentLanguage != null) {
+                // Set as locale, otherwise the servlet container writes it once more
+                response.setLocale(contentLanguage);
+            }
+            response.setHeader(HttpHeaders.ETAG, page.getEtag());
+            response.setContentType(page.getContentType());
+            response.setContentLength(page.getBody().length);
+            response.getOutputStream().write(page.getBody());
+            return;
+        }
+
+        long generation = pageCache.getGeneration();
+        ContentCachingResponseWrapper responseWrapper =
+            new ContentCachingResponseWrapper(response);
+        pageCache.startRendering();
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            List<AbstractVisitEvent> visits = pageCache.stopRendering();
+
+            if (isCacheable(responseWrapper)) {
+                PageCache.Page page = new PageCache.Page(responseWrapper.getContentAsByteArray(),
+                    responseWrapper.getContentType(), getCachedHeaders(responseWrapper), visits);
+                pageCache.put(key, page, generation);
+                responseWrapper.setHeader(HttpHeaders.ETAG, page.getEtag());
+            }
+        } finally {
+            pageCache.stopRendering();
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean isAdminModification(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+            && !HttpMethod.HEAD.matches(request.getMethod())
+            && !HttpMethod.OPTIONS.matches(request.getMethod())
+            && antPathMatcher.match("/api/admin/**", urlPathHelper.getRequestUri(request));
+    }
+
+    /**
+     * Checks if the request is handled by a controller method rendering a template, unlike
+     * feeds and sitemaps written by {@link ResponseBody} methods or static resources.
+     *
+     * @param request http servlet request
+     * @return true if the response is rendered from a template
+     */
+    private boolean isTemplateHandler(HttpServletRequest request) {
+        HandlerExecutionChain handlerChain;
+        try {
+            handlerChain = handlerMapping.getHandler(request);
+        } catch (Exception e) {
+            return false;
+        }
+        if (handlerChain == null || !(handlerChain.getHandler() instanceof HandlerMethod)) {
+            return false;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handlerChain.getHandler();
+        Class<?> returnType = handlerMethod.getReturnType().getParameterType();
+        return (String.class.equals(returnType) || ModelAndView.class.equals(returnType))
+            && !handlerMethod.hasMethodAnnotation(ResponseBody.class)
+            && !AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(),
+            ResponseBody.class);
+    }
+
+    private HttpHeaders getCachedHeaders(HttpServletResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaderNames().stream()
+            .filter(name -> !EXCLUDED_HEADERS.contains(name))
+            .forEach(name -> headers.put(name, List.copyOf(response.getHeaders(name))));
+        // The locale set by view rendering, which is not exposed as header until committed
+        headers.setContentLanguage(response.getLocale());
+        return headers;
+    }
+
+    private boolean isCacheable(ContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK
+            || response.getContentSize() == 0) {
+            return false;
+        }
+        String contentType = response.getContentType();
+        return contentType != null
+            && MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    /**
+     * Builds page key by normalized url and content authentication state.
+     *
+     * @param request http servlet request
+     * @return page key
+     */
+    String buildKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(normalizePath(urlPathHelper.getRequestUri(request)));
+
+        String queryString = request.getQueryString();
+        if (StringUtils.isNotEmpty(queryString)) {
+            String[] params = StringUtils.split(queryString, '&');
+            Arrays.sort(params);
+            key.append('?').append(StringUtils.join(params, '&'));
+        }
+
+        HttpSession session = request.getSession(false);
+        Object authenticationVersion = session == null ? null
+            : session.getAttribute(ContentAuthenticationManager.AUTHENTICATION_VERSION_ATTRIBUTE);
+        if (authenticationVersion != null) {
+            key.append('#').append(session.getId()).append(':').append(authenticationVersion);
+        }
+        return key.toString();
+    }
+
+    private String normalizePath(String path) {
+        String normalized = path.replaceAll("/{2,}", "/");
+        if (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,87 @@
+package run.halo.app.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.core.metrics.RequestProfile;
+
+/**
+ * Filter recording sql statement counts per route and sampling slow requests.
+ *
+ * <p>Latency per route is recorded by the http.server.requests timer of spring boot actuator,
+ * and rendering time of templates by {@link run.halo.app.core.metrics.TemplateRenderInterceptor}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter slowRequestCounter;
+
+    private final long slowRequestThresholdNanos;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, HaloProperties haloProperties) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThresholdNanos = haloProperties.getSlowRequestThreshold().toNanos();
+        this.slowRequestCounter = Counter.builder("halo.http.server.slow.requests")
+            .description("Number of requests slower than the slow request threshold")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfile.end();
+            record(request, response, profile);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response,
+        RequestProfile profile) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern instanceof String ? (String) pattern : UNKNOWN_ROUTE;
+        DistributionSummary.builder("halo.http.server.statements")
+            .tag("method", request.getMethod())
+            .tag("uri", route)
+            .description("Number of sql statements executed by a request")
+            .register(meterRegistry)
+            .record(profile.getStatementCount());
+
+        long elapsedNanos = profile.getElapsedNanos();
+        if (elapsedNanos < slowRequestThresholdNanos) {
+            return;
+        }
+        slowRequestCounter.increment();
+        log.warn("Slow request: [{} {}], route: [{}], status: [{}], usage: [{}] ms, "
+                + "template: [{}] rendered in [{}] ms, [{}] sql statement(s):\n{}",
+            request.getMethod(), request.getRequestURI(), route, response.getStatus(),
+            Duration.ofNanos(elapsedNanos).toMillis(), profile.getTemplate(),
+            Duration.ofNanos(profile.getTemplateRenderNanos()).toMillis(),
+            profile.getStatementCount(),
+            profile.getStatements().entrySet().stream()
+                .map(statement -> "  " + statement.getValue() + " x " + statement.getKey())
+                .collect(Collectors.joining("\n")));
+    }
+}
@@ -4,8 +4,18 @@ import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
 
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
 import com.aliyun.oss.model.DeleteObjectsRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadResult;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
 import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadPartRequest;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -17,6 +27,7 @@ import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.exception.FileOperationException;
 import run.halo.app.model.enums.AttachmentType;
 import run.halo.app.model.properties.AliOssProperties;
+import run.halo.app.model.support.MultipartUpload;
 import run.halo.app.model.support.UploadResult;
 import run.halo.app.repository.AttachmentRepository;
 import run.halo.app.service.OptionService;
@@ -32,7 +43,7 @@ import run.halo.app.utils.ImageUtils;
  */
 @Slf4j
 @Component
-public class AliOssFileHandler implements FileHandler {
+public class AliOssFileHandler implements MultipartUploadHandler {
 
     private final OptionService optionService;
     private final AttachmentRepository attachmentRepository;
@@ -161,6 +172,148 @@ public class AliOssFileHandler implements FileHandler {
         }
     }
 
+    @NonNull
+    @Override
+    public MultipartUpload initiate(@NonNull String originalName, @NonNull MediaType mediaType) {
+        Assert.hasText(originalName, "Original name must not be blank");
+        Assert.notNull(mediaType, "Media type must not be null");
+
+        // Get config
+        String protocol =
+            optionService.getByPropertyOfNonNull(AliOssProperties.OSS_PROTOCOL).toString();
+        String domain =
+            optionService.getByPropertyOrDefault(AliOssProperties.OSS_DOMAIN, String.class, "");
+        String source =
+            optionService.getByPropertyOrDefault(AliOssProperties.OSS_SOURCE, String.class, "");
+        String endPoint =
+            optionService.getByPropertyOfNonNull(AliOssProperties.OSS_ENDPOINT).toString();
+        String bucketName =
+            optionService.getByPropertyOfNonNull(AliOssProperties.OSS_BUCKET_NAME).toString();
+        String styleRule =
+            optionService.getByPropertyOrDefault(AliOssProperties.OSS_STYLE_RULE, String.class, "");
+        String thumbnailStyleRule = optionService
+            .getByPropertyOrDefault(AliOssProperties.OSS_THUMBNAIL_STYLE_RULE, String.class, "");
+
+        String basePath = StringUtils.isNotEmpty(domain)
+            ? protocol + domain + URL_SEPARATOR
+            : protocol + bucketName + "." + endPoint + URL_SEPARATOR;
+        FilePathDescriptor uploadFilePath = new FilePathDescriptor.Builder()
+            .setBasePath(basePath)
+            .setSubPath(source)
+            .setAutomaticRename(true)
+            .setRenamePredicate(relativePath ->
+                attachmentRepository
+                    .countByFileKeyAndType(relativePath, AttachmentType.ALIOSS) > 0)
+            .setOriginalName(originalName)
+            .build();
+
+        OSS ossClient = buildOssClient();
+        try {
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentType(mediaType.toString());
+            InitiateMultipartUploadResult initiateResult = ossClient.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, uploadFilePath.getRelativePath(),
+                    objectMetadata));
+
+            String fullPath = uploadFilePath.getFullPath();
+            MultipartUpload upload = new MultipartUpload();
+            upload.setKey(uploadFilePath.getRelativePath());
+            upload.setUploadId(initiateResult.getUploadId());
+            upload.setFilename(uploadFilePath.getName());
+            upload.setSuffix(uploadFilePath.getExtension());
+            upload.setFilePath(StringUtils.isBlank(styleRule) ? fullPath : fullPath + styleRule);
+            if (ImageUtils.EXTENSION_ICO.equals(uploadFilePath.getExtension())
+                || StringUtils.isBlank(thumbnailStyleRule)) {
+                upload.setThumbPath(fullPath);
+            } else {
+                upload.setThumbPath(fullPath + thumbnailStyleRule);
+            }
+            return upload;
+        } catch (Exception e) {
+            throw new FileOperationException("初始化分片上传 " + originalName + " 到阿里云失败", e)
+                .setErrorData(originalName);
+        } finally {
+            ossClient.shutdown();
+        }
+    }
+
+    @NonNull
+    @Override
+    public String uploadPart(@NonNull MultipartUpload upload, int partNumber,
+        @NonNull InputStream content, long size) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+        Assert.notNull(content, "Part content must not be null");
+
+        OSS ossClient = buildOssClient();
+        try {
+            UploadPartRequest uploadPartRequest = new UploadPartRequest();
+            uploadPartRequest.setBucketName(getBucketName());
+            uploadPartRequest.setKey(upload.getKey());
+            uploadPartRequest.setUploadId(upload.getUploadId());
+            uploadPartRequest.setPartNumber(partNumber);
+            uploadPartRequest.setInputStream(content);
+            uploadPartRequest.setPartSize(size);
+            return ossClient.uploadPart(uploadPartRequest).getETag();
+        } catch (Exception e) {
+            throw new FileOperationException("上传分片 " + partNumber + " 到阿里云失败", e)
+                .setErrorData(upload.getKey());
+        } finally {
+            ossClient.shutdown();
+        }
+    }
+
+    @Override
+    public void complete(@NonNull MultipartUpload upload, @NonNull List<String> etags) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+        Assert.notEmpty(etags, "Part etags must not be empty");
+
+        List<PartETag> partEtags = new ArrayList<>(etags.size());
+        for (int i = 0; i < etags.size(); i++) {
+            partEtags.add(new PartETag(i + 1, etags.get(i)));
+        }
+
+        OSS ossClient = buildOssClient();
+        try {
+            ossClient.completeMultipartUpload(new CompleteMultipartUploadRequest(getBucketName(),
+                upload.getKey(), upload.getUploadId(), partEtags));
+        } catch (Exception e) {
+            throw new FileOperationException("完成分片上传 " + upload.getFilename() + " 到阿里云失败", e)
+                .setErrorData(upload.getKey());
+        } finally {
+            ossClient.shutdown();
+        }
+    }
+
+    @Override
+    public void abort(@NonNull MultipartUpload upload) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+
+        OSS ossClient = buildOssClient();
+        try {
+            ossClient.abortMultipartUpload(new AbortMultipartUploadRequest(getBucketName(),
+                upload.getKey(), upload.getUploadId()));
+        } catch (Exception e) {
+            throw new FileOperationException("取消分片上传 " + upload.getFilename() + " 到阿里云失败", e)
+                .setErrorData(upload.getKey());
+        } finally {
+            ossClient.shutdown();
+        }
+    }
+
+    private OSS buildOssClient() {
+        String endPoint =
+            optionService.getByPropertyOfNonNull(AliOssProperties.OSS_ENDPOINT).toString();
+        String accessKey =
+            optionService.getByPropertyOfNonNull(AliOssProperties.OSS_ACCESS_KEY).toString();
+        String accessSecret =
+            optionService.getByPropertyOfNonNull(AliOssProperties.OSS_ACCESS_SECRET).toString();
+        return new OSSClientBuilder().build(endPoint, accessKey, accessSecret);
+    }
+
+    private String getBucketName() {
+        return optionService.getByPropertyOfNonNull(AliOssProperties.OSS_BUCKET_NAME).toString();
+    }
+
     @Override
     public AttachmentType getAttachmentType() {
         return AttachmentType.ALIOSS;
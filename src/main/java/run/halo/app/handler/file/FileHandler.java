@@ -2,11 +2,10 @@ package run.halo.app.handler.file;
 
 import static run.halo.app.model.support.HaloConst.FILE_SEPARATOR;
 
-import java.awt.image.BufferedImage;
+import java.awt.Dimension;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.function.Supplier;
-import javax.imageio.ImageReader;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -15,6 +14,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.exception.FileOperationException;
+import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
 import run.halo.app.model.support.UploadResult;
 import run.halo.app.utils.ImageUtils;
@@ -76,18 +76,10 @@ public interface FileHandler {
         if (isImageType(file)) {
             // Handle image
             try (InputStream is = file.getInputStream()) {
-                String extension = uploadResult.getSuffix();
-                if (ImageUtils.EXTENSION_ICO.equals(extension)) {
-                    BufferedImage icoImage =
-                        ImageUtils.getImageFromFile(is, extension);
-                    uploadResult.setWidth(icoImage.getWidth());
-                    uploadResult.setHeight(icoImage.getHeight());
-                } else {
-                    ImageReader image =
-                        ImageUtils.getImageReaderFromFile(is, extension);
-                    uploadResult.setWidth(image.getWidth(0));
-                    uploadResult.setHeight(image.getHeight(0));
-                }
+                Dimension dimension =
+                    ImageUtils.getImageDimension(is, uploadResult.getSuffix());
+                uploadResult.setWidth(dimension.width);
+                uploadResult.setHeight(dimension.height);
 
                 if (thumbnailSupplier != null) {
                     uploadResult.setThumbPath(thumbnailSupplier.get());
@@ -110,6 +102,17 @@ public interface FileHandler {
      */
     void delete(@NonNull String key);
 
+    /**
+     * Deletes files of the attachment, including files derived from it.
+     *
+     * @param attachment attachment must not be null
+     * @throws FileOperationException throws when fail to delete the files
+     */
+    default void delete(@NonNull Attachment attachment) {
+        Assert.notNull(attachment, "Attachment must not be null");
+        delete(attachment.getFileKey());
+    }
+
     /**
      * Get attachment type is supported.
      *
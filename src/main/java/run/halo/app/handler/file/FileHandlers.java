@@ -1,6 +1,7 @@
 package run.halo.app.handler.file;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
@@ -53,6 +54,20 @@ public class FileHandlers {
         return getSupportedType(attachmentType).upload(file);
     }
 
+    /**
+     * Gets the handler which uploads files part by part to its storage.
+     *
+     * @param attachmentType attachment type must not be null
+     * @return an optional multipart upload handler, empty if the storage does not support it
+     */
+    @NonNull
+    public Optional<MultipartUploadHandler> getMultipartUploadHandler(
+        @NonNull AttachmentType attachmentType) {
+        FileHandler handler = getSupportedType(attachmentType);
+        return handler instanceof MultipartUploadHandler
+            ? Optional.of((MultipartUploadHandler) handler) : Optional.empty();
+    }
+
     /**
      * Deletes attachment.
      *
@@ -63,7 +78,7 @@ public class FileHandlers {
     public void delete(@NonNull Attachment attachment) {
         Assert.notNull(attachment, "Attachment must not be null");
         getSupportedType(attachment.getType())
-            .delete(attachment.getFileKey());
+            .delete(attachment);
     }
 
     /**
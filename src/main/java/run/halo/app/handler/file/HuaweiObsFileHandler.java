@@ -3,8 +3,17 @@ package run.halo.app.handler.file;
 import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
 
 import com.obs.services.ObsClient;
+import com.obs.services.model.AbortMultipartUploadRequest;
+import com.obs.services.model.CompleteMultipartUploadRequest;
+import com.obs.services.model.InitiateMultipartUploadRequest;
+import com.obs.services.model.ObjectMetadata;
+import com.obs.services.model.PartEtag;
 import com.obs.services.model.PutObjectResult;
+import com.obs.services.model.UploadPartRequest;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -16,6 +25,7 @@ import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.exception.FileOperationException;
 import run.halo.app.model.enums.AttachmentType;
 import run.halo.app.model.properties.HuaweiObsProperties;
+import run.halo.app.model.support.MultipartUpload;
 import run.halo.app.model.support.UploadResult;
 import run.halo.app.repository.AttachmentRepository;
 import run.halo.app.service.OptionService;
@@ -30,7 +40,7 @@ import run.halo.app.utils.ImageUtils;
  */
 @Slf4j
 @Component
-public class HuaweiObsFileHandler implements FileHandler {
+public class HuaweiObsFileHandler implements MultipartUploadHandler {
 
     private final OptionService optionService;
     private final AttachmentRepository attachmentRepository;
@@ -166,6 +176,157 @@ public class HuaweiObsFileHandler implements FileHandler {
         }
     }
 
+    @NonNull
+    @Override
+    public MultipartUpload initiate(@NonNull String originalName, @NonNull MediaType mediaType) {
+        Assert.hasText(originalName, "Original name must not be blank");
+        Assert.notNull(mediaType, "Media type must not be null");
+
+        // Get config
+        String protocol =
+            optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_PROTOCOL).toString();
+        String domain =
+            optionService.getByPropertyOrDefault(HuaweiObsProperties.OSS_DOMAIN, String.class, "");
+        String source =
+            optionService.getByPropertyOrDefault(HuaweiObsProperties.OSS_SOURCE, String.class, "");
+        String endPoint =
+            optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_ENDPOINT).toString();
+        String bucketName =
+            optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_BUCKET_NAME).toString();
+        String styleRule = optionService
+            .getByPropertyOrDefault(HuaweiObsProperties.OSS_STYLE_RULE, String.class, "");
+        String thumbnailStyleRule = optionService
+            .getByPropertyOrDefault(HuaweiObsProperties.OSS_THUMBNAIL_STYLE_RULE, String.class, "");
+
+        String basePath = StringUtils.isNotEmpty(domain)
+            ? protocol + domain + URL_SEPARATOR
+            : protocol + bucketName + "." + endPoint + URL_SEPARATOR;
+        FilePathDescriptor pathDescriptor = new FilePathDescriptor.Builder()
+            .setBasePath(basePath)
+            .setSubPath(source)
+            .setAutomaticRename(true)
+            .setRenamePredicate(relativePath ->
+                attachmentRepository
+                    .countByFileKeyAndType(relativePath, AttachmentType.HUAWEIOBS) > 0)
+            .setOriginalName(originalName)
+            .build();
+
+        ObsClient obsClient = buildObsClient();
+        try {
+            InitiateMultipartUploadRequest initiateRequest =
+                new InitiateMultipartUploadRequest(bucketName, pathDescriptor.getRelativePath());
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentType(mediaType.toString());
+            initiateRequest.setMetadata(objectMetadata);
+            String uploadId = obsClient.initiateMultipartUpload(initiateRequest).getUploadId();
+
+            String fullPath = pathDescriptor.getFullPath();
+            MultipartUpload upload = new MultipartUpload();
+            upload.setKey(pathDescriptor.getRelativePath());
+            upload.setUploadId(uploadId);
+            upload.setFilename(pathDescriptor.getName());
+            upload.setSuffix(pathDescriptor.getExtension());
+            upload.setFilePath(StringUtils.isBlank(styleRule) ? fullPath : fullPath + styleRule);
+            if (ImageUtils.EXTENSION_ICO.equals(pathDescriptor.getExtension())
+                || StringUtils.isBlank(thumbnailStyleRule)) {
+                upload.setThumbPath(fullPath);
+            } else {
+                upload.setThumbPath(fullPath + thumbnailStyleRule);
+            }
+            return upload;
+        } catch (Exception e) {
+            throw new FileOperationException("初始化分片上传 " + originalName + " 到华为云失败", e)
+                .setErrorData(originalName);
+        } finally {
+            closeObsClient(obsClient);
+        }
+    }
+
+    @NonNull
+    @Override
+    public String uploadPart(@NonNull MultipartUpload upload, int partNumber,
+        @NonNull InputStream content, long size) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+        Assert.notNull(content, "Part content must not be null");
+
+        ObsClient obsClient = buildObsClient();
+        try {
+            UploadPartRequest uploadPartRequest =
+                new UploadPartRequest(getBucketName(), upload.getKey());
+            uploadPartRequest.setUploadId(upload.getUploadId());
+            uploadPartRequest.setPartNumber(partNumber);
+            uploadPartRequest.setInput(content);
+            uploadPartRequest.setPartSize(size);
+            return obsClient.uploadPart(uploadPartRequest).getEtag();
+        } catch (Exception e) {
+            throw new FileOperationException("上传分片 " + partNumber + " 到华为云失败", e)
+                .setErrorData(upload.getKey());
+        } finally {
+            closeObsClient(obsClient);
+        }
+    }
+
+    @Override
+    public void complete(@NonNull MultipartUpload upload, @NonNull List<String> etags) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+        Assert.notEmpty(etags, "Part etags must not be empty");
+
+        List<PartEtag> partEtags = new ArrayList<>(etags.size());
+        for (int i = 0; i < etags.size(); i++) {
+            partEtags.add(new PartEtag(etags.get(i), i + 1));
+        }
+
+        ObsClient obsClient = buildObsClient();
+        try {
+            obsClient.completeMultipartUpload(new CompleteMultipartUploadRequest(getBucketName(),
+                upload.getKey(), upload.getUploadId(), partEtags));
+        } catch (Exception e) {
+            throw new FileOperationException("完成分片上传 " + upload.getFilename() + " 到华为云失败", e)
+                .setErrorData(upload.getKey());
+        } finally {
+            closeObsClient(obsClient);
+        }
+    }
+
+    @Override
+    public void abort(@NonNull MultipartUpload upload) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+
+        ObsClient obsClient = buildObsClient();
+        try {
+            obsClient.abortMultipartUpload(new AbortMultipartUploadRequest(getBucketName(),
+                upload.getKey(), upload.getUploadId()));
+        } catch (Exception e) {
+            throw new FileOperationException("取消分片上传 " + upload.getFilename() + " 到华为云失败", e)
+                .setErrorData(upload.getKey());
+        } finally {
+            closeObsClient(obsClient);
+        }
+    }
+
+    private ObsClient buildObsClient() {
+        String endPoint =
+            optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_ENDPOINT).toString();
+        String accessKey =
+            optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_ACCESS_KEY).toString();
+        String accessSecret =
+            optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_ACCESS_SECRET).toString();
+        return new ObsClient(accessKey, accessSecret, endPoint);
+    }
+
+    private String getBucketName() {
+        return optionService.getByPropertyOfNonNull(HuaweiObsProperties.OSS_BUCKET_NAME)
+            .toString();
+    }
+
+    private void closeObsClient(ObsClient obsClient) {
+        try {
+            obsClient.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
     @Override
     public AttachmentType getAttachmentType() {
         return AttachmentType.HUAWEIOBS;
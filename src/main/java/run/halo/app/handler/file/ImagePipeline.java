@@ -0,0 +1,282 @@
+package run.halo.app.handler.file;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.ImageFormatException;
+import run.halo.app.model.entity.Attachment;
+import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ImageVariantStatus;
+import run.halo.app.repository.AttachmentRepository;
+import run.halo.app.utils.FilenameUtils;
+import run.halo.app.utils.HaloUtils;
+import run.halo.app.utils.ImageUtils;
+
+/**
+ * Generates thumbnails and responsive variants of local image attachments.
+ *
+ * <p>Images are processed by a bounded pool of workers after being uploaded, and every image is
+ * decoded once with enough resolution for its largest variant, subsampled further if it has more
+ * pixels than the configured limit. Attachments are updated with generated variants when done.
+ */
+@Slf4j
+@Component
+public class ImagePipeline {
+
+    /**
+     * Thumbnail width.
+     */
+    private static final int THUMB_WIDTH = 256;
+
+    /**
+     * Thumbnail height.
+     */
+    private static final int THUMB_HEIGHT = 256;
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final HaloProperties haloProperties;
+
+    private final String workDir;
+
+    private final ThreadPoolExecutor executor;
+
+    public ImagePipeline(AttachmentRepository attachmentRepository,
+        HaloProperties haloProperties) {
+        this.attachmentRepository = attachmentRepository;
+        this.haloProperties = haloProperties;
+        this.workDir = FileHandler.normalizeDirectory(haloProperties.getWorkDir());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, haloProperties.getImageWorkerThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, haloProperties.getImageQueueCapacity())),
+            runnable -> {
+                Thread thread =
+                    new Thread(runnable, "image-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Builds key of a variant in the same directory of the original image.
+     *
+     * @param key key of the original image must not be blank
+     * @param width width of the variant
+     * @return key of the variant
+     */
+    @NonNull
+    public static String buildVariantKey(@NonNull String key, int width) {
+        return LocalFileHandler.buildSiblingKey(key, "-" + width + "w");
+    }
+
+    /**
+     * Lists widths of generated variants.
+     *
+     * @param attachment attachment must not be null
+     * @return a list of variant widths, empty until variants are ready
+     */
+    @NonNull
+    public static List<Integer> listVariantWidths(@NonNull Attachment attachment) {
+        Assert.notNull(attachment, "Attachment must not be null");
+
+        if (!ImageVariantStatus.READY.equals(attachment.getVariantStatus())
+            || StringUtils.isBlank(attachment.getVariantWidths())) {
+            return List.of();
+        }
+        List<Integer> widths = new ArrayList<>();
+        for (String width : StringUtils.split(attachment.getVariantWidths(), ',')) {
+            widths.add(Integer.valueOf(width.trim()));
+        }
+        return widths;
+    }
+
+    /**
+     * Checks whether variants of the attachment will be generated.
+     *
+     * @param attachment attachment must not be null
+     * @return true if the attachment is a local image; false otherwise
+     */
+    public boolean supports(@NonNull Attachment attachment) {
+        Assert.notNull(attachment, "Attachment must not be null");
+
+        return AttachmentType.LOCAL.equals(attachment.getType())
+            && StringUtils.isNotBlank(attachment.getMediaType())
+            && FileHandler.IMAGE_TYPE.includes(MediaType.valueOf(attachment.getMediaType()));
+    }
+
+    /**
+     * Submits a created attachment for generating its thumbnail and variants.
+     *
+     * @param attachment created attachment must not be null
+     */
+    public void submit(@NonNull Attachment attachment) {
+        Assert.notNull(attachment, "Attachment must not be null");
+        Assert.notNull(attachment.getId(), "Attachment id must not be null");
+
+        if (!supports(attachment)) {
+            return;
+        }
+        Integer attachmentId = attachment.getId();
+        String key = attachment.getFileKey();
+        try {
+            executor.execute(() -> process(attachmentId, key));
+        } catch (RejectedExecutionException e) {
+            log.warn("Too many images are being processed, skipped attachment: [{}]",
+                attachmentId);
+            update(attachmentId, rejected -> rejected.setVariantStatus(ImageVariantStatus.FAILED));
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Images were still being processed while shutting down");
+            executor.shutdownNow();
+        }
+    }
+
+    private void process(Integer attachmentId, String key) {
+        Path imagePath = Paths.get(workDir, key);
+        try {
+            List<Integer> widths = generate(imagePath, key);
+            log.info("Generated thumbnail and variants {} of image: [{}]", widths, imagePath);
+            update(attachmentId, attachment -> {
+                attachment.setThumbPath(HaloUtils.changeFileSeparatorToUrlSeparator(
+                    LocalFileHandler.buildThumbnailKey(key)));
+                attachment.setVariantWidths(widths.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+                attachment.setVariantStatus(ImageVariantStatus.READY);
+            });
+        } catch (Throwable t) {
+            // Keep using the original image
+            log.warn("Failed to generate thumbnail and variants of image: " + imagePath, t);
+            update(attachmentId, attachment ->
+                attachment.setVariantStatus(ImageVariantStatus.FAILED));
+        }
+    }
+
+    /**
+     * Generates thumbnail and variants of an image.
+     *
+     * @return widths of generated variants
+     */
+    private List<Integer> generate(Path imagePath, String key) throws IOException {
+        String extension = FilenameUtils.getExtension(key);
+        if (ImageUtils.EXTENSION_ICO.equals(extension)) {
+            // Icons are small enough to be decoded as a whole
+            BufferedImage icoImage;
+            try (InputStream is = Files.newInputStream(imagePath)) {
+                icoImage = ImageUtils.getImageFromFile(is, extension);
+            }
+            writeThumbnail(icoImage, key);
+            return List.of();
+        }
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(imagePath.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new ImageFormatException("不支持的图片格式：" + extension);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                List<Integer> widths = haloProperties.getImageVariantWidths().stream()
+                    .filter(Objects::nonNull)
+                    .filter(variantWidth -> variantWidth > 0 && variantWidth < width)
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.toList());
+                int requiredWidth = Math.max(THUMB_WIDTH,
+                    widths.isEmpty() ? 0 : widths.get(widths.size() - 1));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = computeSubsampling(width, height, requiredWidth,
+                    haloProperties.getImageDecodeMaxPixels());
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                log.debug("Decoding image: [{}] of [{}x{}] with subsampling: [{}]", imagePath,
+                    width, height, subsampling);
+                BufferedImage image = reader.read(0, param);
+
+                writeThumbnail(image, key);
+                // Subsampling for the pixel limit may leave fewer columns than the variants need,
+                // which must not be upscaled
+                int decodedWidth = image.getWidth();
+                List<Integer> writtenWidths = widths.stream()
+                    .filter(variantWidth -> variantWidth <= decodedWidth)
+                    .collect(Collectors.toList());
+                for (Integer variantWidth : writtenWidths) {
+                    Path variantPath = Paths.get(workDir, buildVariantKey(key, variantWidth));
+                    Thumbnails.of(image).width(variantWidth).toFile(variantPath.toFile());
+                }
+                return writtenWidths;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeThumbnail(BufferedImage image, String key) throws IOException {
+        Path thumbnailPath = Paths.get(workDir, LocalFileHandler.buildThumbnailKey(key));
+        Thumbnails.of(image).size(THUMB_WIDTH, THUMB_HEIGHT).keepAspectRatio(true)
+            .toFile(thumbnailPath.toFile());
+    }
+
+    /**
+     * Computes subsampling of decoding an image, which keeps enough columns for the required
+     * width and keeps decoded pixels under the limit.
+     */
+    static int computeSubsampling(int width, int height, int requiredWidth, long maxPixels) {
+        int subsampling = Math.max(1, width / Math.max(1, requiredWidth));
+        long pixels = (long) width * height;
+        if (maxPixels > 0 && pixels > maxPixels) {
+            subsampling = Math.max(subsampling,
+                (int) Math.ceil(Math.sqrt((double) pixels / maxPixels)));
+        }
+        return subsampling;
+    }
+
+    private void update(Integer attachmentId, Consumer<Attachment> updater) {
+        try {
+            attachmentRepository.findById(attachmentId).ifPresentOrElse(attachment -> {
+                updater.accept(attachment);
+                attachmentRepository.save(attachment);
+            }, () -> log.debug("Attachment: [{}] was deleted while being processed",
+                attachmentId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to update variants of attachment: [{}]", attachmentId, e);
+        }
+    }
+}
@@ -2,16 +2,15 @@ package run.halo.app.handler.file;
 
 import static run.halo.app.model.support.HaloConst.FILE_SEPARATOR;
 
-import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
-import net.coobird.thumbnailator.Thumbnails;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
@@ -19,11 +18,12 @@ import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.exception.FileOperationException;
+import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ImageVariantStatus;
 import run.halo.app.model.support.UploadResult;
 import run.halo.app.repository.AttachmentRepository;
 import run.halo.app.utils.FilenameUtils;
-import run.halo.app.utils.ImageUtils;
 
 /**
  * Local file handler.
@@ -44,23 +44,16 @@ public class LocalFileHandler implements FileHandler {
 
     private static final String THUMBNAIL_SUFFIX = "-thumbnail";
 
-    /**
-     * Thumbnail width.
-     */
-    private static final int THUMB_WIDTH = 256;
-
-    /**
-     * Thumbnail height.
-     */
-    private static final int THUMB_HEIGHT = 256;
-
     private final AttachmentRepository attachmentRepository;
 
+    private final HaloProperties haloProperties;
+
     private final String workDir;
 
     public LocalFileHandler(AttachmentRepository attachmentRepository,
         HaloProperties haloProperties) {
         this.attachmentRepository = attachmentRepository;
+        this.haloProperties = haloProperties;
 
         // Get work dir
         workDir = FileHandler.normalizeDirectory(haloProperties.getWorkDir());
@@ -121,32 +114,8 @@ public class LocalFileHandler implements FileHandler {
                 .setMediaType(MediaType.valueOf(Objects.requireNonNull(file.getContentType())));
             uploadResult.setSize(file.getSize());
 
-            // TODO refactor this: if image is svg ext. extension
-            handleImageMetadata(file, uploadResult, () -> {
-                // Upload a thumbnail
-                FilePathDescriptor thumbnailFilePath = new FilePathDescriptor.Builder()
-                    .setBasePath(workDir)
-                    .setSubPath(uploadFilePath.getSubPath())
-                    .setSeparator(FILE_SEPARATOR)
-                    .setOriginalName(uploadFilePath.getFullName())
-                    .setNameSuffix(THUMBNAIL_SUFFIX)
-                    .build();
-                final Path thumbnailPath = Paths.get(thumbnailFilePath.getFullPath());
-                try (InputStream is = file.getInputStream()) {
-                    // Generate thumbnail
-                    BufferedImage originalImage =
-                        ImageUtils.getImageFromFile(is, uploadFilePath.getExtension());
-                    boolean result = generateThumbnail(originalImage, thumbnailPath,
-                        uploadFilePath.getExtension());
-                    if (result) {
-                        // Set thumb path
-                        return thumbnailFilePath.getRelativePath();
-                    }
-                } catch (Throwable e) {
-                    log.warn("Failed to open image file.", e);
-                }
-                return uploadFilePath.getRelativePath();
-            });
+            // Thumbnail and variants are generated by the image pipeline later
+            handleImageMetadata(file, uploadResult, null);
 
             log.info("Uploaded file: [{}] to directory: [{}] successfully",
                 file.getOriginalFilename(), uploadFilePath.getFullPath());
@@ -159,6 +128,30 @@ public class LocalFileHandler implements FileHandler {
 
     @Override
     public void delete(String key) {
+        // Variant widths are unknown, try all configured widths
+        delete(key, haloProperties.getImageVariantWidths());
+    }
+
+    /**
+     * Deletes files of the attachment. Variants are deleted by the widths they were generated
+     * with, which may differ from the configured widths. Variants of images still being processed
+     * or failed to be processed may have been written partially, which are deleted by the
+     * configured widths.
+     *
+     * @param attachment attachment must not be null
+     */
+    @Override
+    public void delete(@NonNull Attachment attachment) {
+        Assert.notNull(attachment, "Attachment must not be null");
+
+        if (ImageVariantStatus.READY.equals(attachment.getVariantStatus())) {
+            delete(attachment.getFileKey(), ImagePipeline.listVariantWidths(attachment));
+        } else {
+            delete(attachment.getFileKey());
+        }
+    }
+
+    private void delete(String key, Collection<Integer> variantWidths) {
         Assert.hasText(key, "File key must not be blank");
         // Get path
         Path path = Paths.get(workDir, key);
@@ -171,23 +164,26 @@ public class LocalFileHandler implements FileHandler {
         }
 
         // Delete thumb if necessary
-        String basename = FilenameUtils.getBasename(key);
-        String extension = FilenameUtils.getExtension(key);
-
-        // Get thumbnail name
-        String thumbnailName = basename + THUMBNAIL_SUFFIX + '.' + extension;
-
-        // Get thumbnail path
-        Path thumbnailPath = Paths.get(path.getParent().toString(), thumbnailName);
-
-        // Delete thumbnail file
+        Path thumbnailPath = Paths.get(workDir, buildThumbnailKey(key));
         try {
             boolean deleteResult = Files.deleteIfExists(thumbnailPath);
             if (!deleteResult) {
                 log.warn("Thumbnail: [{}] may not exist", thumbnailPath.toString());
             }
         } catch (IOException e) {
-            throw new FileOperationException("附件缩略图 " + thumbnailName + " 删除失败", e);
+            throw new FileOperationException("附件缩略图 " + thumbnailPath.getFileName() + " 删除失败",
+                e);
+        }
+
+        // Delete variants
+        for (Integer width : variantWidths) {
+            Path variantPath = Paths.get(workDir, ImagePipeline.buildVariantKey(key, width));
+            try {
+                Files.deleteIfExists(variantPath);
+            } catch (IOException e) {
+                throw new FileOperationException(
+                    "附件图片 " + variantPath.getFileName() + " 删除失败", e);
+            }
         }
     }
 
@@ -196,6 +192,37 @@ public class LocalFileHandler implements FileHandler {
         return AttachmentType.LOCAL;
     }
 
+    /**
+     * Builds key of the thumbnail in the same directory of the original image.
+     *
+     * @param key key of the original image must not be blank
+     * @return key of the thumbnail
+     */
+    @NonNull
+    static String buildThumbnailKey(@NonNull String key) {
+        return buildSiblingKey(key, THUMBNAIL_SUFFIX);
+    }
+
+    /**
+     * Builds key of a file derived from the original file, in the same directory of it.
+     *
+     * @param key key of the original file must not be blank
+     * @param nameSuffix suffix appended to the basename
+     * @return key of the derived file
+     */
+    @NonNull
+    static String buildSiblingKey(@NonNull String key, @NonNull String nameSuffix) {
+        Assert.hasText(key, "File key must not be blank");
+
+        // Keys of files and url paths may have different separators
+        int separatorIndex = Math.max(key.lastIndexOf('/'), key.lastIndexOf('\\'));
+        String directory = key.substring(0, separatorIndex + 1);
+        String name = key.substring(separatorIndex + 1);
+        String extension = FilenameUtils.getExtension(name);
+        return directory + FilenameUtils.getBasename(name) + nameSuffix
+            + (StringUtils.isEmpty(extension) ? "" : '.' + extension);
+    }
+
     private String generatePath() {
         // Get current time
         Calendar current = Calendar.getInstance();
@@ -208,29 +235,4 @@ public class LocalFileHandler implements FileHandler {
         // Build directory
         return UPLOAD_SUB_DIR + year + FILE_SEPARATOR + monthString + FILE_SEPARATOR;
     }
-
-    private boolean generateThumbnail(BufferedImage originalImage, Path thumbPath,
-        String extension) {
-        Assert.notNull(originalImage, "Image must not be null");
-        Assert.notNull(thumbPath, "Thumb path must not be null");
-
-        boolean result = false;
-        // Create the thumbnail
-        try {
-            Files.createFile(thumbPath);
-            // Convert to thumbnail and copy the thumbnail
-            log.debug("Trying to generate thumbnail: [{}]", thumbPath);
-            Thumbnails.of(originalImage).size(THUMB_WIDTH, THUMB_HEIGHT).keepAspectRatio(true)
-                .toFile(thumbPath.toFile());
-            log.info("Generated thumbnail image, and wrote the thumbnail to [{}]", thumbPath);
-            result = true;
-        } catch (Throwable t) {
-            // Ignore the error
-            log.warn("Failed to generate thumbnail: " + thumbPath, t);
-        } finally {
-            // Disposes of this graphics context and releases any system resources that it is using.
-            originalImage.getGraphics().dispose();
-        }
-        return result;
-    }
 }
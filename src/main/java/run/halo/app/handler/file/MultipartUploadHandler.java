@@ -0,0 +1,59 @@
+package run.halo.app.handler.file;
+
+import java.io.InputStream;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import run.halo.app.exception.FileOperationException;
+import run.halo.app.model.support.MultipartUpload;
+
+/**
+ * File handler which uploads a file to its storage part by part.
+ *
+ * <p>Parts are sent to the storage as soon as they are received, and may be sent in parallel or
+ * again with the same part number, which replaces the previous one.
+ */
+public interface MultipartUploadHandler extends FileHandler {
+
+    /**
+     * Initiates a multipart upload.
+     *
+     * @param originalName original file name must not be blank
+     * @param mediaType media type must not be null
+     * @return initiated multipart upload
+     * @throws FileOperationException throws when fail to initiate the upload
+     */
+    @NonNull
+    MultipartUpload initiate(@NonNull String originalName, @NonNull MediaType mediaType);
+
+    /**
+     * Uploads a part.
+     *
+     * @param upload initiated multipart upload must not be null
+     * @param partNumber part number starting from 1
+     * @param content content of the part must not be null
+     * @param size size of the part
+     * @return etag of the uploaded part
+     * @throws FileOperationException throws when fail to upload the part
+     */
+    @NonNull
+    String uploadPart(@NonNull MultipartUpload upload, int partNumber,
+        @NonNull InputStream content, long size);
+
+    /**
+     * Completes a multipart upload.
+     *
+     * @param upload initiated multipart upload must not be null
+     * @param etags etags of all parts ordered by part number must not be empty
+     * @throws FileOperationException throws when fail to complete the upload
+     */
+    void complete(@NonNull MultipartUpload upload, @NonNull List<String> etags);
+
+    /**
+     * Aborts a multipart upload, and discards uploaded parts.
+     *
+     * @param upload initiated multipart upload must not be null
+     * @throws FileOperationException throws when fail to abort the upload
+     */
+    void abort(@NonNull MultipartUpload upload);
+}
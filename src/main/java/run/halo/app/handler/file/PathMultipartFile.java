@@ -0,0 +1,101 @@
+package run.halo.app.handler.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Multipart file backed by a local file, such as an assembled chunked upload.
+ *
+ * <p>Transferring moves the file instead of copying it, and the file is read from its new
+ * location afterwards.
+ */
+public class PathMultipartFile implements MultipartFile {
+
+    private Path path;
+
+    private final String originalFilename;
+
+    private final String contentType;
+
+    public PathMultipartFile(@NonNull Path path, @NonNull String originalFilename,
+        @Nullable String contentType) {
+        Assert.notNull(path, "Path must not be null");
+        Assert.hasText(originalFilename, "Original file name must not be blank");
+
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @NonNull
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @NonNull
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @NonNull
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(@NonNull File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(@NonNull Path dest) throws IOException {
+        Files.move(path, dest, StandardCopyOption.REPLACE_EXISTING);
+        path = dest;
+    }
+
+    /**
+     * Gets current location of the file.
+     *
+     * @return path of the file
+     */
+    @NonNull
+    public Path getPath() {
+        return path;
+    }
+}
@@ -6,19 +6,30 @@ import com.qcloud.cos.COSClient;
 import com.qcloud.cos.ClientConfig;
 import com.qcloud.cos.auth.BasicCOSCredentials;
 import com.qcloud.cos.auth.COSCredentials;
+import com.qcloud.cos.model.AbortMultipartUploadRequest;
+import com.qcloud.cos.model.CompleteMultipartUploadRequest;
+import com.qcloud.cos.model.InitiateMultipartUploadRequest;
+import com.qcloud.cos.model.InitiateMultipartUploadResult;
 import com.qcloud.cos.model.ObjectMetadata;
+import com.qcloud.cos.model.PartETag;
 import com.qcloud.cos.model.PutObjectResult;
+import com.qcloud.cos.model.UploadPartRequest;
 import com.qcloud.cos.region.Region;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.exception.FileOperationException;
 import run.halo.app.model.enums.AttachmentType;
 import run.halo.app.model.properties.TencentCosProperties;
+import run.halo.app.model.support.MultipartUpload;
 import run.halo.app.model.support.UploadResult;
 import run.halo.app.repository.AttachmentRepository;
 import run.halo.app.service.OptionService;
@@ -33,7 +44,7 @@ import run.halo.app.utils.ImageUtils;
  */
 @Slf4j
 @Component
-public class TencentCosFileHandler implements FileHandler {
+public class TencentCosFileHandler implements MultipartUploadHandler {
 
     private final OptionService optionService;
     private final AttachmentRepository attachmentRepository;
@@ -172,6 +183,151 @@ public class TencentCosFileHandler implements FileHandler {
         }
     }
 
+    @NonNull
+    @Override
+    public MultipartUpload initiate(@NonNull String originalName, @NonNull MediaType mediaType) {
+        Assert.hasText(originalName, "Original name must not be blank");
+        Assert.notNull(mediaType, "Media type must not be null");
+
+        // Get config
+        String protocol =
+            optionService.getByPropertyOfNonNull(TencentCosProperties.COS_PROTOCOL).toString();
+        String domain =
+            optionService.getByPropertyOrDefault(TencentCosProperties.COS_DOMAIN, String.class, "");
+        String region =
+            optionService.getByPropertyOfNonNull(TencentCosProperties.COS_REGION).toString();
+        String bucketName =
+            optionService.getByPropertyOfNonNull(TencentCosProperties.COS_BUCKET_NAME).toString();
+        String source =
+            optionService.getByPropertyOrDefault(TencentCosProperties.COS_SOURCE, String.class, "");
+        String styleRule = optionService
+            .getByPropertyOrDefault(TencentCosProperties.COS_STYLE_RULE, String.class, "");
+        String thumbnailStyleRule = optionService
+            .getByPropertyOrDefault(TencentCosProperties.COS_THUMBNAIL_STYLE_RULE, String.class,
+                "");
+
+        String basePath = StringUtils.isNotEmpty(domain)
+            ? protocol + domain + URL_SEPARATOR
+            : protocol + bucketName + ".cos." + region + ".myqcloud.com" + URL_SEPARATOR;
+        FilePathDescriptor pathDescriptor = new FilePathDescriptor.Builder()
+            .setBasePath(basePath)
+            .setSubPath(source)
+            .setAutomaticRename(true)
+            .setRenamePredicate(relativePath ->
+                attachmentRepository
+                    .countByFileKeyAndType(relativePath, AttachmentType.TENCENTCOS) > 0)
+            .setOriginalName(originalName)
+            .build();
+
+        COSClient cosClient = buildCosClient();
+        try {
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentType(mediaType.toString());
+            InitiateMultipartUploadResult initiateResult = cosClient.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, pathDescriptor.getRelativePath(),
+                    objectMetadata));
+
+            String fullPath = pathDescriptor.getFullPath();
+            MultipartUpload upload = new MultipartUpload();
+            upload.setKey(pathDescriptor.getRelativePath());
+            upload.setUploadId(initiateResult.getUploadId());
+            upload.setFilename(pathDescriptor.getName());
+            upload.setSuffix(pathDescriptor.getExtension());
+            upload.setFilePath(StringUtils.isBlank(styleRule) ? fullPath : fullPath + styleRule);
+            if (ImageUtils.EXTENSION_ICO.equals(pathDescriptor.getExtension())
+                || StringUtils.isBlank(thumbnailStyleRule)) {
+                upload.setThumbPath(fullPath);
+            } else {
+                upload.setThumbPath(fullPath + thumbnailStyleRule);
+            }
+            return upload;
+        } catch (Exception e) {
+            throw new FileOperationException("附件 " + originalName + " 初始化分片上传失败(腾讯云)", e);
+        } finally {
+            cosClient.shutdown();
+        }
+    }
+
+    @NonNull
+    @Override
+    public String uploadPart(@NonNull MultipartUpload upload, int partNumber,
+        @NonNull InputStream content, long size) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+        Assert.notNull(content, "Part content must not be null");
+
+        COSClient cosClient = buildCosClient();
+        try {
+            UploadPartRequest uploadPartRequest = new UploadPartRequest();
+            uploadPartRequest.setBucketName(getBucketName());
+            uploadPartRequest.setKey(upload.getKey());
+            uploadPartRequest.setUploadId(upload.getUploadId());
+            uploadPartRequest.setPartNumber(partNumber);
+            uploadPartRequest.setInputStream(content);
+            uploadPartRequest.setPartSize(size);
+            return cosClient.uploadPart(uploadPartRequest).getETag();
+        } catch (Exception e) {
+            throw new FileOperationException("附件 " + upload.getFilename() + " 分片 " + partNumber
+                + " 上传失败(腾讯云)", e);
+        } finally {
+            cosClient.shutdown();
+        }
+    }
+
+    @Override
+    public void complete(@NonNull MultipartUpload upload, @NonNull List<String> etags) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+        Assert.notEmpty(etags, "Part etags must not be empty");
+
+        List<PartETag> partEtags = new ArrayList<>(etags.size());
+        for (int i = 0; i < etags.size(); i++) {
+            partEtags.add(new PartETag(i + 1, etags.get(i)));
+        }
+
+        COSClient cosClient = buildCosClient();
+        try {
+            cosClient.completeMultipartUpload(new CompleteMultipartUploadRequest(getBucketName(),
+                upload.getKey(), upload.getUploadId(), partEtags));
+        } catch (Exception e) {
+            throw new FileOperationException("附件 " + upload.getFilename() + " 完成分片上传失败(腾讯云)",
+                e);
+        } finally {
+            cosClient.shutdown();
+        }
+    }
+
+    @Override
+    public void abort(@NonNull MultipartUpload upload) {
+        Assert.notNull(upload, "Multipart upload must not be null");
+
+        COSClient cosClient = buildCosClient();
+        try {
+            cosClient.abortMultipartUpload(new AbortMultipartUploadRequest(getBucketName(),
+                upload.getKey(), upload.getUploadId()));
+        } catch (Exception e) {
+            throw new FileOperationException("附件 " + upload.getFilename() + " 取消分片上传失败(腾讯云)",
+                e);
+        } finally {
+            cosClient.shutdown();
+        }
+    }
+
+    private COSClient buildCosClient() {
+        String region =
+            optionService.getByPropertyOfNonNull(TencentCosProperties.COS_REGION).toString();
+        String secretId =
+            optionService.getByPropertyOfNonNull(TencentCosProperties.COS_SECRET_ID).toString();
+        String secretKey =
+            optionService.getByPropertyOfNonNull(TencentCosProperties.COS_SECRET_KEY).toString();
+
+        COSCredentials cred = new BasicCOSCredentials(secretId, secretKey);
+        return new COSClient(cred, new ClientConfig(new Region(region)));
+    }
+
+    private String getBucketName() {
+        return optionService.getByPropertyOfNonNull(TencentCosProperties.COS_BUCKET_NAME)
+            .toString();
+    }
+
     @Override
     public AttachmentType getAttachmentType() {
         return AttachmentType.TENCENTCOS;
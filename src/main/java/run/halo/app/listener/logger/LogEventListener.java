@@ -1,8 +1,26 @@
 package run.halo.app.listener.logger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.logger.LogEvent;
 import run.halo.app.model.entity.Log;
 import run.halo.app.service.LogService;
@@ -10,25 +28,222 @@ import run.halo.app.service.LogService;
 /**
  * Log event listener.
  *
+ * <p>Logs are queued into a bounded queue and written into the database periodically by a
+ * single thread with batch inserts, so that bursts of logins or post publishes cost neither a
+ * thread nor a transaction each. Publishers wait for a while if the queue is full, after that
+ * the log is dropped. While the database is unreachable, the failed batch is kept and retried
+ * with a growing delay. Batches rejected for their data are written one by one and the logs
+ * failing again are dropped. Dropped logs are counted by the halo.logs.dropped meter.
+ *
  * @author johnniang
  * @date 19-4-21
  */
+@Slf4j
 @Component
 public class LogEventListener {
 
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Maximum delay between retries of a batch while the database is unreachable.
+     */
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     private final LogService logService;
 
-    public LogEventListener(LogService logService) {
+    private final BlockingQueue<Log> logQueue;
+
+    private final int batchSize;
+
+    private final long flushPeriodMillis;
+
+    private final Counter droppedCounter;
+
+    private final ScheduledExecutorService flushExecutor;
+
+    /**
+     * Logs failed to be written as the database may be unavailable, retried before queued logs
+     * by the next flush.
+     */
+    private List<Log> failedBatch = List.of();
+
+    private long retryDelayMillis;
+
+    private long retryAt;
+
+    public LogEventListener(LogService logService, HaloProperties haloProperties,
+        MeterRegistry meterRegistry) {
+        Duration flushPeriod = haloProperties.getLogFlushPeriod();
+        Assert.notNull(flushPeriod, "Flush period must not be null");
+        Assert.isTrue(!flushPeriod.isNegative() && !flushPeriod.isZero(),
+            "Flush period must be positive");
+
         this.logService = logService;
+        this.logQueue = new ArrayBlockingQueue<>(Math.max(1, haloProperties.getLogQueueCapacity()));
+        this.batchSize = Math.max(1, haloProperties.getLogBatchSize());
+        this.flushPeriodMillis = flushPeriod.toMillis();
+
+        this.droppedCounter = Counter.builder("halo.logs.dropped")
+            .description("Number of logs dropped as the log queue was full or they failed to be "
+                + "written")
+            .register(meterRegistry);
+        Gauge.builder("halo.logs.queued", logQueue, BlockingQueue::size)
+            .description("Number of logs waiting to be written")
+            .register(meterRegistry);
+
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("log-flusher-%d")
+                .setDaemon(true)
+                .build());
+
+        this.flushExecutor.scheduleWithFixedDelay(this::flushLogs, flushPeriodMillis,
+            flushPeriodMillis, TimeUnit.MILLISECONDS);
     }
 
     @EventListener
-    @Async
     public void onApplicationEvent(LogEvent event) {
         // Convert to log
         Log logToCreate = event.getLogParam().convertTo();
+        // Fill create time now instead of when the log is written
+        logToCreate.prePersist();
+
+        boolean queued;
+        try {
+            queued = logQueue.offer(logToCreate, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            droppedCounter.increment();
+            log.warn("Dropped log as the log queue is full: [{}]", logToCreate);
+        }
+    }
+
+    /**
+     * Writes all queued logs into database, in batches of the configured size.
+     */
+    synchronized void flushLogs() {
+        if (!failedBatch.isEmpty()
+            && (System.currentTimeMillis() < retryAt || !writeBatch(failedBatch))) {
+            // Keep queued logs until the database recovers
+            return;
+        }
+
+        List<Log> batch = new ArrayList<>(batchSize);
+        while (logQueue.drainTo(batch, batchSize) > 0) {
+            if (!writeBatch(batch)) {
+                return;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Writes a batch of logs. If the database is unreachable, the batch is kept for retrying
+     * later. If the batch is rejected for its data, its logs are written one by one so that logs
+     * which can never be written are dropped instead of blocking the others.
+     *
+     * @param batch batch of logs
+     * @return false if logs are kept for retrying, true otherwise
+     */
+    private boolean writeBatch(List<Log> batch) {
+        try {
+            logService.createInBatch(batch);
+            log.debug("Wrote [{}] logs", batch.size());
+            failedBatch = List.of();
+            retryDelayMillis = 0;
+            return true;
+        } catch (Exception e) {
+            if (isUnavailable(e)) {
+                retryLater(batch, e);
+                return false;
+            }
+            log.warn("Failed to write [{}] logs in batch, writing them one by one",
+                batch.size(), e);
+        }
+
+        List<Log> failedLogs = new ArrayList<>();
+        Exception lastError = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Log logToCreate = batch.get(i);
+            try {
+                logService.createInBatch(List.of(logToCreate));
+            } catch (Exception e) {
+                if (isUnavailable(e)) {
+                    dropFailedLogs(failedLogs, lastError);
+                    retryLater(batch.subList(i, batch.size()), e);
+                    return false;
+                }
+                failedLogs.add(logToCreate);
+                lastError = e;
+            }
+        }
+
+        dropFailedLogs(failedLogs, lastError);
+        failedBatch = List.of();
+        retryDelayMillis = 0;
+        return true;
+    }
+
+    private void retryLater(List<Log> logs, Exception e) {
+        retryDelayMillis = retryDelayMillis == 0 ? flushPeriodMillis
+            : Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+        retryAt = System.currentTimeMillis() + retryDelayMillis;
+        failedBatch = new ArrayList<>(logs);
+        log.error("Failed to write [" + logs.size() + "] logs as the database is unavailable, "
+            + "will retry in [" + retryDelayMillis + "] ms", e);
+    }
+
+    private void dropFailedLogs(List<Log> failedLogs, Exception lastError) {
+        if (!failedLogs.isEmpty()) {
+            droppedCounter.increment(failedLogs.size());
+            log.error("Dropped [" + failedLogs.size() + "] logs failed to be written: "
+                + failedLogs, lastError);
+        }
+    }
+
+    /**
+     * Whether the error is caused by the database being unreachable or busy rather than by the
+     * logs written.
+     */
+    private static boolean isUnavailable(Exception e) {
+        // Failures to get a connection are data access resource failures
+        return e instanceof DataAccessResourceFailureException
+            || e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException;
+    }
+
+    /**
+     * Writes remaining logs on shutdown, unless the database was unreachable by the last write.
+     * Logs which are not written are dropped.
+     */
+    private synchronized void flushRemainingLogs() {
+        if (failedBatch.isEmpty()) {
+            flushLogs();
+        }
+
+        List<Log> remainingLogs = new ArrayList<>(failedBatch);
+        logQueue.drainTo(remainingLogs);
+        if (!remainingLogs.isEmpty()) {
+            droppedCounter.increment(remainingLogs.size());
+            log.error("Dropped [{}] logs as the database is unavailable on shutdown",
+                remainingLogs.size());
+        }
+        failedBatch = List.of();
+        retryDelayMillis = 0;
+    }
 
-        // Create log
-        logService.create(logToCreate);
+    @PreDestroy
+    public void preDestroy() throws InterruptedException {
+        log.debug("Shutting down log flusher and flushing remaining logs");
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            flushExecutor.shutdownNow();
+        }
+        flushRemainingLogs();
     }
 }
@@ -1,58 +1,67 @@
 package run.halo.app.listener.post;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 import run.halo.app.event.post.AbstractVisitEvent;
+import run.halo.app.exception.AbstractHaloException;
 import run.halo.app.service.base.BasePostService;
 
 /**
  * Abstract visit event listener.
  *
+ * <p>Visits are accumulated into a counter per post id and flushed into the database
+ * periodically by a single scheduled thread, so that page views cost neither a thread nor
+ * an update statement each.
+ *
  * @author johnniang
  * @date 19-4-24
  */
 @Slf4j
 public abstract class AbstractVisitEventListener {
 
-    private final Map<Integer, BlockingQueue<Integer>> visitQueueMap;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
 
-    private final Map<Integer, PostVisitTask> visitTaskMap;
+    private final Map<Integer, LongAdder> visitCounterMap = new ConcurrentHashMap<>();
 
     private final BasePostService basePostService;
 
-    private final ExecutorService executor;
-
-    protected AbstractVisitEventListener(BasePostService basePostService) {
-        this.basePostService = basePostService;
+    private final ScheduledExecutorService flushExecutor;
 
-        int initCapacity = 8;
+    protected AbstractVisitEventListener(BasePostService basePostService,
+        Duration flushPeriod) {
+        Assert.notNull(flushPeriod, "Flush period must not be null");
+        Assert.isTrue(!flushPeriod.isNegative() && !flushPeriod.isZero(),
+            "Flush period must be positive");
 
-        long count = basePostService.count();
-
-        if (count < initCapacity) {
-            initCapacity = (int) count;
-        }
+        this.basePostService = basePostService;
 
-        visitQueueMap = new ConcurrentHashMap<>(initCapacity << 1);
-        visitTaskMap = new ConcurrentHashMap<>(initCapacity << 1);
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat(getClass().getSimpleName() + "-flusher-%d")
+                .setDaemon(true)
+                .build());
 
-        this.executor = Executors.newCachedThreadPool();
+        long periodMillis = flushPeriod.toMillis();
+        this.flushExecutor.scheduleWithFixedDelay(this::flushVisits, periodMillis, periodMillis,
+            TimeUnit.MILLISECONDS);
     }
 
     /**
      * Handle visit event.
      *
      * @param event visit event must not be null
-     * @throws InterruptedException interrupted exception
      */
-    protected void handleVisitEvent(@NonNull AbstractVisitEvent event) throws InterruptedException {
+    protected void handleVisitEvent(@NonNull AbstractVisitEvent event) {
         Assert.notNull(event, "Visit event must not be null");
 
         // Get post id
@@ -60,66 +69,44 @@ public abstract class AbstractVisitEventListener {
 
         log.debug("Received a visit event, post id: [{}]", id);
 
-        // Get post visit queue
-        BlockingQueue<Integer> postVisitQueue =
-            visitQueueMap.computeIfAbsent(id, this::createEmptyQueue);
-
-        visitTaskMap.computeIfAbsent(id, this::createPostVisitTask);
-
-        // Put a visit for the post
-        postVisitQueue.put(id);
-    }
-
-
-    private PostVisitTask createPostVisitTask(Integer postId) {
-        // Create new post visit task
-        PostVisitTask postVisitTask = new PostVisitTask(postId);
-        // Start a post visit task
-        executor.execute(postVisitTask);
-
-        log.debug("Created a new post visit task for post id: [{}]", postId);
-        return postVisitTask;
+        // Accumulate a visit for the post
+        visitCounterMap.computeIfAbsent(id, postId -> new LongAdder()).increment();
     }
 
-    private BlockingQueue<Integer> createEmptyQueue(Integer postId) {
-        // Create a new queue
-        return new LinkedBlockingQueue<>();
-    }
-
-
     /**
-     * Post visit task.
+     * Flushes all accumulated visits into database, one update per visited post.
      */
-    private class PostVisitTask implements Runnable {
-
-        private final Integer id;
-
-        private PostVisitTask(Integer id) {
-            this.id = id;
-        }
+    void flushVisits() {
+        visitCounterMap.forEach((postId, counter) -> {
+            // Visits recorded concurrently are either included or left for the next flush
+            long visits = counter.sumThenReset();
+            if (visits <= 0) {
+                return;
+            }
 
-        @Override
-        public void run() {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    BlockingQueue<Integer> postVisitQueue = visitQueueMap.get(id);
-                    Integer postId = postVisitQueue.take();
-
-                    log.debug("Took a new visit for post id: [{}]", postId);
-
-                    // Increase the visit
-                    basePostService.increaseVisit(postId);
-
-                    log.debug("Increased visits for post id: [{}]", postId);
-                } catch (InterruptedException e) {
-                    log.debug(
-                        "Post visit task: " + Thread.currentThread().getName() + " was interrupted",
-                        e);
-                    // Ignore this exception
-                }
+            try {
+                basePostService.increaseVisit(visits, postId);
+                log.debug("Increased [{}] visits for post id: [{}]", visits, postId);
+            } catch (AbstractHaloException e) {
+                // The post may have been deleted, so stop tracking it
+                visitCounterMap.remove(postId, counter);
+                log.warn("Dropped [{}] visits for post id: [{}], reason: [{}]", visits, postId,
+                    e.getMessage());
+            } catch (Exception e) {
+                // Keep the visits for the next flush
+                counter.add(visits);
+                log.error("Failed to increase visits for post id: [" + postId + "]", e);
             }
+        });
+    }
 
-            log.debug("Thread: [{}] has been interrupted", Thread.currentThread().getName());
+    @PreDestroy
+    public void preDestroy() throws InterruptedException {
+        log.debug("Shutting down visit flusher and flushing remaining visits");
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            flushExecutor.shutdownNow();
         }
+        flushVisits();
     }
 }
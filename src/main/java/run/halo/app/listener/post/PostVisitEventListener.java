@@ -1,8 +1,8 @@
 package run.halo.app.listener.post;
 
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.post.PostVisitEvent;
 import run.halo.app.service.PostService;
 
@@ -15,13 +15,12 @@ import run.halo.app.service.PostService;
 @Component
 public class PostVisitEventListener extends AbstractVisitEventListener {
 
-    public PostVisitEventListener(PostService postService) {
-        super(postService);
+    public PostVisitEventListener(PostService postService, HaloProperties haloProperties) {
+        super(postService, haloProperties.getVisitFlushPeriod());
     }
 
-    @Async
     @EventListener
-    public void onPostVisitEvent(PostVisitEvent event) throws InterruptedException {
+    public void onPostVisitEvent(PostVisitEvent event) {
         handleVisitEvent(event);
     }
 }
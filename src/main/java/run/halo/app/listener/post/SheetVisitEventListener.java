@@ -1,8 +1,8 @@
 package run.halo.app.listener.post;
 
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.post.SheetVisitEvent;
 import run.halo.app.service.SheetService;
 
@@ -15,13 +15,12 @@ import run.halo.app.service.SheetService;
 @Component
 public class SheetVisitEventListener extends AbstractVisitEventListener {
 
-    protected SheetVisitEventListener(SheetService sheetService) {
-        super(sheetService);
+    protected SheetVisitEventListener(SheetService sheetService, HaloProperties haloProperties) {
+        super(sheetService, haloProperties.getVisitFlushPeriod());
     }
 
-    @Async
     @EventListener
-    public void onSheetVisitEvent(SheetVisitEvent event) throws InterruptedException {
+    public void onSheetVisitEvent(SheetVisitEvent event) {
         handleVisitEvent(event);
     }
 
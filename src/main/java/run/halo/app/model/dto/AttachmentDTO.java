@@ -5,6 +5,7 @@ import lombok.Data;
 import run.halo.app.model.dto.base.OutputConverter;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ImageVariantStatus;
 
 /**
  * Attachment output dto.
@@ -37,5 +38,12 @@ public class AttachmentDTO implements OutputConverter<AttachmentDTO, Attachment>
 
     private AttachmentType type;
 
+    private ImageVariantStatus variantStatus;
+
+    /**
+     * Candidates of responsive image, empty until variants are ready.
+     */
+    private String srcset;
+
     private Date createTime;
 }
@@ -0,0 +1,30 @@
+package run.halo.app.model.dto;
+
+import java.util.List;
+import lombok.Data;
+import run.halo.app.model.dto.base.OutputConverter;
+import run.halo.app.model.support.ChunkedUpload;
+
+/**
+ * Chunked upload output dto.
+ */
+@Data
+public class ChunkedUploadDTO implements OutputConverter<ChunkedUploadDTO, ChunkedUpload> {
+
+    private String uploadId;
+
+    private String filename;
+
+    private String mediaType;
+
+    private Long size;
+
+    private Long partSize;
+
+    private Integer partCount;
+
+    /**
+     * Numbers of uploaded parts, in ascending order.
+     */
+    private List<Integer> uploadedParts;
+}
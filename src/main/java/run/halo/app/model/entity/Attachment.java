@@ -13,6 +13,7 @@ import lombok.ToString;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.GenericGenerator;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ImageVariantStatus;
 
 /**
  * Attachment entity
@@ -98,6 +99,19 @@ public class Attachment extends BaseEntity {
     @ColumnDefault("0")
     private AttachmentType type;
 
+    /**
+     * Status of generating responsive variants.
+     */
+    @Column(name = "variant_status")
+    @ColumnDefault("0")
+    private ImageVariantStatus variantStatus;
+
+    /**
+     * Comma separated widths of generated variants, such as 320,640.
+     */
+    @Column(name = "variant_widths")
+    private String variantWidths;
+
     @Override
     public void prePersist() {
         super.prePersist();
@@ -125,5 +139,13 @@ public class Attachment extends BaseEntity {
         if (type == null) {
             type = AttachmentType.LOCAL;
         }
+
+        if (variantStatus == null) {
+            variantStatus = ImageVariantStatus.NONE;
+        }
+
+        if (variantWidths == null) {
+            variantWidths = "";
+        }
     }
 }
@@ -81,10 +81,15 @@ public class Content extends BaseEntity {
         private String diff;
 
         private String originalDiff;
+
+        /**
+         * Version of the snapshot the diffs are based on.
+         */
+        private Integer baseVersion;
     }
 
     /**
-     * The actual content of the post obtained by applying patch to V1 version.
+     * The actual content of the post obtained by applying patch to its base snapshot.
      *
      * @author guqing
      * @since 2021-12-20
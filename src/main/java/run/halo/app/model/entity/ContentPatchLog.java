@@ -52,6 +52,13 @@ public class ContentPatchLog extends BaseEntity {
     @Column(name = "version", nullable = false)
     private Integer version;
 
+    /**
+     * Version of the full snapshot that the diffs are based on, equal to version if this record
+     * is a full snapshot itself. Null means the diffs are based on version 1.
+     */
+    @Column(name = "base_version")
+    private Integer baseVersion;
+
     @ColumnDefault("1")
     @Column(name = "status")
     private PostStatus status;
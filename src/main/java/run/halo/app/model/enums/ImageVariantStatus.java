@@ -0,0 +1,38 @@
+package run.halo.app.model.enums;
+
+/**
+ * Status of generating responsive variants of an image attachment.
+ */
+public enum ImageVariantStatus implements ValueEnum<Integer> {
+
+    /**
+     * Not an image, or stored by a handler which does not generate variants.
+     */
+    NONE(0),
+
+    /**
+     * Waiting to be processed.
+     */
+    PENDING(1),
+
+    /**
+     * Thumbnail and variants are generated.
+     */
+    READY(2),
+
+    /**
+     * Failed to generate variants, the original image is used instead.
+     */
+    FAILED(3);
+
+    private final Integer value;
+
+    ImageVariantStatus(Integer value) {
+        this.value = value;
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,27 @@
+package run.halo.app.model.params;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Chunked upload param.
+ */
+@Data
+public class ChunkedUploadParam {
+
+    @NotBlank(message = "文件名称不能为空")
+    @Size(max = 255, message = "文件名称的字符长度不能超过 {max}")
+    private String filename;
+
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于 0")
+    private Long size;
+
+    /**
+     * Media type of the file, guessed from the file name if absent.
+     */
+    private String mediaType;
+}
@@ -0,0 +1,40 @@
+package run.halo.app.model.projection;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post projection with the fields needed to list it in sitemap.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSitemapProjection {
+
+    /**
+     * Post id.
+     */
+    private Integer id;
+
+    /**
+     * Post title.
+     */
+    private String title;
+
+    /**
+     * Post slug.
+     */
+    private String slug;
+
+    /**
+     * Post create time.
+     */
+    private Date createTime;
+
+    /**
+     * Post edit time.
+     */
+    private Date editTime;
+}
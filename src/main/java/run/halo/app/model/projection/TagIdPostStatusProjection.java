@@ -0,0 +1,30 @@
+package run.halo.app.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import run.halo.app.model.enums.PostStatus;
+
+/**
+ * Tag id and post status projection of a post tag.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagIdPostStatusProjection {
+
+    /**
+     * Tag id.
+     */
+    private Integer tagId;
+
+    /**
+     * Post id.
+     */
+    private Integer postId;
+
+    /**
+     * Post status.
+     */
+    private PostStatus postStatus;
+}
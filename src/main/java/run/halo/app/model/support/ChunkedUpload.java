@@ -0,0 +1,42 @@
+package run.halo.app.model.support;
+
+import lombok.Data;
+import lombok.ToString;
+import run.halo.app.model.enums.AttachmentType;
+
+/**
+ * State of a chunked upload, except its uploaded parts.
+ */
+@Data
+@ToString
+public class ChunkedUpload {
+
+    private String uploadId;
+
+    private String filename;
+
+    private String mediaType;
+
+    /**
+     * Size of the whole file.
+     */
+    private Long size;
+
+    /**
+     * Size of every part except the last one.
+     */
+    private Long partSize;
+
+    private Integer partCount;
+
+    private AttachmentType attachmentType;
+
+    /**
+     * Multipart upload initiated in the object storage, or null if parts are staged locally.
+     */
+    private MultipartUpload multipartUpload;
+
+    private Integer width;
+
+    private Integer height;
+}
@@ -0,0 +1,27 @@
+package run.halo.app.model.support;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.lang.Nullable;
+
+/**
+ * Cursor based page of comments, used for infinite scrolling.
+ */
+@Data
+@AllArgsConstructor
+public class CommentCursorPage<T> {
+
+    private List<T> content;
+
+    /**
+     * Cursor of the next page, null if there are no more comments.
+     */
+    @Nullable
+    private Long nextCursor;
+
+    /**
+     * Total comment (Contains sub comments)
+     */
+    private long commentCount;
+}
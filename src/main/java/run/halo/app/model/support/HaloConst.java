@@ -34,6 +34,11 @@ public class HaloConst {
      */
     public static final String HALO_BACKUP_PREFIX = "halo-backup-";
 
+    /**
+     * Halo incremental backup snapshot prefix.
+     */
+    public static final String HALO_BACKUP_SNAPSHOT_PREFIX = "halo-backup-snapshot-";
+
     /**
      * Halo backup markdown prefix.
      */
@@ -166,9 +171,9 @@ public class HaloConst {
     public static String DATABASE_PRODUCT_NAME = null;
 
     /**
-     * Options cache key.
+     * Options version cache key, used to invalidate option snapshots across nodes.
      */
-    public static final String OPTIONS_CACHE_KEY = "options";
+    public static final String OPTIONS_VERSION_CACHE_KEY = "options_version";
 
     public static final String PRIVATE_OPTION_KEY = "private_options";
 
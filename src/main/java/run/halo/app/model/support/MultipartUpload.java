@@ -0,0 +1,30 @@
+package run.halo.app.model.support;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Multipart upload initiated in an object storage.
+ */
+@Data
+@ToString
+public class MultipartUpload {
+
+    /**
+     * Object key.
+     */
+    private String key;
+
+    /**
+     * Upload id given by the object storage.
+     */
+    private String uploadId;
+
+    private String filename;
+
+    private String suffix;
+
+    private String filePath;
+
+    private String thumbPath;
+}
@@ -0,0 +1,23 @@
+package run.halo.app.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post count of a year or month archive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveCountVO {
+
+    private Integer year;
+
+    /**
+     * Month from 1 to 12, or null for a year archive.
+     */
+    private Integer month;
+
+    private Long count;
+}
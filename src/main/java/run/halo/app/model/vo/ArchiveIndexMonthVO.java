@@ -0,0 +1,16 @@
+package run.halo.app.model.vo;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Month archive vo built from the archive index.
+ */
+@Data
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class ArchiveIndexMonthVO extends ArchiveIndexYearVO {
+
+    private Integer month;
+}
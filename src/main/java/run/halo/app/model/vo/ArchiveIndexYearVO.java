@@ -0,0 +1,16 @@
+package run.halo.app.model.vo;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Year archive vo built from the archive index, whose posts carry only the fields kept by the
+ * index.
+ */
+@Data
+public class ArchiveIndexYearVO {
+
+    private Integer year;
+
+    private List<ArchivePostVO> posts;
+}
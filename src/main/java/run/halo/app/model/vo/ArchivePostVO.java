@@ -0,0 +1,19 @@
+package run.halo.app.model.vo;
+
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * Post vo listed in archives.
+ */
+@Data
+public class ArchivePostVO {
+
+    private Integer id;
+
+    private String title;
+
+    private String fullPath;
+
+    private Date createTime;
+}
@@ -18,4 +18,9 @@ import run.halo.app.model.dto.BaseCommentDTO;
 public class BaseCommentVO extends BaseCommentDTO {
 
     List<BaseCommentVO> children;
+
+    /**
+     * Direct children count, which still counts children deeper than the loaded tree.
+     */
+    Long childrenCount;
 }
@@ -0,0 +1,21 @@
+package run.halo.app.model.vo;
+
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * Post sitemap vo.
+ */
+@Data
+public class PostSitemapVO {
+
+    private Integer id;
+
+    private String title;
+
+    private String fullPath;
+
+    private Date createTime;
+
+    private Date lastModified;
+}
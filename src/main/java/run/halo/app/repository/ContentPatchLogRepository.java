@@ -1,6 +1,9 @@
 package run.halo.app.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import run.halo.app.model.entity.ContentPatchLog;
 import run.halo.app.model.enums.PostStatus;
@@ -53,6 +56,20 @@ public interface ContentPatchLogRepository extends BaseRepository<ContentPatchLo
      */
     ContentPatchLog findByPostIdAndVersion(Integer postId, Integer version);
 
+    /**
+     * Finds full snapshots below the specified version number by post id, latest first.
+     *
+     * @param postId post id
+     * @param version exclusive upper bound of version number
+     * @param pageable page info
+     * @return a list of {@link ContentPatchLog} full snapshots
+     */
+    @Query("select patchLog from ContentPatchLog patchLog "
+        + "where patchLog.postId = ?1 and patchLog.version < ?2 "
+        + "and (patchLog.version = 1 or patchLog.baseVersion = patchLog.version) "
+        + "order by patchLog.version desc")
+    List<ContentPatchLog> findSnapshotsBefore(Integer postId, Integer version, Pageable pageable);
+
     /**
      * Finds all records by post id and status and based on version number descending order
      *
@@ -70,4 +87,16 @@ public interface ContentPatchLogRepository extends BaseRepository<ContentPatchLo
      * @return a list of {@link ContentPatchLog} queried by post id
      */
     List<ContentPatchLog> findAllByPostId(Integer postId);
+
+    /**
+     * Finds ids of the given posts which have records in any of the given statuses.
+     *
+     * @param postIds post ids to query
+     * @param statuses record statuses
+     * @return a set of post ids
+     */
+    @Query("select distinct c.postId from ContentPatchLog c where c.postId in :postIds and c"
+        + ".status in :statuses")
+    Set<Integer> findPostIdsByPostIdInAndStatusIn(Collection<Integer> postIds,
+        Collection<PostStatus> statuses);
 }
@@ -1,5 +1,11 @@
 package run.halo.app.repository;
 
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
 import run.halo.app.model.entity.Log;
 import run.halo.app.repository.base.BaseRepository;
 
@@ -10,4 +16,15 @@ import run.halo.app.repository.base.BaseRepository;
  */
 public interface LogRepository extends BaseRepository<Log, Long> {
 
+    /**
+     * Finds ids of logs created before the given time, oldest first.
+     *
+     * @param createTime create time must not be null
+     * @param pageable page info must not be null
+     * @return a list of log ids
+     */
+    @NonNull
+    @Query("select log.id from Log log where log.createTime < :createTime order by log.id")
+    List<Long> findIdsByCreateTimeBefore(@NonNull @Param("createTime") Date createTime,
+        @NonNull Pageable pageable);
 }
@@ -1,11 +1,15 @@
 package run.halo.app.repository;
 
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostArchiveProjection;
+import run.halo.app.model.projection.PostSitemapProjection;
 import run.halo.app.repository.base.BasePostRepository;
 
 
@@ -103,4 +107,41 @@ public interface PostRepository extends BasePostRepository<Post>, JpaSpecificati
         + ".status = :status")
     Optional<Post> findBy(@Param("year") Integer year, @Param("month") Integer month,
         @Param("day") Integer day, @Param("slug") String slug, @Param("status") PostStatus status);
+
+    /**
+     * Finds sitemap projections of posts after the given id, ordered by id.
+     *
+     * @param status post status
+     * @param lastId exclusive lower bound of post id
+     * @param pageable page info, only its size is used
+     * @return a list of post sitemap projection
+     */
+    @Query("select new run.halo.app.model.projection.PostSitemapProjection(post.id, post.title,"
+        + " post.slug, post.createTime, post.editTime) from Post post where post.status = :status"
+        + " and post.id > :lastId order by post.id")
+    List<PostSitemapProjection> findSitemapProjectionsAfter(@Param("status") PostStatus status,
+        @Param("lastId") Integer lastId, Pageable pageable);
+
+    /**
+     * Finds archive projections of all posts by status.
+     *
+     * @param status post status must not be null
+     * @return a list of post archive projection
+     */
+    @Query("select new run.halo.app.model.projection.PostArchiveProjection(post.id, post.title,"
+        + " post.slug, post.createTime) from Post post where post.status = :status")
+    List<PostArchiveProjection> findArchiveProjections(@Param("status") PostStatus status);
+
+    /**
+     * Finds archive projection of a post by id and status.
+     *
+     * @param id post id must not be null
+     * @param status post status must not be null
+     * @return an optional post archive projection
+     */
+    @Query("select new run.halo.app.model.projection.PostArchiveProjection(post.id, post.title,"
+        + " post.slug, post.createTime) from Post post where post.id = :id"
+        + " and post.status = :status")
+    Optional<PostArchiveProjection> findArchiveProjection(@Param("id") Integer id,
+        @Param("status") PostStatus status);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 import run.halo.app.model.entity.PostTag;
 import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.TagIdPostStatusProjection;
 import run.halo.app.model.projection.TagPostPostCountProjection;
 import run.halo.app.repository.base.BaseRepository;
 
@@ -118,4 +119,14 @@ public interface PostTagRepository extends BaseRepository<PostTag, Integer> {
         + " p.status<>2 group by pt.tagId")
     @NonNull
     List<TagPostPostCountProjection> findPostCount();
+
+    /**
+     * Finds all post tags with post status.
+     *
+     * @return a list of tag id post status projection
+     */
+    @Query("select new run.halo.app.model.projection.TagIdPostStatusProjection(pt.tagId,"
+        + " pt.postId, p.status) from PostTag pt inner join Post p on p.id=pt.postId")
+    @NonNull
+    List<TagIdPostStatusProjection> findAllWithPostStatus();
 }
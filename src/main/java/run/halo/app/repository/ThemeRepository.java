@@ -40,6 +40,15 @@ public interface ThemeRepository {
      */
     List<ThemeProperty> listAll();
 
+    /**
+     * Checks whether a template exists in the theme.
+     *
+     * @param themeId theme id
+     * @param template template path relative to the theme folder
+     * @return true if the theme has the template; false otherwise
+     */
+    boolean templateExists(String themeId, String template);
+
     /**
      * Set activated theme.
      *
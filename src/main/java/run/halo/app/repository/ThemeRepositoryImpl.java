@@ -9,18 +9,21 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.theme.ThemeActivatedEvent;
+import run.halo.app.event.theme.ThemeUpdatedEvent;
 import run.halo.app.exception.AlreadyExistsException;
 import run.halo.app.exception.NotFoundException;
 import run.halo.app.exception.ServiceException;
@@ -29,13 +32,16 @@ import run.halo.app.exception.ThemeNotSupportException;
 import run.halo.app.handler.theme.config.support.ThemeProperty;
 import run.halo.app.model.entity.Option;
 import run.halo.app.model.support.HaloConst;
-import run.halo.app.theme.ThemePropertyScanner;
+import run.halo.app.theme.ThemeRegistry;
 import run.halo.app.utils.FileUtils;
 import run.halo.app.utils.Version;
 
 /**
  * Theme repository implementation.
  *
+ * <p>Themes are held by a {@link ThemeRegistry} created on first use, and the activated theme id
+ * is kept until options are updated, so theme lookups do not touch disk or the database.
+ *
  * @author johnniang
  */
 @Repository
@@ -51,6 +57,10 @@ public class ThemeRepositoryImpl
 
     private volatile ThemeProperty currentTheme;
 
+    private volatile String activatedThemeId;
+
+    private volatile ThemeRegistry registry;
+
     public ThemeRepositoryImpl(OptionRepository optionRepository,
         HaloProperties properties,
         ApplicationEventPublisher eventPublisher) {
@@ -61,9 +71,18 @@ public class ThemeRepositoryImpl
 
     @Override
     public String getActivatedThemeId() {
-        return this.optionRepository.findByKey(THEME.getValue())
-            .map(Option::getValue)
-            .orElse(DEFAULT_THEME_ID);
+        String themeId = this.activatedThemeId;
+        if (themeId == null) {
+            synchronized (this) {
+                if (this.activatedThemeId == null) {
+                    this.activatedThemeId = this.optionRepository.findByKey(THEME.getValue())
+                        .map(Option::getValue)
+                        .orElse(DEFAULT_THEME_ID);
+                }
+                themeId = this.activatedThemeId;
+            }
+        }
+        return themeId;
     }
 
     @Override
@@ -98,15 +117,19 @@ public class ThemeRepositoryImpl
 
     @Override
     public Optional<ThemeProperty> fetchThemePropertyByThemeId(String themeId) {
-        return listAll()
-            .stream()
-            .filter(property -> Objects.equals(themeId, property.getId()))
-            .findFirst();
+        return getRegistry().fetchById(themeId).map(this::markActivated);
     }
 
     @Override
     public List<ThemeProperty> listAll() {
-        return ThemePropertyScanner.INSTANCE.scan(getThemeRootPath(), getActivatedThemeId());
+        List<ThemeProperty> themes = getRegistry().listAll();
+        themes.forEach(this::markActivated);
+        return themes;
+    }
+
+    @Override
+    public boolean templateExists(String themeId, String template) {
+        return getRegistry().templateExists(themeId, template);
     }
 
     @Override
@@ -163,7 +186,7 @@ public class ThemeRepositoryImpl
         }
 
         // or else throw should never happen
-        return ThemePropertyScanner.INSTANCE.fetchThemeProperty(targetThemePath).orElseThrow();
+        return getRegistry().refresh(targetThemePath).orElseThrow();
     }
 
     @Override
@@ -180,6 +203,8 @@ public class ThemeRepositoryImpl
             FileUtils.deleteFolder(themePath);
         } catch (IOException e) {
             throw new ServiceException("Failed to delete theme path: " + themePath, e);
+        } finally {
+            getRegistry().refresh(themePath);
         }
     }
 
@@ -201,9 +226,56 @@ public class ThemeRepositoryImpl
         synchronized (this) {
             // reset current theme with null
             this.currentTheme = null;
+            this.activatedThemeId = null;
+        }
+    }
+
+    @EventListener(ThemeActivatedEvent.class)
+    public void onThemeActivated() {
+        synchronized (this) {
+            this.currentTheme = null;
+            this.activatedThemeId = null;
         }
     }
 
+    @EventListener(ThemeUpdatedEvent.class)
+    public void onThemeUpdated() {
+        ThemeRegistry themeRegistry = this.registry;
+        if (themeRegistry != null) {
+            themeRegistry.refresh();
+        }
+        synchronized (this) {
+            this.currentTheme = null;
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        ThemeRegistry themeRegistry = this.registry;
+        if (themeRegistry != null) {
+            themeRegistry.close();
+        }
+    }
+
+    private ThemeRegistry getRegistry() {
+        ThemeRegistry themeRegistry = this.registry;
+        if (themeRegistry == null) {
+            synchronized (this) {
+                if (this.registry == null) {
+                    this.registry = new ThemeRegistry(getThemeRootPath());
+                }
+                themeRegistry = this.registry;
+            }
+        }
+        return themeRegistry;
+    }
+
+    private ThemeProperty markActivated(ThemeProperty themeProperty) {
+        themeProperty.setActivated(
+            StringUtils.equals(getActivatedThemeId(), themeProperty.getId()));
+        return themeProperty;
+    }
+
     @NonNull
     protected ThemeProperty getThemeByThemeId(String themeId) {
         return fetchThemePropertyByThemeId(themeId).orElseThrow(
@@ -195,6 +195,34 @@ public interface BaseCommentRepository<COMMENT extends BaseComment>
     @SensitiveConceal
     List<COMMENT> findAllByPostIdAndParentId(@NonNull Integer postId, @NonNull Long parentId);
 
+    /**
+     * Finds comments by post id and parent id.
+     *
+     * @param postId post id must not be null
+     * @param parentId comment parent id must not be null
+     * @param pageable page info must not be null
+     * @return a page of comment
+     */
+    @NonNull
+    @SensitiveConceal
+    Page<COMMENT> findAllByPostIdAndParentId(Integer postId, Long parentId, Pageable pageable);
+
+    /**
+     * Finds comments by post id, comment status and parent id whose id is less than the given
+     * id.
+     *
+     * @param postId post id must not be null
+     * @param status comment status must not be null
+     * @param parentId comment parent id must not be null
+     * @param id exclusive upper bound of comment id must not be null
+     * @param pageable page info must not be null
+     * @return a list of comment
+     */
+    @NonNull
+    @SensitiveConceal
+    List<COMMENT> findAllByPostIdAndStatusAndParentIdAndIdLessThan(Integer postId,
+        CommentStatus status, Long parentId, Long id, Pageable pageable);
+
     /**
      * Finds all comments by status and parent id collection.
      *
@@ -8,6 +8,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 /**
  * Base repository interface contains some common methods.
@@ -49,4 +50,15 @@ public interface BaseRepository<D, I> extends JpaRepository<D, I> {
      */
     long deleteByIdIn(@NonNull Collection<I> ids);
 
+    /**
+     * Finds domains ordered by id, whose ids are greater than the given id. Pages read by the
+     * last id do not slow down with their offsets.
+     *
+     * @param afterId id of the last domain of the previous page, null for the first page
+     * @param size max size of the page must be positive
+     * @return a list of domains
+     */
+    @NonNull
+    List<D> findAllAfter(@Nullable I afterId, int size);
+
 }
@@ -147,6 +147,27 @@ public class BaseRepositoryImpl<DOMAIN, ID> extends SimpleJpaRepository<DOMAIN,
         return domains.size();
     }
 
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<DOMAIN> findAllAfter(@Nullable ID afterId, int size) {
+        Assert.isTrue(size > 0, "Page size must be positive");
+
+        if (entityInformation.hasCompositeId()) {
+            throw new UnsupportedOperationException("Unsupported find all after composite id");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DOMAIN> query = cb.createQuery(getDomainClass());
+        Root<DOMAIN> root = query.from(getDomainClass());
+        Path<Comparable> idPath =
+            (Path<Comparable>) (Path<?>) root.get(entityInformation.getIdAttribute());
+        if (afterId != null) {
+            query.where(cb.greaterThan(idPath, (Comparable) afterId));
+        }
+        query.select(root).orderBy(cb.asc(idPath));
+        return entityManager.createQuery(query).setMaxResults(size).getResultList();
+    }
+
     protected <S extends DOMAIN> Page<S> readPage(TypedQuery<S> query, Class<S> domainClass,
         Pageable pageable, TypedQuery<Long> countQuery) {
 
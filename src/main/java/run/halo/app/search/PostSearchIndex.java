@@ -0,0 +1,434 @@
+package run.halo.app.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * In-memory inverted index of post titles and contents.
+ *
+ * <p>All query terms must match, and matching posts are ranked with BM25 where title matches
+ * weigh more than content matches. Ties are broken by newer create time. Query words of at least
+ * {@value #MIN_PREFIX_LENGTH} characters also match indexed words they are a prefix of, e.g.
+ * {@code spring} matches {@code springboot}, but unlike the database query they do not match in
+ * the middle of a word.
+ *
+ * <p>Only term frequencies and the first {@value #SNIPPET_SOURCE_LENGTH} characters of each post
+ * content, used to build highlight snippets, are kept in memory.
+ */
+public class PostSearchIndex {
+
+    private static final double K1 = 1.2d;
+
+    private static final double B = 0.75d;
+
+    private static final double TITLE_BOOST = 3d;
+
+    private static final String ELLIPSIS = "...";
+
+    /**
+     * Query terms shorter than this only match exactly, which also keeps CJK bigrams exact.
+     */
+    static final int MIN_PREFIX_LENGTH = 3;
+
+    /**
+     * Maximum number of indexed terms a query term is expanded to by prefix matching.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /**
+     * Maximum length of post content kept for building highlight snippets.
+     */
+    static final int SNIPPET_SOURCE_LENGTH = 1000;
+
+    /**
+     * Term -> post id -> term frequencies, sorted by term for prefix matching.
+     */
+    private final NavigableMap<String, Map<Integer, Posting>> postings = new TreeMap<>();
+
+    private final Map<Integer, IndexedPost> posts = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long totalTitleLength;
+
+    private long totalContentLength;
+
+    /**
+     * Adds a post into the index or replaces the indexed one.
+     *
+     * @param postId post id must not be null
+     * @param title post title
+     * @param content plain text of post content
+     * @param createTime post create time in millis, used to break ties
+     */
+    public void put(@NonNull Integer postId, @Nullable String title, @Nullable String content,
+        long createTime) {
+        Assert.notNull(postId, "Post id must not be null");
+
+        List<String> titleTerms = SearchTokenizer.tokenize(title);
+        List<String> contentTerms = SearchTokenizer.tokenize(content);
+
+        Map<String, Posting> postPostings = new HashMap<>();
+        titleTerms.forEach(term -> postPostings.computeIfAbsent(term, t -> new Posting())
+            .titleFrequency++);
+        contentTerms.forEach(term -> postPostings.computeIfAbsent(term, t -> new Posting())
+            .contentFrequency++);
+
+        IndexedPost indexedPost = new IndexedPost(toSnippetSource(content),
+            titleTerms.size(), contentTerms.size(), createTime, postPostings.keySet());
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+            postPostings.forEach((term, posting) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, posting));
+            posts.put(postId, indexedPost);
+            totalTitleLength += indexedPost.titleLength;
+            totalContentLength += indexedPost.contentLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post from the index.
+     *
+     * @param postId post id must not be null
+     */
+    public void remove(@NonNull Integer postId) {
+        Assert.notNull(postId, "Post id must not be null");
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed posts.
+     *
+     * @return number of indexed posts
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return posts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches post ids by keyword, ordered by relevance.
+     *
+     * @param keyword search keyword
+     * @param pageable page info must not be null, its sort is ignored
+     * @return a page of post ids
+     */
+    @NonNull
+    public Page<Integer> search(@Nullable String keyword, @NonNull Pageable pageable) {
+        Assert.notNull(pageable, "Page info must not be null");
+
+        Set<String> terms = SearchTokenizer.tokenizeQuery(keyword);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<ScoredPost> scoredPosts;
+        lock.readLock().lock();
+        try {
+            scoredPosts = score(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scoredPosts.sort(Comparator.comparingDouble((ScoredPost scored) -> scored.score)
+            .thenComparingLong(scored -> scored.createTime)
+            .thenComparingInt(scored -> scored.postId)
+            .reversed());
+
+        int from = (int) Math.min(pageable.getOffset(), scoredPosts.size());
+        int to = Math.min(from + pageable.getPageSize(), scoredPosts.size());
+        List<Integer> postIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            postIds.add(scoredPosts.get(i).postId);
+        }
+        return new PageImpl<>(postIds, pageable, scoredPosts.size());
+    }
+
+    /**
+     * Builds an html snippet of post content around the first keyword match, with all matches
+     * inside the snippet wrapped in {@code <mark>} tags. Only the beginning of the content is
+     * kept by the index, so the snippet starts from the beginning if the keyword occurs later.
+     *
+     * @param postId post id must not be null
+     * @param keyword search keyword
+     * @param snippetLength maximum snippet length in characters
+     * @return an escaped html snippet or empty if the post is not indexed
+     */
+    @NonNull
+    public Optional<String> highlight(@NonNull Integer postId, @Nullable String keyword,
+        int snippetLength) {
+        Assert.notNull(postId, "Post id must not be null");
+        Assert.isTrue(snippetLength > 0, "Snippet length must be positive");
+
+        IndexedPost indexedPost;
+        lock.readLock().lock();
+        try {
+            indexedPost = posts.get(postId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (indexedPost == null) {
+            return Optional.empty();
+        }
+
+        String content = indexedPost.content;
+        String lowerContent = content.toLowerCase(Locale.ROOT);
+        if (lowerContent.length() != content.length()) {
+            // Offsets of lower-cased content can not be mapped back, match case-sensitively
+            lowerContent = content;
+        }
+
+        Set<String> terms = SearchTokenizer.tokenizeQuery(keyword);
+
+        int firstMatch = -1;
+        for (String term : terms) {
+            int index = lowerContent.indexOf(term);
+            if (index >= 0 && (firstMatch < 0 || index < firstMatch)) {
+                firstMatch = index;
+            }
+        }
+
+        int start = firstMatch < 0 ? 0 : Math.max(0, firstMatch - snippetLength / 4);
+        int end = Math.min(content.length(), start + snippetLength);
+        if (start > 0 && Character.isLowSurrogate(content.charAt(start))) {
+            start--;
+        }
+        if (end < content.length() && Character.isLowSurrogate(content.charAt(end))) {
+            end++;
+        }
+
+        List<int[]> marks = new ArrayList<>();
+        for (String term : terms) {
+            int from = start;
+            int index;
+            while ((index = lowerContent.indexOf(term, from)) >= 0 && index < end) {
+                marks.add(new int[] {index, Math.min(index + term.length(), end)});
+                from = index + 1;
+            }
+        }
+        marks.sort(Comparator.comparingInt(mark -> mark[0]));
+
+        StringBuilder snippet = new StringBuilder(snippetLength + 32);
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        int position = start;
+        int markStart = -1;
+        int markEnd = -1;
+        for (int[] mark : marks) {
+            if (markStart >= 0 && mark[0] <= markEnd) {
+                // Merge overlapping matches, e.g. CJK bigrams
+                markEnd = Math.max(markEnd, mark[1]);
+                continue;
+            }
+            if (markStart >= 0) {
+                position = appendMark(snippet, content, position, markStart, markEnd);
+            }
+            markStart = mark[0];
+            markEnd = mark[1];
+        }
+        if (markStart >= 0) {
+            position = appendMark(snippet, content, position, markStart, markEnd);
+        }
+        snippet.append(HtmlUtils.htmlEscape(content.substring(position, end)));
+        if (end < content.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return Optional.of(snippet.toString());
+    }
+
+    private int appendMark(StringBuilder snippet, String content, int position, int markStart,
+        int markEnd) {
+        snippet.append(HtmlUtils.htmlEscape(content.substring(position, markStart)))
+            .append("<mark>")
+            .append(HtmlUtils.htmlEscape(content.substring(markStart, markEnd)))
+            .append("</mark>");
+        return markEnd;
+    }
+
+    private List<ScoredPost> score(Set<String> terms) {
+        // Start from the rarest term to keep the candidate set small
+        List<Map<Integer, Posting>> termPostings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Integer, Posting> termPosting = matchPostings(term);
+            if (termPosting == null) {
+                return new ArrayList<>();
+            }
+            termPostings.add(termPosting);
+        }
+        termPostings.sort(Comparator.comparingInt(Map::size));
+
+        int postCount = posts.size();
+        double averageTitleLength = Math.max(1d, (double) totalTitleLength / postCount);
+        double averageContentLength = Math.max(1d, (double) totalContentLength / postCount);
+
+        List<ScoredPost> scoredPosts = new ArrayList<>();
+        candidates:
+        for (Integer postId : termPostings.get(0).keySet()) {
+            IndexedPost indexedPost = posts.get(postId);
+            double score = 0;
+            for (Map<Integer, Posting> termPosting : termPostings) {
+                Posting posting = termPosting.get(postId);
+                if (posting == null) {
+                    continue candidates;
+                }
+                double idf = Math.log(1 + (postCount - termPosting.size() + 0.5d)
+                    / (termPosting.size() + 0.5d));
+                score += idf * (TITLE_BOOST * saturate(posting.titleFrequency,
+                    indexedPost.titleLength, averageTitleLength)
+                    + saturate(posting.contentFrequency, indexedPost.contentLength,
+                    averageContentLength));
+            }
+            scoredPosts.add(new ScoredPost(postId, score, indexedPost.createTime));
+        }
+        return scoredPosts;
+    }
+
+    /**
+     * Gets postings of the term and, if it is long enough, of the indexed terms it is a prefix
+     * of, merged by post.
+     */
+    @Nullable
+    private Map<Integer, Posting> matchPostings(String term) {
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            return postings.get(term);
+        }
+        NavigableMap<String, Map<Integer, Posting>> matches =
+            postings.subMap(term, true, term + Character.MAX_VALUE, true);
+        if (matches.size() <= 1) {
+            return matches.isEmpty() ? null : matches.firstEntry().getValue();
+        }
+
+        Map<Integer, Posting> merged = new HashMap<>();
+        int expansions = 0;
+        for (Map<Integer, Posting> termPosting : matches.values()) {
+            if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            termPosting.forEach((postId, posting) ->
+                merged.computeIfAbsent(postId, id -> new Posting()).add(posting));
+        }
+        return merged;
+    }
+
+    private static String toSnippetSource(@Nullable String content) {
+        if (content == null || content.length() <= SNIPPET_SOURCE_LENGTH) {
+            return StringUtils.defaultString(content);
+        }
+        int end = SNIPPET_SOURCE_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+
+    private static double saturate(int frequency, int length, double averageLength) {
+        if (frequency == 0) {
+            return 0;
+        }
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void removeInternal(Integer postId) {
+        IndexedPost removed = posts.remove(postId);
+        if (removed == null) {
+            return;
+        }
+        removed.terms.forEach(term -> {
+            Map<Integer, Posting> termPosting = postings.get(term);
+            if (termPosting != null) {
+                termPosting.remove(postId);
+                if (termPosting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+        totalTitleLength -= removed.titleLength;
+        totalContentLength -= removed.contentLength;
+    }
+
+    private static class Posting {
+
+        private int titleFrequency;
+
+        private int contentFrequency;
+
+        private void add(Posting posting) {
+            titleFrequency += posting.titleFrequency;
+            contentFrequency += posting.contentFrequency;
+        }
+    }
+
+    private static class IndexedPost {
+
+        /**
+         * Beginning of the post content, see {@link #SNIPPET_SOURCE_LENGTH}.
+         */
+        private final String content;
+
+        private final int titleLength;
+
+        private final int contentLength;
+
+        private final long createTime;
+
+        private final Set<String> terms;
+
+        private IndexedPost(String content, int titleLength, int contentLength, long createTime,
+            Set<String> terms) {
+            this.content = content;
+            this.titleLength = titleLength;
+            this.contentLength = contentLength;
+            this.createTime = createTime;
+            this.terms = Collections.unmodifiableSet(terms);
+        }
+    }
+
+    private static class ScoredPost {
+
+        private final Integer postId;
+
+        private final double score;
+
+        private final long createTime;
+
+        private ScoredPost(Integer postId, double score, long createTime) {
+            this.postId = postId;
+            this.score = score;
+            this.createTime = createTime;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package run.halo.app.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Search tokenizer.
+ *
+ * <p>Runs of letters and digits become lower-cased word terms. Runs of CJK characters, which
+ * have no word separators, are split into overlapping bigrams, e.g. {@code 数据库} is indexed as
+ * {@code 数据} and {@code 据库}. Indexed text additionally gets CJK unigrams so that a single
+ * character keyword still matches.
+ */
+public final class SearchTokenizer {
+
+    /**
+     * Words longer than this (usually encoded blobs) are not indexed.
+     */
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Tokenizes text for indexing.
+     *
+     * @param text text to tokenize
+     * @return a list of terms in text order, duplicates included
+     */
+    @NonNull
+    public static List<String> tokenize(@Nullable String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * Tokenizes a search keyword.
+     *
+     * @param keyword search keyword
+     * @return a set of distinct query terms
+     */
+    @NonNull
+    public static Set<String> tokenizeQuery(@Nullable String keyword) {
+        List<String> terms = tokenize(keyword, false);
+        if (terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<>(terms);
+    }
+
+    private static List<String> tokenize(@Nullable String text, boolean cjkUnigrams) {
+        if (StringUtils.isBlank(text)) {
+            return Collections.emptyList();
+        }
+
+        List<String> terms = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                i = tokenizeCjk(text, i, cjkUnigrams, terms);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length) {
+                    int current = text.codePointAt(i);
+                    if (isCjk(current) || !Character.isLetterOrDigit(current)) {
+                        break;
+                    }
+                    i += Character.charCount(current);
+                }
+                if (i - start <= MAX_WORD_LENGTH) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return terms;
+    }
+
+    private static int tokenizeCjk(String text, int start, boolean unigrams, List<String> terms) {
+        List<Integer> offsets = new ArrayList<>();
+        int i = start;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            if (!isCjk(codePoint)) {
+                break;
+            }
+            offsets.add(i);
+            i += Character.charCount(codePoint);
+        }
+        offsets.add(i);
+
+        int runLength = offsets.size() - 1;
+        for (int k = 0; k < runLength; k++) {
+            if (unigrams || runLength == 1) {
+                terms.add(text.substring(offsets.get(k), offsets.get(k + 1)));
+            }
+            if (k + 1 < runLength) {
+                terms.add(text.substring(offsets.get(k), offsets.get(k + 2)));
+            }
+        }
+        return i;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -33,6 +33,7 @@ import run.halo.app.security.context.SecurityContextHolder;
 import run.halo.app.security.handler.AuthenticationFailureHandler;
 import run.halo.app.security.handler.DefaultAuthenticationFailureHandler;
 import run.halo.app.security.service.OneTimeTokenService;
+import run.halo.app.security.support.UrlPatternTrie;
 import run.halo.app.service.OptionService;
 
 /**
@@ -44,6 +45,16 @@ import run.halo.app.service.OptionService;
 @Slf4j
 public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute of the decoded request uri, shared by all authentication filters.
+     */
+    private static final String REQUEST_URI_ATTRIBUTE =
+        AbstractAuthenticationFilter.class.getName() + ".REQUEST_URI";
+
+    private static final int URL_PATTERN = 1;
+
+    private static final int EXCLUDE_URL_PATTERN = 2;
+
     protected final AntPathMatcher antPathMatcher;
     protected final HaloProperties haloProperties;
     protected final OptionService optionService;
@@ -59,6 +70,11 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
 
     private Set<String> urlPatterns = new LinkedHashSet<>();
 
+    /**
+     * Url patterns and exclude url patterns, compiled whenever they change.
+     */
+    private volatile UrlPatternTrie urlPatternTrie = new UrlPatternTrie();
+
     AbstractAuthenticationFilter(HaloProperties haloProperties,
         OptionService optionService,
         AbstractStringCacheStore cacheStore,
@@ -115,13 +131,27 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
     protected boolean shouldNotFilter(HttpServletRequest request) {
         Assert.notNull(request, "Http servlet request must not be null");
 
-        // check white list
-        boolean result = excludeUrlPatterns.stream()
-            .anyMatch(p -> antPathMatcher.match(p, urlPathHelper.getRequestUri(request)));
+        // Match url patterns and exclude url patterns at once
+        int matched = urlPatternTrie.match(getRequestUri(request));
+        return (matched & EXCLUDE_URL_PATTERN) != 0 || (matched & URL_PATTERN) == 0;
+    }
 
-        return result || urlPatterns.stream()
-            .noneMatch(p -> antPathMatcher.match(p, urlPathHelper.getRequestUri(request)));
+    @NonNull
+    private String getRequestUri(HttpServletRequest request) {
+        Object requestUri = request.getAttribute(REQUEST_URI_ATTRIBUTE);
+        if (requestUri instanceof String) {
+            return (String) requestUri;
+        }
+        String decodedRequestUri = urlPathHelper.getRequestUri(request);
+        request.setAttribute(REQUEST_URI_ATTRIBUTE, decodedRequestUri);
+        return decodedRequestUri;
+    }
 
+    private void compileUrlPatterns() {
+        UrlPatternTrie urlPatternTrie = new UrlPatternTrie();
+        urlPatterns.forEach(pattern -> urlPatternTrie.add(pattern, URL_PATTERN));
+        excludeUrlPatterns.forEach(pattern -> urlPatternTrie.add(pattern, EXCLUDE_URL_PATTERN));
+        this.urlPatternTrie = urlPatternTrie;
     }
 
     /**
@@ -133,16 +163,17 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
         Assert.notNull(excludeUrlPatterns, "Exclude url patterns must not be null");
 
         Collections.addAll(this.excludeUrlPatterns, excludeUrlPatterns);
+        compileUrlPatterns();
     }
 
     /**
      * Gets exclude url patterns.
      *
-     * @return exclude url patterns.
+     * @return unmodifiable exclude url patterns.
      */
     @NonNull
     public Set<String> getExcludeUrlPatterns() {
-        return excludeUrlPatterns;
+        return Collections.unmodifiableSet(excludeUrlPatterns);
     }
 
     /**
@@ -154,20 +185,23 @@ public abstract class AbstractAuthenticationFilter extends OncePerRequestFilter
         Assert.notNull(excludeUrlPatterns, "Exclude url patterns must not be null");
 
         this.excludeUrlPatterns = new HashSet<>(excludeUrlPatterns);
+        compileUrlPatterns();
     }
 
     public Collection<String> getUrlPatterns() {
-        return this.urlPatterns;
+        return Collections.unmodifiableSet(this.urlPatterns);
     }
 
     public void setUrlPatterns(Collection<String> urlPatterns) {
         Assert.notNull(urlPatterns, "UrlPatterns must not be null");
         this.urlPatterns = new LinkedHashSet<>(urlPatterns);
+        compileUrlPatterns();
     }
 
     public void addUrlPatterns(String... urlPatterns) {
         Assert.notNull(urlPatterns, "UrlPatterns must not be null");
         Collections.addAll(this.urlPatterns, urlPatterns);
+        compileUrlPatterns();
     }
 
     /**
@@ -5,7 +5,6 @@ import static run.halo.app.model.support.HaloConst.ADMIN_TOKEN_QUERY_NAME;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
-import java.util.Optional;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -18,12 +17,12 @@ import org.springframework.stereotype.Component;
 import run.halo.app.cache.AbstractStringCacheStore;
 import run.halo.app.config.properties.HaloProperties;
 import run.halo.app.exception.AuthenticationException;
-import run.halo.app.model.entity.User;
 import run.halo.app.security.authentication.AuthenticationImpl;
 import run.halo.app.security.context.SecurityContextHolder;
 import run.halo.app.security.context.SecurityContextImpl;
 import run.halo.app.security.handler.DefaultAuthenticationFailureHandler;
 import run.halo.app.security.service.OneTimeTokenService;
+import run.halo.app.security.support.PrincipalCache;
 import run.halo.app.security.support.UserDetail;
 import run.halo.app.security.util.SecurityUtils;
 import run.halo.app.service.OptionService;
@@ -43,6 +42,8 @@ public class AdminAuthenticationFilter extends AbstractAuthenticationFilter {
 
     private final UserService userService;
 
+    private final PrincipalCache principalCache;
+
     /**
      * Admin authentication filter.
      *
@@ -52,16 +53,19 @@ public class AdminAuthenticationFilter extends AbstractAuthenticationFilter {
      * @param optionService option service.
      * @param oneTimeTokenService one time token service.
      * @param objectMapper object mapper.
+     * @param principalCache principal cache.
      */
     public AdminAuthenticationFilter(AbstractStringCacheStore cacheStore,
         UserService userService,
         HaloProperties haloProperties,
         OptionService optionService,
         OneTimeTokenService oneTimeTokenService,
-        ObjectMapper objectMapper) {
+        ObjectMapper objectMapper,
+        PrincipalCache principalCache) {
         super(haloProperties, optionService, cacheStore, oneTimeTokenService);
         this.userService = userService;
         this.haloProperties = haloProperties;
+        this.principalCache = principalCache;
 
         addUrlPatterns("/api/admin/**", "/api/content/comments");
 
@@ -108,19 +112,17 @@ public class AdminAuthenticationFilter extends AbstractAuthenticationFilter {
             throw new AuthenticationException("未登录，请登录后访问");
         }
 
-        // Get user id from cache
-        Optional<Integer> optionalUserId =
-            cacheStore.getAny(SecurityUtils.buildTokenAccessKey(token), Integer.class);
-
-        if (optionalUserId.isEmpty()) {
-            throw new AuthenticationException("Token 已过期或不存在").setErrorData(token);
-        }
-
-        // Get the user
-        User user = userService.getById(optionalUserId.get());
-
-        // Build user detail
-        UserDetail userDetail = new UserDetail(user);
+        // Get the user of the token, cached for the parallel requests of admin console
+        UserDetail userDetail = principalCache.get(token, () -> {
+            // Get user id from cache
+            Integer userId =
+                cacheStore.getAny(SecurityUtils.buildTokenAccessKey(token), Integer.class)
+                    .orElseThrow(() -> new AuthenticationException("Token 已过期或不存在")
+                        .setErrorData(token));
+
+            // Get the user
+            return userService.getById(userId);
+        });
 
         // Set security
         SecurityContextHolder
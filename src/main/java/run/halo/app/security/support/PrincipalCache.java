@@ -0,0 +1,84 @@
+package run.halo.app.security.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.user.UserUpdatedEvent;
+import run.halo.app.model.entity.User;
+import run.halo.app.utils.BeanUtils;
+
+/**
+ * Cache of users resolved from admin access tokens.
+ *
+ * <p>Entries are evicted when the user is updated and when the token is cleared or refreshed on
+ * this instance. Other instances sharing the redis cache store see a cleared token after the
+ * time to live at the latest.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private static final long MAX_SIZE = 1000;
+
+    private final Cache<String, User> users;
+
+    /**
+     * Incremented by every eviction, so a user loaded before an eviction is not cached after it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(HaloProperties haloProperties) {
+        this.users = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(haloProperties.getPrincipalCacheTtl())
+            .build();
+    }
+
+    /**
+     * Gets the user detail of the access token, loading the user if absent.
+     *
+     * @param accessToken access token must not be blank
+     * @param loader loader of the user, which throws if the token is invalid
+     * @return user detail with a copy of the cached user, which is free to be modified
+     */
+    @NonNull
+    public UserDetail get(@NonNull String accessToken, @NonNull Supplier<User> loader) {
+        Assert.hasText(accessToken, "Access token must not be blank");
+
+        User user = users.getIfPresent(accessToken);
+        if (user == null) {
+            long loadGeneration = generation.get();
+            user = loader.get();
+            if (loadGeneration == generation.get()) {
+                users.put(accessToken, user);
+            }
+        }
+        return new UserDetail(BeanUtils.transformFrom(user, User.class));
+    }
+
+    /**
+     * Evicts the user of the access token.
+     *
+     * @param accessToken access token must not be blank
+     */
+    public void evict(@NonNull String accessToken) {
+        Assert.hasText(accessToken, "Access token must not be blank");
+
+        generation.incrementAndGet();
+        users.invalidate(accessToken);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        generation.incrementAndGet();
+        users.asMap().values().removeIf(user -> event.getUserId().equals(user.getId()));
+        log.debug("Evicted cached principals of user: [{}]", event.getUserId());
+    }
+}
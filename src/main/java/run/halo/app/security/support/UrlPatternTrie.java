@@ -0,0 +1,165 @@
+package run.halo.app.security.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.lang.NonNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Ant url patterns compiled into a trie of path segments.
+ *
+ * <p>Every pattern is added with flags, and {@link #match(String)} returns the union of flags of
+ * all patterns matching the path by walking the trie once, instead of matching the path against
+ * every pattern. Matching follows {@link AntPathMatcher}: {@code *} matches a segment, {@code **}
+ * matches zero or more segments, and other segments with wildcards or uri variables are matched
+ * by {@link AntPathMatcher} segment by segment.
+ *
+ * <p>The trie is not thread safe while patterns are added, it is expected to be built once and
+ * then only matched.
+ */
+public class UrlPatternTrie {
+
+    private static final String SEPARATOR = "/";
+
+    private static final String ANY_SEGMENT = "*";
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private final AntPathMatcher segmentMatcher = new AntPathMatcher();
+
+    private final Node absoluteRoot = new Node();
+
+    private final Node relativeRoot = new Node();
+
+    private int allFlags;
+
+    /**
+     * Adds an ant url pattern.
+     *
+     * @param pattern url pattern must not be null
+     * @param flags flags of the pattern, returned by {@link #match(String)} if the pattern matches
+     */
+    public void add(@NonNull String pattern, int flags) {
+        Assert.notNull(pattern, "Url pattern must not be null");
+        Assert.isTrue(flags != 0, "Flags must not be zero");
+
+        Node node = pattern.startsWith(SEPARATOR) ? absoluteRoot : relativeRoot;
+        boolean anySegments = false;
+        for (String segment : tokenize(pattern)) {
+            if (ANY_SEGMENTS.equals(segment)) {
+                anySegments = true;
+                node = node.anySegments == null ? node.anySegments = new Node() : node.anySegments;
+            } else if (ANY_SEGMENT.equals(segment)) {
+                node = node.anySegment == null ? node.anySegment = new Node() : node.anySegment;
+            } else if (segmentMatcher.isPattern(segment)) {
+                node = node.patternChild(segment);
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+
+        // As AntPathMatcher, trailing separator must match unless the pattern contains '**'
+        if (anySegments) {
+            node.terminalFlags |= flags;
+        } else if (pattern.endsWith(SEPARATOR)) {
+            node.separatorTerminalFlags |= flags;
+        } else {
+            node.noSeparatorTerminalFlags |= flags;
+        }
+        allFlags |= flags;
+    }
+
+    /**
+     * Matches the path against all patterns.
+     *
+     * @param path path must not be null
+     * @return union of flags of all matching patterns, or 0 if none matches
+     */
+    public int match(@NonNull String path) {
+        Assert.notNull(path, "Path must not be null");
+
+        Node root = path.startsWith(SEPARATOR) ? absoluteRoot : relativeRoot;
+        return match(root, tokenize(path), 0, path.endsWith(SEPARATOR), 0);
+    }
+
+    private int match(Node node, String[] segments, int index, boolean trailingSeparator,
+        int flags) {
+        if (flags == allFlags) {
+            return flags;
+        }
+        if (index == segments.length) {
+            flags |= node.terminalFlags
+                | (trailingSeparator ? node.separatorTerminalFlags
+                : node.noSeparatorTerminalFlags);
+            if (trailingSeparator && node.anySegment != null) {
+                // AntPathMatcher lets a last '*' match the trailing separator
+                flags |= node.anySegment.separatorTerminalFlags
+                    | node.anySegment.noSeparatorTerminalFlags;
+            }
+            if (node.anySegments != null) {
+                flags |= match(node.anySegments, segments, index, trailingSeparator, flags);
+            }
+            return flags;
+        }
+
+        String segment = segments[index];
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+            flags |= match(literal, segments, index + 1, trailingSeparator, flags);
+        }
+        if (node.anySegment != null) {
+            flags |= match(node.anySegment, segments, index + 1, trailingSeparator, flags);
+        }
+        for (Node child : node.patterns) {
+            if (segmentMatcher.match(child.pattern, segment)) {
+                flags |= match(child, segments, index + 1, trailingSeparator, flags);
+            }
+        }
+        if (node.anySegments != null) {
+            // '**' consumes zero or more segments
+            for (int next = index; next <= segments.length; next++) {
+                flags |= match(node.anySegments, segments, next, trailingSeparator, flags);
+            }
+        }
+        return flags;
+    }
+
+    private static String[] tokenize(String path) {
+        return StringUtils.tokenizeToStringArray(path, SEPARATOR, false, true);
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> literals = new HashMap<>(4);
+
+        private final List<Node> patterns = new ArrayList<>(0);
+
+        private Node anySegment;
+
+        private Node anySegments;
+
+        private String pattern;
+
+        private int terminalFlags;
+
+        private int separatorTerminalFlags;
+
+        private int noSeparatorTerminalFlags;
+
+        private Node patternChild(String pattern) {
+            for (Node child : patterns) {
+                if (pattern.equals(child.pattern)) {
+                    return child;
+                }
+            }
+            Node child = new Node();
+            child.pattern = pattern;
+            patterns.add(child);
+            return child;
+        }
+    }
+}
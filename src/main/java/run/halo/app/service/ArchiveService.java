@@ -0,0 +1,77 @@
+package run.halo.app.service;
+
+import java.util.List;
+import java.util.NavigableMap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import run.halo.app.model.vo.ArchiveCountVO;
+import run.halo.app.model.vo.ArchiveIndexMonthVO;
+import run.halo.app.model.vo.ArchiveIndexYearVO;
+import run.halo.app.model.vo.ArchivePostVO;
+
+/**
+ * Archive service interface.
+ */
+public interface ArchiveService {
+
+    /**
+     * Lists post counts of year archives, from the latest year.
+     *
+     * @return a list of archive count vo
+     */
+    @NonNull
+    List<ArchiveCountVO> listYearCounts();
+
+    /**
+     * Lists post counts of month archives, from the latest month.
+     *
+     * @return a list of archive count vo
+     */
+    @NonNull
+    List<ArchiveCountVO> listMonthCounts();
+
+    /**
+     * Lists year archives of published posts, from the latest, without loading post entities.
+     *
+     * @return a list of year archive vo
+     */
+    @NonNull
+    List<ArchiveIndexYearVO> listYearArchives();
+
+    /**
+     * Lists month archives of published posts, from the latest, without loading post
+     * entities.
+     *
+     * @return a list of month archive vo
+     */
+    @NonNull
+    List<ArchiveIndexMonthVO> listMonthArchives();
+
+    /**
+     * Pages published posts of an archive, ordered by create time desc.
+     *
+     * @param year year of the archive, or null for all archives
+     * @param month month from 1 to 12, or null for the whole year
+     * @param pageable page info must not be null
+     * @return a page of archive post vo
+     */
+    @NonNull
+    Page<ArchivePostVO> pagePostsBy(@Nullable Integer year, @Nullable Integer month,
+        @NonNull Pageable pageable);
+
+    /**
+     * Lists ids of published posts keyed by year then month, both from the latest. Posts of
+     * every month are ordered by create time desc.
+     *
+     * @return post ids of archives
+     */
+    @NonNull
+    NavigableMap<Integer, NavigableMap<Integer, List<Integer>>> listPostIds();
+
+    /**
+     * Drops the archive index, which is rebuilt from the database on next access.
+     */
+    void refresh();
+}
@@ -11,6 +11,7 @@ import run.halo.app.model.dto.AttachmentDTO;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
 import run.halo.app.model.params.AttachmentQuery;
+import run.halo.app.model.support.UploadResult;
 import run.halo.app.service.base.CrudService;
 
 
@@ -42,6 +43,17 @@ public interface AttachmentService extends CrudService<Attachment, Integer> {
     @NonNull
     Attachment upload(@NonNull MultipartFile file);
 
+    /**
+     * Creates attachment of an uploaded file.
+     *
+     * @param uploadResult upload result must not be null
+     * @param attachmentType type of the storage which the file was uploaded to must not be null
+     * @return created attachment
+     */
+    @NonNull
+    Attachment createBy(@NonNull UploadResult uploadResult,
+        @NonNull AttachmentType attachmentType);
+
     /**
      * Removes attachment permanently.
      *
@@ -38,6 +38,25 @@ public interface BackupService {
     @NonNull
     BackupDTO backupWorkDirectory(List<String> options);
 
+    /**
+     * Takes an incremental snapshot of work directory, which stores changed files since the
+     * latest snapshot only.
+     *
+     * @param options file or directory items to back up
+     * @return backup dto of the snapshot manifest
+     */
+    @NonNull
+    BackupDTO snapshotWorkDirectory(List<String> options);
+
+    /**
+     * Restores a snapshot of work directory to a new directory in the backup directory.
+     *
+     * @param fileName file name of the snapshot manifest must not be blank
+     * @return path of the restored directory
+     */
+    @NonNull
+    Path restoreWorkDirSnapshot(@NonNull String fileName);
+
     /**
      * Lists all backups.
      *
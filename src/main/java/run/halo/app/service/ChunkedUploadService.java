@@ -0,0 +1,67 @@
+package run.halo.app.service;
+
+import java.io.InputStream;
+import org.springframework.lang.NonNull;
+import run.halo.app.model.dto.ChunkedUploadDTO;
+import run.halo.app.model.entity.Attachment;
+import run.halo.app.model.params.ChunkedUploadParam;
+
+/**
+ * Chunked upload service interface.
+ *
+ * <p>A file is split into parts of the same size except the last one, which may be uploaded in
+ * any order, in parallel and again after a failure. Uploaded parts are tracked until the upload
+ * is completed, aborted or expired, so an interrupted upload is resumed by uploading the parts
+ * which are missing.
+ */
+public interface ChunkedUploadService {
+
+    /**
+     * Initiates a chunked upload.
+     *
+     * @param uploadParam chunked upload param must not be null
+     * @return initiated chunked upload
+     */
+    @NonNull
+    ChunkedUploadDTO initiate(@NonNull ChunkedUploadParam uploadParam);
+
+    /**
+     * Gets a chunked upload with its uploaded parts.
+     *
+     * @param uploadId upload id must not be blank
+     * @return chunked upload
+     * @throws run.halo.app.exception.NotFoundException throws when the upload does not exist
+     */
+    @NonNull
+    ChunkedUploadDTO getBy(@NonNull String uploadId);
+
+    /**
+     * Uploads a part, replacing the previous one with the same part number.
+     *
+     * @param uploadId upload id must not be blank
+     * @param partNumber part number starting from 1
+     * @param checksum hex md5 checksum of the part must not be blank
+     * @param content content of the part must not be null
+     * @throws run.halo.app.exception.BadRequestException throws when the part number is out of
+     * range, or the part does not match its size or checksum
+     */
+    void uploadPart(@NonNull String uploadId, int partNumber, @NonNull String checksum,
+        @NonNull InputStream content);
+
+    /**
+     * Completes a chunked upload, and creates its attachment.
+     *
+     * @param uploadId upload id must not be blank
+     * @return created attachment
+     * @throws run.halo.app.exception.BadRequestException throws when some parts are missing
+     */
+    @NonNull
+    Attachment complete(@NonNull String uploadId);
+
+    /**
+     * Aborts a chunked upload, and discards its uploaded parts.
+     *
+     * @param uploadId upload id must not be blank
+     */
+    void abort(@NonNull String uploadId);
+}
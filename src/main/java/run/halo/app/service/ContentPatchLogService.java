@@ -1,6 +1,9 @@
 package run.halo.app.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import org.springframework.lang.NonNull;
 import run.halo.app.model.entity.Content.ContentDiff;
 import run.halo.app.model.entity.Content.PatchedContent;
 import run.halo.app.model.entity.ContentPatchLog;
@@ -25,7 +28,7 @@ public interface ContentPatchLogService extends CrudService<ContentPatchLog, Int
     ContentPatchLog createOrUpdate(Integer postId, String content, String originalContent);
 
     /**
-     * Apply content patch to v1.
+     * Apply content patch to its base snapshot.
      *
      * @param patchLog content patch log
      * @return real content of the post.
@@ -33,7 +36,7 @@ public interface ContentPatchLogService extends CrudService<ContentPatchLog, Int
     PatchedContent applyPatch(ContentPatchLog patchLog);
 
     /**
-     * generate content diff based v1.
+     * generate content diff based on the latest snapshot before the draft version.
      *
      * @param postId          post id must not be null.
      * @param content         post formatted content must not be null.
@@ -50,6 +53,15 @@ public interface ContentPatchLogService extends CrudService<ContentPatchLog, Int
      */
     ContentPatchLog getDraftByPostId(Integer postId);
 
+    /**
+     * Lists ids of the given posts which have patch log records of the draft status.
+     *
+     * @param postIds post ids
+     * @return a set of post ids having drafts
+     */
+    @NonNull
+    Set<Integer> listPostIdsHavingDraft(@NonNull Collection<Integer> postIds);
+
     /**
      * Gets content patch log by post id.
      *
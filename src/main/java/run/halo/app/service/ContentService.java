@@ -1,5 +1,8 @@
 package run.halo.app.service;
 
+import java.util.Collection;
+import java.util.Set;
+import org.springframework.lang.NonNull;
 import run.halo.app.model.entity.Content;
 import run.halo.app.model.entity.ContentPatchLog;
 import run.halo.app.service.base.CrudService;
@@ -45,4 +48,14 @@ public interface ContentService extends CrudService<Content, Integer> {
      *         otherwise {@code false}
      */
     Boolean draftingInProgress(Integer postId);
+
+    /**
+     * Lists ids of the given posts which have a draft being drafted.
+     *
+     * @param postIds post ids must not be null
+     * @return a set of post ids drafting in progress
+     * @see #draftingInProgress(Integer)
+     */
+    @NonNull
+    Set<Integer> listDraftingInProgressIds(@NonNull Collection<Integer> postIds);
 }
@@ -1,6 +1,9 @@
 package run.halo.app.service;
 
+import java.util.Date;
+import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.lang.NonNull;
 import run.halo.app.model.dto.LogDTO;
 import run.halo.app.model.entity.Log;
 import run.halo.app.service.base.CrudService;
@@ -20,4 +23,20 @@ public interface LogService extends CrudService<Log, Long> {
      * @return a page of latest logs
      */
     Page<LogDTO> pageLatest(int top);
+
+    /**
+     * Creates logs by one batch insert, bypassing the persistence context.
+     *
+     * @param logs logs must not be null
+     */
+    void createInBatch(@NonNull List<Log> logs);
+
+    /**
+     * Deletes the oldest logs created before the given time.
+     *
+     * @param createTime create time must not be null
+     * @param limit maximum number of logs to delete
+     * @return number of logs deleted
+     */
+    int deleteCreatedBefore(@NonNull Date createTime, int limit);
 }
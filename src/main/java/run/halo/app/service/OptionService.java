@@ -28,8 +28,6 @@ public interface OptionService extends CrudService<Option, Integer>, OptionProvi
 
     int DEFAULT_RSS_PAGE_SIZE = 20;
 
-    String OPTIONS_KEY = "options";
-
     /**
      * Save multiple options.
      *
@@ -0,0 +1,40 @@
+package run.halo.app.service;
+
+import java.util.Collection;
+import java.util.Map;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import run.halo.app.model.entity.Post;
+
+/**
+ * Post full-text search service interface.
+ */
+public interface PostSearchService {
+
+    /**
+     * Searches published posts by keyword, ordered by relevance.
+     *
+     * @param keyword keyword must not be null
+     * @param pageable page info must not be null, its sort is ignored while the index is
+     * available
+     * @return a page of posts
+     */
+    @NonNull
+    Page<Post> search(@NonNull String keyword, @NonNull Pageable pageable);
+
+    /**
+     * Builds highlighted content snippets of posts.
+     *
+     * @param keyword keyword must not be null
+     * @param postIds post ids
+     * @return a map of post id and escaped html snippet, posts without snippet are absent
+     */
+    @NonNull
+    Map<Integer, String> highlight(@NonNull String keyword, @NonNull Collection<Integer> postIds);
+
+    /**
+     * Rebuilds the search index from database in background.
+     */
+    void rebuild();
+}
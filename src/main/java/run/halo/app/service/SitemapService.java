@@ -0,0 +1,43 @@
+package run.halo.app.service;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.lang.NonNull;
+import run.halo.app.model.vo.PostSitemapVO;
+
+/**
+ * Sitemap service interface.
+ */
+public interface SitemapService {
+
+    /**
+     * Maximum number of urls in a sitemap file, see https://www.sitemaps.org/protocol.html.
+     */
+    int MAX_URLS_PER_SITEMAP = 50000;
+
+    /**
+     * Gets content of sitemap.xml, which is a sitemap index of numbered sitemap files if there are
+     * more than {@link #MAX_URLS_PER_SITEMAP} urls.
+     *
+     * @return sitemap xml content
+     */
+    @NonNull
+    String getSitemapXml();
+
+    /**
+     * Gets content of a numbered sitemap file listed in sitemap index.
+     *
+     * @param index sitemap file index, starts from 1
+     * @return sitemap xml content or empty if sitemap.xml is not an index or index is out of range
+     */
+    @NonNull
+    Optional<String> getSitemapXml(int index);
+
+    /**
+     * Lists published posts for sitemap, ordered by create time desc.
+     *
+     * @return a list of post sitemap vo
+     */
+    @NonNull
+    List<PostSitemapVO> listPosts();
+}
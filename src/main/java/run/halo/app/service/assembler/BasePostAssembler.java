@@ -1,13 +1,17 @@
 package run.halo.app.service.assembler;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -24,6 +28,7 @@ import run.halo.app.service.ContentService;
 import run.halo.app.service.OptionService;
 import run.halo.app.utils.DateUtils;
 import run.halo.app.utils.HaloUtils;
+import run.halo.app.utils.ServiceUtils;
 
 import static run.halo.app.model.support.HaloConst.URL_SEPARATOR;
 
@@ -119,7 +124,20 @@ public class BasePostAssembler<POST extends BasePost> {
             return Collections.emptyList();
         }
 
-        return posts.stream().map(this::convertToSimple).collect(Collectors.toList());
+        // Load contents only for the summaries to generate
+        populateContents(posts.stream()
+            .filter(post -> StringUtils.isBlank(post.getSummary()))
+            .collect(Collectors.toList()));
+
+        Set<Integer> inProgressPostIds = contentService.listDraftingInProgressIds(
+            posts.stream().map(BasePost::getId).collect(Collectors.toSet()));
+
+        return posts.stream().map(post -> {
+            BasePostSimpleDTO basePostSimpleDTO = new BasePostSimpleDTO().convertFrom(post);
+            generateAndSetSummaryIfAbsent(post, basePostSimpleDTO);
+            basePostSimpleDTO.setInProgress(inProgressPostIds.contains(post.getId()));
+            return basePostSimpleDTO;
+        }).collect(Collectors.toList());
     }
 
     /**
@@ -132,7 +150,8 @@ public class BasePostAssembler<POST extends BasePost> {
     public Page<BasePostSimpleDTO> convertToSimple(Page<POST> postPage) {
         Assert.notNull(postPage, "Post page must not be null");
 
-        return postPage.map(this::convertToSimple);
+        return new PageImpl<>(convertToSimple(postPage.getContent()), postPage.getPageable(),
+            postPage.getTotalElements());
     }
 
     /**
@@ -177,6 +196,34 @@ public class BasePostAssembler<POST extends BasePost> {
         return StringUtils.substring(text, 0, summaryLength);
     }
 
+    /**
+     * Populates contents of the posts which have no content yet by one query.
+     *
+     * @param posts posts must not be null
+     */
+    protected void populateContents(@NonNull Collection<POST> posts) {
+        Assert.notNull(posts, "Posts must not be null");
+
+        Set<Integer> postIds = posts.stream()
+            .filter(post -> post.getContentOfNullable() == null)
+            .map(BasePost::getId)
+            .collect(Collectors.toSet());
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Content> contentMap =
+            ServiceUtils.convertToMap(contentService.listAllByIds(postIds), Content::getId);
+        posts.stream()
+            .filter(post -> post.getContentOfNullable() == null)
+            .forEach(post -> {
+                Content content = contentMap.get(post.getId());
+                if (content != null) {
+                    post.setContent(PatchedContent.of(content));
+                }
+            });
+    }
+
     protected <T extends BasePostSimpleDTO> void generateAndSetSummaryIfAbsent(POST post, T postVo) {
         Assert.notNull(post, "The post must not be null.");
         if (StringUtils.isNotBlank(postVo.getSummary())) {
@@ -1,6 +1,8 @@
 package run.halo.app.service.assembler;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
@@ -160,7 +162,41 @@ public class PostAssembler extends BasePostAssembler<Post> {
      */
     public Page<PostDetailVO> convertToDetailVo(Page<Post> postPage) {
         Assert.notNull(postPage, "Post page must not be null");
-        return postPage.map(this::convertToDetailVo);
+        return new PageImpl<>(convertToDetailVo(postPage.getContent()), postPage.getPageable(),
+            postPage.getTotalElements());
+    }
+
+    /**
+     * Converts to a list of detail vo, loading the relations of all posts with one query each.
+     *
+     * @param posts posts must not be null, their contents must be populated
+     * @return a list of post detail vo
+     */
+    @NonNull
+    public List<PostDetailVO> convertToDetailVo(List<Post> posts) {
+        Assert.notNull(posts, "Posts must not be null");
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Integer> postIds = ServiceUtils.fetchProperty(posts, Post::getId);
+
+        Map<Integer, List<Tag>> tagListMap = postTagService.listTagListMapBy(postIds);
+        Map<Integer, List<Category>> categoryListMap = postCategoryService.listCategoryListMap(postIds);
+        Map<Integer, List<PostMeta>> postMetaListMap = postMetaService.listPostMetaAsMap(postIds);
+        Map<Integer, List<User>> userListMap = postUserService.listUserListMap(postIds);
+        Map<Integer, Long> commentCountMap = postCommentService.countByStatusAndPostIds(CommentStatus.PUBLISHED, postIds);
+        Set<Integer> inProgressPostIds = contentService.listDraftingInProgressIds(postIds);
+
+        return posts.stream()
+            .map(post -> convertTo(post,
+                tagListMap.getOrDefault(post.getId(), Collections.emptyList()),
+                categoryListMap.getOrDefault(post.getId(), Collections.emptyList()),
+                postMetaListMap.getOrDefault(post.getId(), Collections.emptyList()),
+                userListMap.getOrDefault(post.getId(), Collections.emptyList()),
+                commentCountMap.getOrDefault(post.getId(), 0L),
+                inProgressPostIds.contains(post.getId())))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -177,6 +213,12 @@ public class PostAssembler extends BasePostAssembler<Post> {
 
         Set<Integer> postIds = ServiceUtils.fetchProperty(posts, Post::getId);
 
+        // Load contents only for the summaries to generate
+        populateContents(posts.stream().filter(post -> StringUtils.isBlank(post.getSummary())).collect(Collectors.toList()));
+
+        // Get post ids drafting in process
+        Set<Integer> inProgressPostIds = contentService.listDraftingInProgressIds(postIds);
+
         // Get tag list map
         Map<Integer, List<Tag>> tagListMap = postTagService.listTagListMapBy(postIds);
 
@@ -222,8 +264,7 @@ public class PostAssembler extends BasePostAssembler<Post> {
             postListVO.setFullPath(buildFullPath(post));
 
             // Post currently drafting in process
-            Boolean isInProcess = contentService.draftingInProgress(post.getId());
-            postListVO.setInProgress(isInProcess);
+            postListVO.setInProgress(inProgressPostIds.contains(post.getId()));
 
             return postListVO;
         });
@@ -240,6 +281,9 @@ public class PostAssembler extends BasePostAssembler<Post> {
 
         Set<Integer> postIds = ServiceUtils.fetchProperty(posts, Post::getId);
 
+        // Load contents only for the summaries to generate
+        populateContents(posts.stream().filter(post -> StringUtils.isBlank(post.getSummary())).collect(Collectors.toList()));
+
         // Get tag list map
         Map<Integer, List<Tag>> tagListMap = postTagService.listTagListMapBy(postIds);
 
@@ -303,6 +347,15 @@ public class PostAssembler extends BasePostAssembler<Post> {
                                   List<User> users) {
         Assert.notNull(post, "Post must not be null");
 
+        return convertTo(post, tags, categories, postMetaList, users,
+            postCommentService.countByStatusAndPostId(CommentStatus.PUBLISHED, post.getId()),
+            contentService.draftingInProgress(post.getId()));
+    }
+
+    @NonNull
+    private PostDetailVO convertTo(@NonNull Post post, @Nullable List<Tag> tags, @Nullable List<Category> categories, List<PostMeta> postMetaList,
+                                   List<User> users, long commentCount, boolean inProgress) {
+
         // Convert to base detail vo
         PostDetailVO postDetailVO = new PostDetailVO().convertFrom(post);
         generateAndSetSummaryIfAbsent(post, postDetailVO);
@@ -329,7 +382,7 @@ public class PostAssembler extends BasePostAssembler<Post> {
         postDetailVO.setUserIds(userIds);
         postDetailVO.setUsers(userService.convertTo(users));
 
-        postDetailVO.setCommentCount(postCommentService.countByStatusAndPostId(CommentStatus.PUBLISHED, post.getId()));
+        postDetailVO.setCommentCount(commentCount);
 
         postDetailVO.setFullPath(buildFullPath(post));
 
@@ -338,7 +391,6 @@ public class PostAssembler extends BasePostAssembler<Post> {
         postDetailVO.setOriginalContent(postContent.getOriginalContent());
 
         // Post currently drafting in process
-        Boolean inProgress = contentService.draftingInProgress(post.getId());
         postDetailVO.setInProgress(inProgress);
 
         return postDetailVO;
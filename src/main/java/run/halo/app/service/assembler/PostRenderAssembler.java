@@ -1,9 +1,12 @@
 package run.halo.app.service.assembler;
 
-import org.springframework.data.domain.Page;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
+import run.halo.app.exception.NotFoundException;
 import run.halo.app.model.entity.Content;
 import run.halo.app.model.entity.Content.PatchedContent;
 import run.halo.app.model.entity.Post;
@@ -19,6 +22,7 @@ import run.halo.app.service.PostTagService;
 import run.halo.app.service.TagService;
 import run.halo.app.service.UserService;
 import run.halo.app.service.cern.PostUserService;
+import run.halo.app.utils.ServiceUtils;
 
 /**
  * Post assembler for theme render.
@@ -56,14 +60,22 @@ public class PostRenderAssembler extends PostAssembler {
     }
 
     @Override
-    public Page<PostDetailVO> convertToDetailVo(Page<Post> postPage) {
-        Assert.notNull(postPage, "Post page must not be null");
-        // Populate post content
-        postPage.getContent().forEach(post -> {
-            Content postContent = contentService.getById(post.getId());
-            post.setContent(Content.PatchedContent.of(postContent));
+    @NonNull
+    public List<PostDetailVO> convertToDetailVo(List<Post> posts) {
+        Assert.notNull(posts, "Posts must not be null");
+        // Populate published contents of all posts
+        Set<Integer> postIds = ServiceUtils.fetchProperty(posts, Post::getId);
+        Map<Integer, Content> contentMap =
+            ServiceUtils.convertToMap(contentService.listAllByIds(postIds), Content::getId);
+        posts.forEach(post -> {
+            Content postContent = contentMap.get(post.getId());
+            if (postContent == null) {
+                throw new NotFoundException("Content was not found or has been deleted")
+                    .setErrorData(post.getId());
+            }
+            post.setContent(PatchedContent.of(postContent));
         });
-        return postPage.map(this::convertToDetailVo);
+        return super.convertToDetailVo(posts);
     }
 
     @Override
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.stream.Collectors;
@@ -151,6 +152,55 @@ public abstract class BaseCommentAssembler<COMMENT extends BaseComment> {
         return new CommentPage<>(pageContent, pageable, topComments.size(), comments.size());
     }
 
+    /**
+     * Converts top comments and their loaded descendants to comment vo trees.
+     *
+     * @param topComments top comments in display order must not be null
+     * @param descendants loaded descendants of top comments must not be null
+     * @param childrenCountMap direct children count of comments whose children were not loaded
+     * @param sort sort info of children must not be null
+     * @return a list of comment vo tree
+     */
+    @NonNull
+    public List<BaseCommentVO> convertToVo(@NonNull List<COMMENT> topComments,
+        @NonNull List<COMMENT> descendants, @NonNull Map<Long, Long> childrenCountMap,
+        @NonNull Sort sort) {
+        Assert.notNull(topComments, "Top comments must not be null");
+        Assert.notNull(descendants, "Descendants must not be null");
+        Assert.notNull(childrenCountMap, "Children count map must not be null");
+        Assert.notNull(sort, "Sort info must not be null");
+
+        Comparator<BaseCommentVO> commentComparator = buildCommentComparator(sort);
+        Map<Long, List<COMMENT>> childrenMap = descendants.stream()
+            .collect(Collectors.groupingBy(BaseComment::getParentId));
+
+        return topComments.stream()
+            .map(comment -> convertToTree(comment, childrenMap, childrenCountMap,
+                commentComparator))
+            .collect(Collectors.toList());
+    }
+
+    private BaseCommentVO convertToTree(COMMENT comment, Map<Long, List<COMMENT>> childrenMap,
+        Map<Long, Long> childrenCountMap, Comparator<BaseCommentVO> commentComparator) {
+        BaseCommentVO commentVo = new BaseCommentVO().convertFrom(comment);
+        commentVo.setAvatar(buildAvatarUrl(commentVo.getGravatarMd5()));
+
+        List<COMMENT> children = childrenMap.get(comment.getId());
+        if (children == null) {
+            // Children were not loaded or there is no child at all
+            commentVo.setChildrenCount(childrenCountMap.getOrDefault(comment.getId(), 0L));
+            return commentVo;
+        }
+
+        List<BaseCommentVO> childrenVos = children.stream()
+            .map(child -> convertToTree(child, childrenMap, childrenCountMap, commentComparator))
+            .sorted(commentComparator)
+            .collect(Collectors.toCollection(LinkedList::new));
+        commentVo.setChildren(childrenVos);
+        commentVo.setChildrenCount((long) childrenVos.size());
+        return commentVo;
+    }
+
     /**
      * Concretes comment tree.
      *
@@ -88,6 +88,11 @@ public abstract class AbstractCrudService<DOMAIN, ID> implements CrudService<DOM
         return repository.findAll(pageable);
     }
 
+    @Override
+    public List<DOMAIN> listAllAfter(ID afterId, int size) {
+        return repository.findAllAfter(afterId, size);
+    }
+
     /**
      * List all by ids
      *
@@ -12,6 +12,7 @@ import run.halo.app.model.entity.BaseComment;
 import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.params.BaseCommentParam;
 import run.halo.app.model.params.CommentQuery;
+import run.halo.app.model.support.CommentCursorPage;
 import run.halo.app.model.vo.BaseCommentVO;
 import run.halo.app.model.vo.BaseCommentWithParentVO;
 import run.halo.app.model.vo.CommentWithHasChildrenVO;
@@ -94,6 +95,18 @@ public interface BaseCommentService<COMMENT extends BaseComment>
     @NonNull
     Page<BaseCommentVO> pageVosBy(@NonNull Integer postId, @NonNull Pageable pageable);
 
+    /**
+     * Lists published comment vos after the cursor, newest first.
+     *
+     * @param postId post id must not be null
+     * @param cursor id of the last top comment listed before, null for the first page
+     * @param size maximum number of top comments, must be positive
+     * @return a page of comment vo with the cursor of next page
+     */
+    @NonNull
+    CommentCursorPage<BaseCommentVO> listVosBy(@NonNull Integer postId, @Nullable Long cursor,
+        int size);
+
     /**
      * Lists comment with parent vo.
      *
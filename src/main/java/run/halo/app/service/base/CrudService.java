@@ -46,6 +46,16 @@ public interface CrudService<D, I> {
     @NonNull
     Page<D> listAll(@NonNull Pageable pageable);
 
+    /**
+     * Lists domains ordered by id, whose ids are greater than the given id.
+     *
+     * @param afterId id of the last domain of the previous page, null for the first page
+     * @param size max size of the page must be positive
+     * @return a list of domains
+     */
+    @NonNull
+    List<D> listAllAfter(@Nullable I afterId, int size);
+
     /**
      * List all by ids.
      *
@@ -10,6 +10,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -37,6 +38,7 @@ import run.halo.app.model.properties.EmailProperties;
 import run.halo.app.model.support.HaloConst;
 import run.halo.app.security.authentication.Authentication;
 import run.halo.app.security.context.SecurityContextHolder;
+import run.halo.app.security.support.PrincipalCache;
 import run.halo.app.security.token.AuthToken;
 import run.halo.app.security.util.SecurityUtils;
 import run.halo.app.service.AdminService;
@@ -69,19 +71,23 @@ public class AdminServiceImpl implements AdminService {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    private final PrincipalCache principalCache;
+
     public AdminServiceImpl(
         OptionService optionService,
         UserService userService,
         MailService mailService,
         AbstractStringCacheStore cacheStore,
         HaloProperties haloProperties,
-        ApplicationEventPublisher eventPublisher) {
+        ApplicationEventPublisher eventPublisher,
+        PrincipalCache principalCache) {
         this.optionService = optionService;
         this.userService = userService;
         this.mailService = mailService;
         this.cacheStore = cacheStore;
         this.haloProperties = haloProperties;
         this.eventPublisher = eventPublisher;
+        this.principalCache = principalCache;
     }
 
 
@@ -167,15 +173,16 @@ public class AdminServiceImpl implements AdminService {
         cacheStore.getAny(SecurityUtils.buildAccessTokenKey(user), String.class)
             .ifPresent(accessToken -> {
                 // Delete token
-                cacheStore.delete(SecurityUtils.buildTokenAccessKey(accessToken));
-                cacheStore.delete(SecurityUtils.buildAccessTokenKey(user));
+                cacheStore.deleteAll(List.of(SecurityUtils.buildTokenAccessKey(accessToken),
+                    SecurityUtils.buildAccessTokenKey(user)));
+                principalCache.evict(accessToken);
             });
 
         // Clear refresh token
         cacheStore.getAny(SecurityUtils.buildRefreshTokenKey(user), String.class)
             .ifPresent(refreshToken -> {
-                cacheStore.delete(SecurityUtils.buildTokenRefreshKey(refreshToken));
-                cacheStore.delete(SecurityUtils.buildRefreshTokenKey(user));
+                cacheStore.deleteAll(List.of(SecurityUtils.buildTokenRefreshKey(refreshToken),
+                    SecurityUtils.buildRefreshTokenKey(user)));
             });
 
         eventPublisher.publishEvent(
@@ -279,12 +286,15 @@ public class AdminServiceImpl implements AdminService {
         User user = userService.getById(userId);
 
         // Remove all token
-        cacheStore.getAny(SecurityUtils.buildAccessTokenKey(user), String.class)
-            .ifPresent(
-                accessToken -> cacheStore.delete(SecurityUtils.buildTokenAccessKey(accessToken)));
-        cacheStore.delete(SecurityUtils.buildTokenRefreshKey(refreshToken));
-        cacheStore.delete(SecurityUtils.buildAccessTokenKey(user));
-        cacheStore.delete(SecurityUtils.buildRefreshTokenKey(user));
+        List<String> tokenKeys = new ArrayList<>(4);
+        Optional<String> accessToken =
+            cacheStore.getAny(SecurityUtils.buildAccessTokenKey(user), String.class);
+        accessToken.ifPresent(token -> tokenKeys.add(SecurityUtils.buildTokenAccessKey(token)));
+        tokenKeys.add(SecurityUtils.buildTokenRefreshKey(refreshToken));
+        tokenKeys.add(SecurityUtils.buildAccessTokenKey(user));
+        tokenKeys.add(SecurityUtils.buildRefreshTokenKey(user));
+        cacheStore.deleteAll(tokenKeys);
+        accessToken.ifPresent(principalCache::evict);
 
         return buildAuthToken(user);
     }
@@ -0,0 +1,376 @@
+package run.halo.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import run.halo.app.event.category.CategoryUpdatedEvent;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostArchiveProjection;
+import run.halo.app.model.vo.ArchiveCountVO;
+import run.halo.app.model.vo.ArchiveIndexMonthVO;
+import run.halo.app.model.vo.ArchiveIndexYearVO;
+import run.halo.app.model.vo.ArchivePostVO;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.ArchiveService;
+import run.halo.app.service.assembler.PostAssembler;
+import run.halo.app.utils.DateUtils;
+
+/**
+ * Archive service implementation.
+ *
+ * <p>Published posts are indexed by year and month as minimal projections. The index is built
+ * once, then every updated or deleted post is reloaded on its own, so listing archives never
+ * loads post entities. Category updates may change statuses of many posts, so they drop the
+ * whole index instead.
+ */
+@Slf4j
+@Service
+public class ArchiveServiceImpl implements ArchiveService {
+
+    /**
+     * Orders posts from the latest.
+     */
+    private static final Comparator<PostArchiveProjection> POST_COMPARATOR =
+        Comparator.comparing(PostArchiveProjection::getCreateTime)
+            .thenComparing(PostArchiveProjection::getId)
+            .reversed();
+
+    private final PostRepository postRepository;
+
+    private final PostAssembler postAssembler;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Posts keyed by year then month, both from the latest. Null until the index is built.
+     */
+    @Nullable
+    private NavigableMap<Integer, NavigableMap<Integer, List<PostArchiveProjection>>> archives;
+
+    /**
+     * Indexed posts keyed by id.
+     */
+    private final Map<Integer, PostArchiveProjection> posts = new HashMap<>();
+
+    public ArchiveServiceImpl(PostRepository postRepository, PostAssembler postAssembler) {
+        this.postRepository = postRepository;
+        this.postAssembler = postAssembler;
+    }
+
+    @Override
+    @NonNull
+    public List<ArchiveCountVO> listYearCounts() {
+        return read(() -> {
+            List<ArchiveCountVO> counts = new ArrayList<>(archives.size());
+            archives.forEach((year, monthPosts) -> counts.add(new ArchiveCountVO(year, null,
+                monthPosts.values().stream().mapToLong(List::size).sum())));
+            return counts;
+        });
+    }
+
+    @Override
+    @NonNull
+    public List<ArchiveCountVO> listMonthCounts() {
+        return read(() -> {
+            List<ArchiveCountVO> counts = new ArrayList<>();
+            archives.forEach((year, monthPosts) -> monthPosts.forEach((month, postList) ->
+                counts.add(new ArchiveCountVO(year, month, (long) postList.size()))));
+            return counts;
+        });
+    }
+
+    @Override
+    @NonNull
+    public List<ArchiveIndexYearVO> listYearArchives() {
+        NavigableMap<Integer, List<PostArchiveProjection>> yearPosts = read(() -> {
+            NavigableMap<Integer, List<PostArchiveProjection>> copy =
+                new TreeMap<>(Comparator.reverseOrder());
+            archives.forEach((year, monthPosts) -> {
+                List<PostArchiveProjection> postList = new ArrayList<>();
+                monthPosts.values().forEach(postList::addAll);
+                copy.put(year, postList);
+            });
+            return copy;
+        });
+
+        // Full paths are built out of the lock
+        List<ArchiveIndexYearVO> yearArchives = new ArrayList<>(yearPosts.size());
+        yearPosts.forEach((year, postList) -> {
+            ArchiveIndexYearVO archive = new ArchiveIndexYearVO();
+            archive.setYear(year);
+            archive.setPosts(convertTo(postList));
+            yearArchives.add(archive);
+        });
+        return yearArchives;
+    }
+
+    @Override
+    @NonNull
+    public List<ArchiveIndexMonthVO> listMonthArchives() {
+        List<ArchiveIndexMonthVO> monthArchives = new ArrayList<>();
+        List<List<PostArchiveProjection>> monthPosts = new ArrayList<>();
+        read(() -> {
+            archives.forEach((year, yearPosts) -> yearPosts.forEach((month, postList) -> {
+                ArchiveIndexMonthVO archive = new ArchiveIndexMonthVO();
+                archive.setYear(year);
+                archive.setMonth(month);
+                monthArchives.add(archive);
+                monthPosts.add(new ArrayList<>(postList));
+            }));
+            return null;
+        });
+
+        // Full paths are built out of the lock
+        for (int i = 0; i < monthArchives.size(); i++) {
+            monthArchives.get(i).setPosts(convertTo(monthPosts.get(i)));
+        }
+        return monthArchives;
+    }
+
+    @Override
+    @NonNull
+    public Page<ArchivePostVO> pagePostsBy(@Nullable Integer year, @Nullable Integer month,
+        @NonNull Pageable pageable) {
+        Assert.notNull(pageable, "Page info must not be null");
+        Assert.isTrue(pageable.isPaged(), "Page info must be paged");
+        Assert.isTrue(year != null || month == null, "Year must not be null if month is given");
+
+        List<PostArchiveProjection> content = new ArrayList<>(pageable.getPageSize());
+        long total = read(() -> {
+            long offset = pageable.getOffset();
+            long count = 0;
+            for (List<PostArchiveProjection> postList : listMonthPosts(year, month)) {
+                if (content.size() < pageable.getPageSize() && offset < count + postList.size()) {
+                    int fromIndex = (int) Math.max(0, offset - count);
+                    int toIndex = Math.min(postList.size(),
+                        fromIndex + pageable.getPageSize() - content.size());
+                    content.addAll(postList.subList(fromIndex, toIndex));
+                }
+                count += postList.size();
+            }
+            return count;
+        });
+
+        return new PageImpl<>(convertTo(content), pageable, total);
+    }
+
+    @Override
+    @NonNull
+    public NavigableMap<Integer, NavigableMap<Integer, List<Integer>>> listPostIds() {
+        return read(() -> {
+            NavigableMap<Integer, NavigableMap<Integer, List<Integer>>> postIds =
+                new TreeMap<>(Comparator.reverseOrder());
+            archives.forEach((year, monthPosts) -> {
+                NavigableMap<Integer, List<Integer>> monthPostIds =
+                    new TreeMap<>(Comparator.reverseOrder());
+                monthPosts.forEach((month, postList) -> monthPostIds.put(month, postList.stream()
+                    .map(PostArchiveProjection::getId)
+                    .collect(Collectors.toList())));
+                postIds.put(year, monthPostIds);
+            });
+            return postIds;
+        });
+    }
+
+    @Override
+    public void refresh() {
+        lock.writeLock().lock();
+        try {
+            archives = null;
+            posts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        read(() -> null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        Integer postId = event.getPost().getId();
+        lock.readLock().lock();
+        try {
+            if (archives == null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Reload the post, whose status or create time may have changed, before locking so that
+        // readers never wait for the database
+        Optional<PostArchiveProjection> projection =
+            postRepository.findArchiveProjection(postId, PostStatus.PUBLISHED);
+
+        lock.writeLock().lock();
+        try {
+            if (archives == null) {
+                // Dropped meanwhile, the next build loads the post anyway
+                return;
+            }
+            remove(postId);
+            projection.ifPresent(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (archives != null) {
+                remove(event.getPost().getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(value = CategoryUpdatedEvent.class, fallbackExecution = true)
+    public void onCategoryUpdated() {
+        refresh();
+    }
+
+    /**
+     * Reads the index, builds it first if absent.
+     */
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            if (archives != null) {
+                return reader.get();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (archives == null) {
+                build();
+            }
+            return reader.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void build() {
+        List<PostArchiveProjection> projections =
+            postRepository.findArchiveProjections(PostStatus.PUBLISHED);
+        projections.sort(POST_COMPARATOR);
+
+        archives = new TreeMap<>(Comparator.reverseOrder());
+        posts.clear();
+        // Appending sorted posts keeps every month in order
+        projections.forEach(projection -> {
+            getOrCreateMonthPosts(projection).add(projection);
+            posts.put(projection.getId(), projection);
+        });
+        log.debug("Built archive index of [{}] posts", posts.size());
+    }
+
+    private void add(PostArchiveProjection projection) {
+        List<PostArchiveProjection> monthPosts = getOrCreateMonthPosts(projection);
+        int index = Collections.binarySearch(monthPosts, projection, POST_COMPARATOR);
+        monthPosts.add(index < 0 ? -index - 1 : index, projection);
+        posts.put(projection.getId(), projection);
+    }
+
+    private void remove(Integer postId) {
+        PostArchiveProjection projection = posts.remove(postId);
+        if (projection == null) {
+            return;
+        }
+        Calendar calendar = DateUtils.convertTo(projection.getCreateTime());
+        int year = calendar.get(Calendar.YEAR);
+        int month = calendar.get(Calendar.MONTH) + 1;
+
+        NavigableMap<Integer, List<PostArchiveProjection>> monthPosts = archives.get(year);
+        List<PostArchiveProjection> postList = monthPosts.get(month);
+        postList.remove(Collections.binarySearch(postList, projection, POST_COMPARATOR));
+        if (postList.isEmpty()) {
+            monthPosts.remove(month);
+            if (monthPosts.isEmpty()) {
+                archives.remove(year);
+            }
+        }
+    }
+
+    private List<PostArchiveProjection> getOrCreateMonthPosts(PostArchiveProjection projection) {
+        Calendar calendar = DateUtils.convertTo(projection.getCreateTime());
+        return archives
+            .computeIfAbsent(calendar.get(Calendar.YEAR), year -> new TreeMap<>(
+                Comparator.reverseOrder()))
+            .computeIfAbsent(calendar.get(Calendar.MONTH) + 1, month -> new ArrayList<>());
+    }
+
+    private Collection<List<PostArchiveProjection>> listMonthPosts(@Nullable Integer year,
+        @Nullable Integer month) {
+        if (year == null) {
+            return archives.values().stream()
+                .flatMap(monthPosts -> monthPosts.values().stream())
+                .collect(Collectors.toList());
+        }
+        NavigableMap<Integer, List<PostArchiveProjection>> monthPosts =
+            archives.getOrDefault(year, Collections.emptyNavigableMap());
+        if (month == null) {
+            return monthPosts.values();
+        }
+        List<PostArchiveProjection> postList = monthPosts.get(month);
+        return postList == null ? Collections.emptyList() : Collections.singletonList(postList);
+    }
+
+    private List<ArchivePostVO> convertTo(List<PostArchiveProjection> projections) {
+        return projections.stream()
+            .map(this::convertTo)
+            .collect(Collectors.toList());
+    }
+
+    private ArchivePostVO convertTo(PostArchiveProjection projection) {
+        Post post = new Post();
+        post.setId(projection.getId());
+        post.setSlug(projection.getSlug());
+        post.setCreateTime(projection.getCreateTime());
+
+        ArchivePostVO archivePostVo = new ArchivePostVO();
+        archivePostVo.setId(projection.getId());
+        archivePostVo.setTitle(projection.getTitle());
+        archivePostVo.setFullPath(postAssembler.buildFullPath(post));
+        archivePostVo.setCreateTime(projection.getCreateTime());
+        return archivePostVo;
+    }
+}
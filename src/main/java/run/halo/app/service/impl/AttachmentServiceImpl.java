@@ -20,9 +20,11 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 import run.halo.app.exception.AlreadyExistsException;
 import run.halo.app.handler.file.FileHandlers;
+import run.halo.app.handler.file.ImagePipeline;
 import run.halo.app.model.dto.AttachmentDTO;
 import run.halo.app.model.entity.Attachment;
 import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ImageVariantStatus;
 import run.halo.app.model.params.AttachmentQuery;
 import run.halo.app.model.properties.AttachmentProperties;
 import run.halo.app.model.support.UploadResult;
@@ -50,13 +52,17 @@ public class AttachmentServiceImpl extends AbstractCrudService<Attachment, Integ
 
     private final FileHandlers fileHandlers;
 
+    private final ImagePipeline imagePipeline;
+
     public AttachmentServiceImpl(AttachmentRepository attachmentRepository,
         OptionService optionService,
-        FileHandlers fileHandlers) {
+        FileHandlers fileHandlers,
+        ImagePipeline imagePipeline) {
         super(attachmentRepository);
         this.attachmentRepository = attachmentRepository;
         this.optionService = optionService;
         this.fileHandlers = fileHandlers;
+        this.imagePipeline = imagePipeline;
     }
 
     @Override
@@ -118,6 +124,14 @@ public class AttachmentServiceImpl extends AbstractCrudService<Attachment, Integ
         log.debug("Attachment type: [{}]", attachmentType);
         log.debug("Upload result: [{}]", uploadResult);
 
+        return createBy(uploadResult, attachmentType);
+    }
+
+    @Override
+    public Attachment createBy(UploadResult uploadResult, AttachmentType attachmentType) {
+        Assert.notNull(uploadResult, "Upload result must not be null");
+        Assert.notNull(attachmentType, "Attachment type must not be null");
+
         // Build attachment
         Attachment attachment = new Attachment();
         attachment.setName(uploadResult.getFilename());
@@ -131,11 +145,16 @@ public class AttachmentServiceImpl extends AbstractCrudService<Attachment, Integ
         attachment.setHeight(uploadResult.getHeight());
         attachment.setSize(uploadResult.getSize());
         attachment.setType(attachmentType);
+        if (imagePipeline.supports(attachment)) {
+            attachment.setVariantStatus(ImageVariantStatus.PENDING);
+        }
 
         log.debug("Creating attachment: [{}]", attachment);
 
-        // Create and return
-        return create(attachment);
+        // Create, then generate thumbnail and variants in background
+        Attachment createdAttachment = create(attachment);
+        imagePipeline.submit(createdAttachment);
+        return createdAttachment;
     }
 
     @Override
@@ -182,6 +201,18 @@ public class AttachmentServiceImpl extends AbstractCrudService<Attachment, Integ
             // Set full path and full thumb path
             attachmentDTO.setPath(fullPath);
             attachmentDTO.setThumbPath(fullThumbPath);
+
+            // Build candidates of responsive image
+            List<Integer> variantWidths = ImagePipeline.listVariantWidths(attachment);
+            if (!variantWidths.isEmpty()) {
+                String srcset = variantWidths.stream()
+                    .map(width -> StringUtils.join(enabledAbsolutePath ? blogBaseUrl : "", "/",
+                        ImagePipeline.buildVariantKey(attachment.getPath(), width), " ", width,
+                        "w"))
+                    .collect(Collectors.joining(", "));
+                attachmentDTO.setSrcset(
+                    srcset + ", " + fullPath + " " + attachment.getWidth() + "w");
+            }
         }
 
         return attachmentDTO;
@@ -2,15 +2,20 @@ package run.halo.app.service.impl;
 
 import static run.halo.app.model.support.HaloConst.HALO_BACKUP_MARKDOWN_PREFIX;
 import static run.halo.app.model.support.HaloConst.HALO_BACKUP_PREFIX;
+import static run.halo.app.model.support.HaloConst.HALO_BACKUP_SNAPSHOT_PREFIX;
 import static run.halo.app.model.support.HaloConst.HALO_DATA_EXPORT_PREFIX;
 import static run.halo.app.utils.DateTimeUtils.HORIZONTAL_LINE_DATETIME_FORMATTER;
 import static run.halo.app.utils.FileUtils.checkDirectoryTraversal;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.pool.HikariPool;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
@@ -18,14 +23,14 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipOutputStream;
@@ -39,6 +44,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -79,6 +85,7 @@ import run.halo.app.model.params.PostMarkdownParam;
 import run.halo.app.model.support.HaloConst;
 import run.halo.app.model.vo.PostMarkdownVO;
 import run.halo.app.security.service.OneTimeTokenService;
+import run.halo.app.service.ArchiveService;
 import run.halo.app.service.AttachmentService;
 import run.halo.app.service.BackupService;
 import run.halo.app.service.CategoryService;
@@ -103,6 +110,9 @@ import run.halo.app.service.SheetService;
 import run.halo.app.service.TagService;
 import run.halo.app.service.ThemeSettingService;
 import run.halo.app.service.UserService;
+import run.halo.app.service.base.CrudService;
+import run.halo.app.service.support.PostCounter;
+import run.halo.app.service.support.WorkDirSnapshotStore;
 import run.halo.app.utils.DateTimeUtils;
 import run.halo.app.utils.DateUtils;
 import run.halo.app.utils.FileUtils;
@@ -132,6 +142,13 @@ public class BackupServiceImpl implements BackupService {
 
     private static final String UPLOAD_SUB_DIR = "upload/";
 
+    private static final String SNAPSHOT_RESTORE_SUB_DIR = "restored-snapshots";
+
+    /**
+     * Size of every page of exported rows, and every batch of imported rows.
+     */
+    private static final int DATA_BATCH_SIZE = 500;
+
     private final AttachmentService attachmentService;
 
     private final CategoryService categoryService;
@@ -154,6 +171,8 @@ public class BackupServiceImpl implements BackupService {
 
     private final PostService postService;
 
+    private final ArchiveService archiveService;
+
     private final ContentService contentService;
 
     private final ContentPatchLogService contentPatchLogService;
@@ -180,24 +199,34 @@ public class BackupServiceImpl implements BackupService {
 
     private final OneTimeTokenService oneTimeTokenService;
 
+    private final PostCounter postCounter;
+
     private final HaloProperties haloProperties;
 
     private final ApplicationEventPublisher eventPublisher;
 
     private final ApplicationContext appContext;
 
+    /**
+     * Tables of exported data, in the order of importing data exported before.
+     */
+    private final List<DataTable<?, ?>> dataTables;
+
+    private final WorkDirSnapshotStore snapshotStore;
+
     public BackupServiceImpl(AttachmentService attachmentService, CategoryService categoryService,
         CommentBlackListService commentBlackListService, JournalService journalService,
         JournalCommentService journalCommentService, LinkService linkService, LogService logService,
         MenuService menuService, OptionService optionService, PhotoService photoService,
-        PostService postService, ContentService contentService,
+        PostService postService, ArchiveService archiveService, ContentService contentService,
         ContentPatchLogService contentPatchLogService,
         PostCategoryService postCategoryService,
         PostCommentService postCommentService, PostMetaService postMetaService,
         PostTagService postTagService, SheetService sheetService,
         SheetCommentService sheetCommentService, SheetMetaService sheetMetaService,
         TagService tagService, ThemeSettingService themeSettingService, UserService userService,
-        OneTimeTokenService oneTimeTokenService, HaloProperties haloProperties,
+        OneTimeTokenService oneTimeTokenService, PostCounter postCounter,
+        HaloProperties haloProperties,
         ApplicationEventPublisher eventPublisher, ApplicationContext appContext) {
         this.attachmentService = attachmentService;
         this.categoryService = categoryService;
@@ -210,6 +239,7 @@ public class BackupServiceImpl implements BackupService {
         this.optionService = optionService;
         this.photoService = photoService;
         this.postService = postService;
+        this.archiveService = archiveService;
         this.contentService = contentService;
         this.contentPatchLogService = contentPatchLogService;
         this.postCategoryService = postCategoryService;
@@ -223,9 +253,45 @@ public class BackupServiceImpl implements BackupService {
         this.themeSettingService = themeSettingService;
         this.userService = userService;
         this.oneTimeTokenService = oneTimeTokenService;
+        this.postCounter = postCounter;
         this.haloProperties = haloProperties;
         this.eventPublisher = eventPublisher;
         this.appContext = appContext;
+        this.snapshotStore = new WorkDirSnapshotStore(Paths.get(haloProperties.getBackupDir()),
+            HALO_BACKUP_SNAPSHOT_PREFIX, Runtime.getRuntime().availableProcessors());
+        this.dataTables = List.of(
+            new DataTable<>("attachments", Attachment.class, attachmentService, Attachment::getId),
+            new DataTable<>("categories", Category.class, categoryService, Category::getId),
+            new DataTable<>("tags", Tag.class, tagService, Tag::getId),
+            new DataTable<>("comment_black_list", CommentBlackList.class,
+                commentBlackListService, CommentBlackList::getId),
+            new DataTable<>("journals", Journal.class, journalService, Journal::getId),
+            new DataTable<>("journal_comments", JournalComment.class, journalCommentService,
+                JournalComment::getId),
+            new DataTable<>("links", Link.class, linkService, Link::getId),
+            new DataTable<>("logs", Log.class, logService, Log::getId),
+            new DataTable<>("menus", Menu.class, menuService, Menu::getId),
+            new DataTable<>("options", Option.class, optionService, Option::getId),
+            new DataTable<>("photos", Photo.class, photoService, Photo::getId),
+            new DataTable<>("posts", Post.class, postService, Post::getId),
+            new DataTable<>("contents", Content.class, contentService, Content::getId),
+            new DataTable<>("content_patch_logs", ContentPatchLog.class, contentPatchLogService,
+                ContentPatchLog::getId),
+            new DataTable<>("post_categories", PostCategory.class, postCategoryService,
+                PostCategory::getId),
+            new DataTable<>("post_comments", PostComment.class, postCommentService,
+                PostComment::getId),
+            new DataTable<>("post_metas", PostMeta.class, postMetaService, PostMeta::getId),
+            new DataTable<>("post_tags", PostTag.class, postTagService, PostTag::getId),
+            new DataTable<>("sheets", Sheet.class, sheetService, Sheet::getId),
+            new DataTable<>("sheet_comments", SheetComment.class, sheetCommentService,
+                SheetComment::getId),
+            new DataTable<>("sheet_metas", SheetMeta.class, sheetMetaService, SheetMeta::getId),
+            new DataTable<>("theme_settings", ThemeSetting.class, themeSettingService,
+                ThemeSetting::getId),
+            // Only the first user is imported
+            new DataTable<>("user", User.class, userService, User::getId,
+                users -> users.forEach(userService::create), 1));
     }
 
     @Override
@@ -256,48 +322,24 @@ public class BackupServiceImpl implements BackupService {
             }
             Path haloZipPath = Files.createFile(haloZipFilePath);
 
-            boolean dbClosed = false;
-            if (options.contains("db") && SystemUtils.IS_OS_WINDOWS) {
-                try {
-                    HikariDataSource dataSource = appContext.getBean(HikariDataSource.class);
-                    if (dataSource.getDriverClassName().equals("org.h2.Driver")) {
-                        try {
-                            Field poolField = HikariDataSource.class.getDeclaredField(
-                                "pool");
-                            HikariPool pool =
-                                (HikariPool) ReflectionUtil.getFieldValue(poolField, dataSource);
-                            pool.shutdown();
-                            dbClosed = true;
-                        } catch (InterruptedException | NoSuchFieldException e) {
-                            throw new ServiceException("Failed to close H2 database", e);
-                        }
-                    }
-                } catch (NoSuchBeanDefinitionException e) {
-                    throw new ServiceException("Bean HikariDataSource doesn't exists");
-                }
-            }
-            // Zip halo
-            run.halo.app.utils.FileUtils
-                .zip(Paths.get(this.haloProperties.getWorkDir()), haloZipPath,
-                    path -> {
-                        for (String itemToBackup : options) {
-                            Path backupItemPath =
-                                Paths.get(this.haloProperties.getWorkDir()).resolve(itemToBackup);
-                            if (path.startsWith(backupItemPath)) {
-                                return true;
+            boolean dbClosed = closeH2DatabaseIfNecessary(options);
+            try {
+                // Zip halo
+                run.halo.app.utils.FileUtils
+                    .zip(Paths.get(this.haloProperties.getWorkDir()), haloZipPath,
+                        path -> {
+                            for (String itemToBackup : options) {
+                                Path backupItemPath = Paths.get(this.haloProperties.getWorkDir())
+                                    .resolve(itemToBackup);
+                                if (path.startsWith(backupItemPath)) {
+                                    return true;
+                                }
                             }
-                        }
-                        return false;
-                    });
-
-            if (dbClosed) {
-                try {
-                    Field poolField = HikariDataSource.class.getDeclaredField(
-                        "pool");
-                    HikariDataSource dataSource = appContext.getBean(HikariDataSource.class);
-                    ReflectionUtil.setFieldValue(poolField, dataSource, new HikariPool(dataSource));
-                } catch (NoSuchFieldException e) {
-                    throw new ServiceException("Failed to reopen H2 database", e);
+                            return false;
+                        });
+            } finally {
+                if (dbClosed) {
+                    reopenH2Database();
                 }
             }
             // Build backup dto
@@ -307,6 +349,51 @@ public class BackupServiceImpl implements BackupService {
         }
     }
 
+    @Override
+    public BackupDTO snapshotWorkDirectory(List<String> options) {
+        if (CollectionUtils.isEmpty(options)) {
+            throw new BadRequestException("The options parameter is missing, at least one.");
+        }
+        try {
+            Path manifestPath;
+            boolean dbClosed = closeH2DatabaseIfNecessary(options);
+            try {
+                manifestPath = snapshotStore.snapshot(Paths.get(haloProperties.getWorkDir()),
+                    options);
+            } finally {
+                if (dbClosed) {
+                    reopenH2Database();
+                }
+            }
+            return buildBackupDto(BACKUP_RESOURCE_BASE_URI, manifestPath);
+        } catch (IOException e) {
+            throw new ServiceException("Failed to take snapshot of halo", e);
+        }
+    }
+
+    @Override
+    public Path restoreWorkDirSnapshot(String fileName) {
+        Assert.hasText(fileName, "File name must not be blank");
+
+        Path backupRootPath = Paths.get(haloProperties.getBackupDir());
+        Path manifestPath = backupRootPath.resolve(fileName);
+        checkDirectoryTraversal(backupRootPath, manifestPath);
+        if (!snapshotStore.isManifest(manifestPath) || Files.notExists(manifestPath)) {
+            throw new NotFoundException("快照 " + fileName + " 不存在或已删除！")
+                .setErrorData(fileName);
+        }
+
+        Path restorePath = backupRootPath.resolve(SNAPSHOT_RESTORE_SUB_DIR)
+            .resolve(StringUtils.removeEnd(fileName, ".json"));
+        try {
+            run.halo.app.utils.FileUtils.deleteFolderQuietly(restorePath);
+            snapshotStore.restore(manifestPath, restorePath);
+            return restorePath;
+        } catch (IOException e) {
+            throw new ServiceException("Failed to restore snapshot " + fileName, e);
+        }
+    }
+
     @Override
     public List<BackupDTO> listWorkDirBackups() {
         // Ensure the parent folder exist
@@ -354,6 +441,10 @@ public class BackupServiceImpl implements BackupService {
         try {
             // Delete backup file
             Files.delete(backupPath);
+            // Delete chunks of files which were only in the deleted snapshot
+            if (snapshotStore.isManifest(backupPath)) {
+                snapshotStore.deleteUnreferencedChunks();
+            }
         } catch (NoSuchFileException e) {
             throw new NotFoundException("The file " + fileName + " was not found", e);
         } catch (IOException e) {
@@ -398,33 +489,7 @@ public class BackupServiceImpl implements BackupService {
 
     @Override
     public BackupDTO exportData() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("version", HaloConst.HALO_VERSION);
-        data.put("export_date", DateUtils.now());
-        data.put("attachments", attachmentService.listAll());
-        data.put("categories", categoryService.listAll());
-        data.put("comment_black_list", commentBlackListService.listAll());
-        data.put("journals", journalService.listAll());
-        data.put("journal_comments", journalCommentService.listAll());
-        data.put("links", linkService.listAll());
-        data.put("logs", logService.listAll());
-        data.put("menus", menuService.listAll());
-        data.put("options", optionService.listAll());
-        data.put("photos", photoService.listAll());
-        data.put("posts", postService.listAll());
-        data.put("contents", contentService.listAll());
-        data.put("content_patch_logs", contentPatchLogService.listAll());
-        data.put("post_categories", postCategoryService.listAll());
-        data.put("post_comments", postCommentService.listAll());
-        data.put("post_metas", postMetaService.listAll());
-        data.put("post_tags", postTagService.listAll());
-        data.put("sheets", sheetService.listAll());
-        data.put("sheet_comments", sheetCommentService.listAll());
-        data.put("sheet_metas", sheetMetaService.listAll());
-        data.put("tags", tagService.listAll());
-        data.put("theme_settings", themeSettingService.listAll());
-        data.put("user", userService.listAll());
-
+        Path haloDataPath = null;
         try {
             String haloDataFileName = HALO_DATA_EXPORT_PREFIX
                 + DateTimeUtils.format(LocalDateTime.now(), HORIZONTAL_LINE_DATETIME_FORMATTER)
@@ -434,11 +499,26 @@ public class BackupServiceImpl implements BackupService {
             if (!Files.exists(haloDataFilePath.getParent())) {
                 Files.createDirectories(haloDataFilePath.getParent());
             }
-            Path haloDataPath = Files.createFile(haloDataFilePath);
-
-            FileUtils.writeStringToFile(haloDataPath.toFile(), JsonUtils.objectToJson(data));
+            haloDataPath = Files.createFile(haloDataFilePath);
+
+            try (OutputStream os = Files.newOutputStream(haloDataPath);
+                 JsonGenerator generator = JsonUtils.DEFAULT_JSON_MAPPER.getFactory()
+                     .createGenerator(os, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                // Write version first for checking it before importing any data
+                generator.writeStringField("version", HaloConst.HALO_VERSION);
+                generator.writeObjectField("export_date", DateUtils.now());
+                for (int i = 0; i < dataTables.size(); i++) {
+                    DataTable<?, ?> dataTable = dataTables.get(i);
+                    long count = exportTable(generator, dataTable);
+                    log.info("Exported [{}] rows of [{}], [{}/{}] tables done", count,
+                        dataTable.name, i + 1, dataTables.size());
+                }
+                generator.writeEndObject();
+            }
             return buildBackupDto(DATA_EXPORT_BASE_URI, haloDataPath);
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(haloDataPath);
             throw new ServiceException("导出数据失败", e);
         }
     }
@@ -486,124 +566,124 @@ public class BackupServiceImpl implements BackupService {
 
     @Override
     public void importData(MultipartFile file) throws IOException {
-        String jsonContent = FileUtils.readString(file.getInputStream());
-
-        ObjectMapper mapper = JsonUtils.createDefaultJsonMapper();
-        TypeReference<HashMap<String, Object>> typeRef =
-            new TypeReference<>() {
-            };
-        HashMap<String, Object> data = mapper.readValue(jsonContent, typeRef);
-
-        String version = (String) Objects.requireNonNullElse(data.get("version"), "");
+        String version = readVersion(file);
         if (!VersionUtil.hasSameMajorAndMinorVersion(HaloConst.HALO_VERSION, version)) {
             throw new BadRequestException("导入数据的主次版本号与当前系统版本号不匹配，不支持导入！");
         }
 
-        List<Attachment> attachments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("attachments")), Attachment[].class));
-        attachmentService.createInBatch(attachments);
-
-        List<Category> categories = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("categories")), Category[].class));
-        categoryService.createInBatch(categories);
-
-        List<Tag> tags = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("tags")), Tag[].class));
-        tagService.createInBatch(tags);
-
-        List<CommentBlackList> commentBlackList = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("comment_black_list")),
-                CommentBlackList[].class));
-        commentBlackListService.createInBatch(commentBlackList);
-
-        List<Journal> journals = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("journals")), Journal[].class));
-        journalService.createInBatch(journals);
-
-        List<JournalComment> journalComments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("journal_comments")),
-                JournalComment[].class));
-        journalCommentService.createInBatch(journalComments);
-
-        List<Link> links = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("links")), Link[].class));
-        linkService.createInBatch(links);
-
-        List<Log> logs = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("logs")), Log[].class));
-        logService.createInBatch(logs);
-
-        List<Menu> menus = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("menus")), Menu[].class));
-        menuService.createInBatch(menus);
-
-        List<Option> options = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("options")), Option[].class));
-        optionService.createInBatch(options);
+        Map<String, DataTable<?, ?>> dataTableMap = dataTables.stream()
+            .collect(Collectors.toMap(dataTable -> dataTable.name, Function.identity()));
+        try (InputStream is = file.getInputStream();
+             JsonParser parser = JsonUtils.DEFAULT_JSON_MAPPER.getFactory().createParser(is)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                DataTable<?, ?> dataTable = dataTableMap.get(parser.getCurrentName());
+                if (parser.nextToken() != JsonToken.START_ARRAY || dataTable == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                long count = importTable(parser, dataTable);
+                log.info("Imported [{}] rows of [{}]", count, dataTable.name);
+            }
+        }
 
         eventPublisher.publishEvent(new OptionUpdatedEvent(this));
+        eventPublisher.publishEvent(new ThemeUpdatedEvent(this));
+        archiveService.refresh();
+        postCounter.refresh();
+    }
 
-        List<Photo> photos = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("photos")), Photo[].class));
-        photoService.createInBatch(photos);
-
-        List<Post> posts = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("posts")), Post[].class));
-        postService.createInBatch(posts);
-
-        List<Content> contents = Arrays
-            .asList(
-                mapper.readValue(mapper.writeValueAsString(data.get("contents")), Content[].class));
-        contentService.createInBatch(contents);
-
-        List<ContentPatchLog> contentPatchLogs = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("content_patch_logs")),
-                ContentPatchLog[].class));
-        contentPatchLogService.createInBatch(contentPatchLogs);
-
-        List<PostCategory> postCategories = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("post_categories")),
-                PostCategory[].class));
-        postCategoryService.createInBatch(postCategories);
-
-        List<PostComment> postComments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("post_comments")), PostComment[].class));
-        postCommentService.createInBatch(postComments);
-
-        List<PostMeta> postMetas = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("post_metas")), PostMeta[].class));
-        postMetaService.createInBatch(postMetas);
-
-        List<PostTag> postTags = Arrays.asList(
-            mapper.readValue(mapper.writeValueAsString(data.get("post_tags")), PostTag[].class));
-        postTagService.createInBatch(postTags);
-
-        List<Sheet> sheets = Arrays
-            .asList(mapper.readValue(mapper.writeValueAsString(data.get("sheets")), Sheet[].class));
-        sheetService.createInBatch(sheets);
-
-        List<SheetComment> sheetComments = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("sheet_comments")),
-                SheetComment[].class));
-        sheetCommentService.createInBatch(sheetComments);
-
-        List<SheetMeta> sheetMetas = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("sheet_metas")), SheetMeta[].class));
-        sheetMetaService.createInBatch(sheetMetas);
-
-        List<ThemeSetting> themeSettings = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("theme_settings")),
-                ThemeSetting[].class));
-        themeSettingService.createInBatch(themeSettings);
+    /**
+     * Reads version of exported data, which is the first field of data exported since streaming
+     * export, or anywhere in data exported before.
+     */
+    @NonNull
+    private String readVersion(MultipartFile file) throws IOException {
+        try (InputStream is = file.getInputStream();
+             JsonParser parser = JsonUtils.DEFAULT_JSON_MAPPER.getFactory().createParser(is)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new BadRequestException("导入数据的格式不正确");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("version".equals(fieldName)) {
+                    return parser.getValueAsString("");
+                }
+                parser.skipChildren();
+            }
+        }
+        return "";
+    }
 
-        eventPublisher.publishEvent(new ThemeUpdatedEvent(this));
+    /**
+     * Writes all rows of a table as an array field, reading rows page by page.
+     *
+     * @return count of rows
+     */
+    private <D, I> long exportTable(JsonGenerator generator, DataTable<D, I> dataTable)
+        throws IOException {
+        generator.writeArrayFieldStart(dataTable.name);
+        long count = 0;
+        I lastId = null;
+        List<D> domains;
+        do {
+            domains = dataTable.service.listAllAfter(lastId, DATA_BATCH_SIZE);
+            for (D domain : domains) {
+                generator.writeObject(domain);
+            }
+            if (!domains.isEmpty()) {
+                lastId = dataTable.idGetter.apply(domains.get(domains.size() - 1));
+                count += domains.size();
+            }
+            // Do not hold written rows in the buffer of generator
+            generator.flush();
+        } while (domains.size() == DATA_BATCH_SIZE);
+        generator.writeEndArray();
+        return count;
+    }
 
-        List<User> users = Arrays.asList(mapper
-            .readValue(mapper.writeValueAsString(data.get("user")),
-                User[].class));
+    /**
+     * Reads rows of a table from the current array and creates them batch by batch.
+     *
+     * @return count of imported rows
+     */
+    private <D, I> long importTable(JsonParser parser, DataTable<D, I> dataTable)
+        throws IOException {
+        long count = 0;
+        List<D> domains = new ArrayList<>(DATA_BATCH_SIZE);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new BadRequestException("导入数据的格式不正确");
+            }
+            if (count + domains.size() >= dataTable.maxRows) {
+                parser.skipChildren();
+                continue;
+            }
+            domains.add(JsonUtils.DEFAULT_JSON_MAPPER.readValue(parser, dataTable.type));
+            if (domains.size() == DATA_BATCH_SIZE) {
+                dataTable.importer.accept(domains);
+                count += domains.size();
+                log.debug("Imported [{}] rows of [{}]", count, dataTable.name);
+                domains = new ArrayList<>(DATA_BATCH_SIZE);
+            }
+        }
+        if (!domains.isEmpty()) {
+            dataTable.importer.accept(domains);
+            count += domains.size();
+        }
+        return count;
+    }
 
-        if (users.size() > 0) {
-            userService.create(users.get(0));
+    private void deleteQuietly(@Nullable Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete file: [{}]", path, e);
         }
     }
 
@@ -721,6 +801,44 @@ public class BackupServiceImpl implements BackupService {
         }
     }
 
+    /**
+     * Closes H2 database on Windows if it is going to be backed up, because Windows does not
+     * allow reading a file which is opened by another.
+     *
+     * @return true if closed; false otherwise
+     */
+    private boolean closeH2DatabaseIfNecessary(List<String> options) {
+        if (!options.contains("db") || !SystemUtils.IS_OS_WINDOWS) {
+            return false;
+        }
+        try {
+            HikariDataSource dataSource = appContext.getBean(HikariDataSource.class);
+            if (!dataSource.getDriverClassName().equals("org.h2.Driver")) {
+                return false;
+            }
+            try {
+                Field poolField = HikariDataSource.class.getDeclaredField("pool");
+                HikariPool pool = (HikariPool) ReflectionUtil.getFieldValue(poolField, dataSource);
+                pool.shutdown();
+                return true;
+            } catch (InterruptedException | NoSuchFieldException e) {
+                throw new ServiceException("Failed to close H2 database", e);
+            }
+        } catch (NoSuchBeanDefinitionException e) {
+            throw new ServiceException("Bean HikariDataSource doesn't exists");
+        }
+    }
+
+    private void reopenH2Database() {
+        try {
+            Field poolField = HikariDataSource.class.getDeclaredField("pool");
+            HikariDataSource dataSource = appContext.getBean(HikariDataSource.class);
+            ReflectionUtil.setFieldValue(poolField, dataSource, new HikariPool(dataSource));
+        } catch (NoSuchFieldException e) {
+            throw new ServiceException("Failed to reopen H2 database", e);
+        }
+    }
+
     /**
      * Builds backup dto.
      *
@@ -769,4 +887,40 @@ public class BackupServiceImpl implements BackupService {
             + "=" + oneTimeToken;
     }
 
+
+    /**
+     * Table of exported data.
+     *
+     * @param <D> domain type
+     * @param <I> id type
+     */
+    private static final class DataTable<D, I> {
+
+        private final String name;
+
+        private final Class<D> type;
+
+        private final CrudService<D, I> service;
+
+        private final Function<D, I> idGetter;
+
+        private final Consumer<List<D>> importer;
+
+        private final long maxRows;
+
+        private DataTable(String name, Class<D> type, CrudService<D, I> service,
+            Function<D, I> idGetter) {
+            this(name, type, service, idGetter, service::createInBatch, Long.MAX_VALUE);
+        }
+
+        private DataTable(String name, Class<D> type, CrudService<D, I> service,
+            Function<D, I> idGetter, Consumer<List<D>> importer, long maxRows) {
+            this.name = name;
+            this.type = type;
+            this.service = service;
+            this.idGetter = idGetter;
+            this.importer = importer;
+            this.maxRows = maxRows;
+        }
+    }
 }
@@ -20,6 +20,7 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -42,6 +43,8 @@ import run.halo.app.model.projection.CommentChildrenCountProjection;
 import run.halo.app.model.projection.CommentCountProjection;
 import run.halo.app.model.properties.BlogProperties;
 import run.halo.app.model.properties.CommentProperties;
+import run.halo.app.model.support.CommentCursorPage;
+import run.halo.app.model.support.CommentPage;
 import run.halo.app.model.vo.BaseCommentVO;
 import run.halo.app.model.vo.BaseCommentWithParentVO;
 import run.halo.app.model.vo.CommentWithHasChildrenVO;
@@ -69,6 +72,11 @@ import run.halo.app.utils.ValidationUtils;
 public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
     extends AbstractCrudService<COMMENT, Long> implements BaseCommentService<COMMENT> {
 
+    /**
+     * Maximum depth of comment trees loaded along with top comments.
+     */
+    private static final int MAX_TREE_DEPTH = 8;
+
     protected final OptionService optionService;
     protected final UserService userService;
     protected final ApplicationEventPublisher eventPublisher;
@@ -137,10 +145,12 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
 
         log.debug("Getting comment tree view of post: [{}], page info: [{}]", postId, pageable);
 
-        // List all the top comments (Caution: This list will be cleared)
-        List<COMMENT> comments = baseCommentRepository.findAllByPostId(postId);
+        Pageable topPageable = buildTopPageable(pageable);
+        Page<COMMENT> topCommentPage =
+            baseCommentRepository.findAllByPostIdAndParentId(postId, 0L, topPageable);
 
-        return commentAssembler.pageVosBy(comments, pageable);
+        return buildVoPage(topCommentPage, null, topPageable.getSort(),
+            baseCommentRepository.countByPostId(postId));
     }
 
     @Override
@@ -151,11 +161,96 @@ public abstract class BaseCommentServiceImpl<COMMENT extends BaseComment>
 
         log.debug("Getting comment tree view of post: [{}], page info: [{}]", postId, pageable);
 
-        // List all the top comments (Caution: This list will be cleared)
-        List<COMMENT> comments =
-            baseCommentRepository.findAllByPostIdAndStatus(postId, CommentStatus.PUBLISHED);
+        Pageable topPageable = buildTopPageable(pageable);
+        Page<COMMENT> topCommentPage = baseCommentRepository
+            .findAllByPostIdAndStatusAndParentId(postId, CommentStatus.PUBLISHED, 0L, topPageable);
+
+        return buildVoPage(topCommentPage, CommentStatus.PUBLISHED, topPageable.getSort(),
+            baseCommentRepository.countByStatusAndPostId(CommentStatus.PUBLISHED, postId));
+    }
+
+    @Override
+    @NonNull
+    public CommentCursorPage<BaseCommentVO> listVosBy(@NonNull Integer postId,
+        @Nullable Long cursor, int size) {
+        Assert.notNull(postId, "Post id must not be null");
+        Assert.isTrue(size > 0, "Size must be positive");
+
+        // Fetch one more top comment to find out whether there is a next page
+        List<COMMENT> topComments = baseCommentRepository
+            .findAllByPostIdAndStatusAndParentIdAndIdLessThan(postId, CommentStatus.PUBLISHED, 0L,
+                cursor == null ? Long.MAX_VALUE : cursor,
+                PageRequest.of(0, size + 1, Sort.by(DESC, "id")));
+
+        Long nextCursor = null;
+        if (topComments.size() > size) {
+            topComments = topComments.subList(0, size);
+            nextCursor = topComments.get(size - 1).getId();
+        }
+
+        List<BaseCommentVO> content =
+            convertToVoTrees(topComments, CommentStatus.PUBLISHED, Sort.by(DESC, "id"));
+
+        return new CommentCursorPage<>(content, nextCursor,
+            baseCommentRepository.countByStatusAndPostId(CommentStatus.PUBLISHED, postId));
+    }
+
+    @NonNull
+    private Pageable buildTopPageable(@NonNull Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            pageable.getSortOr(Sort.by(DESC, "createTime")));
+    }
+
+    @NonNull
+    private Page<BaseCommentVO> buildVoPage(@NonNull Page<COMMENT> topCommentPage,
+        @Nullable CommentStatus status, @NonNull Sort sort, long commentCount) {
+        List<BaseCommentVO> content =
+            convertToVoTrees(topCommentPage.getContent(), status, sort);
+
+        return new CommentPage<>(content, topCommentPage.getPageable(),
+            topCommentPage.getTotalElements(), commentCount);
+    }
+
+    /**
+     * Converts top comments to comment vo trees, loading their descendants level by level up to
+     * {@link #MAX_TREE_DEPTH}. Deeper comments are only counted and can be listed by their
+     * parents.
+     *
+     * @param topComments top comments must not be null
+     * @param status comment status, null for all status
+     * @param sort sort info of children must not be null
+     * @return a list of comment vo tree
+     */
+    @NonNull
+    private List<BaseCommentVO> convertToVoTrees(@NonNull List<COMMENT> topComments,
+        @Nullable CommentStatus status, @NonNull Sort sort) {
+        if (topComments.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<COMMENT> descendants = new ArrayList<>();
+        Map<Long, Long> childrenCountMap = Collections.emptyMap();
+
+        Set<Long> parentIds = ServiceUtils.fetchProperty(topComments, BaseComment::getId);
+        for (int depth = 1; !parentIds.isEmpty(); depth++) {
+            if (depth > MAX_TREE_DEPTH) {
+                List<CommentChildrenCountProjection> directChildrenCount = status == null
+                    ? baseCommentRepository.findDirectChildrenCount(parentIds)
+                    : baseCommentRepository.findDirectChildrenCount(parentIds, status);
+                childrenCountMap = ServiceUtils.convertToMap(directChildrenCount,
+                    CommentChildrenCountProjection::getCommentId,
+                    CommentChildrenCountProjection::getDirectChildrenCount);
+                break;
+            }
+
+            List<COMMENT> children = status == null
+                ? baseCommentRepository.findAllByParentIdIn(parentIds)
+                : baseCommentRepository.findAllByStatusAndParentIdIn(status, parentIds);
+            descendants.addAll(children);
+            parentIds = ServiceUtils.fetchProperty(children, BaseComment::getId);
+        }
 
-        return commentAssembler.pageVosBy(comments, pageable);
+        return commentAssembler.convertToVo(topComments, descendants, childrenCountMap, sort);
     }
 
     @Override
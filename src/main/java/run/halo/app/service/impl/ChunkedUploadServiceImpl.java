@@ -0,0 +1,486 @@
+package run.halo.app.service.impl;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.BadRequestException;
+import run.halo.app.exception.FileOperationException;
+import run.halo.app.exception.NotFoundException;
+import run.halo.app.exception.ServiceException;
+import run.halo.app.handler.file.FileHandler;
+import run.halo.app.handler.file.FileHandlers;
+import run.halo.app.handler.file.MultipartUploadHandler;
+import run.halo.app.handler.file.PathMultipartFile;
+import run.halo.app.model.dto.ChunkedUploadDTO;
+import run.halo.app.model.entity.Attachment;
+import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.params.ChunkedUploadParam;
+import run.halo.app.model.properties.AttachmentProperties;
+import run.halo.app.model.support.ChunkedUpload;
+import run.halo.app.model.support.MultipartUpload;
+import run.halo.app.model.support.UploadResult;
+import run.halo.app.service.AttachmentService;
+import run.halo.app.service.ChunkedUploadService;
+import run.halo.app.service.OptionService;
+import run.halo.app.utils.FilenameUtils;
+import run.halo.app.utils.HaloUtils;
+import run.halo.app.utils.ImageUtils;
+
+/**
+ * ChunkedUploadService implementation.
+ *
+ * <p>Uploads and their parts are tracked in the cache store until they expire. Parts are sent to
+ * the storage as soon as they arrive if its handler supports multipart uploads, otherwise they
+ * are written at their offsets of a staging file in the work directory, which is moved to the
+ * storage when completed.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final String CACHE_KEY_PREFIX = "chunked_upload:";
+
+    /**
+     * Max part count, which is the limit of object storages.
+     */
+    private static final int MAX_PART_COUNT = 10000;
+
+    /**
+     * Size of the head of an image for reading its dimension.
+     */
+    private static final int IMAGE_HEAD_SIZE = 256 * 1024;
+
+    /**
+     * Size of the buffer writing parts into staging files.
+     */
+    private static final int STAGING_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Period of cleaning expired staging files. (ms)
+     */
+    private static final long CLEAN_PERIOD = 60 * 60 * 1000;
+
+    private static final String STAGING_DIR = ".chunked_uploads";
+
+    private final AbstractStringCacheStore cacheStore;
+
+    private final FileHandlers fileHandlers;
+
+    private final AttachmentService attachmentService;
+
+    private final OptionService optionService;
+
+    private final HaloProperties haloProperties;
+
+    private final Path stagingDir;
+
+    public ChunkedUploadServiceImpl(AbstractStringCacheStore cacheStore,
+        FileHandlers fileHandlers,
+        AttachmentService attachmentService,
+        OptionService optionService,
+        HaloProperties haloProperties) {
+        this.cacheStore = cacheStore;
+        this.fileHandlers = fileHandlers;
+        this.attachmentService = attachmentService;
+        this.optionService = optionService;
+        this.haloProperties = haloProperties;
+        this.stagingDir = Paths.get(haloProperties.getWorkDir(), STAGING_DIR);
+    }
+
+    @Override
+    public ChunkedUploadDTO initiate(ChunkedUploadParam uploadParam) {
+        Assert.notNull(uploadParam, "Chunked upload param must not be null");
+
+        String filename = uploadParam.getFilename();
+        MediaType mediaType = resolveMediaType(filename, uploadParam.getMediaType());
+        long size = uploadParam.getSize();
+        long partSize = Math.max(haloProperties.getChunkedUploadPartSize().toBytes(),
+            (size + MAX_PART_COUNT - 1) / MAX_PART_COUNT);
+
+        ChunkedUpload upload = new ChunkedUpload();
+        upload.setUploadId(HaloUtils.randomUUIDWithoutDash());
+        upload.setFilename(filename);
+        upload.setMediaType(mediaType.toString());
+        upload.setSize(size);
+        upload.setPartSize(partSize);
+        upload.setPartCount((int) ((size + partSize - 1) / partSize));
+        upload.setAttachmentType(getAttachmentType());
+
+        fileHandlers.getMultipartUploadHandler(upload.getAttachmentType()).ifPresentOrElse(
+            handler -> upload.setMultipartUpload(handler.initiate(filename, mediaType)),
+            () -> createStagingFile(upload));
+
+        save(upload);
+        log.info("Initiated chunked upload: [{}]", upload);
+        return convertToDto(upload, List.of());
+    }
+
+    @Override
+    public ChunkedUploadDTO getBy(String uploadId) {
+        ChunkedUpload upload = getUpload(uploadId);
+        List<String> partKeys = buildPartKeys(upload);
+        Map<String, String> etags = cacheStore.getAll(partKeys);
+
+        List<Integer> uploadedParts = IntStream.rangeClosed(1, upload.getPartCount())
+            .filter(partNumber -> etags.containsKey(partKeys.get(partNumber - 1)))
+            .boxed()
+            .collect(Collectors.toList());
+        return convertToDto(upload, uploadedParts);
+    }
+
+    @Override
+    public void uploadPart(String uploadId, int partNumber, String checksum,
+        InputStream content) {
+        Assert.hasText(checksum, "Part checksum must not be blank");
+        Assert.notNull(content, "Part content must not be null");
+
+        ChunkedUpload upload = getUpload(uploadId);
+        if (partNumber < 1 || partNumber > upload.getPartCount()) {
+            throw new BadRequestException("分片序号 " + partNumber + " 超出范围")
+                .setErrorData(partNumber);
+        }
+
+        long partSize = getPartSize(upload, partNumber);
+        MessageDigest messageDigest = createMessageDigest();
+        CountingInputStream countingStream =
+            new CountingInputStream(ByteStreams.limit(content, partSize));
+        InputStream partContent = new DigestInputStream(countingStream, messageDigest);
+
+        String etag;
+        try {
+            MultipartUpload multipartUpload = upload.getMultipartUpload();
+            if (multipartUpload != null) {
+                if (partNumber == 1 && isImage(upload)) {
+                    partContent = readImageDimension(upload, partContent);
+                }
+                etag = getMultipartUploadHandler(upload)
+                    .uploadPart(multipartUpload, partNumber, partContent, partSize);
+            } else {
+                writeStagedPart(uploadId, (partNumber - 1) * upload.getPartSize(), partContent,
+                    partSize);
+                etag = null;
+            }
+
+            if (countingStream.getCount() != partSize || content.read() != -1) {
+                throw new BadRequestException("分片 " + partNumber + " 的大小应为 " + partSize)
+                    .setErrorData(partNumber);
+            }
+        } catch (IOException e) {
+            throw new FileOperationException("分片 " + partNumber + " 上传失败", e)
+                .setErrorData(partNumber);
+        }
+
+        // A mismatched part is not recorded, and will be replaced when uploaded again
+        String actualChecksum = BaseEncoding.base16().lowerCase().encode(messageDigest.digest());
+        if (!actualChecksum.equalsIgnoreCase(checksum.trim())) {
+            throw new BadRequestException("分片 " + partNumber + " 校验失败，请重新上传")
+                .setErrorData(partNumber);
+        }
+
+        cacheStore.put(buildPartKey(uploadId, partNumber),
+            etag == null ? actualChecksum : etag,
+            haloProperties.getChunkedUploadTtl().toMillis(), TimeUnit.MILLISECONDS);
+        log.debug("Uploaded part: [{}] of chunked upload: [{}]", partNumber, uploadId);
+    }
+
+    @Override
+    public Attachment complete(String uploadId) {
+        ChunkedUpload upload = getUpload(uploadId);
+        List<String> partKeys = buildPartKeys(upload);
+        Map<String, String> etags = cacheStore.getAll(partKeys);
+        if (etags.size() < partKeys.size()) {
+            List<Integer> missingParts = IntStream.rangeClosed(1, upload.getPartCount())
+                .filter(partNumber -> !etags.containsKey(partKeys.get(partNumber - 1)))
+                .boxed()
+                .collect(Collectors.toList());
+            throw new BadRequestException("还有 " + missingParts.size() + " 个分片未上传")
+                .setErrorData(missingParts);
+        }
+
+        UploadResult uploadResult;
+        MultipartUpload multipartUpload = upload.getMultipartUpload();
+        if (multipartUpload != null) {
+            getMultipartUploadHandler(upload).complete(multipartUpload,
+                partKeys.stream().map(etags::get).collect(Collectors.toList()));
+            uploadResult = buildUploadResult(upload, multipartUpload);
+        } else {
+            uploadResult = uploadStagingFile(upload);
+        }
+
+        Attachment attachment = attachmentService.createBy(uploadResult,
+            upload.getAttachmentType());
+
+        List<String> keys = new ArrayList<>(partKeys);
+        keys.add(buildUploadKey(uploadId));
+        cacheStore.deleteAll(keys);
+        log.info("Completed chunked upload: [{}] as attachment: [{}]", uploadId,
+            attachment.getId());
+        return attachment;
+    }
+
+    @Override
+    public void abort(String uploadId) {
+        ChunkedUpload upload = getUpload(uploadId);
+        if (upload.getMultipartUpload() != null) {
+            getMultipartUploadHandler(upload).abort(upload.getMultipartUpload());
+        } else {
+            try {
+                Files.deleteIfExists(buildStagingPath(uploadId));
+            } catch (IOException e) {
+                throw new FileOperationException("删除分片上传 " + uploadId + " 的暂存文件失败", e);
+            }
+        }
+
+        List<String> keys = new ArrayList<>(buildPartKeys(upload));
+        keys.add(buildUploadKey(uploadId));
+        cacheStore.deleteAll(keys);
+        log.info("Aborted chunked upload: [{}]", uploadId);
+    }
+
+    /**
+     * Deletes staging files of expired uploads.
+     *
+     * <p>Expired multipart uploads in object storages are left to their lifecycle rules.
+     */
+    @Scheduled(fixedDelay = CLEAN_PERIOD, initialDelay = CLEAN_PERIOD)
+    public void cleanExpiredStagingFiles() {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant expiredBefore = Instant.now().minus(haloProperties.getChunkedUploadTtl());
+        try (DirectoryStream<Path> stagingFiles = Files.newDirectoryStream(stagingDir)) {
+            for (Path stagingFile : stagingFiles) {
+                if (Files.getLastModifiedTime(stagingFile).toInstant().isBefore(expiredBefore)) {
+                    Files.deleteIfExists(stagingFile);
+                    log.info("Deleted staging file of expired chunked upload: [{}]",
+                        stagingFile);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean staging files of chunked uploads", e);
+        }
+    }
+
+    @NonNull
+    private ChunkedUpload getUpload(String uploadId) {
+        Assert.hasText(uploadId, "Upload id must not be blank");
+
+        return cacheStore.getAny(buildUploadKey(uploadId), ChunkedUpload.class)
+            .orElseThrow(() -> new NotFoundException("分片上传不存在或已过期")
+                .setErrorData(uploadId));
+    }
+
+    private void save(ChunkedUpload upload) {
+        cacheStore.putAny(buildUploadKey(upload.getUploadId()), upload,
+            haloProperties.getChunkedUploadTtl().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads dimension of an image from the head of its first part, then returns the whole part.
+     */
+    private InputStream readImageDimension(ChunkedUpload upload, InputStream partContent)
+        throws IOException {
+        byte[] head = ByteStreams.toByteArray(ByteStreams.limit(partContent, IMAGE_HEAD_SIZE));
+        try {
+            Dimension dimension = ImageUtils.getImageDimension(new ByteArrayInputStream(head),
+                FilenameUtils.getExtension(upload.getFilename()));
+            upload.setWidth(dimension.width);
+            upload.setHeight(dimension.height);
+            save(upload);
+        } catch (IOException | RuntimeException e) {
+            // The dimension may be unknown, which does not fail the upload
+            log.warn("Failed to read dimension of image: [{}]", upload.getFilename(), e);
+        }
+        return new SequenceInputStream(new ByteArrayInputStream(head), partContent);
+    }
+
+    private void createStagingFile(ChunkedUpload upload) {
+        try {
+            Files.createDirectories(stagingDir);
+            Path stagingPath = Files.createFile(buildStagingPath(upload.getUploadId()));
+            // Preallocate the file, so that parts can be written at any position in any order
+            try (RandomAccessFile stagingFile = new RandomAccessFile(stagingPath.toFile(), "rw")) {
+                stagingFile.setLength(upload.getSize());
+            }
+        } catch (IOException e) {
+            throw new FileOperationException("创建分片上传的暂存文件失败", e)
+                .setErrorData(upload.getUploadId());
+        }
+    }
+
+    private void writeStagedPart(String uploadId, long position, InputStream partContent,
+        long partSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(buildStagingPath(uploadId),
+            StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(STAGING_BUFFER_SIZE);
+            long written = 0;
+            while (written < partSize) {
+                int read = partContent.read(buffer.array(), 0,
+                    (int) Math.min(buffer.capacity(), partSize - written));
+                if (read < 0) {
+                    // A short part is rejected by the size check of the caller
+                    break;
+                }
+                buffer.limit(read);
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, position + written);
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    @NonNull
+    private UploadResult uploadStagingFile(ChunkedUpload upload) {
+        Path stagingPath = buildStagingPath(upload.getUploadId());
+        try {
+            if (Files.size(stagingPath) != upload.getSize()) {
+                throw new BadRequestException("文件 " + upload.getFilename() + " 的大小与分片不符")
+                    .setErrorData(upload.getUploadId());
+            }
+        } catch (IOException e) {
+            throw new FileOperationException("读取分片上传的暂存文件失败", e)
+                .setErrorData(upload.getUploadId());
+        }
+
+        // Local storage moves the staging file, and others read it
+        PathMultipartFile file =
+            new PathMultipartFile(stagingPath, upload.getFilename(), upload.getMediaType());
+        UploadResult uploadResult = fileHandlers.upload(file, upload.getAttachmentType());
+        if (stagingPath.equals(file.getPath())) {
+            try {
+                Files.deleteIfExists(stagingPath);
+            } catch (IOException e) {
+                log.warn("Failed to delete staging file: [{}]", stagingPath, e);
+            }
+        }
+        return uploadResult;
+    }
+
+    @NonNull
+    private UploadResult buildUploadResult(ChunkedUpload upload, MultipartUpload multipartUpload) {
+        UploadResult uploadResult = new UploadResult();
+        uploadResult.setFilename(multipartUpload.getFilename());
+        uploadResult.setFilePath(multipartUpload.getFilePath());
+        uploadResult.setKey(multipartUpload.getKey());
+        uploadResult.setSuffix(multipartUpload.getSuffix());
+        uploadResult.setMediaType(MediaType.valueOf(upload.getMediaType()));
+        uploadResult.setSize(upload.getSize());
+        uploadResult.setWidth(upload.getWidth());
+        uploadResult.setHeight(upload.getHeight());
+        uploadResult.setThumbPath(isImage(upload)
+            ? multipartUpload.getThumbPath() : multipartUpload.getFilePath());
+        return uploadResult;
+    }
+
+    @NonNull
+    private MultipartUploadHandler getMultipartUploadHandler(ChunkedUpload upload) {
+        return fileHandlers.getMultipartUploadHandler(upload.getAttachmentType())
+            .orElseThrow(() -> new ServiceException(
+                "附件类型 " + upload.getAttachmentType() + " 不支持分片上传"));
+    }
+
+    private long getPartSize(ChunkedUpload upload, int partNumber) {
+        return partNumber < upload.getPartCount() ? upload.getPartSize()
+            : upload.getSize() - (partNumber - 1) * upload.getPartSize();
+    }
+
+    private boolean isImage(ChunkedUpload upload) {
+        return FileHandler.IMAGE_TYPE.includes(MediaType.valueOf(upload.getMediaType()));
+    }
+
+    @NonNull
+    private MediaType resolveMediaType(String filename, String mediaType) {
+        if (StringUtils.isBlank(mediaType)) {
+            return MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        try {
+            return MediaType.valueOf(mediaType);
+        } catch (InvalidMediaTypeException e) {
+            throw new BadRequestException("不支持的文件类型：" + mediaType, e)
+                .setErrorData(mediaType);
+        }
+    }
+
+    @NonNull
+    private AttachmentType getAttachmentType() {
+        return Objects.requireNonNull(optionService
+            .getEnumByPropertyOrDefault(AttachmentProperties.ATTACHMENT_TYPE, AttachmentType.class,
+                AttachmentType.LOCAL));
+    }
+
+    @NonNull
+    private Path buildStagingPath(String uploadId) {
+        return stagingDir.resolve(uploadId);
+    }
+
+    @NonNull
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("MD5 is not supported", e);
+        }
+    }
+
+    @NonNull
+    private static String buildUploadKey(String uploadId) {
+        return CACHE_KEY_PREFIX + uploadId;
+    }
+
+    @NonNull
+    private static String buildPartKey(String uploadId, int partNumber) {
+        return buildUploadKey(uploadId) + ":part:" + partNumber;
+    }
+
+    @NonNull
+    private static List<String> buildPartKeys(ChunkedUpload upload) {
+        return IntStream.rangeClosed(1, upload.getPartCount())
+            .mapToObj(partNumber -> buildPartKey(upload.getUploadId(), partNumber))
+            .collect(Collectors.toList());
+    }
+
+    @NonNull
+    private static ChunkedUploadDTO convertToDto(ChunkedUpload upload,
+        List<Integer> uploadedParts) {
+        ChunkedUploadDTO uploadDto = new ChunkedUploadDTO().convertFrom(upload);
+        uploadDto.setUploadedParts(uploadedParts);
+        return uploadDto;
+    }
+}
@@ -1,15 +1,16 @@
 package run.halo.app.service.impl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import run.halo.app.cache.limit.RateLimiter;
 import run.halo.app.model.entity.CommentBlackList;
 import run.halo.app.model.enums.CommentViolationTypeEnum;
 import run.halo.app.model.properties.CommentProperties;
 import run.halo.app.repository.CommentBlackListRepository;
-import run.halo.app.repository.PostCommentRepository;
 import run.halo.app.service.CommentBlackListService;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.base.AbstractCrudService;
@@ -26,17 +27,19 @@ import run.halo.app.utils.DateTimeUtils;
 @Slf4j
 public class CommentBlackListServiceImpl extends AbstractCrudService<CommentBlackList, Long>
     implements CommentBlackListService {
+    private static final String COMMENT_RATE_LIMIT_PREFIX = "comment_ban:";
+
     private final CommentBlackListRepository commentBlackListRepository;
-    private final PostCommentRepository postCommentRepository;
     private final OptionService optionService;
+    private final RateLimiter rateLimiter;
 
 
     public CommentBlackListServiceImpl(CommentBlackListRepository commentBlackListRepository,
-        PostCommentRepository postCommentRepository, OptionService optionService) {
+        OptionService optionService, RateLimiter rateLimiter) {
         super(commentBlackListRepository);
         this.commentBlackListRepository = commentBlackListRepository;
-        this.postCommentRepository = postCommentRepository;
         this.optionService = optionService;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
@@ -48,21 +51,23 @@ public class CommentBlackListServiceImpl extends AbstractCrudService<CommentBlac
         3. 如果在时隔N分钟内，还有多次评论，可被认定为恶意攻击者；
         4. 对恶意攻击者进行N分钟的封禁；
         */
-        Optional<CommentBlackList> blackList =
-            commentBlackListRepository.findByIpAddress(ipAddress);
-        LocalDateTime now = LocalDateTime.now();
-        Date endTime = new Date(DateTimeUtils.toEpochMilli(now));
         Integer banTime = optionService
             .getByPropertyOrDefault(CommentProperties.COMMENT_BAN_TIME, Integer.class, 10);
-        Date startTime = new Date(DateTimeUtils.toEpochMilli(now.minusMinutes(banTime)));
         Integer range = optionService
             .getByPropertyOrDefault(CommentProperties.COMMENT_RANGE, Integer.class, 30);
-        boolean isPresent =
-            postCommentRepository.countByIpAndTime(ipAddress, startTime, endTime) >= range;
-        if (isPresent && blackList.isPresent()) {
+        // Comments in the window are counted by the rate limiter, database is only touched
+        // when recording a violation
+        if (rateLimiter.tryAcquire(COMMENT_RATE_LIMIT_PREFIX + ipAddress, range,
+            Duration.ofMinutes(banTime))) {
+            return CommentViolationTypeEnum.NORMAL;
+        }
+        Optional<CommentBlackList> blackList =
+            commentBlackListRepository.findByIpAddress(ipAddress);
+        LocalDateTime now = LocalDateTime.now();
+        if (blackList.isPresent()) {
             update(now, blackList.get(), banTime);
             return CommentViolationTypeEnum.FREQUENTLY;
-        } else if (isPresent) {
+        } else {
             CommentBlackList commentBlackList = CommentBlackList
                 .builder()
                 .banTime(getBanTime(now, banTime))
@@ -71,7 +76,6 @@ public class CommentBlackListServiceImpl extends AbstractCrudService<CommentBlac
             super.create(commentBlackList);
             return CommentViolationTypeEnum.FREQUENTLY;
         }
-        return CommentViolationTypeEnum.NORMAL;
     }
 
     private void update(LocalDateTime localDateTime, CommentBlackList blackList, Integer banTime) {
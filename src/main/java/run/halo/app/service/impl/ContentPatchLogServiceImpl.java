@@ -1,9 +1,16 @@
 package run.halo.app.service.impl;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,10 +42,33 @@ public class ContentPatchLogServiceImpl extends AbstractCrudService<ContentPatch
      */
     public static final int BASE_VERSION = 1;
 
+    /**
+     * Maximum number of versions between a diff and its snapshot.
+     */
+    private static final int SNAPSHOT_INTERVAL = 10;
+
+    /**
+     * A full snapshot is stored instead once diffs exceed this ratio of the content size.
+     */
+    private static final double SNAPSHOT_SIZE_RATIO = 0.5;
+
+    private static final int RESTORED_CONTENT_CACHE_SIZE = 128;
+
     private final ContentPatchLogRepository contentPatchLogRepository;
 
     private final ContentRepository contentRepository;
 
+    /**
+     * Least recently used contents restored from diffs, keyed by patch log id.
+     */
+    private final Map<Integer, RestoredContent> restoredContents =
+        Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RestoredContent> eldest) {
+                return size() > RESTORED_CONTENT_CACHE_SIZE;
+            }
+        });
+
     /**
      * Constructor of Content patch log service.
      *
@@ -110,14 +140,7 @@ public class ContentPatchLogServiceImpl extends AbstractCrudService<ContentPatch
     private ContentPatchLog buildPatchLog(Integer postId, Integer version, String formatContent,
         String originalContent) {
         ContentPatchLog contentPatchLog = new ContentPatchLog();
-        if (Objects.equals(version, BASE_VERSION)) {
-            contentPatchLog.setContentDiff(formatContent);
-            contentPatchLog.setOriginalContentDiff(originalContent);
-        } else {
-            ContentDiff contentDiff = generateDiff(postId, formatContent, originalContent);
-            contentPatchLog.setContentDiff(contentDiff.getDiff());
-            contentPatchLog.setOriginalContentDiff(contentDiff.getOriginalDiff());
-        }
+        writeContent(contentPatchLog, postId, version, formatContent, originalContent);
         contentPatchLog.setPostId(postId);
         contentPatchLog.setStatus(PostStatus.DRAFT);
         ContentPatchLog latestPatchLog =
@@ -158,22 +181,49 @@ public class ContentPatchLogServiceImpl extends AbstractCrudService<ContentPatch
         if (draftPatchLog == null) {
             throw new NotFoundException("The latest draft version must not be null to update.");
         }
-        // Is the draft version 1
-        if (Objects.equals(draftPatchLog.getVersion(), BASE_VERSION)) {
-            // If it is V1, modify the content directly.
-            draftPatchLog.setContentDiff(formatContent);
-            draftPatchLog.setOriginalContentDiff(originalContent);
-            contentPatchLogRepository.save(draftPatchLog);
-            return draftPatchLog;
-        }
-        // Generate content diff.
-        ContentDiff contentDiff = generateDiff(postId, formatContent, originalContent);
-        draftPatchLog.setContentDiff(contentDiff.getDiff());
-        draftPatchLog.setOriginalContentDiff(contentDiff.getOriginalDiff());
+        writeContent(draftPatchLog, postId, draftPatchLog.getVersion(), formatContent,
+            originalContent);
         contentPatchLogRepository.save(draftPatchLog);
         return draftPatchLog;
     }
 
+    /**
+     * Writes content of a patch log, either as diffs to the latest snapshot before it or as a
+     * full snapshot.
+     */
+    private void writeContent(ContentPatchLog patchLog, Integer postId, Integer version,
+        String formatContent, String originalContent) {
+        if (!Objects.equals(version, BASE_VERSION)) {
+            ContentPatchLog snapshot = findSnapshotBefore(postId, version);
+            if (version - snapshot.getVersion() < SNAPSHOT_INTERVAL) {
+                ContentDiff contentDiff = generateDiff(snapshot, formatContent, originalContent);
+                long diffLength = StringUtils.length(contentDiff.getDiff())
+                    + StringUtils.length(contentDiff.getOriginalDiff());
+                long contentLength =
+                    StringUtils.length(formatContent) + StringUtils.length(originalContent);
+                if (diffLength <= contentLength * SNAPSHOT_SIZE_RATIO) {
+                    patchLog.setContentDiff(contentDiff.getDiff());
+                    patchLog.setOriginalContentDiff(contentDiff.getOriginalDiff());
+                    patchLog.setBaseVersion(contentDiff.getBaseVersion());
+                    return;
+                }
+            }
+        }
+        // Rebase on a new full snapshot
+        patchLog.setContentDiff(formatContent);
+        patchLog.setOriginalContentDiff(originalContent);
+        patchLog.setBaseVersion(version);
+    }
+
+    private ContentPatchLog findSnapshotBefore(Integer postId, Integer version) {
+        return contentPatchLogRepository
+            .findSnapshotsBefore(postId, version, PageRequest.of(0, 1))
+            .stream()
+            .findFirst()
+            .orElseGet(() -> contentPatchLogRepository.findByPostIdAndVersion(postId,
+                BASE_VERSION));
+    }
+
     private ContentPatchLog findLatestDraftBy(Integer postId) {
         ContentPatchLog draftPatchLog =
             contentPatchLogRepository.findFirstByPostIdAndStatusOrderByVersionDesc(postId,
@@ -192,39 +242,42 @@ public class ContentPatchLogServiceImpl extends AbstractCrudService<ContentPatch
         Assert.notNull(patchLog.getVersion(), "The contentRecord.version must not be null.");
         Assert.notNull(patchLog.getPostId(), "The contentRecord.postId must not be null.");
 
-        PatchedContent patchedContent = new PatchedContent();
-        if (patchLog.getVersion() == BASE_VERSION) {
-            patchedContent.setContent(patchLog.getContentDiff());
-            patchedContent.setOriginalContent(patchLog.getOriginalContentDiff());
-            return patchedContent;
+        // Patch logs without base version are diffs of version 1
+        int baseVersion = Optional.ofNullable(patchLog.getBaseVersion()).orElse(BASE_VERSION);
+        if (patchLog.getVersion() == BASE_VERSION || patchLog.getVersion() == baseVersion) {
+            return new PatchedContent(patchLog.getContentDiff(),
+                patchLog.getOriginalContentDiff());
         }
 
-        ContentPatchLog baseContentRecord =
-            contentPatchLogRepository.findByPostIdAndVersion(patchLog.getPostId(), BASE_VERSION);
-
-        String content = PatchUtils.restoreContent(patchLog.getContentDiff(),
-            baseContentRecord.getContentDiff());
-        patchedContent.setContent(content);
-
-        String originalContent = PatchUtils.restoreContent(patchLog.getOriginalContentDiff(),
-            baseContentRecord.getOriginalContentDiff());
-        patchedContent.setOriginalContent(originalContent);
-        return patchedContent;
+        RestoredContent restoredContent =
+            patchLog.getId() == null ? null : restoredContents.get(patchLog.getId());
+        if (restoredContent == null || !restoredContent.isRestoredFrom(patchLog)) {
+            ContentPatchLog snapshot =
+                contentPatchLogRepository.findByPostIdAndVersion(patchLog.getPostId(),
+                    baseVersion);
+            restoredContent = new RestoredContent(patchLog, applyPatch(snapshot));
+            if (patchLog.getId() != null) {
+                restoredContents.put(patchLog.getId(), restoredContent);
+            }
+        }
+        return new PatchedContent(restoredContent.content, restoredContent.originalContent);
     }
 
     @Override
     public ContentDiff generateDiff(Integer postId, String formatContent, String originalContent) {
-        ContentPatchLog basePatchLog =
-            contentPatchLogRepository.findByPostIdAndVersion(postId, BASE_VERSION);
+        ContentPatchLog snapshot = findSnapshotBefore(postId, getVersionByPostId(postId));
+        return generateDiff(snapshot, formatContent, originalContent);
+    }
 
-        ContentDiff contentDiff = new ContentDiff();
-        String contentChanges =
-            PatchUtils.diffToJsonPatch(basePatchLog.getContentDiff(), formatContent);
-        contentDiff.setDiff(contentChanges);
+    private ContentDiff generateDiff(ContentPatchLog snapshot, String formatContent,
+        String originalContent) {
+        PatchedContent snapshotContent = applyPatch(snapshot);
 
-        String originalContentChanges =
-            PatchUtils.diffToJsonPatch(basePatchLog.getOriginalContentDiff(), originalContent);
-        contentDiff.setOriginalDiff(originalContentChanges);
+        ContentDiff contentDiff = new ContentDiff();
+        contentDiff.setDiff(PatchUtils.diffToDelta(snapshotContent.getContent(), formatContent));
+        contentDiff.setOriginalDiff(
+            PatchUtils.diffToDelta(snapshotContent.getOriginalContent(), originalContent));
+        contentDiff.setBaseVersion(snapshot.getVersion());
         return contentDiff;
     }
 
@@ -233,6 +286,18 @@ public class ContentPatchLogServiceImpl extends AbstractCrudService<ContentPatch
         return findLatestDraftBy(postId);
     }
 
+    @Override
+    @NonNull
+    public Set<Integer> listPostIdsHavingDraft(@NonNull Collection<Integer> postIds) {
+        Assert.notNull(postIds, "The postIds must not be null.");
+        if (postIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // Same statuses as findLatestDraftBy
+        return contentPatchLogRepository.findPostIdsByPostIdInAndStatusIn(postIds,
+            List.of(PostStatus.DRAFT, PostStatus.RECYCLE));
+    }
+
     @Override
     public PatchedContent getByPostId(Integer postId) {
         ContentPatchLog contentPatchLog =
@@ -263,6 +328,41 @@ public class ContentPatchLogServiceImpl extends AbstractCrudService<ContentPatch
     public List<ContentPatchLog> removeByPostId(Integer postId) {
         List<ContentPatchLog> patchLogsToDelete = contentPatchLogRepository.findAllByPostId(postId);
         contentPatchLogRepository.deleteAllInBatch(patchLogsToDelete);
+        patchLogsToDelete.forEach(patchLog -> restoredContents.remove(patchLog.getId()));
         return patchLogsToDelete;
     }
+
+    /**
+     * Content restored from the diffs of a patch log.
+     */
+    private static class RestoredContent {
+
+        private final String contentDiff;
+
+        private final String originalContentDiff;
+
+        private final Integer baseVersion;
+
+        private final String content;
+
+        private final String originalContent;
+
+        private RestoredContent(ContentPatchLog patchLog, PatchedContent snapshotContent) {
+            this.contentDiff = patchLog.getContentDiff();
+            this.originalContentDiff = patchLog.getOriginalContentDiff();
+            this.baseVersion = patchLog.getBaseVersion();
+            this.content = PatchUtils.restoreContent(contentDiff, snapshotContent.getContent());
+            this.originalContent = PatchUtils.restoreContent(originalContentDiff,
+                snapshotContent.getOriginalContent());
+        }
+
+        /**
+         * Drafts are updated in place, so the diffs are compared rather than trusting the id.
+         */
+        private boolean isRestoredFrom(ContentPatchLog patchLog) {
+            return Objects.equals(baseVersion, patchLog.getBaseVersion())
+                && Objects.equals(contentDiff, patchLog.getContentDiff())
+                && Objects.equals(originalContentDiff, patchLog.getOriginalContentDiff());
+        }
+    }
 }
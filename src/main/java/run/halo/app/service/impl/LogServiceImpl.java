@@ -1,8 +1,16 @@
 package run.halo.app.service.impl;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import run.halo.app.model.dto.LogDTO;
@@ -20,11 +28,24 @@ import run.halo.app.service.base.AbstractCrudService;
 @Service
 public class LogServiceImpl extends AbstractCrudService<Log, Long> implements LogService {
 
+    private static final String INSERT_SQL = "insert into logs"
+        + " (log_key, type, content, ip_address, create_time, update_time)"
+        + " values (?, ?, ?, ?, ?, ?)";
+
+    private static final int LOG_KEY_LENGTH = 1023;
+
+    private static final int CONTENT_LENGTH = 1023;
+
+    private static final int IP_ADDRESS_LENGTH = 127;
+
     private final LogRepository logRepository;
 
-    public LogServiceImpl(LogRepository logRepository) {
+    private final JdbcTemplate jdbcTemplate;
+
+    public LogServiceImpl(LogRepository logRepository, JdbcTemplate jdbcTemplate) {
         super(logRepository);
         this.logRepository = logRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -38,4 +59,45 @@ public class LogServiceImpl extends AbstractCrudService<Log, Long> implements Lo
         // List all
         return listAll(latestPageable).map(log -> new LogDTO().convertFrom(log));
     }
+
+    @Override
+    public void createInBatch(List<Log> logs) {
+        Assert.notNull(logs, "Logs must not be null");
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        // Ids are generated by the database, which prevents hibernate from batching inserts
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Log log = logs.get(i);
+                // Truncate values to the column lengths instead of failing the batch
+                ps.setString(1, StringUtils.truncate(log.getLogKey(), LOG_KEY_LENGTH));
+                ps.setInt(2, log.getType().getValue());
+                ps.setString(3, StringUtils.truncate(log.getContent(), CONTENT_LENGTH));
+                ps.setString(4, StringUtils.truncate(log.getIpAddress(), IP_ADDRESS_LENGTH));
+                ps.setTimestamp(5, new Timestamp(log.getCreateTime().getTime()));
+                ps.setTimestamp(6, new Timestamp(log.getUpdateTime().getTime()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+
+    @Override
+    public int deleteCreatedBefore(Date createTime, int limit) {
+        Assert.notNull(createTime, "Create time must not be null");
+        Assert.isTrue(limit > 0, "Limit must be positive");
+
+        List<Long> ids =
+            logRepository.findIdsByCreateTimeBefore(createTime, PageRequest.of(0, limit));
+        if (!ids.isEmpty()) {
+            logRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
 }
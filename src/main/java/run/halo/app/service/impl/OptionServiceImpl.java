@@ -1,5 +1,7 @@
 package run.halo.app.service.impl;
 
+import static run.halo.app.model.support.HaloConst.OPTIONS_VERSION_CACHE_KEY;
+
 import com.qiniu.storage.Region;
 import java.util.Collections;
 import java.util.HashMap;
@@ -8,19 +10,29 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.persistence.criteria.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import run.halo.app.cache.AbstractStringCacheStore;
@@ -41,6 +53,7 @@ import run.halo.app.model.properties.QiniuOssProperties;
 import run.halo.app.repository.OptionRepository;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.OptionSnapshot;
 import run.halo.app.utils.ServiceUtils;
 import run.halo.app.utils.ValidationUtils;
 
@@ -56,12 +69,21 @@ import run.halo.app.utils.ValidationUtils;
 public class OptionServiceImpl extends AbstractCrudService<Option, Integer>
     implements OptionService {
 
+    /**
+     * Period of checking whether options were updated by other nodes. (ms)
+     */
+    private static final long SNAPSHOT_SYNC_PERIOD = 5 * 1000;
+
     private final OptionRepository optionRepository;
     private final ApplicationContext applicationContext;
     private final AbstractStringCacheStore cacheStore;
     private final Map<String, PropertyEnum> propertyEnumMap;
     private final ApplicationEventPublisher eventPublisher;
 
+    private final AtomicReference<OptionSnapshot> snapshot = new AtomicReference<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
     public OptionServiceImpl(OptionRepository optionRepository,
         ApplicationContext applicationContext,
         AbstractStringCacheStore cacheStore,
@@ -174,45 +196,133 @@ public class OptionServiceImpl extends AbstractCrudService<Option, Integer>
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Map<String, Object> listOptions() {
-        // Get options from cache
-        return cacheStore.getAny(OPTIONS_KEY, Map.class).orElseGet(() -> {
-            List<Option> options = listAll();
+        return getSnapshot().getOptions();
+    }
 
-            Set<String> keys = ServiceUtils.fetchProperty(options, Option::getKey);
+    @Override
+    public Optional<Object> getByKey(String key) {
+        Assert.hasText(key, "Option key must not be blank");
 
-            Map<String, Object> userDefinedOptionMap =
-                ServiceUtils.convertToMap(options, Option::getKey, option -> {
-                    String key = option.getKey();
+        return getSnapshot().get(key);
+    }
 
-                    PropertyEnum propertyEnum = propertyEnumMap.get(key);
+    @Override
+    public <T> Optional<T> getByKey(String key, Class<T> valueType) {
+        Assert.hasText(key, "Option key must not be blank");
+        Assert.notNull(valueType, "Value type must not be null");
 
-                    if (propertyEnum == null) {
-                        return option.getValue();
-                    }
+        return getSnapshot().get(key, valueType);
+    }
+
+    @Override
+    public <T> Optional<T> getByProperty(PropertyEnum property, Class<T> propertyType) {
+        Assert.notNull(property, "Blog property must not be null");
 
-                    return PropertyEnum.convertTo(option.getValue(), propertyEnum);
+        return getByKey(property.getValue(), propertyType);
+    }
+
+    /**
+     * Invalidates the local option snapshot and publishes a new options version for other
+     * nodes sharing the same cache store.
+     *
+     * @param event option updated event
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onOptionUpdated(OptionUpdatedEvent event) {
+        cacheStore.put(OPTIONS_VERSION_CACHE_KEY, UUID.randomUUID().toString());
+        invalidateSnapshot();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Snapshots rebuilt by other threads before commit may contain stale options
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidateSnapshot();
+                    }
                 });
+        }
+    }
+
+    /**
+     * Invalidates the local option snapshot if options were updated by another node.
+     */
+    @Scheduled(fixedDelay = SNAPSHOT_SYNC_PERIOD)
+    public void syncSnapshot() {
+        OptionSnapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
 
-            Map<String, Object> result = new HashMap<>(userDefinedOptionMap);
+        String sharedVersion = cacheStore.get(OPTIONS_VERSION_CACHE_KEY).orElse(null);
+        if (!StringUtils.equals(current.getVersion(), sharedVersion)) {
+            log.debug("Options version changed from [{}] to [{}], invalidating option snapshot",
+                current.getVersion(), sharedVersion);
+            invalidateSnapshot();
+        }
+    }
 
-            // Add default property
-            propertyEnumMap.keySet()
-                .stream()
-                .filter(key -> !keys.contains(key))
-                .forEach(key -> {
-                    PropertyEnum propertyEnum = propertyEnumMap.get(key);
+    @NonNull
+    private OptionSnapshot getSnapshot() {
+        OptionSnapshot current = snapshot.get();
+        long currentGeneration = generation.get();
+        if (current != null && current.getGeneration() == currentGeneration) {
+            return current;
+        }
 
-                    result.put(key,
-                        PropertyEnum.convertTo(propertyEnum.defaultValue(), propertyEnum));
-                });
+        OptionSnapshot built = buildSnapshot(currentGeneration);
+        // Snapshots built before an invalidation are never installed
+        if (generation.get() == currentGeneration) {
+            snapshot.compareAndSet(current, built);
+        }
+        return built;
+    }
 
-            // Cache the result
-            cacheStore.putAny(OPTIONS_KEY, result);
+    private void invalidateSnapshot() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
 
-            return result;
-        });
+    @NonNull
+    private OptionSnapshot buildSnapshot(long snapshotGeneration) {
+        String version = cacheStore.get(OPTIONS_VERSION_CACHE_KEY).orElse(null);
+
+        List<Option> options = listAll();
+
+        Set<String> keys = ServiceUtils.fetchProperty(options, Option::getKey);
+
+        Map<String, Object> userDefinedOptionMap =
+            ServiceUtils.convertToMap(options, Option::getKey, option -> {
+                String key = option.getKey();
+
+                PropertyEnum propertyEnum = propertyEnumMap.get(key);
+
+                if (propertyEnum == null) {
+                    return option.getValue();
+                }
+
+                return PropertyEnum.convertTo(option.getValue(), propertyEnum);
+            });
+
+        Map<String, Object> result = new HashMap<>(userDefinedOptionMap);
+
+        // Add default property
+        propertyEnumMap.keySet()
+            .stream()
+            .filter(key -> !keys.contains(key))
+            .forEach(key -> {
+                PropertyEnum propertyEnum = propertyEnumMap.get(key);
+
+                result.put(key,
+                    PropertyEnum.convertTo(propertyEnum.defaultValue(), propertyEnum));
+            });
+
+        log.debug("Built option snapshot of generation: [{}], version: [{}]",
+            snapshotGeneration, version);
+
+        return new OptionSnapshot(result, snapshotGeneration, version);
     }
 
     @Override
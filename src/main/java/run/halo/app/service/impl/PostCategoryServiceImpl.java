@@ -16,7 +16,6 @@ import run.halo.app.model.entity.Category;
 import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.PostCategory;
 import run.halo.app.model.enums.PostStatus;
-import run.halo.app.model.projection.CategoryIdPostStatusProjection;
 import run.halo.app.model.vo.CategoryVO;
 import run.halo.app.repository.PostCategoryRepository;
 import run.halo.app.repository.PostRepository;
@@ -24,6 +23,7 @@ import run.halo.app.service.CategoryService;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostCategoryService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.PostCounter;
 import run.halo.app.utils.HaloUtils;
 import run.halo.app.utils.ServiceUtils;
 
@@ -31,7 +31,6 @@ import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -39,7 +38,6 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -58,15 +56,18 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
 
     private final PostRepository postRepository;
     private final OptionService optionService;
+    private final PostCounter postCounter;
     private CategoryService categoryService;
 
     public PostCategoryServiceImpl(PostCategoryRepository postCategoryRepository,
                                    PostRepository postRepository,
-                                   OptionService optionService) {
+                                   OptionService optionService,
+                                   PostCounter postCounter) {
         super(postCategoryRepository);
         this.postCategoryRepository = postCategoryRepository;
         this.postRepository = postRepository;
         this.optionService = optionService;
+        this.postCounter = postCounter;
     }
 
     @Lazy
@@ -309,7 +310,6 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
         Assert.notNull(sort, "Sort info must not be null");
         List<Category> categories = categoryService.listAll(sort);
         List<CategoryVO> categoryTreeVo = categoryService.listToTree(categories);
-        populatePostIds(categoryTreeVo, postStatus -> !PostStatus.RECYCLE.equals(postStatus));
         // Convert and return
         return flatTreeToList(categoryTreeVo);
     }
@@ -324,54 +324,13 @@ public class PostCategoryServiceImpl extends AbstractCrudService<PostCategory, I
             String fullPath = categoryService.buildCategoryFullPath(category.getSlug());
             categoryWithPostCountDto.setFullPath(fullPath);
             // populate post count.
-            int postCount = Objects.requireNonNullElse(category.getPostIds(),
-                Collections.emptySet()).size();
-            categoryWithPostCountDto.setPostCount((long) postCount);
+            categoryWithPostCountDto.setPostCount(
+                postCounter.getCategoryPostCount(category.getId()));
             result.add(categoryWithPostCountDto);
         });
         return result;
     }
 
-    private void populatePostIds(List<CategoryVO> categoryTree,
-                                 Predicate<PostStatus> statusFilter) {
-        Assert.notNull(categoryTree, "The categoryTree must not be null.");
-        Map<Integer, Set<Integer>> categoryPostIdsMap =
-            postCategoryRepository.findAllWithPostStatus()
-                .stream()
-                .filter(record -> statusFilter.test(record.getPostStatus()))
-                .collect(Collectors.groupingBy(CategoryIdPostStatusProjection::getCategoryId,
-                    Collectors.mapping(CategoryIdPostStatusProjection::getPostId,
-                        Collectors.toSet())));
-
-        walkCategoryTree(categoryTree, category -> {
-            // Set post count
-            Set<Integer> postIds =
-                categoryPostIdsMap.getOrDefault(category.getId(), new LinkedHashSet<>());
-            category.setPostIds(postIds);
-        });
-        CategoryVO categoryTreeRootNode = new CategoryVO();
-        categoryTreeRootNode.setChildren(categoryTree);
-        mergePostIdsFromBottomToTop(categoryTreeRootNode);
-    }
-
-    private void mergePostIdsFromBottomToTop(CategoryVO root) {
-        if (root == null) {
-            return;
-        }
-        List<CategoryVO> children = root.getChildren();
-        if (CollectionUtils.isEmpty(children)) {
-            return;
-        }
-        for (CategoryVO category : children) {
-            mergePostIdsFromBottomToTop(category);
-            if (root.getPostIds() == null) {
-                root.setPostIds(new LinkedHashSet<>());
-            }
-            // merge post ids.
-            root.getPostIds().addAll(category.getPostIds());
-        }
-    }
-
     private void walkCategoryTree(List<CategoryVO> categoryTree, Consumer<CategoryVO> consumer) {
         Queue<CategoryVO> queue = new ArrayDeque<>(categoryTree);
         while (!queue.isEmpty()) {
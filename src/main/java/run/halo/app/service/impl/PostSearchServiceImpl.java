@@ -0,0 +1,206 @@
+package run.halo.app.service.impl;
+
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import org.springframework.web.util.HtmlUtils;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Content;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.properties.PostProperties;
+import run.halo.app.search.PostSearchIndex;
+import run.halo.app.service.ContentService;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostSearchService;
+import run.halo.app.service.PostService;
+import run.halo.app.utils.HaloUtils;
+import run.halo.app.utils.ServiceUtils;
+
+/**
+ * Post search service implementation.
+ *
+ * <p>The index is built from database on startup and maintained on post update and deletion.
+ * All index writes run on a single background thread, so they are applied in event order and
+ * never slow down the request that changed the post. Searches fall back to database queries
+ * only until the first build finishes. After that, a keyword the index does not match finds
+ * nothing, as the index only matches whole words and word prefixes.
+ */
+@Slf4j
+@Service
+public class PostSearchServiceImpl implements PostSearchService {
+
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    private final PostService postService;
+
+    private final ContentService contentService;
+
+    private final OptionService optionService;
+
+    private final ExecutorService indexExecutor;
+
+    private volatile PostSearchIndex index = new PostSearchIndex();
+
+    private volatile boolean ready = false;
+
+    public PostSearchServiceImpl(PostService postService,
+        ContentService contentService,
+        OptionService optionService) {
+        this.postService = postService;
+        this.contentService = contentService;
+        this.optionService = optionService;
+        this.indexExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("post-search-indexer-%d")
+            .setDaemon(true)
+            .build());
+    }
+
+    @Override
+    public Page<Post> search(String keyword, Pageable pageable) {
+        Assert.notNull(keyword, "Keyword must not be null");
+        Assert.notNull(pageable, "Page info must not be null");
+
+        if (!ready) {
+            log.debug("Post search index is not ready yet, searching by database");
+            return searchByDatabase(keyword, pageable);
+        }
+
+        Page<Integer> postIdPage = index.search(keyword, pageable);
+        if (postIdPage.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, postIdPage.getTotalElements());
+        }
+
+        Map<Integer, Post> postMap =
+            ServiceUtils.convertToMap(postService.listAllByIds(postIdPage.getContent()),
+                Post::getId);
+        // Keep the relevance order and skip posts deleted in the meantime
+        List<Post> posts = postIdPage.getContent().stream()
+            .map(postMap::get)
+            .filter(post -> post != null && post.getStatus() == PostStatus.PUBLISHED)
+            .collect(Collectors.toList());
+        return new PageImpl<>(posts, pageable, postIdPage.getTotalElements());
+    }
+
+    @Override
+    public Map<Integer, String> highlight(String keyword, Collection<Integer> postIds) {
+        Assert.notNull(keyword, "Keyword must not be null");
+        Assert.notNull(postIds, "Post ids must not be null");
+
+        int snippetLength = optionService.getByPropertyOrDefault(PostProperties.SUMMARY_LENGTH,
+            Integer.class, 150);
+
+        Map<Integer, String> highlights = new LinkedHashMap<>(postIds.size());
+        PostSearchIndex currentIndex = index;
+        postIds.forEach(postId -> currentIndex.highlight(postId, keyword, snippetLength)
+            .ifPresent(highlight -> highlights.put(postId, highlight)));
+        return highlights;
+    }
+
+    @Override
+    public void rebuild() {
+        indexExecutor.execute(this::rebuildIndex);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        Integer postId = event.getPost().getId();
+        indexExecutor.execute(() -> indexPost(postId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        Integer postId = event.getPost().getId();
+        indexExecutor.execute(() -> index.remove(postId));
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        indexExecutor.shutdownNow();
+    }
+
+    private Page<Post> searchByDatabase(String keyword, Pageable pageable) {
+        Pageable sortedPageable = pageable.getSort().isSorted() ? pageable
+            : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            Sort.by(DESC, "createTime"));
+        return postService.pageBy(keyword, sortedPageable);
+    }
+
+    private void indexPost(Integer postId) {
+        try {
+            Post post = postService.fetchById(postId).orElse(null);
+            if (post == null || post.getStatus() != PostStatus.PUBLISHED) {
+                index.remove(postId);
+                return;
+            }
+            Content content = contentService.getByIdOfNullable(postId);
+            put(index, post, content);
+            log.debug("Indexed post: [{}]", postId);
+        } catch (Exception e) {
+            log.error("Failed to index post: [" + postId + "]", e);
+        }
+    }
+
+    private void rebuildIndex() {
+        log.info("Rebuilding post search index");
+        long start = System.currentTimeMillis();
+        try {
+            PostSearchIndex newIndex = new PostSearchIndex();
+
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+            Page<Post> postPage;
+            do {
+                postPage = postService.pageBy(PostStatus.PUBLISHED, pageable);
+                Map<Integer, Content> contentMap = ServiceUtils.convertToMap(
+                    contentService.listAllByIds(
+                        ServiceUtils.fetchProperty(postPage.getContent(), Post::getId)),
+                    Content::getId);
+                postPage.forEach(post -> put(newIndex, post, contentMap.get(post.getId())));
+                pageable = pageable.next();
+            } while (postPage.hasNext());
+
+            index = newIndex;
+            ready = true;
+            log.info("Rebuilt post search index of [{}] posts in [{}] ms", newIndex.size(),
+                System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to rebuild post search index", e);
+        }
+    }
+
+    private void put(PostSearchIndex targetIndex, Post post, Content content) {
+        String text = content == null ? null : toPlainText(content.getContent());
+        long createTime = post.getCreateTime() == null ? 0 : post.getCreateTime().getTime();
+        targetIndex.put(post.getId(), post.getTitle(), text, createTime);
+    }
+
+    private String toPlainText(String html) {
+        return StringUtils.normalizeSpace(HtmlUtils.htmlUnescape(HaloUtils.cleanHtmlTag(html)));
+    }
+}
@@ -1,5 +1,6 @@
 package run.halo.app.service.impl;
 
+import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationContext;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import run.halo.app.event.logger.LogEvent;
+import run.halo.app.event.post.PostDeletedEvent;
 import run.halo.app.event.post.PostUpdatedEvent;
 import run.halo.app.event.post.PostVisitEvent;
 import run.halo.app.exception.NotFoundException;
@@ -39,9 +41,11 @@ import run.halo.app.model.properties.PostProperties;
 import run.halo.app.model.vo.ArchiveMonthVO;
 import run.halo.app.model.vo.ArchiveYearVO;
 import run.halo.app.model.vo.PostDetailVO;
+import run.halo.app.model.vo.PostListVO;
 import run.halo.app.model.vo.PostMarkdownVO;
 import run.halo.app.repository.PostRepository;
 import run.halo.app.repository.base.BasePostRepository;
+import run.halo.app.service.ArchiveService;
 import run.halo.app.service.CategoryService;
 import run.halo.app.service.ContentPatchLogService;
 import run.halo.app.service.ContentService;
@@ -68,10 +72,13 @@ import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -94,6 +101,11 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 @Service
 public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostService {
 
+    /**
+     * Maximum number of post ids queried at once when listing archives.
+     */
+    private static final int ARCHIVE_BATCH_SIZE = 1000;
+
     private final PostAssembler postAssembler;
 
     private final PostRepository postRepository;
@@ -123,6 +135,8 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
     private final PostUserService postUserService;
     private final UserService userService;
 
+    private final ArchiveService archiveService;
+
     /**
      * post service impl.
      *
@@ -147,7 +161,8 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
                            PostRepository postRepository, TagService tagService, CategoryService categoryService, PostTagService postTagService,
                            PostCategoryService postCategoryService, PostCommentService postCommentService, ApplicationEventPublisher eventPublisher,
                            PostMetaService postMetaService, ContentService contentService, ContentPatchLogService contentPatchLogService,
-                           ApplicationContext applicationContext, PostUserService postUserService, UserService userService) {
+                           ApplicationContext applicationContext, PostUserService postUserService, UserService userService,
+                           ArchiveService archiveService) {
         super(basePostRepository, optionService, contentService, contentPatchLogService);
         this.postAssembler = postAssembler;
         this.postRepository = postRepository;
@@ -164,6 +179,7 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         this.applicationContext = applicationContext;
         this.postUserService = postUserService;
         this.userService = userService;
+        this.archiveService = archiveService;
     }
 
     @Override
@@ -345,18 +361,63 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
 
     @Override
     public List<ArchiveYearVO> listYearArchives() {
-        // Get all posts
-        List<Post> posts = postRepository.findAllByStatus(PostStatus.PUBLISHED, Sort.by(DESC, "createTime"));
-
-        return postAssembler.convertToYearArchives(posts);
+        NavigableMap<Integer, NavigableMap<Integer, List<Integer>>> archivePostIds =
+            archiveService.listPostIds();
+        Map<Integer, PostListVO> postListVos = listArchivePosts(archivePostIds);
+
+        List<ArchiveYearVO> archives = new ArrayList<>(archivePostIds.size());
+        archivePostIds.forEach((year, monthPostIds) -> {
+            ArchiveYearVO archive = new ArchiveYearVO();
+            archive.setYear(year);
+            archive.setPosts(collectArchivePosts(monthPostIds.values(), postListVos));
+            archives.add(archive);
+        });
+        return archives;
     }
 
     @Override
     public List<ArchiveMonthVO> listMonthArchives() {
-        // Get all posts
-        List<Post> posts = postRepository.findAllByStatus(PostStatus.PUBLISHED, Sort.by(DESC, "createTime"));
+        NavigableMap<Integer, NavigableMap<Integer, List<Integer>>> archivePostIds =
+            archiveService.listPostIds();
+        Map<Integer, PostListVO> postListVos = listArchivePosts(archivePostIds);
+
+        List<ArchiveMonthVO> archives = new ArrayList<>();
+        archivePostIds.forEach((year, monthPostIds) -> monthPostIds.forEach((month, postIds) -> {
+            ArchiveMonthVO archive = new ArchiveMonthVO();
+            archive.setYear(year);
+            archive.setMonth(month);
+            archive.setPosts(collectArchivePosts(List.of(postIds), postListVos));
+            archives.add(archive);
+        }));
+        return archives;
+    }
 
-        return postAssembler.convertToMonthArchives(posts);
+    /**
+     * Loads posts of archives by ids from the archive index, and converts them in bulk. Ids are
+     * queried in batches to stay within the parameter limits of databases.
+     */
+    private Map<Integer, PostListVO> listArchivePosts(
+        NavigableMap<Integer, NavigableMap<Integer, List<Integer>>> archivePostIds) {
+        List<Integer> postIds = archivePostIds.values().stream()
+            .flatMap(monthPostIds -> monthPostIds.values().stream())
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+        Map<Integer, PostListVO> postListVos = new HashMap<>(postIds.size());
+        for (List<Integer> batchPostIds : Lists.partition(postIds, ARCHIVE_BATCH_SIZE)) {
+            postAssembler.convertToListVo(postRepository.findAllById(batchPostIds))
+                .forEach(postListVo -> postListVos.put(postListVo.getId(), postListVo));
+        }
+        return postListVos;
+    }
+
+    private static List<PostListVO> collectArchivePosts(Collection<List<Integer>> postIds,
+        Map<Integer, PostListVO> postListVos) {
+        // Posts deleted after the archive index was read are skipped
+        return postIds.stream()
+            .flatMap(List::stream)
+            .map(postListVos::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -558,6 +619,8 @@ public class PostServiceImpl extends BasePostServiceImpl<Post> implements PostSe
         Post deletedPost = super.removeById(postId);
         deletedPost.setContent(PatchedContent.of(postContent));
 
+        eventPublisher.publishEvent(new PostDeletedEvent(this, deletedPost));
+
         // Log it
         eventPublisher.publishEvent(new LogEvent(this, postId.toString(), LogType.POST_DELETED, deletedPost.getTitle()));
 
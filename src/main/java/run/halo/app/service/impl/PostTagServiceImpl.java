@@ -22,13 +22,13 @@ import run.halo.app.model.entity.Post;
 import run.halo.app.model.entity.PostTag;
 import run.halo.app.model.entity.Tag;
 import run.halo.app.model.enums.PostStatus;
-import run.halo.app.model.projection.TagPostPostCountProjection;
 import run.halo.app.repository.PostRepository;
 import run.halo.app.repository.PostTagRepository;
 import run.halo.app.repository.TagRepository;
 import run.halo.app.service.OptionService;
 import run.halo.app.service.PostTagService;
 import run.halo.app.service.base.AbstractCrudService;
+import run.halo.app.service.support.PostCounter;
 import run.halo.app.utils.ServiceUtils;
 
 /**
@@ -50,15 +50,19 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
 
     private final OptionService optionService;
 
+    private final PostCounter postCounter;
+
     public PostTagServiceImpl(PostTagRepository postTagRepository,
         PostRepository postRepository,
         TagRepository tagRepository,
-        OptionService optionService) {
+        OptionService optionService,
+        PostCounter postCounter) {
         super(postTagRepository);
         this.postTagRepository = postTagRepository;
         this.postRepository = postRepository;
         this.tagRepository = tagRepository;
         this.optionService = optionService;
+        this.postCounter = postCounter;
     }
 
     @Override
@@ -78,17 +82,12 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
         // Find all tags
         List<Tag> tags = tagRepository.findAll(sort);
 
-        // Find all post count
-        Map<Integer, Long> tagPostCountMap = ServiceUtils
-            .convertToMap(postTagRepository.findPostCount(), TagPostPostCountProjection::getTagId,
-                TagPostPostCountProjection::getPostCount);
-
         // Find post count
         return tags.stream().map(
             tag -> {
                 TagWithPostCountDTO tagWithCountOutputDTO =
                     new TagWithPostCountDTO().convertFrom(tag);
-                tagWithCountOutputDTO.setPostCount(tagPostCountMap.getOrDefault(tag.getId(), 0L));
+                tagWithCountOutputDTO.setPostCount(postCounter.getTagPostCount(tag.getId()));
 
                 StringBuilder fullPath = new StringBuilder();
 
@@ -275,6 +274,8 @@ public class PostTagServiceImpl extends AbstractCrudService<PostTag, Integer>
     public List<PostTag> removeByTagId(Integer tagId) {
         Assert.notNull(tagId, "Tag id must not be null");
 
-        return postTagRepository.deleteByTagId(tagId);
+        List<PostTag> postTags = postTagRepository.deleteByTagId(tagId);
+        postCounter.removeTag(tagId);
+        return postTags;
     }
 }
@@ -0,0 +1,283 @@
+package run.halo.app.service.impl;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.HtmlUtils;
+import run.halo.app.event.category.CategoryUpdatedEvent;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostSitemapProjection;
+import run.halo.app.model.vo.PostSitemapVO;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostTagService;
+import run.halo.app.service.SitemapService;
+import run.halo.app.service.assembler.PostAssembler;
+
+/**
+ * Sitemap service implementation.
+ *
+ * <p>Posts are read in id ordered batches of a minimal projection, so building a sitemap never
+ * loads post contents. Generated sitemaps are kept until posts, categories or options change.
+ */
+@Slf4j
+@Service
+public class SitemapServiceImpl implements SitemapService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+
+    private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private final PostRepository postRepository;
+
+    private final PostAssembler postAssembler;
+
+    private final PostCategoryService postCategoryService;
+
+    private final PostTagService postTagService;
+
+    private final OptionService optionService;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicReference<Generated<Sitemap>> sitemap = new AtomicReference<>();
+
+    private final AtomicReference<Generated<List<PostSitemapVO>>> posts =
+        new AtomicReference<>();
+
+    public SitemapServiceImpl(PostRepository postRepository,
+        PostAssembler postAssembler,
+        PostCategoryService postCategoryService,
+        PostTagService postTagService,
+        OptionService optionService) {
+        this.postRepository = postRepository;
+        this.postAssembler = postAssembler;
+        this.postCategoryService = postCategoryService;
+        this.postTagService = postTagService;
+        this.optionService = optionService;
+    }
+
+    @Override
+    @NonNull
+    public String getSitemapXml() {
+        return getOrGenerate(sitemap, this::generateSitemap).root;
+    }
+
+    @Override
+    @NonNull
+    public Optional<String> getSitemapXml(int index) {
+        List<String> parts = getOrGenerate(sitemap, this::generateSitemap).parts;
+        if (index < 1 || index > parts.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(parts.get(index - 1));
+    }
+
+    @Override
+    @NonNull
+    public List<PostSitemapVO> listPosts() {
+        return getOrGenerate(posts, () -> {
+            List<PostSitemapVO> postList = new ArrayList<>();
+            forEachPost(postList::add);
+            postList.sort(Comparator.comparing(PostSitemapVO::getCreateTime).reversed());
+            return Collections.unmodifiableList(postList);
+        });
+    }
+
+    @TransactionalEventListener(value = {
+        PostUpdatedEvent.class,
+        PostDeletedEvent.class,
+        CategoryUpdatedEvent.class,
+        OptionUpdatedEvent.class
+    }, fallbackExecution = true)
+    public void onSitemapChanged() {
+        generation.incrementAndGet();
+        sitemap.set(null);
+        posts.set(null);
+    }
+
+    private <T> T getOrGenerate(AtomicReference<Generated<T>> reference, Supplier<T> generator) {
+        Generated<T> current = reference.get();
+        if (current != null && current.generation == generation.get()) {
+            return current.value;
+        }
+        // Large sitemaps are expensive, let concurrent requests wait for one generation
+        synchronized (reference) {
+            current = reference.get();
+            long currentGeneration = generation.get();
+            if (current != null && current.generation == currentGeneration) {
+                return current.value;
+            }
+            T value = generator.get();
+            // Values generated before an invalidation are never installed
+            if (generation.get() == currentGeneration) {
+                reference.set(new Generated<>(currentGeneration, value));
+            }
+            return value;
+        }
+    }
+
+    private Sitemap generateSitemap() {
+        long start = System.currentTimeMillis();
+
+        String blogUrl = optionService.getBlogBaseUrl();
+        String urlPrefix = optionService.isEnabledAbsolutePath() ? "" : blogUrl;
+
+        UrlSetWriter writer = new UrlSetWriter();
+        writer.write(blogUrl, new Date(optionService.getBirthday()));
+        forEachPost(post -> writer.write(urlPrefix + post.getFullPath(), post.getLastModified()));
+        postCategoryService.listCategoryWithPostCountDto(Sort.by(ASC, "priority"))
+            .forEach(category -> writer.write(urlPrefix + category.getFullPath(),
+                category.getCreateTime()));
+        postTagService.listTagWithCountDtos(Sort.by(DESC, "createTime"))
+            .forEach(tag -> writer.write(urlPrefix + tag.getFullPath(), tag.getCreateTime()));
+        List<String> files = writer.finish();
+
+        log.debug("Generated sitemap of [{}] urls in [{}] ms", writer.total,
+            System.currentTimeMillis() - start);
+
+        if (files.size() == 1) {
+            return new Sitemap(files.get(0), Collections.emptyList());
+        }
+
+        StringBuilder index = new StringBuilder(XML_DECLARATION)
+            .append("<sitemapindex xmlns=\"").append(SITEMAP_NAMESPACE).append("\">\n");
+        for (int i = 1; i <= files.size(); i++) {
+            index.append("    <sitemap>\n")
+                .append("        <loc>").append(HtmlUtils.htmlEscape(blogUrl))
+                .append("/sitemap-").append(i).append(".xml</loc>\n")
+                .append("    </sitemap>\n");
+        }
+        index.append("</sitemapindex>\n");
+        return new Sitemap(index.toString(), Collections.unmodifiableList(files));
+    }
+
+    private void forEachPost(Consumer<PostSitemapVO> consumer) {
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
+        int lastId = 0;
+        List<PostSitemapProjection> projections;
+        do {
+            projections = postRepository.findSitemapProjectionsAfter(PostStatus.PUBLISHED, lastId,
+                pageable);
+            for (PostSitemapProjection projection : projections) {
+                consumer.accept(convertTo(projection));
+                lastId = projection.getId();
+            }
+        } while (projections.size() == BATCH_SIZE);
+    }
+
+    private PostSitemapVO convertTo(PostSitemapProjection projection) {
+        Post post = new Post();
+        post.setId(projection.getId());
+        post.setSlug(projection.getSlug());
+        post.setCreateTime(projection.getCreateTime());
+
+        PostSitemapVO postSitemapVO = new PostSitemapVO();
+        postSitemapVO.setId(projection.getId());
+        postSitemapVO.setTitle(projection.getTitle());
+        postSitemapVO.setFullPath(postAssembler.buildFullPath(post));
+        postSitemapVO.setCreateTime(projection.getCreateTime());
+        postSitemapVO.setLastModified(projection.getEditTime() == null
+            ? projection.getCreateTime() : projection.getEditTime());
+        return postSitemapVO;
+    }
+
+    /**
+     * Writes urls into urlset files, starting a new file every
+     * {@link SitemapService#MAX_URLS_PER_SITEMAP} urls.
+     */
+    private static class UrlSetWriter {
+
+        private final List<String> files = new ArrayList<>();
+
+        private StringBuilder current;
+
+        private int count;
+
+        private int total;
+
+        private void write(String loc, @Nullable Date lastModified) {
+            if (current == null || count == MAX_URLS_PER_SITEMAP) {
+                flush();
+                current = new StringBuilder(XML_DECLARATION)
+                    .append("<urlset xmlns=\"").append(SITEMAP_NAMESPACE).append("\">\n");
+            }
+            current.append("    <url>\n")
+                .append("        <loc>").append(HtmlUtils.htmlEscape(loc)).append("</loc>\n");
+            if (lastModified != null) {
+                current.append("        <lastmod>")
+                    .append(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(lastModified.toInstant()
+                        .atZone(ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS)))
+                    .append("</lastmod>\n");
+            }
+            current.append("    </url>\n");
+            count++;
+            total++;
+        }
+
+        private List<String> finish() {
+            flush();
+            return files;
+        }
+
+        private void flush() {
+            if (current != null) {
+                files.add(current.append("</urlset>\n").toString());
+                current = null;
+                count = 0;
+            }
+        }
+    }
+
+    private static class Sitemap {
+
+        private final String root;
+
+        private final List<String> parts;
+
+        private Sitemap(String root, List<String> parts) {
+            this.root = root;
+            this.parts = parts;
+        }
+    }
+
+    private static class Generated<T> {
+
+        private final long generation;
+
+        private final T value;
+
+        private Generated(long generation, T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
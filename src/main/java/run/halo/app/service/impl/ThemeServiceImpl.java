@@ -163,9 +163,10 @@ public class ThemeServiceImpl implements ThemeService {
             // Resolve template path
             Path templatePath = Paths.get(themeProperty.getThemePath(), template);
             // Check the directory
-            checkDirectory(templatePath.toString());
-            // Check existence
-            return Files.exists(templatePath);
+            FileUtils.checkDirectoryTraversal(themeProperty.getThemePath(),
+                templatePath.toString());
+            // Check existence in the theme registry
+            return themeRepository.templateExists(themeProperty.getId(), template);
         }).orElse(false);
     }
 
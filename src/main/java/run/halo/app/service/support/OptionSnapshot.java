@@ -0,0 +1,89 @@
+package run.halo.app.service.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import run.halo.app.model.properties.PropertyEnum;
+
+/**
+ * Immutable snapshot of all options.
+ *
+ * <p>Values of known properties are converted to their declared types when the snapshot is
+ * built, so reading an option is a map lookup without any parsing.
+ */
+public final class OptionSnapshot {
+
+    private final Map<String, Object> options;
+
+    private final long generation;
+
+    @Nullable
+    private final String version;
+
+    public OptionSnapshot(@NonNull Map<String, Object> options, long generation,
+        @Nullable String version) {
+        Assert.notNull(options, "Options must not be null");
+
+        this.options = Collections.unmodifiableMap(new HashMap<>(options));
+        this.generation = generation;
+        this.version = version;
+    }
+
+    /**
+     * Gets all options.
+     *
+     * @return an unmodifiable option map
+     */
+    @NonNull
+    public Map<String, Object> getOptions() {
+        return options;
+    }
+
+    /**
+     * Gets option value by key.
+     *
+     * @param key option key must not be blank
+     * @return an optional option value
+     */
+    @NonNull
+    public Optional<Object> get(@NonNull String key) {
+        return Optional.ofNullable(options.get(key));
+    }
+
+    /**
+     * Gets option value by key and converts it to the given type if it is not converted yet.
+     *
+     * @param key option key must not be blank
+     * @param type value type must not be null
+     * @param <T> value type
+     * @return an optional typed option value
+     */
+    @NonNull
+    public <T> Optional<T> get(@NonNull String key, @NonNull Class<T> type) {
+        return get(key).map(value -> type.isInstance(value)
+            ? type.cast(value) : PropertyEnum.convertTo(value.toString(), type));
+    }
+
+    /**
+     * Gets the local generation this snapshot was built in.
+     *
+     * @return local generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the shared options version this snapshot was built against.
+     *
+     * @return shared options version or null if no version was published yet
+     */
+    @Nullable
+    public String getVersion() {
+        return version;
+    }
+}
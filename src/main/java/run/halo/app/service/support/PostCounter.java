@@ -0,0 +1,256 @@
+package run.halo.app.service.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import run.halo.app.event.category.CategoryUpdatedEvent;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Category;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.CategoryIdPostStatusProjection;
+import run.halo.app.model.projection.TagIdPostStatusProjection;
+import run.halo.app.repository.CategoryRepository;
+import run.halo.app.repository.PostCategoryRepository;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.repository.PostTagRepository;
+
+/**
+ * Post counters of tags and categories.
+ *
+ * <p>Posts which are not in the recycle bin are counted, and the count of a category includes
+ * posts of all its descendants, each post counted once. Counters are built from the database
+ * once, then updated for every updated or deleted post. Category updates may move a whole
+ * subtree, so they drop the counters instead. Counters are also rebuilt periodically in case a
+ * change was made without any event.
+ */
+@Slf4j
+@Component
+public class PostCounter {
+
+    /**
+     * Period of reconciling counters with the database. (ms)
+     */
+    private static final long RECONCILE_PERIOD = 10 * 60 * 1000;
+
+    private final PostRepository postRepository;
+
+    private final PostTagRepository postTagRepository;
+
+    private final PostCategoryRepository postCategoryRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Current counters, null until built.
+     */
+    private volatile Counters counters;
+
+    public PostCounter(PostRepository postRepository,
+        PostTagRepository postTagRepository,
+        PostCategoryRepository postCategoryRepository,
+        CategoryRepository categoryRepository) {
+        this.postRepository = postRepository;
+        this.postTagRepository = postTagRepository;
+        this.postCategoryRepository = postCategoryRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Gets post count of a tag.
+     *
+     * @param tagId tag id
+     * @return post count of the tag
+     */
+    public long getTagPostCount(Integer tagId) {
+        return getCounters().tagCounts.getOrDefault(tagId, 0L);
+    }
+
+    /**
+     * Gets post count of a category, including posts of its descendants.
+     *
+     * @param categoryId category id
+     * @return post count of the category
+     */
+    public long getCategoryPostCount(Integer categoryId) {
+        return getCounters().categoryCounts.getOrDefault(categoryId, 0L);
+    }
+
+    /**
+     * Removes a tag which has been deleted with its post tags.
+     *
+     * @param tagId tag id
+     */
+    public synchronized void removeTag(Integer tagId) {
+        Counters current = counters;
+        if (current != null) {
+            current.removeTag(tagId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostUpdated(PostUpdatedEvent event) {
+        Counters current = counters;
+        if (current == null) {
+            return;
+        }
+        Integer postId = event.getPost().getId();
+        boolean counted = postRepository.findById(postId)
+            .map(post -> !PostStatus.RECYCLE.equals(post.getStatus()))
+            .orElse(false);
+        if (counted) {
+            current.updatePost(postId, postTagRepository.findAllTagIdsByPostId(postId),
+                postCategoryRepository.findAllCategoryIdsByPostId(postId));
+        } else {
+            current.updatePost(postId, Collections.emptySet(), Collections.emptySet());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostDeleted(PostDeletedEvent event) {
+        Counters current = counters;
+        if (current != null) {
+            current.updatePost(event.getPost().getId(), Collections.emptySet(),
+                Collections.emptySet());
+        }
+    }
+
+    /**
+     * Drops all counters, which will be rebuilt on next read.
+     */
+    public synchronized void refresh() {
+        counters = null;
+    }
+
+    @TransactionalEventListener(value = CategoryUpdatedEvent.class, fallbackExecution = true)
+    public void onCategoryUpdated() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds counters from the database, and reports counters which drifted.
+     */
+    @Scheduled(fixedDelay = RECONCILE_PERIOD, initialDelay = RECONCILE_PERIOD)
+    public synchronized void reconcile() {
+        Counters current = counters;
+        if (current == null) {
+            return;
+        }
+        Counters rebuilt = build();
+        if (!rebuilt.tagCounts.equals(current.tagCounts)
+            || !rebuilt.categoryCounts.equals(current.categoryCounts)) {
+            log.warn("Post counters of tags or categories drifted from the database, rebuilt");
+        }
+        counters = rebuilt;
+    }
+
+    @NonNull
+    private Counters getCounters() {
+        Counters current = counters;
+        if (current == null) {
+            synchronized (this) {
+                if (counters == null) {
+                    counters = build();
+                }
+                current = counters;
+            }
+        }
+        return current;
+    }
+
+    private Counters build() {
+        Map<Integer, Integer> parentIds = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            parentIds.put(category.getId(), category.getParentId());
+        }
+
+        Map<Integer, Set<Integer>> postTagIds = postTagRepository.findAllWithPostStatus().stream()
+            .filter(projection -> !PostStatus.RECYCLE.equals(projection.getPostStatus()))
+            .collect(Collectors.groupingBy(TagIdPostStatusProjection::getPostId,
+                Collectors.mapping(TagIdPostStatusProjection::getTagId, Collectors.toSet())));
+        Map<Integer, Set<Integer>> postCategoryIds =
+            postCategoryRepository.findAllWithPostStatus().stream()
+                .filter(projection -> !PostStatus.RECYCLE.equals(projection.getPostStatus()))
+                .collect(Collectors.groupingBy(CategoryIdPostStatusProjection::getPostId,
+                    Collectors.mapping(CategoryIdPostStatusProjection::getCategoryId,
+                        Collectors.toSet())));
+
+        Counters built = new Counters(parentIds);
+        Set<Integer> postIds = new HashSet<>(postTagIds.keySet());
+        postIds.addAll(postCategoryIds.keySet());
+        postIds.forEach(postId -> built.updatePost(postId,
+            postTagIds.getOrDefault(postId, Collections.emptySet()),
+            postCategoryIds.getOrDefault(postId, Collections.emptySet())));
+        log.debug("Built post counters of [{}] tags and [{}] categories",
+            built.tagCounts.size(), built.categoryCounts.size());
+        return built;
+    }
+
+    /**
+     * Post counters with the tags and categories of every counted post.
+     */
+    private static final class Counters {
+
+        /**
+         * Parent ids keyed by category id.
+         */
+        private final Map<Integer, Integer> parentIds;
+
+        private final Map<Integer, Set<Integer>> postTagIds = new HashMap<>();
+
+        /**
+         * Categories of every post, including all their ancestors.
+         */
+        private final Map<Integer, Set<Integer>> postCategoryIds = new HashMap<>();
+
+        private final Map<Integer, Long> tagCounts = new ConcurrentHashMap<>();
+
+        private final Map<Integer, Long> categoryCounts = new ConcurrentHashMap<>();
+
+        private Counters(Map<Integer, Integer> parentIds) {
+            this.parentIds = parentIds;
+        }
+
+        private void updatePost(Integer postId, Set<Integer> tagIds, Set<Integer> categoryIds) {
+            update(postTagIds, tagCounts, postId, tagIds);
+            update(postCategoryIds, categoryCounts, postId, withAncestors(categoryIds));
+        }
+
+        private void removeTag(Integer tagId) {
+            postTagIds.values().forEach(tagIds -> tagIds.remove(tagId));
+            tagCounts.remove(tagId);
+        }
+
+        private Set<Integer> withAncestors(Set<Integer> categoryIds) {
+            Set<Integer> result = new HashSet<>();
+            for (Integer categoryId : categoryIds) {
+                Integer id = categoryId;
+                // Stops at top categories, whose parent id is 0, or at a loop of broken data
+                while (id != null && id != 0 && result.add(id)) {
+                    id = parentIds.get(id);
+                }
+            }
+            return result;
+        }
+
+        private static void update(Map<Integer, Set<Integer>> postTermIds,
+            Map<Integer, Long> counts, Integer postId, Set<Integer> termIds) {
+            Set<Integer> previousTermIds = termIds.isEmpty()
+                ? postTermIds.remove(postId) : postTermIds.put(postId, new HashSet<>(termIds));
+            if (previousTermIds != null) {
+                previousTermIds.forEach(termId -> counts.computeIfPresent(termId,
+                    (id, count) -> count > 1 ? count - 1 : null));
+            }
+            termIds.forEach(termId -> counts.merge(termId, 1L, Long::sum));
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package run.halo.app.service.support;
+
+import static run.halo.app.utils.DateTimeUtils.HORIZONTAL_LINE_DATETIME_FORMATTER;
+
+import com.google.common.io.BaseEncoding;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+import run.halo.app.exception.ServiceException;
+import run.halo.app.utils.DateTimeUtils;
+import run.halo.app.utils.FileUtils;
+import run.halo.app.utils.HaloUtils;
+import run.halo.app.utils.JsonUtils;
+
+/**
+ * Incremental snapshots of the work directory, whose contents are addressed by their hashes.
+ *
+ * <p>Files are split into chunks of 4MB, and every chunk is stored once as a gzip file named by
+ * its sha-256 hash, shared by all snapshots. A snapshot is a manifest listing files with their
+ * sizes, modified times and chunks. Files whose sizes and modified times are unchanged since the
+ * latest snapshot are not read again, and changed files are compressed in parallel.
+ */
+@Slf4j
+public class WorkDirSnapshotStore {
+
+    /**
+     * Size of every chunk except the last one of a file.
+     */
+    static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final String CHUNKS_DIR = ".snapshot-chunks";
+
+    private static final String CHUNK_SUFFIX = ".gz";
+
+    private static final String MANIFEST_SUFFIX = ".json";
+
+    private final Path storeDir;
+
+    private final Path chunksDir;
+
+    private final String manifestPrefix;
+
+    private final int parallelism;
+
+    /**
+     * Creates a snapshot store.
+     *
+     * @param storeDir directory of manifests, and chunks in its sub directory
+     * @param manifestPrefix file name prefix of manifests must not be blank
+     * @param parallelism count of files read or written at the same time
+     */
+    public WorkDirSnapshotStore(@NonNull Path storeDir, @NonNull String manifestPrefix,
+        int parallelism) {
+        Assert.notNull(storeDir, "Store directory must not be null");
+        Assert.hasText(manifestPrefix, "Manifest prefix must not be blank");
+
+        this.storeDir = storeDir.toAbsolutePath().normalize();
+        this.chunksDir = this.storeDir.resolve(CHUNKS_DIR);
+        this.manifestPrefix = manifestPrefix;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Checks whether a file is a snapshot manifest.
+     *
+     * @param path path of the file must not be null
+     * @return true if it is a manifest of this store; false otherwise
+     */
+    public boolean isManifest(@NonNull Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(manifestPrefix) && fileName.endsWith(MANIFEST_SUFFIX);
+    }
+
+    /**
+     * Takes a snapshot of some items of the work directory.
+     *
+     * @param workDir work directory must not be null
+     * @param items names of files or directories in the work directory must not be empty
+     * @return path of the manifest
+     * @throws IOException throws when fail to read files or store chunks
+     */
+    @NonNull
+    public synchronized Path snapshot(@NonNull Path workDir, @NonNull Collection<String> items)
+        throws IOException {
+        Assert.notNull(workDir, "Work directory must not be null");
+        Assert.notEmpty(items, "Snapshot items must not be empty");
+
+        Files.createDirectories(storeDir);
+        Path normalizedWorkDir = workDir.toAbsolutePath().normalize();
+        Map<String, FileEntry> previousFiles = findLatestManifest()
+            .map(this::readManifest)
+            .map(manifest -> manifest.getFiles().stream()
+                .collect(Collectors.toMap(FileEntry::getPath, file -> file)))
+            .orElseGet(HashMap::new);
+
+        Snapshot snapshot = new Snapshot();
+        snapshot.setCreateTime(System.currentTimeMillis());
+        snapshot.setItems(new ArrayList<>(items));
+
+        AtomicInteger reusedCount = new AtomicInteger();
+        List<Callable<FileEntry>> tasks = new ArrayList<>();
+        for (String item : items) {
+            Path itemPath = normalizedWorkDir.resolve(item).normalize();
+            FileUtils.checkDirectoryTraversal(normalizedWorkDir, itemPath);
+            if (Files.notExists(itemPath)) {
+                continue;
+            }
+            try (Stream<Path> pathStream = Files.walk(itemPath)) {
+                for (Path path : (Iterable<Path>) pathStream::iterator) {
+                    // Skip the store itself if it is in the work directory
+                    if (path.startsWith(storeDir) || !Files.isRegularFile(path)) {
+                        continue;
+                    }
+                    String relativePath = toRelativePath(normalizedWorkDir, path);
+                    BasicFileAttributes attributes =
+                        Files.readAttributes(path, BasicFileAttributes.class);
+                    FileEntry previous = previousFiles.get(relativePath);
+                    if (previous != null && previous.getSize() == attributes.size()
+                        && previous.getLastModified()
+                        == attributes.lastModifiedTime().toMillis()) {
+                        tasks.add(() -> {
+                            // Chunks may have been deleted, e.g. by cleaners of temp directories
+                            if (!chunksExist(previous)) {
+                                log.warn("Chunks of unchanged file [{}] are missing, storing it "
+                                    + "again", relativePath);
+                                return storeFile(path, relativePath);
+                            }
+                            reusedCount.incrementAndGet();
+                            return previous;
+                        });
+                    } else {
+                        tasks.add(() -> storeFile(path, relativePath));
+                    }
+                }
+            }
+        }
+
+        snapshot.setFiles(invokeAll(tasks, "snapshot-worker-"));
+        log.info("Took snapshot of [{}] files, [{}] of which were unchanged",
+            snapshot.getFiles().size(), reusedCount.get());
+
+        String manifestName = manifestPrefix
+            + DateTimeUtils.format(LocalDateTime.now(), HORIZONTAL_LINE_DATETIME_FORMATTER)
+            + HaloUtils.simpleUUID().hashCode() + MANIFEST_SUFFIX;
+        Path manifestPath = storeDir.resolve(manifestName);
+        Path tempManifestPath = Files.createTempFile(storeDir, manifestName, ".tmp");
+        try {
+            JsonUtils.DEFAULT_JSON_MAPPER.writeValue(tempManifestPath.toFile(), snapshot);
+            Files.move(tempManifestPath, manifestPath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempManifestPath);
+        }
+        return manifestPath;
+    }
+
+    /**
+     * Restores files of a snapshot.
+     *
+     * @param manifestPath path of the manifest must not be null
+     * @param targetDir directory to restore files to must not be null
+     * @throws IOException throws when fail to read the manifest or chunks, or write files
+     */
+    public synchronized void restore(@NonNull Path manifestPath, @NonNull Path targetDir)
+        throws IOException {
+        Assert.notNull(manifestPath, "Manifest path must not be null");
+        Assert.notNull(targetDir, "Target directory must not be null");
+
+        Snapshot snapshot = readManifest(manifestPath);
+        Path normalizedTargetDir = targetDir.toAbsolutePath().normalize();
+        List<Callable<FileEntry>> tasks = snapshot.getFiles().stream()
+            .map(file -> (Callable<FileEntry>) () -> {
+                restoreFile(file, normalizedTargetDir);
+                return file;
+            })
+            .collect(Collectors.toList());
+        invokeAll(tasks, "snapshot-restore-worker-");
+        log.info("Restored [{}] files of snapshot: [{}] to: [{}]", tasks.size(),
+            manifestPath.getFileName(), normalizedTargetDir);
+    }
+
+    /**
+     * Deletes chunks which are not referenced by any manifest.
+     *
+     * @return count of deleted chunks
+     * @throws IOException throws when fail to read manifests or delete chunks
+     */
+    public synchronized int deleteUnreferencedChunks() throws IOException {
+        if (Files.notExists(chunksDir)) {
+            return 0;
+        }
+        Set<String> referencedChunks = new HashSet<>();
+        for (Path manifestPath : listManifests()) {
+            readManifest(manifestPath).getFiles()
+                .forEach(file -> referencedChunks.addAll(file.getChunks()));
+        }
+
+        int deletedCount = 0;
+        try (Stream<Path> pathStream = Files.walk(chunksDir)) {
+            List<Path> unreferencedChunks = pathStream
+                .filter(Files::isRegularFile)
+                .filter(path -> {
+                    String fileName = path.getFileName().toString();
+                    // Temporary files are left by interrupted snapshots
+                    return !fileName.endsWith(CHUNK_SUFFIX) || !referencedChunks.contains(
+                        fileName.substring(0, fileName.length() - CHUNK_SUFFIX.length()));
+                })
+                .collect(Collectors.toList());
+            for (Path chunkPath : unreferencedChunks) {
+                Files.deleteIfExists(chunkPath);
+                deletedCount++;
+            }
+        }
+        log.info("Deleted [{}] unreferenced chunks of snapshots", deletedCount);
+        return deletedCount;
+    }
+
+    private FileEntry storeFile(Path path, String relativePath) throws IOException {
+        FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+        List<String> chunks = new ArrayList<>();
+        long size = 0;
+        byte[] buffer = new byte[CHUNK_SIZE];
+        try (InputStream is = Files.newInputStream(path)) {
+            int length;
+            while ((length = is.readNBytes(buffer, 0, CHUNK_SIZE)) > 0) {
+                chunks.add(storeChunk(buffer, length));
+                size += length;
+            }
+        }
+
+        FileEntry file = new FileEntry();
+        file.setPath(relativePath);
+        file.setSize(size);
+        file.setLastModified(lastModifiedTime.toMillis());
+        file.setChunks(chunks);
+        return file;
+    }
+
+    private boolean chunksExist(FileEntry file) {
+        return file.getChunks().stream()
+            .allMatch(chunk -> Files.isRegularFile(buildChunkPath(chunk)));
+    }
+
+    private String storeChunk(byte[] buffer, int length) throws IOException {
+        MessageDigest digest = createMessageDigest();
+        digest.update(buffer, 0, length);
+        String hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+
+        Path chunkPath = buildChunkPath(hash);
+        if (Files.exists(chunkPath)) {
+            return hash;
+        }
+        Files.createDirectories(chunkPath.getParent());
+        Path tempChunkPath = Files.createTempFile(chunkPath.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(tempChunkPath))) {
+                os.write(buffer, 0, length);
+            }
+            Files.move(tempChunkPath, chunkPath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempChunkPath);
+        }
+        return hash;
+    }
+
+    private void restoreFile(FileEntry file, Path targetDir) throws IOException {
+        Path targetPath = targetDir.resolve(file.getPath()).normalize();
+        FileUtils.checkDirectoryTraversal(targetDir, targetPath);
+        Files.createDirectories(targetPath.getParent());
+        try (OutputStream os = Files.newOutputStream(targetPath)) {
+            for (String chunk : file.getChunks()) {
+                try (InputStream is = new GZIPInputStream(
+                    Files.newInputStream(buildChunkPath(chunk)))) {
+                    is.transferTo(os);
+                }
+            }
+        }
+        Files.setLastModifiedTime(targetPath, FileTime.fromMillis(file.getLastModified()));
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks, String threadNamePrefix)
+        throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while processing snapshot files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new ServiceException("Failed to process snapshot files", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Optional<Path> findLatestManifest() throws IOException {
+        List<Path> manifests = listManifests();
+        Optional<Path> latest = Optional.empty();
+        FileTime latestTime = null;
+        for (Path manifest : manifests) {
+            FileTime lastModifiedTime = Files.getLastModifiedTime(manifest);
+            if (latestTime == null || lastModifiedTime.compareTo(latestTime) > 0) {
+                latest = Optional.of(manifest);
+                latestTime = lastModifiedTime;
+            }
+        }
+        return latest;
+    }
+
+    private List<Path> listManifests() throws IOException {
+        if (Files.notExists(storeDir)) {
+            return List.of();
+        }
+        try (Stream<Path> pathStream = Files.list(storeDir)) {
+            return pathStream
+                .filter(Files::isRegularFile)
+                .filter(this::isManifest)
+                .sorted(Comparator.comparing(Path::getFileName))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Snapshot readManifest(Path manifestPath) {
+        try {
+            return JsonUtils.DEFAULT_JSON_MAPPER.readValue(manifestPath.toFile(), Snapshot.class);
+        } catch (IOException e) {
+            throw new ServiceException("Failed to read snapshot manifest: " + manifestPath, e);
+        }
+    }
+
+    private Path buildChunkPath(String hash) {
+        return chunksDir.resolve(hash.substring(0, 2)).resolve(hash + CHUNK_SUFFIX);
+    }
+
+    private static String toRelativePath(Path workDir, Path path) {
+        List<String> names = new ArrayList<>();
+        workDir.relativize(path).forEach(name -> names.add(name.toString()));
+        return String.join("/", names);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Snapshot manifest.
+     */
+    @Data
+    public static class Snapshot {
+
+        private long createTime;
+
+        private List<String> items;
+
+        private List<FileEntry> files;
+    }
+
+    /**
+     * File of a snapshot.
+     */
+    @Data
+    public static class FileEntry {
+
+        /**
+         * Path relative to the work directory, separated by '/'.
+         */
+        private String path;
+
+        private long size;
+
+        private long lastModified;
+
+        /**
+         * Hashes of chunks in order.
+         */
+        private List<String> chunks;
+    }
+}
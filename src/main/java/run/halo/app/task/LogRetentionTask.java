@@ -0,0 +1,57 @@
+package run.halo.app.task;
+
+import java.time.Duration;
+import java.util.Date;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.service.LogService;
+
+/**
+ * Task pruning logs older than the log retention, in small chunks so that the logs table is
+ * never locked for long.
+ */
+@Slf4j
+@Component
+public class LogRetentionTask {
+
+    /**
+     * Period of pruning logs.(ms)
+     */
+    private static final long PRUNE_PERIOD = 60 * 60 * 1000;
+
+    /**
+     * Maximum number of logs deleted by one statement.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final LogService logService;
+
+    private final HaloProperties haloProperties;
+
+    public LogRetentionTask(LogService logService, HaloProperties haloProperties) {
+        this.logService = logService;
+        this.haloProperties = haloProperties;
+    }
+
+    @Scheduled(initialDelay = 60 * 1000, fixedDelay = PRUNE_PERIOD)
+    public void run() {
+        Duration retention = haloProperties.getLogRetention();
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            return;
+        }
+
+        Date createTime = new Date(System.currentTimeMillis() - retention.toMillis());
+        long pruned = 0;
+        int deleted;
+        do {
+            deleted = logService.deleteCreatedBefore(createTime, CHUNK_SIZE);
+            pruned += deleted;
+        } while (deleted == CHUNK_SIZE && !Thread.currentThread().isInterrupted());
+
+        if (pruned > 0) {
+            log.info("Pruned [{}] logs created before [{}]", pruned, createTime);
+        }
+    }
+}
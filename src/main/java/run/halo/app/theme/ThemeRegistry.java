@@ -0,0 +1,329 @@
+package run.halo.app.theme;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import run.halo.app.handler.theme.config.support.ThemeProperty;
+
+/**
+ * In-memory registry of installed themes.
+ *
+ * <p>The themes directory is scanned once, then every theme folder is rescanned on its own when
+ * the watch service reports a change under it, so looking up themes and their templates never
+ * touches disk. Callers which change theme folders themselves should refresh them directly,
+ * because watch events are delivered asynchronously.
+ */
+@Slf4j
+public class ThemeRegistry {
+
+    /**
+     * Time to wait for more events before applying a burst of changes. (ms)
+     */
+    private static final long DEBOUNCE_DELAY = 200;
+
+    private final Path themeRootPath;
+
+    /**
+     * Scanned themes keyed by their folders, replaced as a whole on every change.
+     */
+    private volatile Map<Path, ThemeEntry> entries = Collections.emptyMap();
+
+    @Nullable
+    private final WatchService watchService;
+
+    @Nullable
+    private final Thread watcher;
+
+    public ThemeRegistry(@NonNull Path themeRootPath) {
+        Assert.notNull(themeRootPath, "Theme root path must not be null");
+
+        this.themeRootPath = themeRootPath.toAbsolutePath().normalize();
+        this.watchService = newWatchService();
+
+        refresh();
+
+        if (watchService != null) {
+            watcher = new Thread(this::watch, "theme-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } else {
+            watcher = null;
+        }
+    }
+
+    /**
+     * Lists all themes.
+     *
+     * @return a list of theme property
+     */
+    @NonNull
+    public List<ThemeProperty> listAll() {
+        return entries.values().stream()
+            .map(ThemeEntry::getProperty)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetches theme property by theme id.
+     *
+     * @param themeId theme id
+     * @return an optional theme property
+     */
+    @NonNull
+    public Optional<ThemeProperty> fetchById(@Nullable String themeId) {
+        return fetchEntry(themeId).map(ThemeEntry::getProperty);
+    }
+
+    /**
+     * Checks whether a template exists in the theme.
+     *
+     * @param themeId theme id
+     * @param template template path relative to the theme folder
+     * @return true if the theme has the template; false otherwise
+     */
+    public boolean templateExists(@Nullable String themeId, @Nullable String template) {
+        if (StringUtils.isBlank(template)) {
+            return false;
+        }
+        String templateName = toName(Paths.get(template).normalize());
+        return fetchEntry(themeId)
+            .map(entry -> entry.getTemplates().contains(templateName))
+            .orElse(false);
+    }
+
+    /**
+     * Rescans all themes.
+     */
+    public synchronized void refresh() {
+        try {
+            if (Files.notExists(themeRootPath)) {
+                Files.createDirectories(themeRootPath);
+            }
+        } catch (IOException e) {
+            log.error("Failed to create directory: " + themeRootPath, e);
+            entries = Collections.emptyMap();
+            return;
+        }
+
+        register(themeRootPath);
+        Map<Path, ThemeEntry> scannedEntries = new LinkedHashMap<>();
+        try (Stream<Path> pathStream = Files.list(themeRootPath)) {
+            pathStream.filter(Files::isDirectory)
+                .sorted()
+                .forEach(folder -> scan(folder)
+                    .ifPresent(entry -> scannedEntries.put(folder, entry)));
+        } catch (IOException e) {
+            log.error("Failed to get themes", e);
+        }
+        entries = scannedEntries;
+        log.debug("Scanned [{}] themes in [{}]", scannedEntries.size(), themeRootPath);
+    }
+
+    /**
+     * Rescans the theme containing the given path.
+     *
+     * @param path path of a theme folder or any file in it must not be null
+     * @return an optional theme property of the rescanned theme
+     */
+    @NonNull
+    public synchronized Optional<ThemeProperty> refresh(@NonNull Path path) {
+        Assert.notNull(path, "Path must not be null");
+
+        Path folder = resolveFolder(path);
+        if (folder == null) {
+            return Optional.empty();
+        }
+
+        Map<Path, ThemeEntry> refreshedEntries = new LinkedHashMap<>(entries);
+        Optional<ThemeEntry> entry = Files.isDirectory(folder) ? scan(folder) : Optional.empty();
+        if (entry.isPresent()) {
+            refreshedEntries.put(folder, entry.get());
+        } else {
+            refreshedEntries.remove(folder);
+        }
+        entries = refreshedEntries;
+        log.debug("Refreshed theme folder [{}]", folder);
+        return entry.map(ThemeEntry::getProperty);
+    }
+
+    /**
+     * Stops watching the themes directory.
+     */
+    public void close() {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("Failed to close theme watch service", e);
+            }
+        }
+    }
+
+    private Optional<ThemeEntry> fetchEntry(@Nullable String themeId) {
+        return entries.values().stream()
+            .filter(entry -> Objects.equals(themeId, entry.getProperty().getId()))
+            .findFirst();
+    }
+
+    /**
+     * Scans a theme folder, and watches all directories of it.
+     */
+    private Optional<ThemeEntry> scan(Path folder) {
+        Optional<ThemeProperty> themeProperty =
+            ThemePropertyScanner.INSTANCE.fetchThemeProperty(folder);
+        if (themeProperty.isEmpty()) {
+            // Still watch it for a theme property file to come
+            register(folder);
+            return Optional.empty();
+        }
+
+        Path themePath = Paths.get(themeProperty.get().getThemePath());
+        Set<String> templates = new HashSet<>();
+        try {
+            Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(folder) && dir.getFileName().toString().startsWith(".")) {
+                        // Skip hidden directories such as .git
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    register(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && file.startsWith(themePath)) {
+                        templates.add(toName(themePath.relativize(file)));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to index templates of theme folder: " + folder, e);
+        }
+        return Optional.of(new ThemeEntry(themeProperty.get(), Set.copyOf(templates)));
+    }
+
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WatchKey key = watchService.take();
+                Set<Path> changedPaths = new HashSet<>();
+                boolean overflow = false;
+                while (key != null) {
+                    Path dir = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            overflow = true;
+                        } else {
+                            changedPaths.add(dir.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                    // Coalesce bursts of events, for example while a theme is being copied
+                    key = watchService.poll(DEBOUNCE_DELAY, TimeUnit.MILLISECONDS);
+                }
+
+                if (overflow) {
+                    refresh();
+                } else {
+                    changedPaths.stream()
+                        .map(this::resolveFolder)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .forEach(this::refresh);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh themes", e);
+            }
+        }
+    }
+
+    @Nullable
+    private WatchService newWatchService() {
+        try {
+            return themeRootPath.getFileSystem().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Failed to watch themes directory, themes are refreshed by events only", e);
+            return null;
+        }
+    }
+
+    private void register(Path dir) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            // Registering a directory again returns the existing key
+            dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        } catch (IOException | ClosedWatchServiceException e) {
+            log.warn("Failed to watch directory: [{}]", dir, e);
+        }
+    }
+
+    /**
+     * Resolves the theme folder, which is a direct child of the themes directory.
+     */
+    @Nullable
+    private Path resolveFolder(Path path) {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        if (!normalizedPath.startsWith(themeRootPath) || normalizedPath.equals(themeRootPath)) {
+            return null;
+        }
+        return themeRootPath.resolve(themeRootPath.relativize(normalizedPath).getName(0));
+    }
+
+    private static String toName(Path relativePath) {
+        List<String> names = new ArrayList<>(relativePath.getNameCount());
+        relativePath.forEach(name -> names.add(name.toString()));
+        return String.join("/", names);
+    }
+
+    /**
+     * Scanned theme with relative paths of all its files.
+     */
+    @Value
+    private static class ThemeEntry {
+
+        ThemeProperty property;
+
+        Set<String> templates;
+    }
+}
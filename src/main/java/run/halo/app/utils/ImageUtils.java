@@ -1,5 +1,6 @@
 package run.halo.app.utils;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -50,4 +51,35 @@ public class ImageUtils {
             throw new IOException("Failed to read image reader.", e);
         }
     }
+
+    /**
+     * Reads dimension of an image from its header, without decoding pixels.
+     *
+     * @param is input stream of the image
+     * @param extension extension of the image
+     * @return dimension of the image
+     * @throws IOException if the image cannot be read
+     */
+    @NonNull
+    public static Dimension getImageDimension(InputStream is, String extension)
+        throws IOException {
+        if (EXTENSION_ICO.equals(extension)) {
+            // Icons are small, and image4j has no header reader
+            BufferedImage icoImage = getImageFromFile(is, extension);
+            return new Dimension(icoImage.getWidth(), icoImage.getHeight());
+        }
+        try (ImageInputStream stream = ImageIO.createImageInputStream(is)) {
+            Iterator<ImageReader> readerIterator = ImageIO.getImageReaders(stream);
+            if (!readerIterator.hasNext()) {
+                throw new IOException("No image reader for format: " + extension);
+            }
+            ImageReader reader = readerIterator.next();
+            try {
+                reader.setInput(stream, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
 }
@@ -12,6 +12,7 @@ import com.github.difflib.patch.InsertDelta;
 import com.github.difflib.patch.Patch;
 import com.github.difflib.patch.PatchFailedException;
 import com.google.common.base.Splitter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import lombok.Data;
@@ -27,6 +28,13 @@ public class PatchUtils {
 
     private static final Splitter lineSplitter = Splitter.on('\n');
 
+    private static final Splitter commaSplitter = Splitter.on(',');
+
+    /**
+     * Header of compact deltas, which tells them from json patches of older versions.
+     */
+    private static final String DELTA_HEADER = "#delta:1";
+
     /**
      * create patch content.
      *
@@ -78,11 +86,14 @@ public class PatchUtils {
     /**
      * restore content.
      *
-     * @param json json string.
+     * @param json compact delta or json string.
      * @param original original string.
      * @return content
      */
     public static String restoreContent(String json, String original) {
+        if (json != null && json.startsWith(DELTA_HEADER)) {
+            return applyDelta(json, original);
+        }
         Patch<String> patch = PatchUtils.create(json);
         try {
             return String.join("\n", patch.applyTo(breakLine(original)));
@@ -103,6 +114,59 @@ public class PatchUtils {
         return PatchUtils.patchToJson(patch);
     }
 
+    /**
+     * Diff to compact delta.
+     *
+     * <p>Every change is encoded as a {@code position,deletedLines,insertedLines} line followed by
+     * the inserted lines. Deleted lines are not kept, as a delta is only applied to the content it
+     * was generated from.
+     *
+     * @param original original.
+     * @param revised revised.
+     * @return compact delta string.
+     */
+    public static String diffToDelta(String original, String revised) {
+        Patch<String> patch = DiffUtils.diff(breakLine(original), breakLine(revised));
+        StringBuilder delta = new StringBuilder(DELTA_HEADER);
+        for (AbstractDelta<String> change : patch.getDeltas()) {
+            List<String> insertedLines = change.getTarget().getLines();
+            delta.append('\n')
+                .append(change.getSource().getPosition()).append(',')
+                .append(change.getSource().size()).append(',')
+                .append(insertedLines.size());
+            insertedLines.forEach(line -> delta.append('\n').append(line));
+        }
+        return delta.toString();
+    }
+
+    private static String applyDelta(String delta, String original) {
+        List<String> sourceLines = breakLine(original);
+        List<String> deltaLines = lineSplitter.splitToList(delta);
+        List<String> lines = new ArrayList<>(sourceLines.size());
+
+        int sourceIndex = 0;
+        int deltaIndex = 1;
+        while (deltaIndex < deltaLines.size()) {
+            List<String> change = commaSplitter.splitToList(deltaLines.get(deltaIndex++));
+            if (change.size() != 3) {
+                throw new IllegalArgumentException("Malformed content delta.");
+            }
+            int position = Integer.parseInt(change.get(0));
+            int deletedLines = Integer.parseInt(change.get(1));
+            int insertedLines = Integer.parseInt(change.get(2));
+            if (position < sourceIndex || position + deletedLines > sourceLines.size()
+                || deltaIndex + insertedLines > deltaLines.size()) {
+                throw new IllegalArgumentException("Malformed content delta.");
+            }
+            lines.addAll(sourceLines.subList(sourceIndex, position));
+            lines.addAll(deltaLines.subList(deltaIndex, deltaIndex + insertedLines));
+            sourceIndex = position + deletedLines;
+            deltaIndex += insertedLines;
+        }
+        lines.addAll(sourceLines.subList(sourceIndex, sourceLines.size()));
+        return String.join("\n", lines);
+    }
+
     /**
      * break line.
      *
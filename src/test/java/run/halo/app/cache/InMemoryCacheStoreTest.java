@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
@@ -116,4 +118,112 @@ class InMemoryCacheStoreTest {
         assertEquals("{test_key_2=test_value_2, test_key_1=test_value_1}",
             localCacheStore.toMap().toString());
     }
+
+    @Test
+    void leastRecentlyUsedProbationEntryShouldBeEvicted() {
+        InMemoryCacheStore localCacheStore = new InMemoryCacheStore(3, 1024 * 1024);
+        localCacheStore.put("a", "a");
+        localCacheStore.put("b", "b");
+        localCacheStore.put("c", "c");
+        // Promote a into protected segment
+        localCacheStore.get("a");
+
+        localCacheStore.put("d", "d");
+
+        assertTrue(localCacheStore.get("a").isPresent());
+        assertFalse(localCacheStore.get("b").isPresent());
+        assertTrue(localCacheStore.get("c").isPresent());
+        assertTrue(localCacheStore.get("d").isPresent());
+        assertEquals(1, localCacheStore.getStats().getEvictionCount());
+    }
+
+    @Test
+    void newEntryShouldSurviveWhenPromotedEntriesFillCache() {
+        InMemoryCacheStore localCacheStore = new InMemoryCacheStore(5, 1024 * 1024);
+        for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+            localCacheStore.put(key, key);
+        }
+        // Promote every entry, the least recently used one is demoted back to probation
+        for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+            localCacheStore.get(key);
+        }
+
+        localCacheStore.put("f", "f");
+        assertTrue(localCacheStore.get("f").isPresent());
+        assertFalse(localCacheStore.get("a").isPresent());
+
+        localCacheStore.put("g", "g");
+        assertTrue(localCacheStore.get("g").isPresent());
+        assertFalse(localCacheStore.get("b").isPresent());
+        assertEquals(5, localCacheStore.getStats().getSize());
+    }
+
+    @Test
+    void entriesShouldBeEvictedBySize() {
+        // Every entry weighs 96 bytes of overhead and 2 bytes per char
+        InMemoryCacheStore localCacheStore = new InMemoryCacheStore(100, 400);
+        String value = "v".repeat(50);
+        localCacheStore.put("a", value);
+        localCacheStore.put("b", value);
+        localCacheStore.put("c", value);
+
+        assertEquals(2, localCacheStore.getStats().getSize());
+        assertEquals(396, localCacheStore.getStats().getWeight());
+        assertFalse(localCacheStore.get("a").isPresent());
+
+        // Too large to be cached at all
+        localCacheStore.put("b", "v".repeat(200));
+        assertFalse(localCacheStore.get("b").isPresent());
+        assertTrue(localCacheStore.get("c").isPresent());
+    }
+
+    @Test
+    void statsShouldCountHitsAndMisses() {
+        cacheStore.put("test_key", "test_value");
+
+        cacheStore.get("test_key");
+        cacheStore.get("test_key");
+        cacheStore.get("absent_key");
+
+        InMemoryCacheStore.CacheStats stats = cacheStore.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void readsShouldBeReplayedBeforeEviction() {
+        InMemoryCacheStore localCacheStore = new InMemoryCacheStore(3, 1024 * 1024);
+        localCacheStore.put("a", "a");
+        localCacheStore.put("b", "b");
+        localCacheStore.put("c", "c");
+        // More reads than the read buffer holds, so some of them are dropped
+        for (int i = 0; i < 1000; i++) {
+            localCacheStore.get("a");
+        }
+
+        localCacheStore.put("d", "d");
+
+        assertTrue(localCacheStore.get("a").isPresent());
+        assertFalse(localCacheStore.get("b").isPresent());
+        assertEquals(1001, localCacheStore.getStats().getHitCount());
+    }
+
+    @Test
+    void statsShouldBeBoundToMeterRegistry() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cacheStore.bindTo(meterRegistry, "memory");
+        cacheStore.put("test_key", "test_value");
+
+        cacheStore.get("test_key");
+        cacheStore.get("absent_key");
+
+        assertEquals(1.0, meterRegistry.get("halo.cache.gets")
+            .tags("cache", "memory", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("halo.cache.gets")
+            .tags("cache", "memory", "result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("halo.cache.size").gauge().value());
+        assertEquals(cacheStore.getStats().getWeight(),
+            meterRegistry.get("halo.cache.bytes").gauge().value());
+    }
 }
@@ -5,7 +5,10 @@ import static run.halo.app.model.support.HaloConst.FILE_SEPARATOR;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.iq80.leveldb.DB;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,9 +49,54 @@ public class LevelCacheStoreTest {
         assertThat(cacheStore.toMap().toString()).isEqualTo("{A=B, B=null}");
     }
 
+    @Test
+    public void expiredValuesShouldBeCleanedByExpiryIndex() throws InterruptedException {
+        cacheStore.put("C", "expiring", 1, TimeUnit.MILLISECONDS);
+        cacheStore.put("D", "replaced", 1, TimeUnit.MILLISECONDS);
+        cacheStore.put("D", "kept");
+        cacheStore.put("E", "kept", 1, TimeUnit.HOURS);
+        Thread.sleep(10);
+
+        cacheStore.cleanExpired();
+
+        DB levelDb = (DB) ReflectionTestUtils.getField(cacheStore, "LEVEL_DB");
+        assertThat(levelDb.get("C".getBytes())).isNull();
+        assertThat(cacheStore.get("D")).contains("kept");
+        assertThat(cacheStore.get("E")).contains("kept");
+        // Only the index entry of E is left
+        assertThat(cacheStore.toMap()).doesNotContainKey("C");
+        cacheStore.delete("E");
+        long internalEntries = 0;
+        for (Map.Entry<byte[], byte[]> entry : levelDb) {
+            if (entry.getKey()[0] == 0 && entry.getKey()[1] == 'e') {
+                internalEntries++;
+            }
+        }
+        assertThat(internalEntries).isZero();
+    }
+
+    @Test
+    public void batchShouldPutAndGetValues() {
+        cacheStore.putAll(Map.of("C", "1", "D", "2"), 1, TimeUnit.HOURS);
+
+        assertThat(cacheStore.getAll(List.of("C", "D", "E"))).isEqualTo(Map.of("C", "1", "D", "2"));
+        assertThat(cacheStore.putIfAbsent("C", "3", 1, TimeUnit.HOURS)).isFalse();
+
+        cacheStore.deleteAll(List.of("C", "D"));
+        assertThat(cacheStore.getAll(List.of("C", "D"))).isEmpty();
+        assertThat(cacheStore.putIfAbsent("C", "3", 1, TimeUnit.HOURS)).isTrue();
+    }
+
+    @Test
+    public void jsonValuesShouldStillBeRead() {
+        DB levelDb = (DB) ReflectionTestUtils.getField(cacheStore, "LEVEL_DB");
+        levelDb.put("C".getBytes(), "{\"data\":\"json\",\"expireAt\":null}".getBytes());
+
+        assertThat(cacheStore.get("C")).contains("json");
+    }
+
     @AfterEach
     public void cleanUp() {
-        cacheStore.delete("A");
-        cacheStore.delete("B");
+        cacheStore.deleteAll(List.of("A", "B", "C", "D", "E"));
     }
 }
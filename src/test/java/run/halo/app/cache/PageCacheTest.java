@@ -0,0 +1,92 @@
+package run.halo.app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Page cache test.
+ */
+class PageCacheTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    PageCache pageCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pageCache = new PageCache(10, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    @Test
+    void hitAndMissShouldBeCounted() {
+        pageCache.put("/", page("hello"), pageCache.getGeneration());
+
+        assertTrue(pageCache.get("/").isPresent());
+        assertFalse(pageCache.get("/archives").isPresent());
+
+        assertEquals(1, meterRegistry.get("halo.page.cache.gets").tag("result", "hit")
+            .counter().count());
+        assertEquals(1, meterRegistry.get("halo.page.cache.gets").tag("result", "miss")
+            .counter().count());
+    }
+
+    @Test
+    void leastRecentlyUsedPageShouldBeEvicted() {
+        pageCache.put("/a", page("aaaa"), pageCache.getGeneration());
+        pageCache.put("/b", page("bbbb"), pageCache.getGeneration());
+        pageCache.get("/a");
+        pageCache.put("/c", page("cccc"), pageCache.getGeneration());
+
+        assertTrue(pageCache.get("/a").isPresent());
+        assertFalse(pageCache.get("/b").isPresent());
+        assertTrue(pageCache.get("/c").isPresent());
+        assertEquals(8, pageCache.bytes());
+        assertEquals(1, meterRegistry.get("halo.page.cache.evictions").counter().count());
+    }
+
+    @Test
+    void pageLargerThanLimitShouldNotBeCached() {
+        pageCache.put("/", page("hello world"), pageCache.getGeneration());
+
+        assertEquals(0, pageCache.size());
+    }
+
+    @Test
+    void pageRenderedBeforeClearShouldNotBeCached() {
+        long generation = pageCache.getGeneration();
+        pageCache.onContentChanged();
+        pageCache.put("/", page("stale"), generation);
+
+        assertFalse(pageCache.get("/").isPresent());
+    }
+
+    @Test
+    void expiredPageShouldBeRemoved() {
+        pageCache = new PageCache(10, Duration.ofMillis(-1), meterRegistry);
+        pageCache.put("/", page("hello"), pageCache.getGeneration());
+
+        assertFalse(pageCache.get("/").isPresent());
+        assertEquals(0, pageCache.bytes());
+    }
+
+    @Test
+    void etagShouldDependOnBody() {
+        assertEquals(page("hello").getEtag(), page("hello").getEtag());
+        assertFalse(page("hello").getEtag().equals(page("world").getEtag()));
+    }
+
+    private PageCache.Page page(String body) {
+        return new PageCache.Page(body.getBytes(StandardCharsets.UTF_8), "text/html",
+            HttpHeaders.EMPTY, List.of());
+    }
+}
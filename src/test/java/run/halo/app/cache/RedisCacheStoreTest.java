@@ -6,7 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -144,6 +147,69 @@ class RedisCacheStoreTest {
         assertThat(map.get("halo.redis.test_key_1")).isEqualTo("test_value_1");
     }
 
+    @Test
+    void putIfAbsentTest() {
+        String key = "test_key";
+
+        assertTrue(cacheStore.putIfAbsent(key, "test_value", 1, TimeUnit.MINUTES));
+        assertFalse(cacheStore.putIfAbsent(key, "another_value", 1, TimeUnit.MINUTES));
+        assertEquals(Optional.of("test_value"), cacheStore.get(key));
+    }
+
+    @Test
+    void putExpiredCacheTest() {
+        String key = "test_key";
+        cacheStore.put(key, "test_value");
+
+        // Expires in less than a millisecond
+        cacheStore.put(key, "another_value", 1, TimeUnit.NANOSECONDS);
+        assertFalse(cacheStore.get(key).isPresent());
+
+        assertFalse(cacheStore.putIfAbsent(key, "test_value", 1, TimeUnit.NANOSECONDS));
+        assertFalse(cacheStore.get(key).isPresent());
+    }
+
+    @Test
+    void getAllAndDeleteAllTest() {
+        cacheStore.put("test_key_1", "test_value_1");
+        cacheStore.put("test_key_2", "test_value_2");
+
+        Map<String, String> values =
+            cacheStore.getAll(List.of("test_key_1", "test_key_3", "test_key_2"));
+        assertEquals(Map.of("test_key_1", "test_value_1", "test_key_2", "test_value_2"), values);
+
+        cacheStore.deleteAll(List.of("test_key_1", "test_key_2", "test_key_3"));
+        assertTrue(cacheStore.getAll(List.of("test_key_1", "test_key_2")).isEmpty());
+    }
+
+    @Test
+    void nearCacheShouldBeInvalidatedAcrossNodes() throws InterruptedException {
+        RedisNearCacheStore node1 =
+            new RedisNearCacheStore(redisTemplate, 100, 1024 * 1024, Duration.ofMinutes(1));
+        RedisNearCacheStore node2 =
+            new RedisNearCacheStore(redisTemplate, 100, 1024 * 1024, Duration.ofMinutes(1));
+        try {
+            node1.put("test_key", "test_value");
+            assertEquals(Optional.of("test_value"), node2.get("test_key"));
+            assertEquals(Optional.of("test_value"), node2.get("test_key"));
+            assertEquals(1, node2.getNearCacheStats().getHitCount());
+
+            node1.put("test_key", "another_value");
+            Optional<String> value = node2.get("test_key");
+            for (int i = 0; i < 50 && !Optional.of("another_value").equals(value); i++) {
+                TimeUnit.MILLISECONDS.sleep(100);
+                value = node2.get("test_key");
+            }
+            assertEquals(Optional.of("another_value"), value);
+
+            node1.delete("test_key");
+            assertFalse(node1.get("test_key").isPresent());
+        } finally {
+            node1.preDestroy();
+            node2.preDestroy();
+        }
+    }
+
     public void clearAllCache() {
         Set<String> keys = redisTemplate.keys("*");
         if (keys == null) {
@@ -0,0 +1,72 @@
+package run.halo.app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Timer wheel test.
+ */
+class TimerWheelTest {
+
+    List<Long> expired;
+
+    TimerWheel<TestTimer> timerWheel;
+
+    @BeforeEach
+    void setUp() {
+        expired = new ArrayList<>();
+        timerWheel = new TimerWheel<>(0, timer -> expired.add(timer.expireAt));
+    }
+
+    @Test
+    void timersShouldExpireInOrderAcrossLevels() {
+        long twoMinutes = 2 * 60 * 1000;
+        long twoHours = 2 * 60 * 60 * 1000;
+        timerWheel.schedule(new TestTimer(twoHours));
+        timerWheel.schedule(new TestTimer(twoMinutes));
+        timerWheel.schedule(new TestTimer(5000));
+        timerWheel.schedule(new TestTimer(500));
+
+        timerWheel.advance(400);
+        assertTrue(expired.isEmpty());
+
+        // Timers expire once the second they belong to has passed
+        timerWheel.advance(1024);
+        assertEquals(List.of(500L), expired);
+
+        timerWheel.advance(6000);
+        assertEquals(List.of(500L, 5000L), expired);
+
+        timerWheel.advance(twoMinutes + 10_000);
+        assertEquals(List.of(500L, 5000L, twoMinutes), expired);
+
+        timerWheel.advance(twoHours - 1);
+        assertEquals(3, expired.size());
+
+        timerWheel.advance(twoHours + 1024);
+        assertEquals(List.of(500L, 5000L, twoMinutes, twoHours), expired);
+    }
+
+    @Test
+    void descheduledTimerShouldNotExpire() {
+        TestTimer timer = new TestTimer(500);
+        timerWheel.schedule(timer);
+        timerWheel.deschedule(timer);
+
+        timerWheel.advance(10_000);
+
+        assertTrue(expired.isEmpty());
+    }
+
+    static class TestTimer extends TimerWheel.Timer {
+
+        TestTimer(long expireAt) {
+            this.expireAt = expireAt;
+        }
+    }
+}
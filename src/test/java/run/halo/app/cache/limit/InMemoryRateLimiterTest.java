@@ -0,0 +1,91 @@
+package run.halo.app.cache.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * In-memory rate limiter test.
+ */
+class InMemoryRateLimiterTest {
+
+    static final Duration WINDOW = Duration.ofSeconds(10);
+
+    MutableClock clock;
+
+    InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        rateLimiter = new InMemoryRateLimiter(clock);
+    }
+
+    @Test
+    void burstShouldBeRejectedUntilWindowSlides() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(rateLimiter.tryAcquire("comment:127.0.0.1", 4, WINDOW));
+        }
+        assertFalse(rateLimiter.tryAcquire("comment:127.0.0.1", 4, WINDOW));
+        // Other keys are limited separately
+        assertTrue(rateLimiter.tryAcquire("comment:127.0.0.2", 4, WINDOW));
+
+        // A quarter of the next window: 4 * 0.75 previous requests are still in the window
+        clock.millis = 12_500;
+        assertTrue(rateLimiter.tryAcquire("comment:127.0.0.1", 4, WINDOW));
+        assertFalse(rateLimiter.tryAcquire("comment:127.0.0.1", 4, WINDOW));
+
+        // Previous requests have all slid out
+        clock.millis = 30_000;
+        for (int i = 0; i < 4; i++) {
+            assertTrue(rateLimiter.tryAcquire("comment:127.0.0.1", 4, WINDOW));
+        }
+    }
+
+    @Test
+    void idleCountersShouldBeEvicted() {
+        rateLimiter.tryAcquire("login:127.0.0.1", 10, WINDOW);
+        rateLimiter.tryAcquire("login:127.0.0.2", 10, Duration.ofMinutes(1));
+
+        clock.millis = 20_000;
+        rateLimiter.evictIdleCounters();
+        assertEquals(1, rateLimiter.size());
+
+        clock.millis = 120_000;
+        rateLimiter.evictIdleCounters();
+        assertEquals(0, rateLimiter.size());
+    }
+
+    static class MutableClock extends Clock {
+
+        long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package run.halo.app.cache.lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Local lock service test.
+ */
+class LocalLockServiceTest {
+
+    static final Duration LEASE = Duration.ofMinutes(1);
+
+    LocalLockService lockService = new LocalLockService();
+
+    @Test
+    void lockShouldOnlyBeReleasedByOwner() {
+        assertTrue(lockService.tryLock("login", "owner-a", LEASE));
+        assertFalse(lockService.tryLock("login", "owner-b", LEASE));
+        assertTrue(lockService.tryLock("comment", "owner-b", LEASE));
+
+        assertFalse(lockService.unlock("login", "owner-b"));
+        assertFalse(lockService.tryLock("login", "owner-b", LEASE));
+
+        assertTrue(lockService.unlock("login", "owner-a"));
+        assertTrue(lockService.tryLock("login", "owner-b", LEASE));
+    }
+
+    @Test
+    void expiredLockShouldBeTakenOver() {
+        assertTrue(lockService.tryLock("login", "owner-a", Duration.ZERO));
+        assertTrue(lockService.tryLock("login", "owner-b", LEASE));
+
+        // The late owner must not release the lock of the next owner
+        assertFalse(lockService.unlock("login", "owner-a"));
+        assertFalse(lockService.tryLock("login", "owner-c", LEASE));
+
+        lockService.tryLock("expired", "owner-a", Duration.ZERO);
+        lockService.evictExpiredLeases();
+        assertTrue(lockService.unlock("login", "owner-b"));
+        assertFalse(lockService.unlock("expired", "owner-a"));
+    }
+
+    @Test
+    void onlyOneOwnerShouldAcquireConcurrently() throws InterruptedException {
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            String owner = "owner-" + i;
+            String key = "key-" + i % 10;
+            executor.execute(() -> {
+                if (lockService.tryLock(key, owner, LEASE)) {
+                    acquired.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(10, acquired.get());
+    }
+}
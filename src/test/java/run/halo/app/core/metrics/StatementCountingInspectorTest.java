@@ -0,0 +1,52 @@
+package run.halo.app.core.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Statement counting inspector test.
+ */
+class StatementCountingInspectorTest {
+
+    final StatementCountingInspector inspector = new StatementCountingInspector();
+
+    @AfterEach
+    void tearDown() {
+        RequestProfile.end();
+    }
+
+    @Test
+    void statementsShouldBeCountedForCurrentRequest() {
+        RequestProfile profile = RequestProfile.start();
+
+        assertEquals("select * from posts", inspector.inspect("select * from posts"));
+        inspector.inspect("select * from tags");
+        inspector.inspect("select * from posts");
+
+        assertEquals(3, profile.getStatementCount());
+        assertEquals(Map.of("select * from posts", 2, "select * from tags", 1),
+            profile.getStatements());
+    }
+
+    @Test
+    void distinctStatementsShouldBeBounded() {
+        RequestProfile profile = RequestProfile.start();
+
+        for (int i = 0; i < 150; i++) {
+            inspector.inspect("select * from posts where id = " + i);
+        }
+
+        assertEquals(150, profile.getStatementCount());
+        assertEquals(100, profile.getStatements().size());
+    }
+
+    @Test
+    void statementsOutsideRequestShouldBeIgnored() {
+        assertEquals("select 1", inspector.inspect("select 1"));
+        assertFalse(RequestProfile.current().isPresent());
+    }
+}
@@ -0,0 +1,150 @@
+package run.halo.app.handler.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.model.entity.Attachment;
+import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.enums.ImageVariantStatus;
+import run.halo.app.repository.AttachmentRepository;
+
+/**
+ * Image pipeline test.
+ */
+class ImagePipelineTest {
+
+    @TempDir
+    Path workDir;
+
+    @Mock
+    AttachmentRepository attachmentRepository;
+
+    HaloProperties haloProperties;
+
+    ImagePipeline imagePipeline;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(workDir.toString());
+        haloProperties.setImageVariantWidths(List.of(320, 640, 1280));
+        imagePipeline = new ImagePipeline(attachmentRepository, haloProperties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        imagePipeline.preDestroy();
+    }
+
+    @Test
+    void buildVariantKey() {
+        assertEquals("upload/2022/05/photo-320w.png",
+            ImagePipeline.buildVariantKey("upload/2022/05/photo.png", 320));
+        assertEquals("photo-640w.tar.gz", ImagePipeline.buildVariantKey("photo.tar.gz", 640));
+        assertEquals("upload/photo-thumbnail",
+            LocalFileHandler.buildThumbnailKey("upload/photo"));
+    }
+
+    @Test
+    void subsamplingShouldKeepRequiredWidthAndBoundPixels() {
+        assertEquals(1, ImagePipeline.computeSubsampling(1000, 800, 1280, 16_000_000));
+        assertEquals(3, ImagePipeline.computeSubsampling(4000, 3000, 1280, 16_000_000));
+        // 20000 x 20000 must be subsampled to at most 16M pixels
+        assertEquals(5, ImagePipeline.computeSubsampling(20000, 20000, 10000, 16_000_000));
+    }
+
+    @Test
+    void variantsSmallerThanImageShouldBeGenerated() throws IOException {
+        Files.createDirectories(workDir.resolve("upload"));
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png",
+            workDir.resolve("upload/photo.png").toFile());
+
+        Attachment attachment = new Attachment();
+        attachment.setId(1);
+        attachment.setFileKey("upload/photo.png");
+        attachment.setMediaType("image/png");
+        attachment.setType(AttachmentType.LOCAL);
+        attachment.setVariantStatus(ImageVariantStatus.PENDING);
+        given(attachmentRepository.findById(1)).willReturn(Optional.of(attachment));
+
+        imagePipeline.submit(attachment);
+
+        verify(attachmentRepository, timeout(10_000)).save(any(Attachment.class));
+        assertEquals(ImageVariantStatus.READY, attachment.getVariantStatus());
+        assertEquals("320,640", attachment.getVariantWidths());
+        assertEquals("upload/photo-thumbnail.png", attachment.getThumbPath());
+        assertEquals(List.of(320, 640), ImagePipeline.listVariantWidths(attachment));
+        assertTrue(Files.exists(workDir.resolve("upload/photo-thumbnail.png")));
+        assertTrue(Files.exists(workDir.resolve("upload/photo-640w.png")));
+        assertFalse(Files.exists(workDir.resolve("upload/photo-1280w.png")));
+        assertEquals(320, ImageIO.read(workDir.resolve("upload/photo-320w.png").toFile())
+            .getWidth());
+    }
+
+    @Test
+    void variantsWiderThanDecodedImageShouldBeSkipped() throws IOException {
+        // 800 x 600 is subsampled by 2 to stay under the limit, which decodes to 400 x 300
+        haloProperties.setImageDecodeMaxPixels(120_000);
+        Files.createDirectories(workDir.resolve("upload"));
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png",
+            workDir.resolve("upload/photo.png").toFile());
+
+        Attachment attachment = new Attachment();
+        attachment.setId(1);
+        attachment.setFileKey("upload/photo.png");
+        attachment.setMediaType("image/png");
+        attachment.setType(AttachmentType.LOCAL);
+        attachment.setVariantStatus(ImageVariantStatus.PENDING);
+        given(attachmentRepository.findById(1)).willReturn(Optional.of(attachment));
+
+        imagePipeline.submit(attachment);
+
+        verify(attachmentRepository, timeout(10_000)).save(any(Attachment.class));
+        assertEquals(ImageVariantStatus.READY, attachment.getVariantStatus());
+        assertEquals("320", attachment.getVariantWidths());
+        assertTrue(Files.exists(workDir.resolve("upload/photo-320w.png")));
+        assertFalse(Files.exists(workDir.resolve("upload/photo-640w.png")));
+    }
+
+    @Test
+    void variantsShouldBeDeletedByStoredWidths() throws IOException {
+        Files.createDirectories(workDir.resolve("upload"));
+        for (String name : List.of("photo.png", "photo-thumbnail.png", "photo-100w.png",
+            "photo-200w.png")) {
+            Files.createFile(workDir.resolve("upload").resolve(name));
+        }
+
+        Attachment attachment = new Attachment();
+        attachment.setFileKey("upload/photo.png");
+        attachment.setType(AttachmentType.LOCAL);
+        attachment.setVariantWidths("100,200");
+        attachment.setVariantStatus(ImageVariantStatus.READY);
+
+        new LocalFileHandler(attachmentRepository, haloProperties).delete(attachment);
+
+        try (var files = Files.list(workDir.resolve("upload"))) {
+            assertEquals(0, files.count());
+        }
+    }
+}
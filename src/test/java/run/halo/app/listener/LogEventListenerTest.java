@@ -0,0 +1,162 @@
+package run.halo.app.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.logger.LogEvent;
+import run.halo.app.listener.logger.LogEventListener;
+import run.halo.app.model.entity.Log;
+import run.halo.app.model.enums.LogType;
+import run.halo.app.service.LogService;
+
+/**
+ * Log event listener test.
+ */
+class LogEventListenerTest {
+
+    @Mock
+    LogService logService;
+
+    @Mock
+    HaloProperties haloProperties;
+
+    MeterRegistry meterRegistry;
+
+    LogEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Never flush during the test unless asked to
+        when(haloProperties.getLogFlushPeriod()).thenReturn(Duration.ofHours(1));
+        when(haloProperties.getLogQueueCapacity()).thenReturn(3);
+        when(haloProperties.getLogBatchSize()).thenReturn(2);
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new LogEventListener(logService, haloProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        listener.preDestroy();
+    }
+
+    @Test
+    void logsShouldBeWrittenInBatches() throws InterruptedException {
+        publish("1", "2", "3");
+
+        verify(logService, never()).createInBatch(anyList());
+
+        listener.preDestroy();
+
+        assertEquals(List.of(List.of("1", "2"), List.of("3")), writtenContents(2));
+    }
+
+    @Test
+    void logsShouldBeDroppedIfQueueIsFull() throws InterruptedException {
+        publish("1", "2", "3", "4");
+
+        assertEquals(1, meterRegistry.counter("halo.logs.dropped").count());
+        listener.preDestroy();
+        assertEquals(List.of(List.of("1", "2"), List.of("3")), writtenContents(2));
+    }
+
+    @Test
+    void failedBatchShouldBeWrittenOneByOne() throws InterruptedException {
+        doThrow(new IllegalStateException("Deadlock"))
+            .doNothing()
+            .when(logService).createInBatch(anyList());
+        publish("1", "2", "3");
+
+        listener.preDestroy();
+
+        assertEquals(List.of(List.of("1", "2"), List.of("1"), List.of("2"), List.of("3")),
+            writtenContents(4));
+        assertEquals(0, meterRegistry.counter("halo.logs.dropped").count());
+    }
+
+    @Test
+    void unwritableLogShouldBeDropped() throws InterruptedException {
+        doAnswer(invocation -> {
+            List<Log> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(log -> "bad".equals(log.getContent()))) {
+                throw new IllegalStateException("Value too long");
+            }
+            return null;
+        }).when(logService).createInBatch(anyList());
+        publish("1", "bad", "3");
+
+        listener.preDestroy();
+
+        assertEquals(List.of(List.of("1", "bad"), List.of("1"), List.of("bad"), List.of("3")),
+            writtenContents(4));
+        assertEquals(1, meterRegistry.counter("halo.logs.dropped").count());
+    }
+
+    @Test
+    void batchShouldBeKeptWhileDatabaseIsUnavailable() throws InterruptedException {
+        doThrow(new CannotGetJdbcConnectionException("Database is down"))
+            .when(logService).createInBatch(anyList());
+        publish("1", "2", "3");
+
+        listener.preDestroy();
+
+        // Neither written one by one nor retried on shutdown
+        assertEquals(List.of(List.of("1", "2")), writtenContents(1));
+        assertEquals(3, meterRegistry.counter("halo.logs.dropped").count());
+    }
+
+    @Test
+    void batchShouldBeRetriedUntilDatabaseRecovers() throws InterruptedException {
+        listener.preDestroy();
+        when(haloProperties.getLogFlushPeriod()).thenReturn(Duration.ofMillis(10));
+        listener = new LogEventListener(logService, haloProperties, meterRegistry);
+        doThrow(new CannotGetJdbcConnectionException("Database is down"))
+            .doThrow(new CannotGetJdbcConnectionException("Database is down"))
+            .doThrow(new CannotGetJdbcConnectionException("Database is down"))
+            .doNothing()
+            .when(logService).createInBatch(anyList());
+        publish("1");
+
+        verify(logService, timeout(5000).times(4)).createInBatch(anyList());
+        listener.preDestroy();
+
+        assertEquals(List.of(List.of("1"), List.of("1"), List.of("1"), List.of("1")),
+            writtenContents(4));
+        assertEquals(0, meterRegistry.counter("halo.logs.dropped").count());
+    }
+
+    void publish(String... contents) {
+        for (String content : contents) {
+            listener.onApplicationEvent(new LogEvent(this, "admin", LogType.LOGGED_IN, content));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    List<List<String>> writtenContents(int batches) {
+        ArgumentCaptor<List<Log>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(logService, times(batches)).createInBatch(batchCaptor.capture());
+        return batchCaptor.getAllValues().stream()
+            .map(batch -> batch.stream().map(Log::getContent).collect(Collectors.toList()))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+package run.halo.app.listener;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.post.PostVisitEvent;
+import run.halo.app.exception.BadRequestException;
+import run.halo.app.listener.post.PostVisitEventListener;
+import run.halo.app.service.PostService;
+
+/**
+ * Post visit event listener test.
+ */
+class PostVisitEventListenerTest {
+
+    @Mock
+    PostService postService;
+
+    @Mock
+    HaloProperties haloProperties;
+
+    PostVisitEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Never flush during the test unless asked to
+        when(haloProperties.getVisitFlushPeriod()).thenReturn(Duration.ofHours(1));
+        listener = new PostVisitEventListener(postService, haloProperties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        listener.preDestroy();
+    }
+
+    @Test
+    void visitsShouldBeCoalescedOnShutdown() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            listener.onPostVisitEvent(new PostVisitEvent(this, 1));
+        }
+        listener.onPostVisitEvent(new PostVisitEvent(this, 2));
+
+        verify(postService, never()).increaseVisit(anyLong(), eq(1));
+
+        listener.preDestroy();
+
+        verify(postService, times(1)).increaseVisit(5L, 1);
+        verify(postService, times(1)).increaseVisit(1L, 2);
+    }
+
+    @Test
+    void visitsOfMissingPostShouldBeDropped() throws InterruptedException {
+        doThrow(new BadRequestException("Not found")).when(postService).increaseVisit(2L, 3);
+
+        listener.onPostVisitEvent(new PostVisitEvent(this, 3));
+        listener.onPostVisitEvent(new PostVisitEvent(this, 3));
+        listener.preDestroy();
+        listener.preDestroy();
+
+        verify(postService, times(1)).increaseVisit(anyLong(), eq(3));
+    }
+}
@@ -174,4 +174,15 @@ public class ContentPatchLogRepositoryTest {
         assertThat(latestPublished.getId()).isEqualTo(8);
         assertThat(latestPublished.getVersion()).isEqualTo(5);
     }
+
+    @Test
+    public void findAllAfter() {
+        List<ContentPatchLog> firstPage = contentPatchLogRepository.findAllAfter(null, 3);
+        assertThat(firstPage).extracting(ContentPatchLog::getId).containsExactly(2, 3, 4);
+
+        List<ContentPatchLog> secondPage = contentPatchLogRepository.findAllAfter(4, 3);
+        assertThat(secondPage).extracting(ContentPatchLog::getId).containsExactly(5, 6, 7);
+
+        assertThat(contentPatchLogRepository.findAllAfter(8, 3)).isEmpty();
+    }
 }
@@ -0,0 +1,115 @@
+package run.halo.app.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Post search index test.
+ */
+class PostSearchIndexTest {
+
+    PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex();
+        index.put(1, "Hello Halo", "Halo is a blog system written in Java.", 1L);
+        index.put(2, "数据库索引", "倒排索引可以加速全文检索，数据库也会使用索引。", 2L);
+        index.put(3, "Java tips", "Some tips about java collections and halo plugins.", 3L);
+    }
+
+    @Test
+    void tokenizeTest() {
+        assertEquals(List.of("hello", "world"), SearchTokenizer.tokenize("Hello, World!"));
+        assertEquals(Set.of("数据", "据库"), SearchTokenizer.tokenizeQuery("数据库"));
+        assertEquals(Set.of("库"), SearchTokenizer.tokenizeQuery("库"));
+        assertTrue(SearchTokenizer.tokenize("数据库").contains("库"));
+    }
+
+    @Test
+    void titleMatchShouldRankFirst() {
+        Page<Integer> result = index.search("halo", PageRequest.of(0, 10));
+
+        assertEquals(List.of(1, 3), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void allTermsShouldMatch() {
+        assertEquals(List.of(3), index.search("java plugins", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("java missing", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void cjkSearchTest() {
+        assertEquals(List.of(2), index.search("检索", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(2), index.search("索", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("检数", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void prefixSearchTest() {
+        index.put(4, "Spring Boot", "Springboot starters.", 4L);
+
+        assertEquals(List.of(3), index.search("coll", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(4), index.search("springb", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(1, 3), index.search("hal", PageRequest.of(0, 10)).getContent());
+        // Short terms and terms in the middle of a word only match exactly
+        assertTrue(index.search("ja", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(index.search("pringboot", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void pagingTest() {
+        Page<Integer> result = index.search("halo", PageRequest.of(1, 1));
+
+        assertEquals(List.of(3), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void removeAndReplaceTest() {
+        index.remove(1);
+        assertEquals(List.of(3), index.search("halo", PageRequest.of(0, 10)).getContent());
+
+        index.put(3, "Java tips", "Nothing related any more.", 3L);
+        assertTrue(index.search("halo", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void highlightTest() {
+        assertEquals("<mark>Halo</mark> is a blog system written in <mark>Java</mark>.",
+            index.highlight(1, "java halo", 150).orElse(null));
+        assertEquals("倒排<mark>索引</mark>可以加速全文检索，数据库也会使用<mark>索引</mark>。",
+            index.highlight(2, "索引", 150).orElse(null));
+        assertEquals("...，<mark>数据库</mark>也会使...",
+            index.highlight(2, "数据库", 7).orElse(null));
+        assertFalse(index.highlight(4, "halo", 150).isPresent());
+    }
+
+    @Test
+    void highlightShouldOnlyKeepBeginningOfContent() {
+        String content = "a".repeat(PostSearchIndex.SNIPPET_SOURCE_LENGTH) + " halo";
+        index.put(5, "Long", content, 5L);
+
+        assertEquals(List.of(5), index.search("long halo", PageRequest.of(0, 10)).getContent());
+        assertEquals("a".repeat(10) + "...", index.highlight(5, "halo", 10).orElse(null));
+    }
+
+    @Test
+    void highlightShouldEscapeHtml() {
+        index.put(5, "Escape", "<script>alert('halo')</script>", 5L);
+
+        assertEquals("&lt;script&gt;alert(&#39;<mark>halo</mark>&#39;)&lt;/script&gt;",
+            index.highlight(5, "halo", 150).orElse(null));
+    }
+}
@@ -1,27 +1,30 @@
 package run.halo.app.security;
 
 import static org.hamcrest.core.Is.is;
+import static org.mockito.BDDMockito.given;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-import static run.halo.app.service.OptionService.OPTIONS_KEY;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.model.entity.Option;
 import run.halo.app.model.properties.PrimaryProperties;
+import run.halo.app.repository.OptionRepository;
 import run.halo.app.security.service.OneTimeTokenService;
 import run.halo.app.utils.DateUtils;
 
@@ -38,18 +41,19 @@ class OneTimeTokenTest {
     @Autowired
     OneTimeTokenService oneTimeTokenService;
 
-    @Autowired
-    AbstractStringCacheStore cacheStore;
-
-    Map<String, Object> map = new HashMap<>();
+    @MockBean
+    OptionRepository optionRepository;
 
-    {
-        map.put(PrimaryProperties.BIRTHDAY.getValue(), String.valueOf(DateUtils.now().getTime()));
-    }
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
-        cacheStore.putAny(OPTIONS_KEY, map);
+        given(optionRepository.findAll()).willReturn(List.of(
+            new Option(PrimaryProperties.BIRTHDAY.getValue(),
+                String.valueOf(DateUtils.now().getTime()))));
+        // Drop the option snapshot built on startup
+        eventPublisher.publishEvent(new OptionUpdatedEvent(this));
     }
 
     @Test
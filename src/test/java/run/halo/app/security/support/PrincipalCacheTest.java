@@ -0,0 +1,77 @@
+package run.halo.app.security.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.event.user.UserUpdatedEvent;
+import run.halo.app.model.entity.User;
+
+/**
+ * Principal cache test.
+ */
+class PrincipalCacheTest {
+
+    PrincipalCache principalCache;
+
+    AtomicInteger loadCount;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(new HaloProperties());
+        loadCount = new AtomicInteger();
+    }
+
+    @Test
+    void userShouldBeLoadedOnceAndCopied() {
+        UserDetail first = principalCache.get("token", loader(1));
+        first.getUser().setNickname("modified");
+        UserDetail second = principalCache.get("token", loader(1));
+
+        assertEquals(1, loadCount.get());
+        assertNotSame(first.getUser(), second.getUser());
+        assertEquals("user-1", second.getUser().getNickname());
+    }
+
+    @Test
+    void userShouldBeReloadedAfterEviction() {
+        principalCache.get("token-a", loader(1));
+        principalCache.get("token-b", loader(1));
+        principalCache.get("token-c", loader(2));
+
+        principalCache.evict("token-a");
+        principalCache.get("token-a", loader(1));
+        assertEquals(4, loadCount.get());
+
+        principalCache.onUserUpdated(new UserUpdatedEvent(this, 1));
+        principalCache.get("token-a", loader(1));
+        principalCache.get("token-b", loader(1));
+        principalCache.get("token-c", loader(2));
+        assertEquals(6, loadCount.get());
+    }
+
+    @Test
+    void userLoadedBeforeEvictionShouldNotBeCached() {
+        principalCache.get("token", () -> {
+            principalCache.onUserUpdated(new UserUpdatedEvent(this, 1));
+            return loader(1).get();
+        });
+        principalCache.get("token", loader(1));
+
+        assertEquals(2, loadCount.get());
+    }
+
+    Supplier<User> loader(int userId) {
+        return () -> {
+            loadCount.incrementAndGet();
+            User user = new User();
+            user.setId(userId);
+            user.setNickname("user-" + userId);
+            return user;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package run.halo.app.security.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Url pattern trie test.
+ */
+class UrlPatternTrieTest {
+
+    static final List<String> PATTERNS = List.of(
+        "/**",
+        "/api/**",
+        "/api/admin/**",
+        "/api/admin/login",
+        "/api/admin/refresh/*",
+        "/api/admin/login/precheck",
+        "/api/content/**/comments",
+        "/api/content/**/comments/**",
+        "/api/content/journals/*/likes",
+        "/api/content/comments",
+        "/admin/",
+        "/js/*.js",
+        "/upload/{year:\\d+}/**",
+        "/a/**/b/**/c",
+        "relative/*");
+
+    static final List<String> PATHS = List.of(
+        "/",
+        "",
+        "/api",
+        "/api/",
+        "/api/admin",
+        "/api/admin/login",
+        "/api/admin/login/",
+        "/api/admin/login/precheck",
+        "/api/admin/refresh",
+        "/api/admin/refresh/",
+        "/api/admin/refresh/token",
+        "/api/admin/refresh/token/",
+        "/api/content/comments",
+        "/api/content/comments/",
+        "/api/content/posts/1/comments",
+        "/api/content/posts/1/comments/2/children",
+        "/api/content/journals/1/likes",
+        "/api/content/journals/likes",
+        "//api//admin//login",
+        "/admin",
+        "/admin/",
+        "/js/app.js",
+        "/js/app.css",
+        "/js/lib/app.js",
+        "/upload/2022/01/a.png",
+        "/upload/latest/a.png",
+        "/a/b/c",
+        "/a/x/b/y/z/c",
+        "/a/c",
+        "relative/path",
+        "/relative/path");
+
+    @Test
+    void matchShouldBeSameAsAntPathMatcher() {
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+        UrlPatternTrie trie = new UrlPatternTrie();
+        for (int i = 0; i < PATTERNS.size(); i++) {
+            trie.add(PATTERNS.get(i), 1 << i);
+        }
+
+        for (String path : PATHS) {
+            int expected = 0;
+            for (int i = 0; i < PATTERNS.size(); i++) {
+                if (antPathMatcher.match(PATTERNS.get(i), path)) {
+                    expected |= 1 << i;
+                }
+            }
+            assertEquals(Integer.toBinaryString(expected),
+                Integer.toBinaryString(trie.match(path)), path);
+        }
+    }
+
+    @Test
+    void sharedFlagsShouldBeCombined() {
+        UrlPatternTrie trie = new UrlPatternTrie();
+        trie.add("/api/content/**", 1);
+        trie.add("/api/content/**/comments", 2);
+        trie.add("/api/content/posts/*/likes", 2);
+
+        assertEquals(3, trie.match("/api/content/posts/1/comments"));
+        assertEquals(3, trie.match("/api/content/posts/1/likes"));
+        assertEquals(1, trie.match("/api/content/posts/1"));
+        assertEquals(0, trie.match("/api/admin/posts"));
+    }
+}
@@ -0,0 +1,140 @@
+package run.halo.app.service.assembler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import run.halo.app.model.entity.Content;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.CommentStatus;
+import run.halo.app.model.enums.PostPermalinkType;
+import run.halo.app.model.vo.PostDetailVO;
+import run.halo.app.service.CategoryService;
+import run.halo.app.service.ContentPatchLogService;
+import run.halo.app.service.ContentService;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostCommentService;
+import run.halo.app.service.PostMetaService;
+import run.halo.app.service.PostTagService;
+import run.halo.app.service.TagService;
+import run.halo.app.service.UserService;
+import run.halo.app.service.cern.PostUserService;
+
+/**
+ * Post render assembler test.
+ */
+class PostRenderAssemblerTest {
+
+    @Mock
+    ContentService contentService;
+
+    @Mock
+    OptionService optionService;
+
+    @Mock
+    PostTagService postTagService;
+
+    @Mock
+    PostCategoryService postCategoryService;
+
+    @Mock
+    PostMetaService postMetaService;
+
+    @Mock
+    PostCommentService postCommentService;
+
+    @Mock
+    TagService tagService;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    ContentPatchLogService contentPatchLogService;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    PostUserService postUserService;
+
+    @InjectMocks
+    PostRenderAssembler postRenderAssembler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        given(optionService.getPostPermalinkType()).willReturn(PostPermalinkType.ID);
+        given(optionService.isEnabledAbsolutePath()).willReturn(false);
+    }
+
+    @Test
+    void convertPageToDetailVoShouldLoadInBulk() {
+        List<Post> posts = List.of(post(1), post(2), post(3));
+        given(contentService.listAllByIds(anyCollection())).willReturn(List.of(
+            content(1), content(2), content(3)));
+        given(postCommentService.countByStatusAndPostIds(eq(CommentStatus.PUBLISHED),
+            anyCollection())).willReturn(Map.of(2, 5L));
+        given(contentService.listDraftingInProgressIds(anyCollection())).willReturn(Set.of(3));
+
+        Page<PostDetailVO> detailPage =
+            postRenderAssembler.convertToDetailVo(new PageImpl<>(posts, PageRequest.of(0, 3), 10));
+
+        assertEquals(10, detailPage.getTotalElements());
+        assertEquals(List.of("content-1", "content-2", "content-3"), detailPage.getContent()
+            .stream().map(PostDetailVO::getContent).collect(Collectors.toList()));
+        assertEquals(0L, detailPage.getContent().get(0).getCommentCount());
+        assertEquals(5L, detailPage.getContent().get(1).getCommentCount());
+        assertFalse(detailPage.getContent().get(0).getInProgress());
+        assertTrue(detailPage.getContent().get(2).getInProgress());
+
+        then(contentService).should(times(1)).listAllByIds(anyCollection());
+        then(contentService).should(never()).getById(anyInt());
+        then(contentService).should(never()).draftingInProgress(anyInt());
+        then(postTagService).should(times(1)).listTagListMapBy(anyCollection());
+        then(postCategoryService).should(times(1)).listCategoryListMap(anyCollection());
+        then(postMetaService).should(times(1)).listPostMetaAsMap(any());
+        then(postUserService).should(times(1)).listUserListMap(anyCollection());
+        then(postCommentService).should(never()).countByStatusAndPostId(any(), anyInt());
+    }
+
+    private Post post(int id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setSlug("post-" + id);
+        post.setSummary("summary-" + id);
+        post.setCreateTime(new Date());
+        return post;
+    }
+
+    private Content content(int id) {
+        Content content = new Content();
+        content.setId(id);
+        content.setContent("content-" + id);
+        content.setOriginalContent("original-content-" + id);
+        return content;
+    }
+}
@@ -0,0 +1,150 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostArchiveProjection;
+import run.halo.app.model.vo.ArchiveCountVO;
+import run.halo.app.model.vo.ArchiveIndexMonthVO;
+import run.halo.app.model.vo.ArchiveIndexYearVO;
+import run.halo.app.model.vo.ArchivePostVO;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.assembler.PostAssembler;
+
+/**
+ * Archive service test.
+ */
+class ArchiveServiceImplTest {
+
+    @Mock
+    PostRepository postRepository;
+
+    @Mock
+    PostAssembler postAssembler;
+
+    @InjectMocks
+    ArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        given(postAssembler.buildFullPath(any(Post.class)))
+            .willAnswer(invocation -> "/archives/" + invocation.<Post>getArgument(0).getSlug());
+        given(postRepository.findArchiveProjections(PostStatus.PUBLISHED))
+            .willReturn(new ArrayList<>(List.of(
+                projection(1, 2021, 12, 1),
+                projection(2, 2022, 1, 1),
+                projection(3, 2022, 1, 20),
+                projection(4, 2022, 3, 5))));
+    }
+
+    @Test
+    void countsShouldBeOrderedFromLatest() {
+        assertEquals(List.of(new ArchiveCountVO(2022, null, 3L),
+            new ArchiveCountVO(2021, null, 1L)), archiveService.listYearCounts());
+        assertEquals(List.of(new ArchiveCountVO(2022, 3, 1L),
+            new ArchiveCountVO(2022, 1, 2L),
+            new ArchiveCountVO(2021, 12, 1L)), archiveService.listMonthCounts());
+
+        then(postRepository).should(times(1)).findArchiveProjections(PostStatus.PUBLISHED);
+    }
+
+    @Test
+    void pagePostsAcrossMonths() {
+        Page<ArchivePostVO> postPage = archiveService.pagePostsBy(null, null, PageRequest.of(0, 3));
+        assertEquals(4, postPage.getTotalElements());
+        assertEquals(List.of(4, 3, 2), ids(postPage));
+        assertEquals("/archives/post-4", postPage.getContent().get(0).getFullPath());
+
+        assertEquals(List.of(1), ids(archiveService.pagePostsBy(null, null, PageRequest.of(1, 3))));
+        assertEquals(List.of(3), ids(archiveService.pagePostsBy(2022, null, PageRequest.of(1, 1))));
+        assertEquals(List.of(3, 2), ids(archiveService.pagePostsBy(2022, 1, PageRequest.of(0, 5))));
+        assertEquals(0, archiveService.pagePostsBy(2020, null, PageRequest.of(0, 5))
+            .getTotalElements());
+    }
+
+    @Test
+    void archivesShouldBeListedFromIndex() {
+        List<ArchiveIndexYearVO> yearArchives = archiveService.listYearArchives();
+        assertEquals(List.of(2022, 2021), yearArchives.stream()
+            .map(ArchiveIndexYearVO::getYear)
+            .collect(Collectors.toList()));
+        assertEquals(List.of(4, 3, 2), ids(yearArchives.get(0).getPosts()));
+        assertEquals("/archives/post-4", yearArchives.get(0).getPosts().get(0).getFullPath());
+
+        List<ArchiveIndexMonthVO> monthArchives = archiveService.listMonthArchives();
+        assertEquals(3, monthArchives.size());
+        assertEquals(List.of(2022, 1),
+            List.of(monthArchives.get(1).getYear(), monthArchives.get(1).getMonth()));
+        assertEquals(List.of(3, 2), ids(monthArchives.get(1).getPosts()));
+
+        then(postRepository).should(times(1)).findArchiveProjections(PostStatus.PUBLISHED);
+        then(postRepository).should(never()).findAllById(any());
+    }
+
+    @Test
+    void indexShouldBeUpdatedIncrementally() {
+        archiveService.listMonthCounts();
+
+        // Move post 2 to another month
+        given(postRepository.findArchiveProjection(2, PostStatus.PUBLISHED))
+            .willReturn(Optional.of(projection(2, 2022, 3, 10)));
+        archiveService.onPostUpdated(new PostUpdatedEvent(this, post(2)));
+        assertEquals(List.of(2, 4), ids(archiveService.pagePostsBy(2022, 3, PageRequest.of(0, 5))));
+
+        // Unpublish post 1
+        given(postRepository.findArchiveProjection(1, PostStatus.PUBLISHED))
+            .willReturn(Optional.empty());
+        archiveService.onPostUpdated(new PostUpdatedEvent(this, post(1)));
+        archiveService.onPostDeleted(new PostDeletedEvent(this, post(3)));
+
+        assertEquals(List.of(new ArchiveCountVO(2022, 3, 2L)), archiveService.listMonthCounts());
+        then(postRepository).should(times(1)).findArchiveProjections(PostStatus.PUBLISHED);
+    }
+
+    private List<Integer> ids(Page<ArchivePostVO> postPage) {
+        return ids(postPage.getContent());
+    }
+
+    private List<Integer> ids(List<ArchivePostVO> posts) {
+        return posts.stream()
+            .map(ArchivePostVO::getId)
+            .collect(Collectors.toList());
+    }
+
+    private Post post(int id) {
+        Post post = new Post();
+        post.setId(id);
+        return post;
+    }
+
+    private PostArchiveProjection projection(int id, int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month - 1, day);
+        Date createTime = calendar.getTime();
+        return new PostArchiveProjection(id, "Post " + id, "post-" + id, createTime);
+    }
+}
@@ -0,0 +1,244 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.BadRequestException;
+import run.halo.app.model.dto.BackupDTO;
+import run.halo.app.model.entity.Tag;
+import run.halo.app.model.entity.User;
+import run.halo.app.security.service.OneTimeTokenService;
+import run.halo.app.service.ArchiveService;
+import run.halo.app.service.AttachmentService;
+import run.halo.app.service.CategoryService;
+import run.halo.app.service.CommentBlackListService;
+import run.halo.app.service.ContentPatchLogService;
+import run.halo.app.service.ContentService;
+import run.halo.app.service.JournalCommentService;
+import run.halo.app.service.JournalService;
+import run.halo.app.service.LinkService;
+import run.halo.app.service.LogService;
+import run.halo.app.service.MenuService;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PhotoService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostCommentService;
+import run.halo.app.service.PostMetaService;
+import run.halo.app.service.PostService;
+import run.halo.app.service.PostTagService;
+import run.halo.app.service.SheetCommentService;
+import run.halo.app.service.SheetMetaService;
+import run.halo.app.service.SheetService;
+import run.halo.app.service.TagService;
+import run.halo.app.service.ThemeSettingService;
+import run.halo.app.service.UserService;
+import run.halo.app.service.support.PostCounter;
+
+/**
+ * Backup service implementation test of exporting and importing data.
+ */
+class BackupServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    AttachmentService attachmentService;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    CommentBlackListService commentBlackListService;
+
+    @Mock
+    JournalService journalService;
+
+    @Mock
+    JournalCommentService journalCommentService;
+
+    @Mock
+    LinkService linkService;
+
+    @Mock
+    LogService logService;
+
+    @Mock
+    MenuService menuService;
+
+    @Mock
+    OptionService optionService;
+
+    @Mock
+    PhotoService photoService;
+
+    @Mock
+    PostService postService;
+
+    @Mock
+    ArchiveService archiveService;
+
+    @Mock
+    ContentService contentService;
+
+    @Mock
+    ContentPatchLogService contentPatchLogService;
+
+    @Mock
+    PostCategoryService postCategoryService;
+
+    @Mock
+    PostCommentService postCommentService;
+
+    @Mock
+    PostMetaService postMetaService;
+
+    @Mock
+    PostTagService postTagService;
+
+    @Mock
+    SheetService sheetService;
+
+    @Mock
+    SheetCommentService sheetCommentService;
+
+    @Mock
+    SheetMetaService sheetMetaService;
+
+    @Mock
+    TagService tagService;
+
+    @Mock
+    ThemeSettingService themeSettingService;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    OneTimeTokenService oneTimeTokenService;
+
+    @Mock
+    PostCounter postCounter;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    ApplicationContext appContext;
+
+    BackupServiceImpl backupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        HaloProperties haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(tempDir.resolve("work").toString());
+        haloProperties.setBackupDir(tempDir.resolve("backup").toString());
+        haloProperties.setDataExportDir(tempDir.resolve("export").toString());
+        given(optionService.getBlogBaseUrl()).willReturn("http://localhost:8090");
+
+        backupService = new BackupServiceImpl(attachmentService, categoryService,
+            commentBlackListService, journalService, journalCommentService, linkService,
+            logService, menuService, optionService, photoService, postService, archiveService,
+            contentService, contentPatchLogService, postCategoryService, postCommentService,
+            postMetaService, postTagService, sheetService, sheetCommentService, sheetMetaService,
+            tagService, themeSettingService, userService, oneTimeTokenService, postCounter,
+            haloProperties, eventPublisher, appContext);
+    }
+
+    @Test
+    void exportedDataShouldBeImportedInBatches() throws IOException {
+        // More rows than a page of export and a batch of import
+        given(tagService.listAllAfter(isNull(), eq(500))).willReturn(tags(1, 500));
+        given(tagService.listAllAfter(eq(500), eq(500))).willReturn(tags(501, 1000));
+        given(tagService.listAllAfter(eq(1000), eq(500))).willReturn(tags(1001, 1001));
+        given(userService.listAllAfter(isNull(), eq(500)))
+            .willReturn(List.of(user(1, "admin"), user(2, "editor")));
+
+        BackupDTO backup = backupService.exportData();
+        Path exportedPath = tempDir.resolve("export").resolve(backup.getFilename());
+        backupService.importData(new MockMultipartFile("file", backup.getFilename(),
+            "application/json", Files.readAllBytes(exportedPath)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Tag>> tagsCaptor = ArgumentCaptor.forClass(Collection.class);
+        then(tagService).should(times(3)).createInBatch(tagsCaptor.capture());
+        List<Collection<Tag>> batches = tagsCaptor.getAllValues();
+        assertEquals(List.of(500, 500, 1),
+            batches.stream().map(Collection::size).collect(Collectors.toList()));
+        assertEquals(IntStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList()),
+            batches.stream()
+                .flatMap(Collection::stream)
+                .map(Tag::getId)
+                .collect(Collectors.toList()));
+
+        // Only the first user is imported
+        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+        then(userService).should().create(userCaptor.capture());
+        assertEquals("admin", userCaptor.getValue().getUsername());
+        then(userService).should(never()).createInBatch(anyCollection());
+
+        then(archiveService).should().refresh();
+        then(postCounter).should().refresh();
+    }
+
+    @Test
+    void dataOfAnotherVersionShouldBeRejected() {
+        String data = "{\"tags\":[{\"id\":1,\"name\":\"tag\",\"slug\":\"tag\"}],"
+            + "\"version\":\"1.5.0\"}";
+        MockMultipartFile file = new MockMultipartFile("file", "data.json", "application/json",
+            data.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> backupService.importData(file));
+
+        then(tagService).should(never()).createInBatch(anyCollection());
+        then(userService).should(never()).create(any());
+    }
+
+    static List<Tag> tags(int fromId, int toId) {
+        return IntStream.rangeClosed(fromId, toId)
+            .mapToObj(id -> {
+                Tag tag = new Tag();
+                tag.setId(id);
+                tag.setName("tag-" + id);
+                tag.setSlug("tag-" + id);
+                return tag;
+            })
+            .collect(Collectors.toList());
+    }
+
+    static User user(int id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setNickname(username);
+        return user;
+    }
+}
@@ -0,0 +1,282 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import run.halo.app.cache.InMemoryCacheStore;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.exception.BadRequestException;
+import run.halo.app.handler.file.FileHandlers;
+import run.halo.app.handler.file.MultipartUploadHandler;
+import run.halo.app.model.dto.ChunkedUploadDTO;
+import run.halo.app.model.entity.Attachment;
+import run.halo.app.model.enums.AttachmentType;
+import run.halo.app.model.params.ChunkedUploadParam;
+import run.halo.app.model.properties.AttachmentProperties;
+import run.halo.app.model.support.MultipartUpload;
+import run.halo.app.model.support.UploadResult;
+import run.halo.app.service.AttachmentService;
+import run.halo.app.service.OptionService;
+
+/**
+ * Chunked upload service implementation test.
+ */
+class ChunkedUploadServiceImplTest {
+
+    static final int PART_SIZE = 1024;
+
+    @TempDir
+    Path workDir;
+
+    @Mock
+    FileHandlers fileHandlers;
+
+    @Mock
+    AttachmentService attachmentService;
+
+    @Mock
+    OptionService optionService;
+
+    InMemoryCacheStore cacheStore;
+
+    InMemoryObjectStorage objectStorage;
+
+    ChunkedUploadServiceImpl chunkedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        HaloProperties haloProperties = new HaloProperties();
+        haloProperties.setWorkDir(workDir.toString());
+        haloProperties.setChunkedUploadPartSize(DataSize.ofBytes(PART_SIZE));
+        cacheStore = new InMemoryCacheStore();
+        objectStorage = new InMemoryObjectStorage();
+        given(fileHandlers.getMultipartUploadHandler(AttachmentType.MINIO))
+            .willReturn(Optional.of(objectStorage));
+        given(attachmentService.createBy(any(UploadResult.class), any(AttachmentType.class)))
+            .willReturn(new Attachment());
+        chunkedUploadService = new ChunkedUploadServiceImpl(cacheStore, fileHandlers,
+            attachmentService, optionService, haloProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheStore.preDestroy();
+    }
+
+    @Test
+    void partsShouldBeUploadedToObjectStorageInAnyOrder() {
+        useAttachmentType(AttachmentType.MINIO);
+        byte[] content = randomBytes(PART_SIZE * 2 + 100);
+        ChunkedUploadDTO upload = initiate("video.mp4", content.length);
+        assertEquals(3, upload.getPartCount());
+        assertEquals("video/mp4", upload.getMediaType());
+
+        uploadPart(upload, 3, content);
+        uploadPart(upload, 1, content);
+        assertEquals(List.of(1, 3), chunkedUploadService.getBy(upload.getUploadId())
+            .getUploadedParts());
+        BadRequestException missingPart = assertThrows(BadRequestException.class,
+            () -> chunkedUploadService.complete(upload.getUploadId()));
+        assertEquals(List.of(2), missingPart.getErrorData());
+
+        uploadPart(upload, 2, content);
+        chunkedUploadService.complete(upload.getUploadId());
+
+        assertArrayEquals(content, objectStorage.objects.get("upload/video.mp4"));
+        ArgumentCaptor<UploadResult> uploadResult = ArgumentCaptor.forClass(UploadResult.class);
+        then(attachmentService).should()
+            .createBy(uploadResult.capture(), eq(AttachmentType.MINIO));
+        assertEquals(content.length, uploadResult.getValue().getSize());
+        assertEquals("upload/video.mp4", uploadResult.getValue().getKey());
+        assertTrue(cacheStore.toMap().isEmpty());
+    }
+
+    @Test
+    void mismatchedPartShouldNotBeRecorded() {
+        useAttachmentType(AttachmentType.MINIO);
+        byte[] content = randomBytes(PART_SIZE + 1);
+        ChunkedUploadDTO upload = initiate("archive.zip", content.length);
+
+        byte[] corrupted = Arrays.copyOf(content, PART_SIZE);
+        corrupted[0]++;
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.uploadPart(
+            upload.getUploadId(), 1, checksum(content, 1), new ByteArrayInputStream(corrupted)));
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.uploadPart(
+            upload.getUploadId(), 2, checksum(content, 2), new ByteArrayInputStream(content)));
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.uploadPart(
+            upload.getUploadId(), 3, checksum(content, 2), new ByteArrayInputStream(content)));
+        assertTrue(chunkedUploadService.getBy(upload.getUploadId()).getUploadedParts().isEmpty());
+
+        // Retried parts replace the corrupted ones
+        uploadPart(upload, 1, content);
+        uploadPart(upload, 2, content);
+        chunkedUploadService.complete(upload.getUploadId());
+        assertArrayEquals(content, objectStorage.objects.get("upload/archive.zip"));
+    }
+
+    @Test
+    void partsShouldBeStagedForLocalStorage() throws IOException {
+        useAttachmentType(AttachmentType.LOCAL);
+        Path uploadedPath = workDir.resolve("upload.bin");
+        given(fileHandlers.upload(any(MultipartFile.class), same(AttachmentType.LOCAL)))
+            .willAnswer(invocation -> {
+                invocation.<MultipartFile>getArgument(0).transferTo(uploadedPath);
+                return new UploadResult();
+            });
+        byte[] content = randomBytes(PART_SIZE * 3);
+        ChunkedUploadDTO upload = initiate("data.bin", content.length);
+
+        uploadPart(upload, 2, content);
+        uploadPart(upload, 3, content);
+        uploadPart(upload, 1, content);
+        chunkedUploadService.complete(upload.getUploadId());
+
+        assertArrayEquals(content, Files.readAllBytes(uploadedPath));
+        assertFalse(Files.exists(workDir.resolve(".chunked_uploads")
+            .resolve(upload.getUploadId())));
+    }
+
+    @Test
+    void abortShouldDiscardUploadedParts() {
+        useAttachmentType(AttachmentType.MINIO);
+        byte[] content = randomBytes(PART_SIZE * 2);
+        ChunkedUploadDTO upload = initiate("video.mp4", content.length);
+        uploadPart(upload, 1, content);
+
+        chunkedUploadService.abort(upload.getUploadId());
+
+        assertTrue(objectStorage.parts.isEmpty());
+        assertTrue(cacheStore.toMap().isEmpty());
+    }
+
+    void useAttachmentType(AttachmentType attachmentType) {
+        given(optionService.getEnumByPropertyOrDefault(eq(AttachmentProperties.ATTACHMENT_TYPE),
+            eq(AttachmentType.class), any())).willReturn(attachmentType);
+    }
+
+    ChunkedUploadDTO initiate(String filename, long size) {
+        ChunkedUploadParam uploadParam = new ChunkedUploadParam();
+        uploadParam.setFilename(filename);
+        uploadParam.setSize(size);
+        return chunkedUploadService.initiate(uploadParam);
+    }
+
+    void uploadPart(ChunkedUploadDTO upload, int partNumber, byte[] content) {
+        chunkedUploadService.uploadPart(upload.getUploadId(), partNumber,
+            checksum(content, partNumber), new ByteArrayInputStream(part(content, partNumber)));
+    }
+
+    static byte[] part(byte[] content, int partNumber) {
+        int from = (partNumber - 1) * PART_SIZE;
+        return Arrays.copyOfRange(content, from, Math.min(content.length, from + PART_SIZE));
+    }
+
+    static String checksum(byte[] content, int partNumber) {
+        return DigestUtils.md5DigestAsHex(part(content, partNumber));
+    }
+
+    static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Multipart upload handler which keeps objects in memory, as a stand-in for MinIO.
+     */
+    static class InMemoryObjectStorage implements MultipartUploadHandler {
+
+        final Map<String, byte[]> parts = new ConcurrentHashMap<>();
+
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+        @Override
+        public MultipartUpload initiate(String originalName, MediaType mediaType) {
+            MultipartUpload upload = new MultipartUpload();
+            upload.setKey("upload/" + originalName);
+            upload.setUploadId("multipart-" + originalName);
+            upload.setFilename(originalName);
+            upload.setFilePath("http://127.0.0.1:9000/bucket/upload/" + originalName);
+            upload.setThumbPath(upload.getFilePath());
+            return upload;
+        }
+
+        @Override
+        public String uploadPart(MultipartUpload upload, int partNumber, InputStream content,
+            long size) {
+            try {
+                byte[] part = content.readAllBytes();
+                parts.put(upload.getUploadId() + ":" + partNumber, part);
+                return DigestUtils.md5DigestAsHex(part);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void complete(MultipartUpload upload, List<String> etags) {
+            byte[] object = new byte[0];
+            for (int partNumber = 1; partNumber <= etags.size(); partNumber++) {
+                byte[] part = parts.remove(upload.getUploadId() + ":" + partNumber);
+                assertEquals(etags.get(partNumber - 1), DigestUtils.md5DigestAsHex(part));
+                int length = object.length;
+                object = Arrays.copyOf(object, length + part.length);
+                System.arraycopy(part, 0, object, length, part.length);
+            }
+            objects.put(upload.getKey(), object);
+        }
+
+        @Override
+        public void abort(MultipartUpload upload) {
+            parts.keySet().removeIf(key -> key.startsWith(upload.getUploadId() + ":"));
+        }
+
+        @Override
+        public UploadResult upload(MultipartFile file) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(String key) {
+            objects.remove(key);
+        }
+
+        @Override
+        public AttachmentType getAttachmentType() {
+            return AttachmentType.MINIO;
+        }
+    }
+}
@@ -2,20 +2,22 @@ package run.halo.app.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static run.halo.app.service.OptionService.OPTIONS_KEY;
+import static org.mockito.BDDMockito.given;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
-import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.event.options.OptionUpdatedEvent;
+import run.halo.app.model.entity.Option;
 import run.halo.app.model.properties.AliOssProperties;
 import run.halo.app.model.properties.CommentProperties;
+import run.halo.app.repository.OptionRepository;
 
 
 /**
@@ -26,23 +28,23 @@ import run.halo.app.model.properties.CommentProperties;
 @ActiveProfiles("test")
 class ClientOptionServiceImplTest {
 
+    @MockBean
+    OptionRepository optionRepository;
+
     @Autowired
-    AbstractStringCacheStore cacheStore;
+    ApplicationEventPublisher eventPublisher;
 
     @Autowired
     ClientOptionServiceImpl clientOptionService;
 
-    Map<String, Object> map = new HashMap<>();
-
-    {
-        map.put(AliOssProperties.OSS_DOMAIN.getValue(), "1");
-        map.put(CommentProperties.CONTENT_PLACEHOLDER.getValue(), "2");
-        map.put(CommentProperties.GRAVATAR_SOURCE.getValue(), "3");
-    }
-
     @BeforeEach
     void setUp() {
-        cacheStore.putAny(OPTIONS_KEY, map);
+        given(optionRepository.findAll()).willReturn(List.of(
+            new Option(AliOssProperties.OSS_DOMAIN.getValue(), "1"),
+            new Option(CommentProperties.CONTENT_PLACEHOLDER.getValue(), "2"),
+            new Option(CommentProperties.GRAVATAR_SOURCE.getValue(), "3")));
+        // Drop the option snapshot built on startup
+        eventPublisher.publishEvent(new OptionUpdatedEvent(this));
     }
 
     @Test
@@ -1,6 +1,8 @@
 package run.halo.app.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
@@ -117,16 +119,61 @@ public class ContentPatchLogServiceImplTest {
             contentPatchLogService.createOrUpdate(2, "<p>好雨知时节，当春乃发生。</p>\n", "好雨知时节，当春乃发生。\n");
         assertThat(updated).isNotNull();
         assertThat(updated.getId()).isEqualTo(2);
-        assertThat(updated.getContentDiff()).isEqualTo("[{\"source\":{\"position\":0,"
-            + "\"lines\":[\"<p>望岳</p>\",\"<p>岱宗夫如何，齐鲁青未了。</p>\"],\"changePosition\":null},"
-            + "\"target\":{\"position\":0,\"lines\":[\"<p>好雨知时节，当春乃发生。</p>\"],"
-            + "\"changePosition\":null},\"type\":\"CHANGE\"}]");
-        assertThat(updated.getOriginalContentDiff()).isEqualTo("[{\"source"
-            + "\":{\"position\":0,\"lines\":[\"望岳\"],\"changePosition\":null},"
-            + "\"target\":{\"position\":0,\"lines\":[\"好雨知时节，当春乃发生。\"],\"changePosition\":null},"
-            + "\"type\":\"CHANGE\"},{\"source\":{\"position\":2,\"lines\":[\"岱宗夫如何，齐鲁青未了。\",\"\"],"
-            + "\"changePosition\":null},\"target\":{\"position\":2,\"lines\":[],"
-            + "\"changePosition\":null},\"type\":\"DELETE\"}]");
+        // The whole content changed, so it is stored as a full snapshot
+        assertThat(updated.getContentDiff()).isEqualTo("<p>好雨知时节，当春乃发生。</p>\n");
+        assertThat(updated.getOriginalContentDiff()).isEqualTo("好雨知时节，当春乃发生。\n");
+        assertThat(updated.getBaseVersion()).isEqualTo(2);
+    }
+
+    @Test
+    public void createOrUpdateWithSmallChange() {
+        StringBuilder content = new StringBuilder();
+        StringBuilder originalContent = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            content.append("<p>line ").append(i).append("</p>\n");
+            originalContent.append("line ").append(i).append("\n");
+        }
+
+        ContentPatchLog contentPatchLogV1 = new ContentPatchLog();
+        contentPatchLogV1.setId(3);
+        contentPatchLogV1.setPostId(3);
+        contentPatchLogV1.setVersion(1);
+        contentPatchLogV1.setStatus(PostStatus.PUBLISHED);
+        contentPatchLogV1.setContentDiff(content.toString());
+        contentPatchLogV1.setOriginalContentDiff(originalContent.toString());
+
+        ContentPatchLog contentPatchLogV2 = new ContentPatchLog();
+        contentPatchLogV2.setId(4);
+        contentPatchLogV2.setPostId(3);
+        contentPatchLogV2.setVersion(2);
+        contentPatchLogV2.setStatus(PostStatus.DRAFT);
+
+        ContentPatchLog contentPatchLogExample = new ContentPatchLog();
+        contentPatchLogExample.setPostId(3);
+        contentPatchLogExample.setStatus(PostStatus.DRAFT);
+        when(contentPatchLogRepository.exists(Example.of(contentPatchLogExample)))
+            .thenReturn(true);
+        when(contentPatchLogRepository.findFirstByPostIdAndStatusOrderByVersionDesc(3,
+            PostStatus.DRAFT)).thenReturn(contentPatchLogV2);
+        when(contentPatchLogRepository.findByPostIdAndVersion(3, 1))
+            .thenReturn(contentPatchLogV1);
+
+        String revisedContent = content.toString().replace("line 10", "line ten");
+        String revisedOriginalContent = originalContent.toString().replace("line 10", "line ten");
+        ContentPatchLog updated =
+            contentPatchLogService.createOrUpdate(3, revisedContent, revisedOriginalContent);
+
+        assertThat(updated.getBaseVersion()).isEqualTo(1);
+        assertThat(updated.getContentDiff()).isEqualTo("#delta:1\n10,1,1\n<p>line ten</p>");
+        assertThat(updated.getOriginalContentDiff()).isEqualTo("#delta:1\n10,1,1\nline ten");
+
+        PatchedContent patchedContent = contentPatchLogService.applyPatch(updated);
+        assertThat(patchedContent.getContent()).isEqualTo(revisedContent);
+        assertThat(patchedContent.getOriginalContent()).isEqualTo(revisedOriginalContent);
+
+        // Restored content is cached
+        contentPatchLogService.applyPatch(updated);
+        verify(contentPatchLogRepository, times(2)).findByPostIdAndVersion(3, 1);
     }
 
     @Test
@@ -163,14 +210,11 @@ public class ContentPatchLogServiceImplTest {
             contentPatchLogService.generateDiff(2, "<p>随风潜入夜，润物细无声。</p>", "随风潜入夜，润物细无声。");
 
         assertThat(contentDiff).isNotNull();
-        assertThat(contentDiff.getDiff()).isEqualTo("[{\"source\":{\"position\":0,"
-            + "\"lines\":[\"<p>望岳</p>\",\"<p>岱宗夫如何，齐鲁青未了。</p>\",\"\"],\"changePosition\":null},"
-            + "\"target\":{\"position\":0,\"lines\":[\"<p>随风潜入夜，润物细无声。</p>\"],"
-            + "\"changePosition\":null},\"type\":\"CHANGE\"}]");
-        assertThat(contentDiff.getOriginalDiff()).isEqualTo("[{\"source\":{\"position\":0,"
-            + "\"lines\":[\"望岳\",\"\",\"岱宗夫如何，齐鲁青未了。\",\"\"],\"changePosition\":null},"
-            + "\"target\":{\"position\":0,\"lines\":[\"随风潜入夜，润物细无声。\"],\"changePosition\":null},"
-            + "\"type\":\"CHANGE\"}]");
+        assertThat(contentDiff.getDiff())
+            .isEqualTo("#delta:1\n0,3,1\n<p>随风潜入夜，润物细无声。</p>");
+        assertThat(contentDiff.getOriginalDiff())
+            .isEqualTo("#delta:1\n0,4,1\n随风潜入夜，润物细无声。");
+        assertThat(contentDiff.getBaseVersion()).isEqualTo(1);
     }
 
     @Test
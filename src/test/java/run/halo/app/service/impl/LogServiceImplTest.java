@@ -0,0 +1,66 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import run.halo.app.repository.LogRepository;
+
+/**
+ * Log service implementation test.
+ */
+class LogServiceImplTest {
+
+    @Mock
+    LogRepository logRepository;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    LogServiceImpl logService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        logService = new LogServiceImpl(logRepository, jdbcTemplate);
+    }
+
+    @Test
+    void logsCreatedBeforeShouldBeDeletedByIds() {
+        Date createTime = new Date();
+        given(logRepository.findIdsByCreateTimeBefore(createTime, PageRequest.of(0, 3)))
+            .willReturn(List.of(1L, 2L, 3L));
+
+        assertEquals(3, logService.deleteCreatedBefore(createTime, 3));
+
+        then(logRepository).should().deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void nothingShouldBeDeletedIfNoLogIsCreatedBefore() {
+        Date createTime = new Date();
+        given(logRepository.findIdsByCreateTimeBefore(createTime, PageRequest.of(0, 3)))
+            .willReturn(List.of());
+
+        assertEquals(0, logService.deleteCreatedBefore(createTime, 3));
+
+        then(logRepository).should(never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void deleteCreatedBeforeShouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class,
+            () -> logService.deleteCreatedBefore(new Date(), 0));
+    }
+}
@@ -4,10 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 
 import com.qiniu.common.Zone;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,10 +16,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import run.halo.app.cache.AbstractStringCacheStore;
+import run.halo.app.event.options.OptionUpdatedEvent;
 import run.halo.app.model.entity.Option;
+import run.halo.app.model.properties.PostProperties;
 import run.halo.app.model.properties.QiniuOssProperties;
 import run.halo.app.repository.OptionRepository;
-import run.halo.app.service.OptionService;
 
 /**
  * OptionService test.
@@ -85,21 +87,37 @@ class OptionServiceImplTest {
         QiniuOssProperties zoneProperty = QiniuOssProperties.OSS_ZONE;
 
         // Given
-        // given(optionRepository.findByKey(zoneProperty.getValue())).willReturn(Optional
-        // .ofNullable(option));
-        Map<String, Object> optionMap = new HashMap<>(1);
-        optionMap.put(zoneProperty.getValue(),
-            Optional.ofNullable(option).map(Option::getValue).orElse(null));
-        given(cacheStore.getAny(OptionService.OPTIONS_KEY, Map.class))
-            .willReturn(Optional.of(optionMap));
+        List<Option> options = Optional.ofNullable(option)
+            .map(o -> new Option(zoneProperty.getValue(), o.getValue()))
+            .map(Collections::singletonList)
+            .orElseGet(Collections::emptyList);
+        given(optionRepository.findAll()).willReturn(options);
 
         // When
         Zone zone = optionService.getQnYunZone();
 
         // Then
-        then(cacheStore).should().getAny(OptionService.OPTIONS_KEY, Map.class);
-
         assertNotNull(zone);
         assertEquals(actualZone.getRegion(), zone.getRegion());
     }
+
+    @Test
+    void optionsShouldBeLoadedOnceUntilUpdated() {
+        given(optionRepository.findAll())
+            .willReturn(Collections.singletonList(new Option("custom_key", "1")));
+
+        assertEquals(1, optionService.getByKey("custom_key", Integer.class).orElse(null));
+        assertEquals("1", optionService.getByKeyOfNonNull("custom_key"));
+        assertEquals(PostProperties.INDEX_PAGE_SIZE.defaultValue(Integer.class),
+            optionService.getPostPageSize());
+
+        then(optionRepository).should(times(1)).findAll();
+
+        given(optionRepository.findAll())
+            .willReturn(Collections.singletonList(new Option("custom_key", "2")));
+        optionService.onOptionUpdated(new OptionUpdatedEvent(this));
+
+        assertEquals(2, optionService.getByKey("custom_key", Integer.class).orElse(null));
+        then(optionRepository).should(times(2)).findAll();
+    }
 }
@@ -1,8 +1,16 @@
 package run.halo.app.service.impl;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,11 +18,20 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import run.halo.app.model.dto.BaseCommentDTO;
 import run.halo.app.model.entity.PostComment;
+import run.halo.app.model.enums.CommentStatus;
 import run.halo.app.model.params.PostCommentParam;
+import run.halo.app.model.projection.CommentChildrenCountProjection;
 import run.halo.app.model.properties.CommentProperties;
+import run.halo.app.model.support.CommentCursorPage;
+import run.halo.app.model.support.CommentPage;
+import run.halo.app.model.vo.BaseCommentVO;
 import run.halo.app.repository.PostCommentRepository;
 import run.halo.app.repository.PostRepository;
 import run.halo.app.service.CommentBlackListService;
@@ -131,4 +148,67 @@ public class PostCommentServiceImplTest {
             GRAVATAR_SOURCE_TEST + POST_COMMENT_GRAVATAR_MD5_TEST + "?s=256&d="
                 + GRAVATAR_DEFAULT_TEST, result.getAvatar());
     }
+
+    @Test
+    public void pageVosByShouldLoadBoundedTreeOfTopComments() {
+        // Arrange: comment n replies to comment n - 1
+        Pageable pageable = PageRequest.of(0, 10);
+        when(mockPostCommentRepository.findAllByPostIdAndStatusAndParentId(eq(1),
+            eq(CommentStatus.PUBLISHED), eq(0L), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(comment(1L, 0L)), pageable, 1));
+        when(mockPostCommentRepository.findAllByStatusAndParentIdIn(eq(CommentStatus.PUBLISHED),
+            anyCollection()))
+            .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(1).stream()
+                .map(parentId -> comment(parentId + 1, parentId))
+                .collect(Collectors.toList()));
+        when(mockPostCommentRepository.findDirectChildrenCount(anyCollection(),
+            eq(CommentStatus.PUBLISHED)))
+            .thenReturn(List.of(new CommentChildrenCountProjection(1L, 9L)));
+        when(mockPostCommentRepository.countByStatusAndPostId(CommentStatus.PUBLISHED, 1))
+            .thenReturn(20L);
+
+        // Act
+        Page<BaseCommentVO> result = postCommentService.pageVosBy(1, pageable);
+
+        // Assert
+        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(20L, ((CommentPage<BaseCommentVO>) result).getCommentCount());
+        BaseCommentVO comment = result.getContent().get(0);
+        for (long id = 2; id <= 9; id++) {
+            Assertions.assertEquals(1L, comment.getChildrenCount());
+            comment = comment.getChildren().get(0);
+            Assertions.assertEquals(id, comment.getId());
+        }
+        Assertions.assertNull(comment.getChildren());
+        Assertions.assertEquals(1L, comment.getChildrenCount());
+        verify(mockPostCommentRepository, times(8))
+            .findAllByStatusAndParentIdIn(eq(CommentStatus.PUBLISHED), anyCollection());
+    }
+
+    @Test
+    public void listVosByShouldReturnNextCursor() {
+        // Arrange
+        when(mockPostCommentRepository.findAllByPostIdAndStatusAndParentIdAndIdLessThan(eq(1),
+            eq(CommentStatus.PUBLISHED), eq(0L), eq(Long.MAX_VALUE), any(Pageable.class)))
+            .thenReturn(List.of(comment(5L, 0L), comment(4L, 0L), comment(3L, 0L)));
+
+        // Act
+        CommentCursorPage<BaseCommentVO> result = postCommentService.listVosBy(1, null, 2);
+
+        // Assert
+        Assertions.assertEquals(List.of(5L, 4L), result.getContent().stream()
+            .map(BaseCommentVO::getId)
+            .collect(Collectors.toList()));
+        Assertions.assertEquals(4L, result.getNextCursor());
+        Assertions.assertEquals(0L, result.getContent().get(0).getChildrenCount());
+    }
+
+    private PostComment comment(Long id, Long parentId) {
+        PostComment comment = new PostComment();
+        comment.setId(id);
+        comment.setParentId(parentId);
+        comment.setPostId(1);
+        comment.setStatus(CommentStatus.PUBLISHED);
+        return comment;
+    }
 }
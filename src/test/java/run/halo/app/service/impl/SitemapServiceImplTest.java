@@ -0,0 +1,137 @@
+package run.halo.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.PostSitemapProjection;
+import run.halo.app.model.vo.PostSitemapVO;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.service.OptionService;
+import run.halo.app.service.PostCategoryService;
+import run.halo.app.service.PostTagService;
+import run.halo.app.service.SitemapService;
+import run.halo.app.service.assembler.PostAssembler;
+
+/**
+ * Sitemap service test.
+ */
+class SitemapServiceImplTest {
+
+    @Mock
+    PostRepository postRepository;
+
+    @Mock
+    PostAssembler postAssembler;
+
+    @Mock
+    PostCategoryService postCategoryService;
+
+    @Mock
+    PostTagService postTagService;
+
+    @Mock
+    OptionService optionService;
+
+    @InjectMocks
+    SitemapServiceImpl sitemapService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        given(optionService.getBlogBaseUrl()).willReturn("https://halo.run");
+        given(optionService.isEnabledAbsolutePath()).willReturn(true);
+        given(postAssembler.buildFullPath(any(Post.class)))
+            .willAnswer(invocation -> "https://halo.run/archives/"
+                + invocation.<Post>getArgument(0).getSlug());
+    }
+
+    @Test
+    void sitemapShouldListAllPosts() {
+        mockPosts(3);
+
+        String sitemap = sitemapService.getSitemapXml();
+
+        assertTrue(sitemap.startsWith("<?xml"));
+        assertTrue(sitemap.contains("<urlset"));
+        assertTrue(sitemap.contains("<loc>https://halo.run/archives/post-3</loc>"));
+        assertEquals(4, StringUtils.countMatches(sitemap, "<url>"));
+        assertFalse(sitemapService.getSitemapXml(1).isPresent());
+    }
+
+    @Test
+    void sitemapShouldBeSplitIntoIndex() {
+        mockPosts(SitemapService.MAX_URLS_PER_SITEMAP + 10);
+
+        String sitemap = sitemapService.getSitemapXml();
+
+        assertTrue(sitemap.contains("<sitemapindex"));
+        assertTrue(sitemap.contains("<loc>https://halo.run/sitemap-2.xml</loc>"));
+        assertEquals(SitemapService.MAX_URLS_PER_SITEMAP,
+            StringUtils.countMatches(sitemapService.getSitemapXml(1).orElseThrow(), "<url>"));
+        // The remaining posts after home page and the first posts
+        assertEquals(11,
+            StringUtils.countMatches(sitemapService.getSitemapXml(2).orElseThrow(), "<url>"));
+        assertFalse(sitemapService.getSitemapXml(3).isPresent());
+    }
+
+    @Test
+    void sitemapShouldBeCachedUntilPostChanged() {
+        mockPosts(3);
+
+        sitemapService.getSitemapXml();
+        sitemapService.getSitemapXml();
+        then(postRepository).should(times(1))
+            .findSitemapProjectionsAfter(eq(PostStatus.PUBLISHED), anyInt(), any(Pageable.class));
+
+        sitemapService.onSitemapChanged();
+        sitemapService.getSitemapXml();
+        then(postRepository).should(times(2))
+            .findSitemapProjectionsAfter(eq(PostStatus.PUBLISHED), anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    void postsShouldBeOrderedByCreateTimeDesc() {
+        mockPosts(3);
+
+        assertEquals(List.of(3, 2, 1), sitemapService.listPosts().stream()
+            .map(PostSitemapVO::getId)
+            .collect(Collectors.toList()));
+    }
+
+    private void mockPosts(int count) {
+        given(postRepository.findSitemapProjectionsAfter(eq(PostStatus.PUBLISHED), anyInt(),
+            any(Pageable.class)))
+            .willAnswer(invocation -> {
+                int lastId = invocation.getArgument(1);
+                Pageable pageable = invocation.getArgument(2);
+                List<PostSitemapProjection> projections = new ArrayList<>();
+                for (int id = lastId + 1;
+                     id <= count && projections.size() < pageable.getPageSize(); id++) {
+                    projections.add(new PostSitemapProjection(id, "Post " + id, "post-" + id,
+                        new Date(id * 1000L), null));
+                }
+                return projections;
+            });
+    }
+}
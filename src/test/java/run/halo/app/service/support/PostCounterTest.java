@@ -0,0 +1,132 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import run.halo.app.event.post.PostDeletedEvent;
+import run.halo.app.event.post.PostUpdatedEvent;
+import run.halo.app.model.entity.Category;
+import run.halo.app.model.entity.Post;
+import run.halo.app.model.enums.PostStatus;
+import run.halo.app.model.projection.CategoryIdPostStatusProjection;
+import run.halo.app.model.projection.TagIdPostStatusProjection;
+import run.halo.app.repository.CategoryRepository;
+import run.halo.app.repository.PostCategoryRepository;
+import run.halo.app.repository.PostRepository;
+import run.halo.app.repository.PostTagRepository;
+
+/**
+ * Post counter test.
+ */
+class PostCounterTest {
+
+    @Mock
+    PostRepository postRepository;
+
+    @Mock
+    PostTagRepository postTagRepository;
+
+    @Mock
+    PostCategoryRepository postCategoryRepository;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @InjectMocks
+    PostCounter postCounter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // Category tree: 1 -> 2 -> 3, and 4 alone
+        given(categoryRepository.findAll()).willReturn(List.of(
+            category(1, 0), category(2, 1), category(3, 2), category(4, 0)));
+        given(postTagRepository.findAllWithPostStatus()).willReturn(List.of(
+            new TagIdPostStatusProjection(1, 1, PostStatus.PUBLISHED),
+            new TagIdPostStatusProjection(1, 2, PostStatus.DRAFT),
+            new TagIdPostStatusProjection(2, 2, PostStatus.DRAFT),
+            new TagIdPostStatusProjection(2, 3, PostStatus.RECYCLE)));
+        given(postCategoryRepository.findAllWithPostStatus()).willReturn(List.of(
+            new CategoryIdPostStatusProjection(1, 1, PostStatus.PUBLISHED),
+            new CategoryIdPostStatusProjection(3, 1, PostStatus.PUBLISHED),
+            new CategoryIdPostStatusProjection(2, 2, PostStatus.DRAFT),
+            new CategoryIdPostStatusProjection(4, 3, PostStatus.RECYCLE)));
+    }
+
+    @Test
+    void countsShouldIncludeDescendantsOnce() {
+        assertEquals(2, postCounter.getTagPostCount(1));
+        assertEquals(1, postCounter.getTagPostCount(2));
+        assertEquals(0, postCounter.getTagPostCount(5));
+
+        assertEquals(2, postCounter.getCategoryPostCount(1));
+        assertEquals(2, postCounter.getCategoryPostCount(2));
+        assertEquals(1, postCounter.getCategoryPostCount(3));
+        assertEquals(0, postCounter.getCategoryPostCount(4));
+    }
+
+    @Test
+    void countsShouldBeUpdatedIncrementally() {
+        postCounter.getTagPostCount(1);
+
+        // Restore post 3 and move post 1 to category 4
+        given(postRepository.findById(3)).willReturn(Optional.of(post(3, PostStatus.PUBLISHED)));
+        given(postTagRepository.findAllTagIdsByPostId(3)).willReturn(Set.of(2));
+        given(postCategoryRepository.findAllCategoryIdsByPostId(3)).willReturn(Set.of(4));
+        postCounter.onPostUpdated(new PostUpdatedEvent(this, post(3, PostStatus.PUBLISHED)));
+        given(postRepository.findById(1)).willReturn(Optional.of(post(1, PostStatus.PUBLISHED)));
+        given(postTagRepository.findAllTagIdsByPostId(1)).willReturn(Set.of(1));
+        given(postCategoryRepository.findAllCategoryIdsByPostId(1)).willReturn(Set.of(4));
+        postCounter.onPostUpdated(new PostUpdatedEvent(this, post(1, PostStatus.PUBLISHED)));
+
+        assertEquals(2, postCounter.getTagPostCount(2));
+        assertEquals(1, postCounter.getCategoryPostCount(1));
+        assertEquals(0, postCounter.getCategoryPostCount(3));
+        assertEquals(2, postCounter.getCategoryPostCount(4));
+
+        postCounter.onPostDeleted(new PostDeletedEvent(this, post(2, PostStatus.DRAFT)));
+        postCounter.removeTag(1);
+
+        assertEquals(0, postCounter.getTagPostCount(1));
+        assertEquals(1, postCounter.getTagPostCount(2));
+        assertEquals(0, postCounter.getCategoryPostCount(1));
+        then(categoryRepository).should(times(1)).findAll();
+    }
+
+    @Test
+    void reconcileShouldRebuildCounts() {
+        postCounter.getTagPostCount(1);
+        postCounter.removeTag(1);
+        assertEquals(0, postCounter.getTagPostCount(1));
+
+        postCounter.reconcile();
+
+        assertEquals(2, postCounter.getTagPostCount(1));
+        then(categoryRepository).should(times(2)).findAll();
+    }
+
+    private Category category(int id, int parentId) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        return category;
+    }
+
+    private Post post(int id, PostStatus status) {
+        Post post = new Post();
+        post.setId(id);
+        post.setStatus(status);
+        return post;
+    }
+}
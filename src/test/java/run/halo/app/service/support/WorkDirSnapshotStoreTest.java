@@ -0,0 +1,101 @@
+package run.halo.app.service.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Work directory snapshot store test.
+ */
+class WorkDirSnapshotStoreTest {
+
+    @TempDir
+    Path workDir;
+
+    @TempDir
+    Path backupDir;
+
+    WorkDirSnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshotStore = new WorkDirSnapshotStore(backupDir, "halo-backup-snapshot-", 2);
+    }
+
+    @Test
+    void unchangedFilesShouldNotBeStoredAgain() throws IOException {
+        byte[] largeContent = new byte[WorkDirSnapshotStore.CHUNK_SIZE + 10];
+        new Random(1).nextBytes(largeContent);
+        write("upload/large.bin", largeContent);
+        write("upload/small.txt", "small".getBytes());
+        write("templates/index.ftl", new byte[0]);
+        write("logs/spring.log", "not backed up".getBytes());
+
+        Path first = snapshotStore.snapshot(workDir, List.of("upload", "templates"));
+        assertTrue(snapshotStore.isManifest(first));
+        assertEquals(3, countChunks());
+
+        write("upload/small.txt", "changed".getBytes());
+        Path second = snapshotStore.snapshot(workDir, List.of("upload", "templates"));
+        assertEquals(4, countChunks());
+
+        Path restoreDir = backupDir.resolve("restored");
+        snapshotStore.restore(first, restoreDir);
+        assertArrayEquals(largeContent, Files.readAllBytes(restoreDir.resolve("upload/large.bin")));
+        assertEquals("small", Files.readString(restoreDir.resolve("upload/small.txt")));
+        assertEquals(0, Files.size(restoreDir.resolve("templates/index.ftl")));
+        assertFalse(Files.exists(restoreDir.resolve("logs")));
+
+        // The old version of small.txt is only referenced by the first snapshot
+        Files.delete(first);
+        assertEquals(1, snapshotStore.deleteUnreferencedChunks());
+        snapshotStore.restore(second, restoreDir);
+        assertEquals("changed", Files.readString(restoreDir.resolve("upload/small.txt")));
+    }
+
+    @Test
+    void unchangedFilesWithMissingChunksShouldBeStoredAgain() throws IOException {
+        write("upload/small.txt", "small".getBytes());
+        snapshotStore.snapshot(workDir, List.of("upload"));
+
+        // Chunks deleted behind the store, e.g. by a cleaner of the temp directory
+        FileSystemUtils.deleteRecursively(backupDir.resolve(".snapshot-chunks"));
+        Path second = snapshotStore.snapshot(workDir, List.of("upload"));
+        assertEquals(1, countChunks());
+
+        Path restoreDir = backupDir.resolve("restored");
+        snapshotStore.restore(second, restoreDir);
+        assertEquals("small", Files.readString(restoreDir.resolve("upload/small.txt")));
+    }
+
+    void write(String relativePath, byte[] content) throws IOException {
+        Path path = workDir.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        boolean existed = Files.exists(path);
+        Files.write(path, content);
+        if (existed) {
+            // Make sure the modified time changes on file systems with coarse timestamps
+            Files.setLastModifiedTime(path,
+                FileTime.fromMillis(System.currentTimeMillis() + 2000));
+        }
+    }
+
+    long countChunks() throws IOException {
+        try (Stream<Path> pathStream = Files.walk(backupDir.resolve(".snapshot-chunks"))) {
+            return pathStream.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package run.halo.app.task;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.time.Duration;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import run.halo.app.config.properties.HaloProperties;
+import run.halo.app.service.LogService;
+
+/**
+ * Log retention task test.
+ */
+class LogRetentionTaskTest {
+
+    @Mock
+    LogService logService;
+
+    @Mock
+    HaloProperties haloProperties;
+
+    LogRetentionTask logRetentionTask;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        logRetentionTask = new LogRetentionTask(logService, haloProperties);
+    }
+
+    @Test
+    void logsShouldBePrunedInChunksUntilNoneIsLeft() {
+        given(haloProperties.getLogRetention()).willReturn(Duration.ofDays(30));
+        given(logService.deleteCreatedBefore(any(), eq(1000))).willReturn(1000, 1000, 10);
+
+        long before = System.currentTimeMillis() - Duration.ofDays(30).toMillis();
+        logRetentionTask.run();
+        long after = System.currentTimeMillis() - Duration.ofDays(30).toMillis();
+
+        ArgumentCaptor<Date> createTimeCaptor = ArgumentCaptor.forClass(Date.class);
+        then(logService).should(times(3))
+            .deleteCreatedBefore(createTimeCaptor.capture(), eq(1000));
+        // Every chunk is deleted by the same create time
+        Date createTime = createTimeCaptor.getValue();
+        assertTrue(createTimeCaptor.getAllValues().stream().allMatch(createTime::equals));
+        assertTrue(createTime.getTime() >= before && createTime.getTime() <= after);
+    }
+
+    @Test
+    void logsShouldBeKeptIfRetentionIsNotPositive() {
+        given(haloProperties.getLogRetention()).willReturn(Duration.ZERO);
+
+        logRetentionTask.run();
+
+        then(logService).should(never()).deleteCreatedBefore(any(), eq(1000));
+    }
+}
@@ -0,0 +1,94 @@
+package run.halo.app.theme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.halo.app.handler.theme.config.support.ThemeProperty;
+
+/**
+ * Theme registry test.
+ */
+class ThemeRegistryTest {
+
+    @TempDir
+    Path themeRootPath;
+
+    ThemeRegistry themeRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        createTheme("anatole");
+        themeRegistry = new ThemeRegistry(themeRootPath);
+    }
+
+    @AfterEach
+    void tearDown() {
+        themeRegistry.close();
+    }
+
+    @Test
+    void themesShouldBeScanned() {
+        assertEquals(1, themeRegistry.listAll().size());
+        ThemeProperty themeProperty = themeRegistry.fetchById("anatole").orElseThrow();
+        assertEquals("anatole", themeProperty.getFolderName());
+
+        assertTrue(themeRegistry.templateExists("anatole", "index.ftl"));
+        assertTrue(themeRegistry.templateExists("anatole", "./mail_template/mail_notice.ftl"));
+        assertFalse(themeRegistry.templateExists("anatole", "links.ftl"));
+        assertFalse(themeRegistry.templateExists("anatole", "../anatole/index.ftl"));
+        assertFalse(themeRegistry.templateExists("another", "index.ftl"));
+    }
+
+    @Test
+    void refreshShouldRescanTheFolder() throws IOException {
+        Files.writeString(themeRootPath.resolve("anatole/links.ftl"), "links");
+        createTheme("joe");
+
+        assertEquals("joe", themeRegistry.refresh(themeRootPath.resolve("joe/index.ftl"))
+            .map(ThemeProperty::getId)
+            .orElseThrow());
+        assertEquals(2, themeRegistry.listAll().size());
+
+        themeRegistry.refresh(themeRootPath.resolve("anatole"));
+        assertTrue(themeRegistry.templateExists("anatole", "links.ftl"));
+    }
+
+    @Test
+    void changesShouldBeWatched() throws IOException, InterruptedException {
+        Files.writeString(themeRootPath.resolve("anatole/photos.ftl"), "photos");
+        createTheme("joe");
+
+        assertTrue(await(() -> themeRegistry.templateExists("anatole", "photos.ftl")));
+        assertTrue(await(() -> themeRegistry.fetchById("joe").isPresent()));
+
+        Files.delete(themeRootPath.resolve("anatole/photos.ftl"));
+        assertTrue(await(() -> !themeRegistry.templateExists("anatole", "photos.ftl")));
+    }
+
+    private void createTheme(String themeId) throws IOException {
+        Path themePath = Files.createDirectories(themeRootPath.resolve(themeId));
+        Files.writeString(themePath.resolve("theme.yaml"), "id: " + themeId + "\nname: "
+            + themeId + "\nversion: 1.0.0\nrequire: 1.0.0\n");
+        Files.writeString(themePath.resolve("index.ftl"), "index");
+        Files.createDirectories(themePath.resolve("mail_template"));
+        Files.writeString(themePath.resolve("mail_template/mail_notice.ftl"), "notice");
+    }
+
+    private boolean await(BooleanSupplier condition) throws InterruptedException {
+        // Polling watch services may take several seconds to report changes
+        for (int i = 0; i < 150 && !condition.getAsBoolean(); i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        return condition.getAsBoolean();
+    }
+}